@@ -0,0 +1,162 @@
+package mx.edu.uteq.idgs12.microservio_division.controller;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import mx.edu.uteq.idgs12.microservio_division.MicroservioDivisionApplication;
+import mx.edu.uteq.idgs12.microservio_division.entity.Division;
+import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+
+/**
+ * Rendimiento HTTP con hilos de plataforma contra hilos virtuales.
+ *
+ * La aplicación se levanta con Tomcat en un puerto libre, pool de 16 hilos, 4 conexiones
+ * de Hikari y 4 permisos en LimitadorConcurrenciaBd. Cada conexión se entrega 5 ms después
+ * de tomarla del pool (simula la latencia de red de MySQL, que H2 en memoria no tiene).
+ *
+ * En el grupo "mezcla", 32 clientes piden páginas (siempre van a la base) y 8 piden una
+ * división en cache. Con hilos de plataforma los 16 hilos de Tomcat se quedan esperando
+ * la base y las lecturas de cache hacen fila detrás; con hilos virtuales la espera es en
+ * el limitador y las lecturas de cache siguen. Comparar ops/s de lecturaCache entre ambos
+ * valores de "hilos".
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class HilosBenchmark {
+
+    private static final long LATENCIA_BD_MS = 5;
+
+    @Param({ "plataforma", "virtuales" })
+    private String hilos;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private URI pagina;
+    private URI division;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(MicroservioDivisionApplication.class)
+                .initializers(aplicacion -> aplicacion.getBeanFactory().addBeanPostProcessor(latenciaBd()))
+                // Como argumentos: deben ganarle a application.properties y application-dev.properties
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + "virtuales".equals(hilos),
+                        "--server.tomcat.threads.max=16",
+                        "--spring.datasource.hikari.maximum-pool-size=4",
+                        "--bd.limitador.permisos=4",
+                        "--bd.limitador.espera-maxima=30s",
+                        "--metricas.jdbc.encabezados=false",
+                        "--spring.jpa.properties.hibernate.hbm2ddl.import_files=",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--eureka.client.enabled=false",
+                        "--cache.invalidacion.transporte=loopback");
+        sembrar(contexto.getBean(DivisionRepository.class));
+
+        String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+        pagina = URI.create(base + "/divisiones/paginated?page=0&size=20");
+        division = URI.create(base + "/divisiones/1");
+        cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    // Retiene cada conexión LATENCIA_BD_MS antes de entregarla
+    private static BeanPostProcessor latenciaBd() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        Connection conexion = super.getConnection();
+                        try {
+                            Thread.sleep(LATENCIA_BD_MS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return conexion;
+                    }
+                };
+            }
+        };
+    }
+
+    private static void sembrar(DivisionRepository divisionRepository) {
+        List<Division> divisiones = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Division nueva = new Division();
+            nueva.setNombre("División " + i);
+            nueva.setActivo(true);
+            nueva.setProgramaEducativas(new ArrayList<>());
+            divisiones.add(nueva);
+        }
+        divisionRepository.saveAll(divisiones);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    private int get(URI uri) throws IOException, InterruptedException {
+        HttpRequest peticion = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        return cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    @Group("mezcla")
+    @GroupThreads(32)
+    public int consultaBd() throws IOException, InterruptedException {
+        return get(pagina);
+    }
+
+    @Benchmark
+    @Group("mezcla")
+    @GroupThreads(8)
+    public int lecturaCache() throws IOException, InterruptedException {
+        return get(division);
+    }
+}
@@ -0,0 +1,69 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Serialización JSON de una página de divisiones, como la escribe GET /divisiones/paginated
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializacionBenchmark {
+
+    @Param({ "10", "100" })
+    private int tamanoPagina;
+
+    @Param({ "0", "5", "20" })
+    private int programas;
+
+    // Misma configuración base que el ObjectMapper de Spring Boot
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Page<DivisionToViewListDto> pagina;
+
+    @Setup
+    public void preparar() {
+        List<DivisionToViewListDto> divisiones = new ArrayList<>();
+        for (int i = 0; i < tamanoPagina; i++) {
+            DivisionToViewListDto dto = new DivisionToViewListDto();
+            dto.setDivisionId(i);
+            dto.setNombre("División " + i);
+            dto.setActivo(true);
+            List<String> nombres = new ArrayList<>();
+            for (int j = 0; j < programas; j++) {
+                nombres.add("Programa educativo " + i + "-" + j);
+            }
+            dto.setProgramaEducativa(nombres);
+            dto.setNumeroProgramas(programas);
+            divisiones.add(dto);
+        }
+        pagina = new PageImpl<>(divisiones, PageRequest.of(0, tamanoPagina), 10_000);
+    }
+
+    @Benchmark
+    public byte[] paginaDivisiones() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+}
@@ -0,0 +1,139 @@
+package mx.edu.uteq.idgs12.microservio_division.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import mx.edu.uteq.idgs12.microservio_division.MicroservioDivisionApplication;
+import mx.edu.uteq.idgs12.microservio_division.entity.CoordinadorEntity;
+import mx.edu.uteq.idgs12.microservio_division.entity.Division;
+import mx.edu.uteq.idgs12.microservio_division.entity.ProgramaEducativa;
+
+/**
+ * Consultas de lista y de página de los repositorios contra H2 en memoria.
+ * El contexto de Spring se levanta una vez por combinación de parámetros, sin
+ * servidor web ni Eureka, y se llena con datos sintéticos antes de medir.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RepositorioBenchmark {
+
+    private static final int PROGRAMAS_POR_DIVISION = 5;
+    private static final int COORDINADORES_POR_DIVISION = 2;
+
+    @Param({ "100", "1000" })
+    private int divisiones;
+
+    private ConfigurableApplicationContext contexto;
+    private DivisionRepository divisionRepository;
+    private CoordinadorRepository coordinadorRepository;
+    private ProgramaEducativaRepository programaEducativaRepository;
+    private final Pageable pagina = PageRequest.of(0, 20, Sort.by("id"));
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(MicroservioDivisionApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.jpa.properties.hibernate.hbm2ddl.import_files=",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "eureka.client.enabled=false",
+                        "cache.invalidacion.transporte=loopback")
+                .run();
+        divisionRepository = contexto.getBean(DivisionRepository.class);
+        coordinadorRepository = contexto.getBean(CoordinadorRepository.class);
+        programaEducativaRepository = contexto.getBean(ProgramaEducativaRepository.class);
+        sembrar();
+    }
+
+    private void sembrar() {
+        List<Division> nuevas = new ArrayList<>();
+        for (int i = 0; i < divisiones; i++) {
+            Division division = new Division();
+            division.setNombre("División " + i);
+            division.setActivo(i % 10 != 0);
+            List<ProgramaEducativa> programas = new ArrayList<>();
+            for (int j = 0; j < PROGRAMAS_POR_DIVISION; j++) {
+                ProgramaEducativa programa = new ProgramaEducativa();
+                programa.setPrograma("Programa " + i + "-" + j);
+                programa.setActivo(j != 0);
+                programas.add(programa);
+            }
+            division.setProgramaEducativas(programas);
+            nuevas.add(division);
+        }
+        List<Division> guardadas = divisionRepository.saveAll(nuevas);
+
+        List<CoordinadorEntity> coordinadores = new ArrayList<>();
+        for (Division division : guardadas) {
+            for (int j = 0; j < COORDINADORES_POR_DIVISION; j++) {
+                coordinadores.add(CoordinadorEntity.builder()
+                        .nombre("Nombre " + division.getId() + "-" + j)
+                        .apellido("Apellido")
+                        .correo("coordinador" + division.getId() + "-" + j + "@uteq.edu.mx")
+                        .telefono("4421234567")
+                        .divisionId(division.getId())
+                        .activo(true)
+                        .build());
+            }
+        }
+        coordinadorRepository.saveAll(coordinadores);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Object divisionesLista() {
+        return divisionRepository.findResumenes();
+    }
+
+    @Benchmark
+    public Object divisionesPagina() {
+        return divisionRepository.findResumenes(pagina);
+    }
+
+    @Benchmark
+    public Object divisionesProgramasActivos() {
+        return programaEducativaRepository.findActivosByDivisionIdIn(List.of(1L, 2L, 3L, 4L, 5L));
+    }
+
+    @Benchmark
+    public Object coordinadoresLista() {
+        return coordinadorRepository.findAllViews();
+    }
+
+    @Benchmark
+    public Object coordinadoresPagina() {
+        return coordinadorRepository.findAllViews(pagina);
+    }
+}
@@ -0,0 +1,85 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import mx.edu.uteq.idgs12.microservio_division.entity.CoordinadorEntity;
+import mx.edu.uteq.idgs12.microservio_division.entity.Division;
+import mx.edu.uteq.idgs12.microservio_division.entity.ProgramaEducativa;
+
+// Conversión entidad -> DTO de los servicios, sin base de datos
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConversionBenchmark {
+
+    // Programas de la división / coordinadores convertidos por invocación
+    @Param({ "1", "10", "100", "1000" })
+    private int tamano;
+
+    private final DivisionService divisionService = new DivisionService();
+    private final CoordinadorService coordinadorService = new CoordinadorService();
+
+    private Division division;
+    private List<CoordinadorEntity> coordinadores;
+
+    @Setup
+    public void preparar() {
+        division = new Division();
+        division.setId(1L);
+        division.setNombre("División de Tecnologías");
+        division.setActivo(true);
+        List<ProgramaEducativa> programas = new ArrayList<>();
+        for (int i = 0; i < tamano; i++) {
+            ProgramaEducativa programa = new ProgramaEducativa();
+            programa.setId((long) i);
+            programa.setPrograma("Programa " + i);
+            // Uno de cada cuatro inactivo, para que el filtro descarte algunos
+            programa.setActivo(i % 4 != 0);
+            programas.add(programa);
+        }
+        division.setProgramaEducativas(programas);
+
+        coordinadores = new ArrayList<>();
+        for (int i = 0; i < tamano; i++) {
+            coordinadores.add(CoordinadorEntity.builder()
+                    .id((long) i)
+                    .nombre("Nombre " + i)
+                    .apellido("Apellido " + i)
+                    .correo("coordinador" + i + "@uteq.edu.mx")
+                    .telefono("4421234567")
+                    .divisionId(1L)
+                    .activo(true)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public Object divisionConvertToDto() {
+        return divisionService.convertToDto(division);
+    }
+
+    @Benchmark
+    public void coordinadorConvertToDto(Blackhole blackhole) {
+        for (CoordinadorEntity coordinador : coordinadores) {
+            blackhole.consume(coordinadorService.convertToDto(coordinador, "División de Tecnologías"));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorSugerenciaDto;
+
+/**
+ * Latencia de GET /coordinadores/suggest en el índice en memoria, sin base de datos:
+ * 500 000 coordinadores con nombres y apellidos repetidos (semilla fija) repartidos en
+ * 2000 divisiones, 10 sugerencias por consulta. "a" es el peor caso (el rango más largo),
+ * "maria gonz" confirma una segunda palabra y "porDivision" filtra a una división, así
+ * que recorre el rango hasta encontrar diez de esa división.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SugerenciasBenchmark {
+
+    private static final int DIVISIONES = 2000;
+    private static final int LIMITE = 10;
+    private static final String[] NOMBRES = { "María", "José", "Juan", "Ana", "Luis", "Carlos", "Sofía", "Jorge",
+            "Fernanda", "Miguel", "Andrea", "Ricardo", "Valeria", "Alejandro", "Daniela", "Eduardo", "Gabriela",
+            "Francisco", "Lucía", "Roberto", "Mariana", "Héctor", "Paola", "Sergio", "Adriana", "Óscar", "Natalia",
+            "Raúl", "Claudia", "Manuel" };
+    private static final String[] APELLIDOS = { "González", "Hernández", "López", "Martínez", "García", "Pérez",
+            "Rodríguez", "Sánchez", "Ramírez", "Cruz", "Flores", "Gómez", "Morales", "Vázquez", "Reyes", "Jiménez",
+            "Torres", "Díaz", "Gutiérrez", "Ruiz", "Mendoza", "Aguilar", "Ortiz", "Moreno", "Castillo", "Romero",
+            "Álvarez", "Méndez", "Chávez", "Rivera" };
+
+    @Param({ "500000" })
+    private int coordinadores;
+
+    @Param({ "a", "mar", "maria gonz", "coordinador123456@" })
+    private String consulta;
+
+    private final IndiceSugerenciasCoordinadores indice = new IndiceSugerenciasCoordinadores();
+
+    @Setup(Level.Trial)
+    public void cargar() {
+        Random random = new Random(42);
+        List<CoordinadorSugerenciaDto> datos = new ArrayList<>(coordinadores);
+        for (int i = 1; i <= coordinadores; i++) {
+            String nombre = NOMBRES[random.nextInt(NOMBRES.length)];
+            String apellido = APELLIDOS[random.nextInt(APELLIDOS.length)] + " "
+                    + APELLIDOS[random.nextInt(APELLIDOS.length)];
+            datos.add(new CoordinadorSugerenciaDto((long) i, nombre, apellido, "coordinador" + i + "@uteq.edu.mx",
+                    (long) (1 + random.nextInt(DIVISIONES)), random.nextInt(10) != 0));
+        }
+        indice.cargar(datos);
+    }
+
+    @Benchmark
+    public Object sinFiltros() {
+        return indice.buscar(consulta, null, null, LIMITE);
+    }
+
+    @Benchmark
+    public Object activos() {
+        return indice.buscar(consulta, null, true, LIMITE);
+    }
+
+    @Benchmark
+    public Object porDivision() {
+        return indice.buscar(consulta, 7L, null, LIMITE);
+    }
+}
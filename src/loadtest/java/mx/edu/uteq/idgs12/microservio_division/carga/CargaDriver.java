@@ -0,0 +1,224 @@
+package mx.edu.uteq.idgs12.microservio_division.carga;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Generador de carga contra el servicio en ejecución.
+ *
+ * Envía la mezcla de MezclaPeticiones a una tasa fija (modelo abierto): la petición i se
+ * programa en inicio + i / rps y se lanza en su propio hilo virtual sin esperar a las
+ * anteriores. La latencia se mide desde el instante programado, no desde el envío, así
+ * un servidor lento no reduce la carga ni esconde la espera (coordinated omission).
+ *
+ * Configuración (propiedades del sistema):
+ *   carga.url           http://localhost:8081
+ *   carga.rps           100
+ *   carga.duracion      60s   (medición)
+ *   carga.calentamiento 10s   (misma carga, no se registra)
+ *   carga.timeout       5s
+ *   carga.semilla       42
+ *   carga.salida        target/carga   (un .hgrm por operación y total.hgrm)
+ *
+ * Ejecutar: mvn -Ploadtest test-compile exec:java -Dcarga.rps=200
+ */
+public class CargaDriver {
+
+    // Latencias en microsegundos, hasta 10 minutos con 3 dígitos significativos
+    private static final long LATENCIA_MAXIMA = TimeUnit.MINUTES.toMicros(10);
+
+    private final String url;
+    private final int rps;
+    private final Duration duracion;
+    private final Duration calentamiento;
+    private final Duration timeout;
+    private final long semilla;
+    private final Path salida;
+
+    private final HttpClient cliente;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Resultado> resultados = new LinkedHashMap<>();
+    private final Resultado total = new Resultado();
+
+    public CargaDriver(String url, int rps, Duration duracion, Duration calentamiento, Duration timeout,
+            long semilla, Path salida) {
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.rps = rps;
+        this.duracion = duracion;
+        this.calentamiento = calentamiento;
+        this.timeout = timeout;
+        this.semilla = semilla;
+        this.salida = salida;
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        CargaDriver driver = new CargaDriver(
+                System.getProperty("carga.url", "http://localhost:8081"),
+                Integer.getInteger("carga.rps", 100),
+                duracion(System.getProperty("carga.duracion", "60s")),
+                duracion(System.getProperty("carga.calentamiento", "10s")),
+                duracion(System.getProperty("carga.timeout", "5s")),
+                Long.getLong("carga.semilla", 42L),
+                Path.of(System.getProperty("carga.salida", "target/carga")));
+        driver.ejecutar();
+    }
+
+    public void ejecutar() throws Exception {
+        MezclaPeticiones mezcla = new MezclaPeticiones(consultarDatos());
+        for (MezclaPeticiones.Operacion operacion : mezcla.getOperaciones()) {
+            resultados.put(operacion.nombre(), new Resultado());
+        }
+
+        System.out.printf(Locale.ROOT, "Carga: %d rps contra %s, calentamiento %ds, medición %ds%n",
+                rps, url, calentamiento.toSeconds(), duracion.toSeconds());
+
+        Random aleatorio = new Random(semilla);
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / rps;
+        long inicio = System.nanoTime();
+        long inicioMedicion = inicio + calentamiento.toNanos();
+        long fin = inicioMedicion + duracion.toNanos();
+
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0;; i++) {
+                long programado = inicio + i * intervalo;
+                if (programado >= fin) {
+                    break;
+                }
+                esperarHasta(programado);
+                MezclaPeticiones.Operacion operacion = mezcla.siguiente(aleatorio);
+                String ruta = operacion.ruta().apply(aleatorio);
+                boolean medir = programado >= inicioMedicion;
+                hilos.execute(() -> enviar(operacion.nombre(), ruta, programado, medir));
+            }
+        }
+
+        reportar();
+    }
+
+    private void enviar(String operacion, String ruta, long programado, boolean medir) {
+        int status;
+        try {
+            HttpRequest peticion = HttpRequest.newBuilder(URI.create(url + ruta))
+                    .timeout(timeout)
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+            status = cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (medir) {
+            long latencia = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - programado);
+            resultados.get(operacion).registrar(latencia, status);
+            total.registrar(latencia, status);
+        }
+    }
+
+    // Número de registros y último ID de divisiones y coordinadores, para elegir IDs y páginas existentes
+    private MezclaPeticiones.Datos consultarDatos() throws IOException, InterruptedException {
+        long divisiones = consultar("/divisiones/paginated?page=0&size=1").path("totalElements").asLong();
+        long coordinadores = consultar("/coordinadores/paginated?page=0&size=1").path("totalElements").asLong();
+        long maxDivisionId = divisiones == 0 ? 0 : consultar("/divisiones/paginated?size=1&sortBy=id&page="
+                + (divisiones - 1)).path("content").path(0).path("divisionId").asLong();
+        long maxCoordinadorId = coordinadores == 0 ? 0 : consultar("/coordinadores/paginated?size=1&sortBy=id&page="
+                + (coordinadores - 1)).path("content").path(0).path("id").asLong();
+        System.out.printf(Locale.ROOT, "Datos: %d divisiones (id máx. %d), %d coordinadores (id máx. %d)%n",
+                divisiones, maxDivisionId, coordinadores, maxCoordinadorId);
+        return new MezclaPeticiones.Datos(divisiones, maxDivisionId, coordinadores, maxCoordinadorId);
+    }
+
+    private JsonNode consultar(String ruta) throws IOException, InterruptedException {
+        HttpResponse<String> respuesta = cliente.send(HttpRequest.newBuilder(URI.create(url + ruta))
+                .timeout(timeout).GET().build(), HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() != 200) {
+            throw new IllegalStateException("GET " + ruta + " respondió " + respuesta.statusCode());
+        }
+        return objectMapper.readTree(respuesta.body());
+    }
+
+    private void reportar() throws IOException {
+        Files.createDirectories(salida);
+        System.out.printf(Locale.ROOT, "%n%-26s %9s %9s %9s %9s %9s %9s %7s %7s%n",
+                "operación", "peticiones", "rps", "p50 ms", "p99 ms", "p999 ms", "máx ms", "4xx", "errores");
+        for (Map.Entry<String, Resultado> entrada : resultados.entrySet()) {
+            imprimir(entrada.getKey(), entrada.getValue());
+            guardar(entrada.getKey(), entrada.getValue());
+        }
+        imprimir("total", total);
+        guardar("total", total);
+        System.out.println("\nDistribuciones HdrHistogram (.hgrm) en " + salida.toAbsolutePath());
+    }
+
+    private void imprimir(String nombre, Resultado resultado) {
+        Histogram h = resultado.latencias;
+        System.out.printf(Locale.ROOT, "%-26s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7d %7d%n",
+                nombre, h.getTotalCount(), h.getTotalCount() / (double) duracion.toSeconds(),
+                h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(99) / 1000.0,
+                h.getValueAtPercentile(99.9) / 1000.0, h.getMaxValue() / 1000.0,
+                resultado.respuestas4xx.get(), resultado.errores.get());
+    }
+
+    private void guardar(String nombre, Resultado resultado) throws IOException {
+        try (PrintStream archivo = new PrintStream(Files.newOutputStream(salida.resolve(nombre + ".hgrm")))) {
+            // Valores en milisegundos
+            resultado.latencias.outputPercentileDistribution(archivo, 1000.0);
+        }
+    }
+
+    private static void esperarHasta(long instante) {
+        long restante;
+        while ((restante = instante - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(restante);
+        }
+    }
+
+    private static Duration duracion(String valor) {
+        return Duration.parse("PT" + valor.toUpperCase(Locale.ROOT));
+    }
+
+    // Latencias y contadores de una operación
+    private static class Resultado {
+        private final ConcurrentHistogram latencias = new ConcurrentHistogram(LATENCIA_MAXIMA, 3);
+        private final AtomicLong respuestas4xx = new AtomicLong();
+        // Respuestas 5xx, timeouts y errores de conexión
+        private final AtomicLong errores = new AtomicLong();
+
+        private void registrar(long latencia, int status) {
+            latencias.recordValue(Math.min(latencia, LATENCIA_MAXIMA));
+            if (status >= 400 && status < 500) {
+                respuestas4xx.incrementAndGet();
+            } else if (status < 0 || status >= 500) {
+                errores.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package mx.edu.uteq.idgs12.microservio_division.carga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Mezcla de peticiones GET que reproduce el tráfico típico del servicio: sobre todo
+ * consultas por ID y páginas, algunas listas completas. Cada operación tiene un peso
+ * relativo y arma su ruta con IDs y páginas al azar dentro de los datos existentes.
+ */
+class MezclaPeticiones {
+
+    static final int TAMANO_PAGINA = 20;
+
+    // Operación de la mezcla: nombre (para el reporte), peso y generador de la ruta
+    record Operacion(String nombre, int peso, Function<Random, String> ruta) {
+    }
+
+    private final List<Operacion> operaciones = new ArrayList<>();
+    private int pesoTotal;
+
+    MezclaPeticiones(Datos datos) {
+        agregar("divisiones-lista", 5, r -> "/divisiones");
+        agregar("divisiones-activas", 5, r -> "/divisiones/activas");
+        agregar("division-id", 20, r -> "/divisiones/" + id(r, datos.maxDivisionId()));
+        agregar("divisiones-paginadas", 10, r -> "/divisiones/paginated?page="
+                + r.nextInt(paginas(datos.divisiones())) + "&size=" + TAMANO_PAGINA);
+        agregar("coordinador-id", 25, r -> "/coordinadores/" + id(r, datos.maxCoordinadorId()));
+        agregar("coordinadores-division", 15, r -> "/coordinadores/division/" + id(r, datos.maxDivisionId()));
+        agregar("coordinadores-paginados", 10, r -> "/coordinadores/paginated?page="
+                + r.nextInt(paginas(datos.coordinadores())) + "&size=" + TAMANO_PAGINA);
+        agregar("coordinadores-scroll", 10, r -> "/coordinadores/scroll?size=" + TAMANO_PAGINA);
+    }
+
+    private void agregar(String nombre, int peso, Function<Random, String> ruta) {
+        operaciones.add(new Operacion(nombre, peso, ruta));
+        pesoTotal += peso;
+    }
+
+    List<Operacion> getOperaciones() {
+        return operaciones;
+    }
+
+    // Elegir una operación según su peso
+    Operacion siguiente(Random aleatorio) {
+        int valor = aleatorio.nextInt(pesoTotal);
+        for (Operacion operacion : operaciones) {
+            valor -= operacion.peso();
+            if (valor < 0) {
+                return operacion;
+            }
+        }
+        return operaciones.get(operaciones.size() - 1);
+    }
+
+    private static long id(Random aleatorio, long maximo) {
+        return 1 + (long) (aleatorio.nextDouble() * Math.max(1, maximo));
+    }
+
+    private static int paginas(long registros) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, (registros + TAMANO_PAGINA - 1) / TAMANO_PAGINA));
+    }
+
+    // Volumen de datos del servicio bajo prueba, consultado antes de empezar
+    record Datos(long divisiones, long maxDivisionId, long coordinadores, long maxCoordinadorId) {
+    }
+}
@@ -0,0 +1,50 @@
+package mx.edu.uteq.idgs12.microservio_division.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+/**
+ * CacheManager que envuelve cada cache de Caffeine en un CacheVersionado
+ * registrado en el bus de invalidaciones.
+ */
+public class CacheManagerVersionado implements CacheManager {
+
+    private final CaffeineCacheManager delegado;
+    private final InvalidacionDistribuida invalidacion;
+    private final Duration ventanaLapidas;
+    private final Map<String, CacheVersionado> caches = new ConcurrentHashMap<>();
+
+    public CacheManagerVersionado(CaffeineCacheManager delegado, InvalidacionDistribuida invalidacion,
+            Duration ventanaLapidas) {
+        this.delegado = delegado;
+        this.invalidacion = invalidacion;
+        this.ventanaLapidas = ventanaLapidas;
+        // Registrar desde el inicio para recibir invalidaciones aunque aún no se use el cache
+        delegado.getCacheNames().forEach(this::getCache);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, nombre -> {
+            Cache cache = delegado.getCache(nombre);
+            if (!(cache instanceof CaffeineCache caffeineCache)) {
+                return null;
+            }
+            CacheVersionado versionado = new CacheVersionado(caffeineCache, invalidacion, ventanaLapidas);
+            invalidacion.registrar(versionado);
+            return versionado;
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegado.getCacheNames();
+    }
+}
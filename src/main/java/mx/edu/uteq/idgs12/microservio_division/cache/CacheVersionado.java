@@ -0,0 +1,168 @@
+package mx.edu.uteq.idgs12.microservio_division.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Decorador de un CaffeineCache que versiona sus entradas con el reloj lógico del nodo.
+ *
+ * Cada invalidación (local o recibida de otra réplica) deja una lápida con la versión
+ * del reloj en ese momento. Una carga anota la versión con la que empezó (en el miss);
+ * al guardar, si existe una lápida más reciente que esa versión el valor se descarta,
+ * porque pudo leerse de la base antes del commit que provocó la invalidación.
+ * Así una lectura lenta o un mensaje tardío no reviven datos viejos en el cache.
+ *
+ * evict/clear invalidan localmente y difunden a los peers; evictLocal/clearLocal
+ * solo aplican lo recibido (no se reenvía).
+ */
+public class CacheVersionado implements Cache {
+
+    // Cargas pendientes por hilo (llave -> versión al momento del miss)
+    private static final int MAX_CARGAS_POR_HILO = 256;
+
+    private final CaffeineCache delegado;
+    private final InvalidacionDistribuida invalidacion;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Long> lapidas;
+    private volatile long limpiadoEn;
+    private final ThreadLocal<Map<Object, Long>> cargas = ThreadLocal.withInitial(() ->
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Long> eldest) {
+                    return size() > MAX_CARGAS_POR_HILO;
+                }
+            });
+
+    public CacheVersionado(CaffeineCache delegado, InvalidacionDistribuida invalidacion, Duration ventanaLapidas) {
+        this.delegado = delegado;
+        this.invalidacion = invalidacion;
+        this.lapidas = Caffeine.newBuilder()
+                .expireAfterWrite(ventanaLapidas)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return delegado.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegado.getNativeCache();
+    }
+
+    // Cache de Caffeine subyacente (para métricas)
+    public com.github.benmanes.caffeine.cache.Cache<Object, Object> getCaffeine() {
+        return delegado.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper valor = delegado.get(key);
+        if (valor == null) {
+            cargas.get().put(key, invalidacion.versionActual());
+        }
+        return valor;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T valor = delegado.get(key, type);
+        if (valor == null) {
+            cargas.get().put(key, invalidacion.versionActual());
+        }
+        return valor;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper valor = delegado.get(key);
+        if (valor != null) {
+            @SuppressWarnings("unchecked")
+            T existente = (T) valor.get();
+            return existente;
+        }
+
+        long inicio = invalidacion.versionActual();
+        T cargado;
+        try {
+            cargado = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (cargado != null && esVigente(key, inicio)) {
+            delegado.put(key, cargado);
+        }
+        return cargado;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Long inicio = cargas.get().remove(key);
+        // Sin miss previo en este hilo no se sabe cuándo empezó la carga: se toma la versión actual
+        long version = inicio != null ? inicio : invalidacion.versionActual();
+        if (esVigente(key, version)) {
+            delegado.put(key, value);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        Long inicio = cargas.get().remove(key);
+        long version = inicio != null ? inicio : invalidacion.versionActual();
+        if (!esVigente(key, version)) {
+            return delegado.get(key);
+        }
+        return delegado.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictLocal(key);
+        invalidacion.publicar(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean presente = delegado.get(key) != null;
+        evict(key);
+        return presente;
+    }
+
+    @Override
+    public void clear() {
+        clearLocal();
+        invalidacion.publicar(getName(), null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean habiaEntradas = delegado.getNativeCache().estimatedSize() > 0;
+        clear();
+        return habiaEntradas;
+    }
+
+    // Aplicar una invalidación sin difundirla
+    public void evictLocal(Object key) {
+        lapidas.put(key, invalidacion.avanzarReloj());
+        delegado.evict(key);
+    }
+
+    public void clearLocal() {
+        limpiadoEn = invalidacion.avanzarReloj();
+        delegado.clear();
+    }
+
+    // Un valor cargado desde la versión indicada es vigente si no hubo invalidaciones posteriores
+    private boolean esVigente(Object key, long versionCarga) {
+        Long lapida = lapidas.getIfPresent(key);
+        long ultimaInvalidacion = Math.max(lapida != null ? lapida : 0L, limpiadoEn);
+        return versionCarga >= ultimaInvalidacion;
+    }
+}
@@ -0,0 +1,99 @@
+package mx.edu.uteq.idgs12.microservio_division.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Transporte HTTP: consulta en el registro de Eureka las instancias del propio
+ * servicio y envía el mensaje a cada una (excepto a sí misma) en
+ * POST /internal/cache/invalidaciones con el secreto compartido en el encabezado
+ * X-Invalidacion-Secreto. El envío es asíncrono; si un peer no responde, su cache
+ * se corrige al expirar el TTL.
+ */
+public class EurekaTransporteInvalidacion implements TransporteInvalidacion {
+
+    public static final String RUTA = "/internal/cache/invalidaciones";
+    public static final String ENCABEZADO_SECRETO = "X-Invalidacion-Secreto";
+
+    private static final Logger log = LoggerFactory.getLogger(EurekaTransporteInvalidacion.class);
+
+    private final DiscoveryClient discoveryClient;
+    private final Registration registro;
+    private final String servicio;
+    private final String secreto;
+    private final RestClient restClient;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public EurekaTransporteInvalidacion(DiscoveryClient discoveryClient, Registration registro,
+            String servicio, String secreto, Duration timeout) {
+        this.discoveryClient = discoveryClient;
+        this.registro = registro;
+        this.servicio = servicio;
+        this.secreto = secreto;
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    @Override
+    public void iniciar(String nodoId, Consumer<InvalidacionMensaje> receptor) {
+        // Los mensajes entrantes llegan por InvalidacionCacheController
+    }
+
+    @Override
+    public void enviar(InvalidacionMensaje mensaje) {
+        List<ServiceInstance> instancias = discoveryClient.getInstances(servicio);
+        for (ServiceInstance instancia : instancias) {
+            if (esEstaInstancia(instancia)) {
+                continue;
+            }
+            executor.execute(() -> enviarA(instancia, mensaje));
+        }
+    }
+
+    private void enviarA(ServiceInstance instancia, InvalidacionMensaje mensaje) {
+        try {
+            restClient.post()
+                    .uri(instancia.getUri() + RUTA)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(ENCABEZADO_SECRETO, secreto)
+                    .body(mensaje)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (Exception e) {
+            log.warn("No se pudo enviar la invalidación {} a {}: {}",
+                    mensaje.getVersion(), instancia.getUri(), e.getMessage());
+        }
+    }
+
+    private boolean esEstaInstancia(ServiceInstance instancia) {
+        if (registro == null) {
+            return false;
+        }
+        if (registro.getInstanceId() != null && registro.getInstanceId().equals(instancia.getInstanceId())) {
+            return true;
+        }
+        return registro.getHost().equals(instancia.getHost()) && registro.getPort() == instancia.getPort();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,161 @@
+package mx.edu.uteq.idgs12.microservio_division.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bus de invalidaciones entre réplicas.
+ *
+ * Las escrituras invalidan su cache local (CacheVersionado.evict/clear, ya después
+ * del commit gracias a TransactionAwareCacheManagerProxy) y este bus difunde la llave
+ * a los demás nodos por el TransporteInvalidacion configurado. Dentro de una transacción
+ * las llaves se acumulan y se envían en un solo mensaje al terminar, en el mismo orden
+ * en que se invalidaron localmente. Al recibir un mensaje se aplican las invalidaciones
+ * sin reenviarlas y se avisa a los listeners.
+ *
+ * Mantiene un reloj lógico de Lamport: cada invalidación lo avanza y cada mensaje
+ * recibido lo adelanta a max(local, remoto) + 1. Las lápidas de CacheVersionado se
+ * comparan contra este reloj.
+ */
+public class InvalidacionDistribuida {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidacionDistribuida.class);
+
+    private final String nodoId;
+    private final TransporteInvalidacion transporte;
+    private final AtomicLong reloj = new AtomicLong();
+    private final Map<String, CacheVersionado> caches = new ConcurrentHashMap<>();
+    private final List<InvalidacionListener> listeners = new CopyOnWriteArrayList<>();
+    // Llaves invalidadas en la transacción en curso, pendientes de enviar
+    private final ThreadLocal<List<InvalidacionMensaje.Entrada>> pendientes = ThreadLocal.withInitial(ArrayList::new);
+
+    public InvalidacionDistribuida(String servicio, TransporteInvalidacion transporte) {
+        this.nodoId = servicio + ":" + UUID.randomUUID();
+        this.transporte = transporte;
+        transporte.iniciar(nodoId, this::recibir);
+    }
+
+    public String getNodoId() {
+        return nodoId;
+    }
+
+    // Registrar un cache para que reciba las invalidaciones de otros nodos
+    public void registrar(CacheVersionado cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    // Registrar un consumidor adicional (índices en memoria, contadores, etc.)
+    public void agregarListener(InvalidacionListener listener) {
+        listeners.add(listener);
+    }
+
+    public long versionActual() {
+        return reloj.get();
+    }
+
+    public long avanzarReloj() {
+        return reloj.incrementAndGet();
+    }
+
+    // Difundir una invalidación ya aplicada localmente; llave null = cache completo
+    public void publicar(String cache, Object llave) {
+        notificar(cache, llave);
+
+        InvalidacionMensaje.Entrada entrada = new InvalidacionMensaje.Entrada(cache, null, null);
+        if (llave instanceof Long) {
+            entrada.setLlave(llave.toString());
+            entrada.setTipoLlave(InvalidacionMensaje.TIPO_LONG);
+        } else if (llave instanceof String texto) {
+            entrada.setLlave(texto);
+            entrada.setTipoLlave(InvalidacionMensaje.TIPO_STRING);
+        }
+        // Otros tipos de llave viajan como invalidación del cache completo
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enviar(List.of(entrada));
+            return;
+        }
+
+        List<InvalidacionMensaje.Entrada> lista = pendientes.get();
+        if (lista.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    enviarPendientes();
+                }
+            });
+        }
+        lista.add(entrada);
+    }
+
+    // Enviar en un solo mensaje las invalidaciones acumuladas en este hilo
+    public void enviarPendientes() {
+        List<InvalidacionMensaje.Entrada> lista = pendientes.get();
+        if (lista.isEmpty()) {
+            return;
+        }
+        List<InvalidacionMensaje.Entrada> entradas = new ArrayList<>(lista);
+        lista.clear();
+        enviar(entradas);
+    }
+
+    private void enviar(List<InvalidacionMensaje.Entrada> entradas) {
+        InvalidacionMensaje mensaje = new InvalidacionMensaje(nodoId, avanzarReloj(), entradas);
+        try {
+            transporte.enviar(mensaje);
+        } catch (Exception e) {
+            log.warn("No se pudo difundir la invalidación de {}: {}", entradas, e.getMessage());
+        }
+    }
+
+    // Aplicar las invalidaciones recibidas de otro nodo, en el orden en que llegan
+    public void recibir(InvalidacionMensaje mensaje) {
+        if (nodoId.equals(mensaje.getOrigen())) {
+            return;
+        }
+        reloj.accumulateAndGet(mensaje.getVersion(), (local, remoto) -> Math.max(local, remoto) + 1);
+
+        for (InvalidacionMensaje.Entrada entrada : mensaje.getEntradas()) {
+            Object llave = llaveDe(entrada);
+            CacheVersionado cache = caches.get(entrada.getCache());
+            if (cache != null) {
+                if (llave == null) {
+                    cache.clearLocal();
+                } else {
+                    cache.evictLocal(llave);
+                }
+            }
+            notificar(entrada.getCache(), llave);
+        }
+    }
+
+    private void notificar(String cache, Object llave) {
+        for (InvalidacionListener listener : listeners) {
+            try {
+                listener.invalidado(cache, llave);
+            } catch (RuntimeException e) {
+                log.warn("Error en listener de invalidación de {}: {}", cache, e.getMessage());
+            }
+        }
+    }
+
+    private Object llaveDe(InvalidacionMensaje.Entrada entrada) {
+        if (entrada.getTipoLlave() == null || entrada.getLlave() == null) {
+            return null;
+        }
+        if (InvalidacionMensaje.TIPO_LONG.equals(entrada.getTipoLlave())) {
+            return Long.valueOf(entrada.getLlave());
+        }
+        return entrada.getLlave();
+    }
+}
@@ -0,0 +1,11 @@
+package mx.edu.uteq.idgs12.microservio_division.cache;
+
+/**
+ * Recibe las invalidaciones locales y remotas además de los caches de Spring.
+ * llave es null cuando se invalidó el cache completo.
+ */
+@FunctionalInterface
+public interface InvalidacionListener {
+
+    void invalidado(String cache, Object llave);
+}
@@ -0,0 +1,39 @@
+package mx.edu.uteq.idgs12.microservio_division.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Invalidaciones que una réplica envía a las demás después del commit.
+ * Un mensaje lleva todas las llaves de una transacción y se aplican en orden.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvalidacionMensaje {
+    // ID del nodo que originó la escritura
+    private String origen;
+    // Reloj lógico (Lamport) del origen al momento de enviar
+    private long version;
+    private List<Entrada> entradas = new ArrayList<>();
+
+    public static final String TIPO_LONG = "Long";
+    public static final String TIPO_STRING = "String";
+
+    /**
+     * La llave viaja como texto junto con su tipo para reconstruirla igual
+     * (Long o String); si tipoLlave es null se invalida el cache completo.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entrada {
+        private String cache;
+        private String llave;
+        private String tipoLlave;
+    }
+}
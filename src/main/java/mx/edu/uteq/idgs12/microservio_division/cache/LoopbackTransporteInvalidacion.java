@@ -0,0 +1,56 @@
+package mx.edu.uteq.idgs12.microservio_division.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Transporte en memoria: todos los nodos conectados a la misma Red se entregan
+ * los mensajes de forma síncrona. Permite probar varias réplicas en una sola JVM.
+ */
+public class LoopbackTransporteInvalidacion implements TransporteInvalidacion {
+
+    private final Red red;
+    private String nodoId;
+
+    public LoopbackTransporteInvalidacion(Red red) {
+        this.red = red;
+    }
+
+    @Override
+    public void iniciar(String nodoId, Consumer<InvalidacionMensaje> receptor) {
+        this.nodoId = nodoId;
+        red.conectar(nodoId, receptor);
+    }
+
+    @Override
+    public void enviar(InvalidacionMensaje mensaje) {
+        red.difundir(nodoId, mensaje);
+    }
+
+    // Nodos conectados dentro de la misma JVM
+    public static class Red {
+
+        // Red compartida por todos los contextos de Spring de la JVM
+        public static final Red JVM = new Red();
+
+        private final Map<String, Consumer<InvalidacionMensaje>> nodos = new ConcurrentHashMap<>();
+
+        public void conectar(String nodoId, Consumer<InvalidacionMensaje> receptor) {
+            nodos.put(nodoId, receptor);
+        }
+
+        public void desconectar(String nodoId) {
+            nodos.remove(nodoId);
+        }
+
+        // Entregar el mensaje a todos los nodos excepto al que lo envía
+        public void difundir(String origen, InvalidacionMensaje mensaje) {
+            nodos.forEach((id, receptor) -> {
+                if (!id.equals(origen)) {
+                    receptor.accept(mensaje);
+                }
+            });
+        }
+    }
+}
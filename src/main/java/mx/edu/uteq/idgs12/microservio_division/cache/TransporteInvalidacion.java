@@ -0,0 +1,18 @@
+package mx.edu.uteq.idgs12.microservio_division.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Medio por el que las invalidaciones llegan a las demás réplicas.
+ * Implementaciones: EurekaTransporteInvalidacion (HTTP a los peers registrados)
+ * y LoopbackTransporteInvalidacion (en memoria, para pruebas multinodo).
+ * Se elige con la propiedad cache.invalidacion.transporte.
+ */
+public interface TransporteInvalidacion {
+
+    // Registrar quién procesa los mensajes que llegan de otros nodos
+    void iniciar(String nodoId, Consumer<InvalidacionMensaje> receptor);
+
+    // Enviar el mensaje a todos los peers; no debe bloquear ni lanzar excepciones
+    void enviar(InvalidacionMensaje mensaje);
+}
@@ -0,0 +1,13 @@
+package mx.edu.uteq.idgs12.microservio_division.concurrencia;
+
+import java.time.Duration;
+
+/**
+ * No se obtuvo permiso de LimitadorConcurrenciaBd dentro de la espera máxima.
+ */
+public class ConcurrenciaBdExcedidaException extends RuntimeException {
+
+    public ConcurrenciaBdExcedidaException(Duration esperaMaxima) {
+        super("El servicio está saturado: no hubo acceso a la base en " + esperaMaxima.toMillis() + " ms");
+    }
+}
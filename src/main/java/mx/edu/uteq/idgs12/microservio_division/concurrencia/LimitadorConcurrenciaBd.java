@@ -0,0 +1,158 @@
+package mx.edu.uteq.idgs12.microservio_division.concurrencia;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Limita cuántas llamadas de DivisionService y CoordinadorService usan la base al mismo
+ * tiempo. Con hilos virtuales Tomcat ya no acota la concurrencia y, sin este límite, las
+ * peticiones en exceso esperarían una conexión de Hikari hasta su timeout; aquí esperan
+ * en un semáforo justo (FIFO), que estaciona el hilo virtual sin ocupar su carrier.
+ *
+ * Corre por fuera de la transacción (que es la que toma la conexión) y por dentro del
+ * cache, así los aciertos de cache no piden permiso. Es reentrante: una llamada anidada
+ * de un servicio a otro en el mismo hilo reutiliza el permiso. Un hilo hijo no lo hereda:
+ * pide el suyo con ejecutar(), así que quien reparte trabajo en paralelo no debe retener
+ * un permiso mientras espera a sus hijos. Si la espera supera esperaMaxima se lanza
+ * ConcurrenciaBdExcedidaException (503).
+ *
+ * Quedan fuera los métodos que responde un índice en memoria (suggest, findByNombre*): solo
+ * su consulta de respaldo pide permiso, con consultar(). Las exportaciones (exportar) retienen
+ * la conexión mientras el cliente descarga, a su ritmo; usan un semáforo propio para que unas
+ * cuantas descargas lentas no dejen sin permisos al resto de las llamadas.
+ *
+ * Métricas: bd.limitador.espera (timer), bd.limitador.en.espera, bd.limitador.en.uso,
+ * bd.limitador.exportaciones.en.uso (gauges) y bd.limitador.rechazadas (contador).
+ */
+@Aspect
+@Order(LimitadorConcurrenciaBd.ORDEN)
+public class LimitadorConcurrenciaBd {
+
+    // Fuera de @Transactional (LOWEST_PRECEDENCE) y dentro de @Cacheable (ver CacheConfig)
+    public static final int ORDEN = Ordered.LOWEST_PRECEDENCE - 1;
+
+    private static final ThreadLocal<Boolean> CON_PERMISO = new ThreadLocal<>();
+
+    private static final String SERVICIOS = "(within(mx.edu.uteq.idgs12.microservio_division.service.DivisionService)"
+            + " || within(mx.edu.uteq.idgs12.microservio_division.service.CoordinadorService))"
+            + " && execution(public * *(..))";
+
+    private final Semaphore permisos;
+    private final Semaphore exportaciones;
+    private final Duration esperaMaxima;
+    private final AtomicInteger enEspera = new AtomicInteger();
+    private final Timer espera;
+    private final Counter rechazadas;
+
+    public LimitadorConcurrenciaBd(int maximo, int maximoExportaciones, Duration esperaMaxima, MeterRegistry registry) {
+        if (maximo < 1) {
+            throw new IllegalArgumentException("bd.limitador.permisos debe ser mayor que 0");
+        }
+        if (maximoExportaciones < 1) {
+            throw new IllegalArgumentException("bd.limitador.exportaciones debe ser mayor que 0");
+        }
+        this.permisos = new Semaphore(maximo, true);
+        this.exportaciones = new Semaphore(maximoExportaciones, true);
+        this.esperaMaxima = esperaMaxima;
+        this.espera = Timer.builder("bd.limitador.espera")
+                .description("Espera por un permiso de acceso a la base")
+                .register(registry);
+        this.rechazadas = Counter.builder("bd.limitador.rechazadas")
+                .description("Llamadas que no obtuvieron permiso dentro de la espera máxima")
+                .register(registry);
+        Gauge.builder("bd.limitador.en.espera", enEspera, AtomicInteger::get)
+                .description("Llamadas esperando un permiso")
+                .register(registry);
+        Gauge.builder("bd.limitador.en.uso", permisos, s -> maximo - s.availablePermits())
+                .description("Permisos ocupados")
+                .register(registry);
+        Gauge.builder("bd.limitador.exportaciones.en.uso", exportaciones, s -> maximoExportaciones - s.availablePermits())
+                .description("Exportaciones en curso")
+                .register(registry);
+    }
+
+    // Métodos públicos de los servicios salvo etag(), que solo lee el contador en cache, los que
+    // responde un índice en memoria y las exportaciones
+    @Around(SERVICIOS + " && !execution(* etag()) && !execution(* suggest(..)) && !execution(* findByNombre*(..))"
+            + " && !execution(* exportar(..))")
+    public Object limitar(ProceedingJoinPoint punto) throws Throwable {
+        return conPermiso(permisos, punto::proceed);
+    }
+
+    // Exportaciones en flujo: permiso del semáforo de exportaciones durante toda la respuesta
+    @Around(SERVICIOS + " && execution(* exportar(..))")
+    public Object limitarExportacion(ProceedingJoinPoint punto) throws Throwable {
+        return conPermiso(exportaciones, punto::proceed);
+    }
+
+    // Ejecutar con permiso trabajo que no pasa por los servicios (p. ej. consultas en otros hilos)
+    public <T> T ejecutar(Callable<T> tarea) throws Exception {
+        try {
+            return conPermiso(permisos, tarea::call);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Igual que ejecutar(), para consultas de respaldo que no lanzan excepciones verificadas
+    public <T> T consultar(Supplier<T> consulta) {
+        try {
+            return conPermiso(permisos, consulta::get);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T conPermiso(Semaphore semaforo, Accion<T> accion) throws Throwable {
+        if (CON_PERMISO.get() != null) {
+            return accion.ejecutar();
+        }
+        adquirir(semaforo);
+        CON_PERMISO.set(Boolean.TRUE);
+        try {
+            return accion.ejecutar();
+        } finally {
+            CON_PERMISO.remove();
+            semaforo.release();
+        }
+    }
+
+    private interface Accion<T> {
+        T ejecutar() throws Throwable;
+    }
+
+    private void adquirir(Semaphore semaforo) throws InterruptedException {
+        long inicio = System.nanoTime();
+        enEspera.incrementAndGet();
+        boolean obtenido;
+        try {
+            obtenido = semaforo.tryAcquire(esperaMaxima.toNanos(), TimeUnit.NANOSECONDS);
+        } finally {
+            enEspera.decrementAndGet();
+            espera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+        if (!obtenido) {
+            rechazadas.increment();
+            throw new ConcurrenciaBdExcedidaException(esperaMaxima);
+        }
+    }
+}
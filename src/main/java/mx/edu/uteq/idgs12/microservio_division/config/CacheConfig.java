@@ -0,0 +1,104 @@
+package mx.edu.uteq.idgs12.microservio_division.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import mx.edu.uteq.idgs12.microservio_division.cache.CacheManagerVersionado;
+import mx.edu.uteq.idgs12.microservio_division.cache.CacheVersionado;
+import mx.edu.uteq.idgs12.microservio_division.cache.EurekaTransporteInvalidacion;
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionDistribuida;
+import mx.edu.uteq.idgs12.microservio_division.cache.LoopbackTransporteInvalidacion;
+import mx.edu.uteq.idgs12.microservio_division.cache.TransporteInvalidacion;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+
+/**
+ * Cache local (Caffeine) para las lecturas de divisiones y coordinadores.
+ * Las entradas expiran por TTL y por tamaño; las escrituras de los servicios
+ * invalidan las llaves afectadas y la invalidación se difunde a las demás
+ * réplicas registradas en Eureka (ver InvalidacionDistribuida). Las estadísticas
+ * (hit/miss/evictions) se exportan por Actuator como métricas cache.gets,
+ * cache.evictions y cache.size.
+ *
+ * El interceptor de cache va por fuera del limitador de acceso a la base y de la
+ * transacción: un acierto no pide permiso ni abre transacción.
+ */
+@Configuration
+@EnableCaching(order = LimitadorConcurrenciaBd.ORDEN - 1)
+public class CacheConfig {
+
+    // DivisionToViewListDto por ID
+    public static final String DIVISIONES = "divisiones";
+
+    // Listados completos: llaves 'todas' y 'activas'
+    public static final String DIVISIONES_LISTAS = "divisiones-listas";
+
+    // Nombre de la división por ID (usado al armar CoordinadorViewDto)
+    public static final String DIVISION_NOMBRES = "division-nombres";
+
+    // CoordinadorViewDto por ID
+    public static final String COORDINADORES = "coordinadores";
+
+    // Contador de cambios por colección (base de los ETags)
+    public static final String CONTADORES_CAMBIOS = "contadores-cambios";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${cache.divisiones.spec}") String spec,
+            @Value("${cache.invalidacion.ventana-lapidas:5m}") Duration ventanaLapidas,
+            InvalidacionDistribuida invalidacionDistribuida) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+                DIVISIONES, DIVISIONES_LISTAS, DIVISION_NOMBRES, COORDINADORES, CONTADORES_CAMBIOS);
+        cacheManager.setCacheSpecification(spec);
+        cacheManager.setAllowNullValues(false);
+        // Las invalidaciones se aplican (y se difunden) hasta que la transacción hace commit
+        return new TransactionAwareCacheManagerProxy(
+                new CacheManagerVersionado(cacheManager, invalidacionDistribuida, ventanaLapidas));
+    }
+
+    @Bean
+    public InvalidacionDistribuida invalidacionDistribuida(@Value("${spring.application.name}") String servicio,
+            TransporteInvalidacion transporteInvalidacion) {
+        return new InvalidacionDistribuida(servicio, transporteInvalidacion);
+    }
+
+    // Transporte por defecto: HTTP a las instancias del servicio registradas en Eureka
+    @Bean
+    @ConditionalOnProperty(name = "cache.invalidacion.transporte", havingValue = "eureka", matchIfMissing = true)
+    public TransporteInvalidacion eurekaTransporteInvalidacion(DiscoveryClient discoveryClient,
+            ObjectProvider<Registration> registro,
+            @Value("${spring.application.name}") String servicio,
+            @Value("${cache.invalidacion.secreto:}") String secreto,
+            @Value("${cache.invalidacion.timeout:2s}") Duration timeout) {
+        // Sin secreto cada réplica rechazaría las invalidaciones de las demás y serviría datos viejos hasta el TTL
+        if (secreto.isEmpty()) {
+            throw new IllegalStateException("cache.invalidacion.secreto (CACHE_INVALIDACION_SECRETO) es obligatorio con "
+                    + "cache.invalidacion.transporte=eureka");
+        }
+        return new EurekaTransporteInvalidacion(discoveryClient, registro.getIfAvailable(), servicio, secreto, timeout);
+    }
+
+    // Transporte en memoria para levantar varios nodos en una misma JVM (pruebas)
+    @Bean
+    @ConditionalOnProperty(name = "cache.invalidacion.transporte", havingValue = "loopback")
+    public TransporteInvalidacion loopbackTransporteInvalidacion() {
+        return new LoopbackTransporteInvalidacion(LoopbackTransporteInvalidacion.Red.JVM);
+    }
+
+    // Métricas de Caffeine para los caches envueltos en CacheVersionado
+    @Bean
+    public CacheMeterBinderProvider<CacheVersionado> cacheVersionadoMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(cache.getCaffeine(), cache.getName(), tags);
+    }
+}
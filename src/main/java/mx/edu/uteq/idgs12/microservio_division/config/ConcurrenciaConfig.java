@@ -0,0 +1,32 @@
+package mx.edu.uteq.idgs12.microservio_division.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+
+/**
+ * Concurrencia de las peticiones. Con spring.threads.virtual.enabled=true Tomcat atiende
+ * cada petición en un hilo virtual; el acceso a la base queda acotado por
+ * LimitadorConcurrenciaBd. Las exportaciones tienen sus propios permisos y, por defecto, las
+ * demás llamadas se reparten las conexiones de Hikari que quedan.
+ */
+@Configuration
+public class ConcurrenciaConfig {
+
+    @Bean
+    public LimitadorConcurrenciaBd limitadorConcurrenciaBd(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int conexiones,
+            @Value("${bd.limitador.exportaciones:2}") int exportaciones,
+            @Value("${bd.limitador.permisos:0}") int permisos,
+            @Value("${bd.limitador.espera-maxima:10s}") Duration esperaMaxima,
+            MeterRegistry registry) {
+        // Sin valor explícito: las conexiones que no pueden ocupar las exportaciones
+        int generales = permisos > 0 ? permisos : Math.max(1, conexiones - exportaciones);
+        return new LimitadorConcurrenciaBd(generales, exportaciones, esperaMaxima, registry);
+    }
+}
@@ -0,0 +1,56 @@
+package mx.edu.uteq.idgs12.microservio_division.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import mx.edu.uteq.idgs12.microservio_division.metricas.ContadorJdbcDataSource;
+import mx.edu.uteq.idgs12.microservio_division.metricas.MetricasJdbcFilter;
+
+/**
+ * Métricas de latencia y de acceso a datos.
+ *
+ * Los controladores y servicios llevan @Timed (controlador.metodo / servicio.metodo,
+ * con etiquetas class y method); los histogramas y percentiles se configuran en
+ * application.properties junto con los de http.server.requests. Aquí se envuelve el
+ * DataSource para contar sentencias y filas por petición (ver MetricasJdbcFilter), solo
+ * con metricas.jdbc.habilitado o metricas.jdbc.encabezados: el conteo pasa cada llamada
+ * JDBC (también cada ResultSet.next()) por un proxy reflexivo.
+ */
+@Configuration
+public class MetricasConfig {
+
+    private static final String CONTEO_JDBC = "${metricas.jdbc.habilitado:false} or ${metricas.jdbc.encabezados:false}";
+
+    // Estático: los BeanPostProcessor se crean antes que el resto de la configuración
+    @Bean
+    @ConditionalOnExpression(CONTEO_JDBC)
+    public static BeanPostProcessor contadorJdbcPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ContadorJdbcDataSource)) {
+                    return new ContadorJdbcDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnExpression(CONTEO_JDBC)
+    public FilterRegistrationBean<MetricasJdbcFilter> metricasJdbcFilter(MeterRegistry registry,
+            @Value("${metricas.jdbc.encabezados:false}") boolean encabezados) {
+        FilterRegistrationBean<MetricasJdbcFilter> registro =
+                new FilterRegistrationBean<>(new MetricasJdbcFilter(registry, encabezados));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
+    }
+}
@@ -0,0 +1,13 @@
+package mx.edu.uteq.idgs12.microservio_division.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Tareas programadas (@Scheduled): barrido del outbox y depuración de los eventos de cambio
+ * (ver PublicadorCambios). Corren en el scheduler de Spring, no en los hilos de las peticiones.
+ */
+@Configuration
+@EnableScheduling
+public class ProgramacionConfig {
+}
@@ -0,0 +1,122 @@
+package mx.edu.uteq.idgs12.microservio_division.controller;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.annotation.Timed;
+import mx.edu.uteq.idgs12.microservio_division.dto.CambiosDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.EventoCambioDto;
+import mx.edu.uteq.idgs12.microservio_division.service.EventoCambioService;
+
+/**
+ * Feed de cambios de divisiones y coordinadores, en orden de secuencia. Un consumidor lee
+ * los listados completos una vez, toma GET /cambios/ultima y desde ahí solo aplica los
+ * eventos: por long-poll (JSON) o por Server-Sent Events. Mientras espera no ocupa un hilo
+ * de Tomcat: la espera corre en un hilo virtual y pide permiso del limitador solo al leer.
+ */
+@RestController
+@RequestMapping("/cambios")
+@Timed("controlador.metodo")
+public class CambiosController {
+
+    // Sin eventos, un comentario cada tanto mantiene viva la conexión SSE a través de proxies
+    private static final Duration LATIDO = Duration.ofSeconds(15);
+
+    @Autowired
+    private EventoCambioService eventoCambioService;
+
+    @Value("${cambios.sse.duracion:30m}")
+    private Duration duracionSse;
+
+    // Eventos posteriores a desde; si no hay, espera hasta `espera` segundos a que se publiquen
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<CambiosDto> getCambios(
+            @RequestParam(defaultValue = "0") long desde,
+            @RequestParam(defaultValue = "100") int limite,
+            @RequestParam(defaultValue = "25") int espera) {
+        Duration tiempo = EventoCambioService.espera(espera);
+        DeferredResult<CambiosDto> resultado = new DeferredResult<>(tiempo.plusSeconds(5).toMillis());
+
+        // Lo pendiente se responde sin cambiar de hilo (y los errores de parámetros salen como 400)
+        List<EventoCambioDto> eventos = eventoCambioService.leer(desde, limite);
+        if (!eventos.isEmpty() || tiempo.isZero()) {
+            resultado.setResult(respuesta(eventos, desde));
+            return resultado;
+        }
+        Thread.ofVirtual().name("cambios-long-poll").start(() -> {
+            try {
+                resultado.setResult(respuesta(eventoCambioService.esperar(desde, limite, tiempo), desde));
+            } catch (Exception e) {
+                resultado.setErrorResult(e);
+            }
+        });
+        return resultado;
+    }
+
+    // Última secuencia publicada: punto de partida después de leer los listados completos
+    @GetMapping("/ultima")
+    public ResponseEntity<CambiosDto> getUltima() {
+        return ResponseEntity.ok(new CambiosDto(List.of(), eventoCambioService.ultimaSecuencia()));
+    }
+
+    // Los mismos eventos como Server-Sent Events (id = secuencia, así el navegador reanuda con Last-Event-ID)
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCambios(
+            @RequestParam(required = false) Long desde,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long ultimoEvento) {
+        long inicio = ultimoEvento != null ? ultimoEvento : desde != null ? desde : 0L;
+        List<EventoCambioDto> pendientes = eventoCambioService.leer(inicio, EventoCambioService.MAX_LOTE);
+
+        SseEmitter emisor = new SseEmitter(duracionSse.toMillis());
+        AtomicBoolean abierto = new AtomicBoolean(true);
+        emisor.onCompletion(() -> abierto.set(false));
+        emisor.onTimeout(() -> abierto.set(false));
+        emisor.onError(e -> abierto.set(false));
+
+        Thread.ofVirtual().name("cambios-sse").start(() -> {
+            long cursor = inicio;
+            List<EventoCambioDto> eventos = pendientes;
+            try {
+                while (abierto.get()) {
+                    if (eventos.isEmpty()) {
+                        emisor.send(SseEmitter.event().comment("latido"));
+                    }
+                    for (EventoCambioDto evento : eventos) {
+                        emisor.send(SseEmitter.event()
+                                .id(Long.toString(evento.getSecuencia()))
+                                .name("cambio")
+                                .data(evento, MediaType.APPLICATION_JSON));
+                        cursor = evento.getSecuencia();
+                    }
+                    eventos = eventoCambioService.esperar(cursor, EventoCambioService.MAX_LOTE, LATIDO);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // El cliente se desconectó o el emisor ya terminó
+            } catch (InterruptedException e) {
+                emisor.complete();
+            } catch (RuntimeException e) {
+                emisor.completeWithError(e);
+            }
+        });
+        return emisor;
+    }
+
+    private static CambiosDto respuesta(List<EventoCambioDto> eventos, long desde) {
+        long siguiente = eventos.isEmpty() ? desde : eventos.get(eventos.size() - 1).getSecuencia();
+        return new CambiosDto(eventos, siguiente);
+    }
+}
@@ -1,5 +1,6 @@
 package mx.edu.uteq.idgs12.microservio_division.controller;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,84 +18,191 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorBulkResultadoDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorBulkUpdateDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorCreateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorSugerenciaDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorUpdateDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CursorPageDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DeltaDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.OperacionBulkResultadoDto;
 import mx.edu.uteq.idgs12.microservio_division.service.CoordinadorService;
 
 @RestController
 @RequestMapping("/coordinadores")
+@Timed("controlador.metodo")
 public class CoordinadorController {
 
     @Autowired
     private CoordinadorService coordinadorService;
 
-    // Obtener todos los coordinadores
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Obtener todos los coordinadores (fields=id,nombre para solo esos campos)
     @GetMapping
-    public ResponseEntity<List<CoordinadorViewDto>> getAllCoordinadores() {
+    public ResponseEntity<List<?>> getAllCoordinadores(
+            @RequestParam(required = false) String fields, WebRequest request) {
+        // 304 si el cliente ya tiene la versión actual
+        if (request.checkNotModified(coordinadorService.etag())) {
+            return null;
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(coordinadorService.findAllCampos(fields));
+        }
         List<CoordinadorViewDto> coordinadores = coordinadorService.findAll();
         return ResponseEntity.ok(coordinadores);
     }
 
     // Obtener coordinadores activos
     @GetMapping("/activos")
-    public ResponseEntity<List<CoordinadorViewDto>> getCoordinadoresActivos() {
+    public ResponseEntity<List<?>> getCoordinadoresActivos(
+            @RequestParam(required = false) String fields, WebRequest request) {
+        // 304 si el cliente ya tiene la versión actual
+        if (request.checkNotModified(coordinadorService.etag())) {
+            return null;
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(coordinadorService.findAllActivosCampos(fields));
+        }
         List<CoordinadorViewDto> coordinadores = coordinadorService.findAllActivos();
         return ResponseEntity.ok(coordinadores);
     }
 
     // Obtener coordinadores por división
     @GetMapping("/division/{divisionId}")
-    public ResponseEntity<List<CoordinadorViewDto>> getCoordinadoresByDivision(@PathVariable Long divisionId) {
+    public ResponseEntity<List<?>> getCoordinadoresByDivision(@PathVariable Long divisionId,
+            @RequestParam(required = false) String fields, WebRequest request) {
+        // 304 si el cliente ya tiene la versión actual
+        if (request.checkNotModified(coordinadorService.etag())) {
+            return null;
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(coordinadorService.findByDivisionCampos(divisionId, fields));
+        }
         List<CoordinadorViewDto> coordinadores = coordinadorService.findByDivision(divisionId);
         return ResponseEntity.ok(coordinadores);
     }
 
+    // Autocompletar coordinadores por prefijo de nombre, apellido o correo
+    @GetMapping("/suggest")
+    public ResponseEntity<List<CoordinadorSugerenciaDto>> suggestCoordinadores(
+            @RequestParam String q,
+            @RequestParam(required = false) Long divisionId,
+            @RequestParam(required = false) Boolean activo,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<CoordinadorSugerenciaDto> sugerencias = coordinadorService.suggest(q, divisionId, activo, limit);
+        return ResponseEntity.ok(sugerencias);
+    }
+
+    // Exportar todos los coordinadores en flujo (formato=ndjson|csv)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCoordinadores(
+            @RequestParam(defaultValue = "ndjson") String formato) {
+        return ExportacionRespuesta.<CoordinadorViewDto>crear("coordinadores", formato, objectMapper,
+                List.of("id", "nombre", "apellido", "correo", "telefono", "divisionId", "divisionNombre", "activo"),
+                c -> Arrays.asList(c.getId(), c.getNombre(), c.getApellido(), c.getCorreo(), c.getTelefono(),
+                        c.getDivisionId(), c.getDivisionNombre(), c.isActivo()),
+                coordinadorService::exportar);
+    }
+
     // Obtener coordinador por ID
     @GetMapping("/{id}")
-    public ResponseEntity<CoordinadorViewDto> getCoordinadorById(@PathVariable Long id) {
+    public ResponseEntity<CoordinadorViewDto> getCoordinadorById(@PathVariable Long id, WebRequest request) {
         Optional<CoordinadorViewDto> coordinador = coordinadorService.findById(id);
 
-        if (coordinador.isPresent()) {
-            return ResponseEntity.ok(coordinador.get());
-        } else {
+        if (coordinador.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        // 304 si el cliente ya tiene la versión actual de este coordinador
+        if (request.checkNotModified(EtagRegistro.de("coordinador", id, coordinador.get(), objectMapper))) {
+            return null;
+        }
+        return ResponseEntity.ok(coordinador.get());
     }
 
     // Obtener coordinadores con paginación
     @GetMapping("/paginated")
-    public ResponseEntity<Page<CoordinadorViewDto>> getAllCoordinadoresPaginated(
+    public ResponseEntity<Page<?>> getAllCoordinadoresPaginated(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "id") String sortBy) {
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(coordinadorService.findAllPaginatedCampos(page, size, sortBy, fields));
+        }
         Page<CoordinadorViewDto> coordinadores = coordinadorService.findAllPaginated(page, size, sortBy);
         return ResponseEntity.ok(coordinadores);
     }
 
     // Obtener coordinadores activos con paginación
     @GetMapping("/activos/paginated")
-    public ResponseEntity<Page<CoordinadorViewDto>> getCoordinadoresActivosPaginated(
+    public ResponseEntity<Page<?>> getCoordinadoresActivosPaginated(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "id") String sortBy) {
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(coordinadorService.findAllActivosPaginatedCampos(page, size, sortBy, fields));
+        }
         Page<CoordinadorViewDto> coordinadores = coordinadorService.findAllActivosPaginated(page, size, sortBy);
         return ResponseEntity.ok(coordinadores);
     }
 
     // Obtener coordinadores por división con paginación
     @GetMapping("/division/{divisionId}/paginated")
-    public ResponseEntity<Page<CoordinadorViewDto>> getCoordinadoresByDivisionPaginated(
+    public ResponseEntity<Page<?>> getCoordinadoresByDivisionPaginated(
             @PathVariable Long divisionId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "id") String sortBy) {
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(coordinadorService.findByDivisionPaginatedCampos(divisionId, page, size, sortBy,
+                    fields));
+        }
         Page<CoordinadorViewDto> coordinadores = coordinadorService.findByDivisionPaginated(divisionId, page, size, sortBy);
         return ResponseEntity.ok(coordinadores);
     }
 
+    // Obtener coordinadores con paginación por cursor (sin OFFSET ni conteo total)
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<CoordinadorViewDto>> getAllCoordinadoresScroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy) {
+        CursorPageDto<CoordinadorViewDto> coordinadores = coordinadorService.findAllScroll(cursor, size, sortBy);
+        return ResponseEntity.ok(coordinadores);
+    }
+
+    // Obtener coordinadores por división con paginación por cursor
+    @GetMapping("/division/{divisionId}/scroll")
+    public ResponseEntity<CursorPageDto<CoordinadorViewDto>> getCoordinadoresByDivisionScroll(
+            @PathVariable Long divisionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy) {
+        CursorPageDto<CoordinadorViewDto> coordinadores = coordinadorService.findByDivisionScroll(divisionId, cursor, size, sortBy);
+        return ResponseEntity.ok(coordinadores);
+    }
+
+    // Coordinadores creados o modificados después de since (marca de agua), en lotes de hasta size
+    @GetMapping("/delta")
+    public ResponseEntity<DeltaDto<CoordinadorViewDto>> getCoordinadoresDelta(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int size) {
+        DeltaDto<CoordinadorViewDto> delta = coordinadorService.findDelta(since, size);
+        return ResponseEntity.ok(delta);
+    }
+
     // Crear nuevo coordinador
     @PostMapping
     public ResponseEntity<CoordinadorViewDto> createCoordinador(@Valid @RequestBody CoordinadorCreateDto coordinadorDto) {
@@ -102,6 +210,34 @@ public class CoordinadorController {
         return ResponseEntity.status(HttpStatus.CREATED).body(nuevoCoordinador);
     }
 
+    // Crear coordinadores en bloque; devuelve el resultado de cada elemento
+    @PostMapping("/bulk")
+    public ResponseEntity<CoordinadorBulkResultadoDto> createCoordinadoresBulk(
+            @RequestBody List<CoordinadorCreateDto> coordinadoresDto) {
+        CoordinadorBulkResultadoDto resultado = coordinadorService.createBulk(coordinadoresDto);
+        return ResponseEntity.ok(resultado);
+    }
+
+    // Actualizar coordinadores en bloque; devuelve el resultado de cada elemento
+    @PutMapping("/bulk")
+    public ResponseEntity<CoordinadorBulkResultadoDto> updateCoordinadoresBulk(
+            @RequestBody List<CoordinadorBulkUpdateDto> coordinadoresDto) {
+        CoordinadorBulkResultadoDto resultado = coordinadorService.updateBulk(coordinadoresDto);
+        return ResponseEntity.ok(resultado);
+    }
+
+    // Dar de baja varios coordinadores
+    @PostMapping("/bulk/desactivar")
+    public ResponseEntity<OperacionBulkResultadoDto> desactivarCoordinadoresBulk(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(coordinadorService.desactivarBulk(ids));
+    }
+
+    // Activar/Desactivar varios coordinadores
+    @PatchMapping("/bulk/toggle-status")
+    public ResponseEntity<OperacionBulkResultadoDto> toggleCoordinadoresStatusBulk(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(coordinadorService.toggleStatusBulk(ids));
+    }
+
     // Actualizar coordinador
     @PutMapping("/{id}")
     public ResponseEntity<CoordinadorViewDto> updateCoordinador(
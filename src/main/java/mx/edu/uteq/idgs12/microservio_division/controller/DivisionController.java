@@ -1,11 +1,18 @@
 package mx.edu.uteq.idgs12.microservio_division.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,14 +21,27 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
+import mx.edu.uteq.idgs12.microservio_division.dto.CursorPageDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DeltaDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.DivisionCreateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionDetalleDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.DivisionToViewListDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.DivisionUpdateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.ImportacionEventoDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.OperacionBulkResultadoDto;
+import mx.edu.uteq.idgs12.microservio_division.service.DivisionDetalleService;
+import mx.edu.uteq.idgs12.microservio_division.service.DivisionImportService;
 import mx.edu.uteq.idgs12.microservio_division.service.DivisionService;
 
 
@@ -29,21 +49,47 @@ import mx.edu.uteq.idgs12.microservio_division.service.DivisionService;
 
 @RestController
 @RequestMapping("/divisiones")
+@Timed("controlador.metodo")
 public class DivisionController {
 
     @Autowired
     private DivisionService divisionService;
 
-    // Obtener todas las divisiones
+    @Autowired
+    private DivisionImportService divisionImportService;
+
+    @Autowired
+    private DivisionDetalleService divisionDetalleService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Obtener todas las divisiones (fields=divisionId,nombre para solo esos campos)
     @GetMapping
-    public ResponseEntity<List<DivisionToViewListDto>> getAllDivisiones() {
+    public ResponseEntity<List<?>> getAllDivisiones(
+            @RequestParam(required = false) String fields, WebRequest request) {
+        // 304 si el cliente ya tiene la versión actual
+        if (request.checkNotModified(divisionService.etag())) {
+            return null;
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(divisionService.findAllCampos(fields));
+        }
         List<DivisionToViewListDto> divisiones = divisionService.findAll();
         return ResponseEntity.ok(divisiones);
     }
 
     // Obtener todas las divisiones activas
     @GetMapping("/activas")
-    public ResponseEntity<List<DivisionToViewListDto>> getDivisionesActivas() {
+    public ResponseEntity<List<?>> getDivisionesActivas(
+            @RequestParam(required = false) String fields, WebRequest request) {
+        // 304 si el cliente ya tiene la versión actual
+        if (request.checkNotModified(divisionService.etag())) {
+            return null;
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(divisionService.findAllActivasCampos(fields));
+        }
         List<DivisionToViewListDto> divisiones = divisionService.findAllActivas();
         return ResponseEntity.ok(divisiones);
     }
@@ -57,20 +103,28 @@ public class DivisionController {
 
     // Obtener divisiones con paginación
     @GetMapping("/paginated")
-    public ResponseEntity<Page<DivisionToViewListDto>> getAllDivisionesPaginated(
+    public ResponseEntity<Page<?>> getAllDivisionesPaginated(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "id") String sortBy) {
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(divisionService.findAllPaginatedCampos(page, size, sortBy, fields));
+        }
         Page<DivisionToViewListDto> divisiones = divisionService.findAllPaginated(page, size, sortBy);
         return ResponseEntity.ok(divisiones);
     }
 
     // Obtener divisiones activas con paginación
     @GetMapping("/activas/paginated")
-    public ResponseEntity<Page<DivisionToViewListDto>> getDivisionesActivasPaginated(
+    public ResponseEntity<Page<?>> getDivisionesActivasPaginated(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "id") String sortBy) {
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(divisionService.findAllActivasPaginatedCampos(page, size, sortBy, fields));
+        }
         Page<DivisionToViewListDto> divisiones = divisionService.findAllActivasPaginated(page, size, sortBy);
         return ResponseEntity.ok(divisiones);
     }
@@ -86,18 +140,66 @@ public class DivisionController {
         return ResponseEntity.ok(divisiones);
     }
 
+    // Obtener divisiones con paginación por cursor (sin OFFSET ni conteo total)
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<DivisionToViewListDto>> getAllDivisionesScroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy) {
+        CursorPageDto<DivisionToViewListDto> divisiones = divisionService.findAllScroll(cursor, size, sortBy);
+        return ResponseEntity.ok(divisiones);
+    }
+
+    // Divisiones creadas o modificadas después de since (marca de agua), en lotes de hasta size
+    @GetMapping("/delta")
+    public ResponseEntity<DeltaDto<DivisionToViewListDto>> getDivisionesDelta(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int size) {
+        DeltaDto<DivisionToViewListDto> delta = divisionService.findDelta(since, size);
+        return ResponseEntity.ok(delta);
+    }
+
+    // Exportar todas las divisiones en flujo (formato=ndjson|csv)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDivisiones(
+            @RequestParam(defaultValue = "ndjson") String formato) {
+        return ExportacionRespuesta.<DivisionToViewListDto>crear("divisiones", formato, objectMapper,
+                List.of("id", "nombre", "activo", "programas"),
+                d -> Arrays.asList(d.getDivisionId(), d.getNombre(), d.isActivo(), String.join("|", d.getProgramaEducativa())),
+                divisionService::exportar);
+    }
+
     // Obtener división por ID
     @GetMapping("/{id}")
-    public ResponseEntity<DivisionToViewListDto> getDivisionById(@PathVariable Long id) {
+    public ResponseEntity<DivisionToViewListDto> getDivisionById(@PathVariable Long id, WebRequest request) {
         Optional<DivisionToViewListDto> division = divisionService.findById(id);
-        
-        if (division.isPresent()) {
-            return ResponseEntity.ok(division.get());
-        } else {
+
+        if (division.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // 304 si el cliente ya tiene la versión actual de esta división
+        if (request.checkNotModified(EtagRegistro.de("division", id, division.get(), objectMapper))) {
+            return null;
+        }
+        return ResponseEntity.ok(division.get());
+    }
+
+    // Obtener división con sus programas activos y sus coordinadores (una transacción de solo lectura)
+    @GetMapping("/{id}/detalle")
+    public ResponseEntity<DivisionDetalleDto> getDivisionDetalle(@PathVariable Long id, WebRequest request) {
+        Optional<DivisionDetalleDto> detalle = divisionDetalleService.findDetalle(id);
+
+        if (detalle.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        // 304 si el cliente ya tiene la versión actual de este detalle
+        if (request.checkNotModified(EtagRegistro.de("detalle", id, detalle.get(), objectMapper))) {
+            return null;
+        }
+        return ResponseEntity.ok(detalle.get());
     }
 
+
     // Crear nueva división
     @PostMapping
     public ResponseEntity<DivisionToViewListDto> createDivision(@Valid @RequestBody DivisionCreateDto divisionDto) {
@@ -105,6 +207,29 @@ public class DivisionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(nuevaDivision);
     }
 
+    // Importar divisiones desde NDJSON o CSV; la respuesta (NDJSON) informa el avance y los errores por fila
+    @PostMapping(value = "/import", consumes = { "application/x-ndjson", "text/csv" }, produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> importDivisiones(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream entrada) {
+        DivisionImportService.Formato formato = MediaType.parseMediaType("text/csv").includes(contentType)
+                ? DivisionImportService.Formato.CSV
+                : DivisionImportService.Formato.NDJSON;
+
+        StreamingResponseBody cuerpo = salida -> {
+            Consumer<ImportacionEventoDto> escribir = evento -> {
+                try {
+                    salida.write(objectMapper.writeValueAsBytes(evento));
+                    salida.write('\n');
+                    salida.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            escribir.accept(divisionImportService.importar(entrada, formato, escribir));
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(cuerpo);
+    }
+
     // Actualizar división existente
     @PutMapping("/{id}")
     public ResponseEntity<DivisionToViewListDto> updateDivision(
@@ -143,4 +268,18 @@ public class DivisionController {
             return ResponseEntity.notFound().build();
         }
     }
-} 
\ No newline at end of file
+
+    // Dar de baja varias divisiones con sus programas (coordinadores=true también las de sus coordinadores)
+    @PostMapping("/bulk/desactivar")
+    public ResponseEntity<OperacionBulkResultadoDto> desactivarDivisionesBulk(
+            @RequestBody List<Long> ids,
+            @RequestParam(defaultValue = "false") boolean coordinadores) {
+        return ResponseEntity.ok(divisionService.desactivarBulk(ids, coordinadores));
+    }
+
+    // Activar/Desactivar varias divisiones
+    @PatchMapping("/bulk/toggle-status")
+    public ResponseEntity<OperacionBulkResultadoDto> toggleDivisionesStatusBulk(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(divisionService.toggleStatusBulk(ids));
+    }
+}
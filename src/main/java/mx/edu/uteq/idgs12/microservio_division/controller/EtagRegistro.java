@@ -0,0 +1,30 @@
+package mx.edu.uteq.idgs12.microservio_division.controller;
+
+import java.io.UncheckedIOException;
+
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * ETag de un solo registro (GET /{id}): huella del JSON que recibe el cliente. Cambia solo
+ * cuando cambia ese registro, incluidos los datos que trae de otras tablas (el nombre de la
+ * división de un coordinador, los programas de una división), y no con las escrituras al
+ * resto de la colección. Se calcula después de resolver el registro, así un ID inexistente
+ * responde 404 aunque el cliente envíe If-None-Match.
+ */
+final class EtagRegistro {
+
+    private EtagRegistro() {
+    }
+
+    static String de(String recurso, Object id, Object registro, ObjectMapper objectMapper) {
+        try {
+            String huella = DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(registro));
+            return "\"" + recurso + "-" + id + "-" + huella + "\"";
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package mx.edu.uteq.idgs12.microservio_division.controller;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Respuesta de los endpoints /export: cada registro se escribe en cuanto el servicio
+ * lo entrega, como NDJSON (por defecto) o CSV, sin armar la lista completa en memoria.
+ */
+final class ExportacionRespuesta {
+
+    static final String NDJSON = "ndjson";
+    static final String CSV = "csv";
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private ExportacionRespuesta() {
+    }
+
+    /**
+     * @param archivo  nombre del archivo sugerido, sin extensión
+     * @param formato  ndjson o csv
+     * @param columnas encabezado del CSV
+     * @param fila     valores de un registro en el orden de columnas (solo CSV)
+     * @param fuente   recorre los registros y entrega cada uno al consumidor recibido
+     */
+    static <T> ResponseEntity<StreamingResponseBody> crear(String archivo, String formato, ObjectMapper objectMapper,
+            List<String> columnas, Function<T, List<?>> fila, Consumer<Consumer<T>> fuente) {
+        boolean csv = CSV.equals(formato.toLowerCase(Locale.ROOT));
+        if (!csv && !NDJSON.equals(formato.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Formato no soportado: " + formato + " (ndjson o csv)");
+        }
+
+        StreamingResponseBody cuerpo = salida -> {
+            Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+            if (csv) {
+                escribirLinea(escritor, columnas);
+            }
+            fuente.accept(registro -> {
+                try {
+                    if (csv) {
+                        escribirLinea(escritor, fila.apply(registro));
+                    } else {
+                        escritor.write(objectMapper.writeValueAsString(registro));
+                        escritor.write('\n');
+                    }
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException(e);
+                } catch (IOException e) {
+                    // El cliente cerró la conexión: se corta el recorrido y se libera el cursor
+                    throw new UncheckedIOException(e);
+                }
+            });
+            escritor.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(archivo + (csv ? ".csv" : ".ndjson"))
+                        .build().toString())
+                .body(cuerpo);
+    }
+
+    private static void escribirLinea(Writer escritor, List<?> valores) throws IOException {
+        escritor.write(valores.stream().map(ExportacionRespuesta::campoCsv).collect(Collectors.joining(",")));
+        escritor.write('\n');
+    }
+
+    // Entre comillas dobles solo si el valor contiene separadores, comillas o saltos de línea
+    private static String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.contains(",") || texto.contains("\"") || texto.contains("\n") || texto.contains("\r")) {
+            return "\"" + texto.replace("\"", "\"\"") + "\"";
+        }
+        return texto;
+    }
+}
@@ -0,0 +1,49 @@
+package mx.edu.uteq.idgs12.microservio_division.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import mx.edu.uteq.idgs12.microservio_division.cache.EurekaTransporteInvalidacion;
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionDistribuida;
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionMensaje;
+
+// Endpoint interno por el que las demás réplicas envían sus invalidaciones de cache
+@RestController
+public class InvalidacionCacheController {
+
+    @Autowired
+    private InvalidacionDistribuida invalidacionDistribuida;
+
+    // Secreto compartido por las réplicas; sin él configurado no se acepta ninguna invalidación
+    @Value("${cache.invalidacion.secreto:}")
+    private String secreto;
+
+    // Recibir una invalidación de otro nodo
+    @PostMapping(EurekaTransporteInvalidacion.RUTA)
+    public ResponseEntity<Void> recibirInvalidacion(
+            @RequestHeader(name = EurekaTransporteInvalidacion.ENCABEZADO_SECRETO, required = false) String recibido,
+            @RequestBody InvalidacionMensaje mensaje) {
+        if (!autorizado(recibido)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        invalidacionDistribuida.recibir(mensaje);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Comparación en tiempo constante: la respuesta no revela cuántos caracteres coinciden
+    private boolean autorizado(String recibido) {
+        if (secreto.isEmpty() || recibido == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(secreto.getBytes(StandardCharsets.UTF_8), recibido.getBytes(StandardCharsets.UTF_8));
+    }
+}
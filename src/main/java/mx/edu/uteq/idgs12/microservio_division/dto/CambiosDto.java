@@ -0,0 +1,16 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambiosDto {
+    private List<EventoCambioDto> eventos;
+    // Valor de desde para la siguiente petición (la secuencia del último evento)
+    private long siguiente;
+}
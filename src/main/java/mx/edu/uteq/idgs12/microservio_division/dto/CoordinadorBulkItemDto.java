@@ -0,0 +1,17 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resultado de un elemento de la carga en bloque
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoordinadorBulkItemDto {
+    // Posición del elemento en la lista enviada
+    private int indice;
+    private boolean exito;
+    private CoordinadorViewDto coordinador;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoordinadorBulkResultadoDto {
+    private int total;
+    private int exitosos;
+    private int fallidos;
+    private List<CoordinadorBulkItemDto> resultados;
+}
@@ -0,0 +1,22 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import lombok.Data;
+
+// Elemento de PUT /coordinadores/bulk; se valida por elemento en el servicio
+@Data
+public class CoordinadorBulkUpdateDto {
+
+    private Long id;
+
+    private String nombre;
+
+    private String apellido;
+
+    private String correo;
+
+    private String telefono;
+
+    private Long divisionId;
+
+    private boolean activo;
+}
@@ -0,0 +1,15 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Dueño de un correo ya registrado (validación en bloque)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoordinadorCorreoDto {
+    private Long id;
+    // En minúsculas
+    private String correo;
+}
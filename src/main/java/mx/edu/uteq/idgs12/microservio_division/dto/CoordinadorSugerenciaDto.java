@@ -0,0 +1,18 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Sugerencia de autocompletado (GET /coordinadores/suggest)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoordinadorSugerenciaDto {
+    private Long id;
+    private String nombre;
+    private String apellido;
+    private String correo;
+    private Long divisionId;
+    private boolean activo;
+}
@@ -1,8 +1,12 @@
 package mx.edu.uteq.idgs12.microservio_division.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class CoordinadorViewDto {
 
     private Long id;
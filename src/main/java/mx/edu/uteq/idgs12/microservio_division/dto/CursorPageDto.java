@@ -0,0 +1,17 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    private List<T> contenido;
+    // Token opaco para pedir la siguiente página; null cuando ya no hay más resultados
+    private String siguienteCursor;
+    private boolean hayMas;
+}
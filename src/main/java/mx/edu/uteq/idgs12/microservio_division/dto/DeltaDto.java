@@ -0,0 +1,19 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeltaDto<T> {
+    // Filas creadas o modificadas después de since; las bajas llegan con activo=false
+    private List<T> contenido;
+    // Valor de since para la siguiente petición (el mismo since si no hubo cambios)
+    private String marcaAgua;
+    // true si quedan más cambios: pedir de inmediato con la nueva marcaAgua
+    private boolean hayMas;
+}
@@ -0,0 +1,14 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class DivisionDetalleDto {
+    private long divisionId;
+    private String nombre;
+    private boolean activo;
+    private List<String> programaEducativa;
+    private List<CoordinadorViewDto> coordinadores;
+}
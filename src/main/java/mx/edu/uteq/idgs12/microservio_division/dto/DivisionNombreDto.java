@@ -0,0 +1,13 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DivisionNombreDto {
+    private Long id;
+    private String nombre;
+}
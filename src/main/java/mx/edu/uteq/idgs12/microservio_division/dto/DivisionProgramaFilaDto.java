@@ -0,0 +1,16 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Fila plana división + programa activo (programa null si no tiene), usada en la exportación
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DivisionProgramaFilaDto {
+    private Long divisionId;
+    private String nombre;
+    private boolean activo;
+    private String programa;
+}
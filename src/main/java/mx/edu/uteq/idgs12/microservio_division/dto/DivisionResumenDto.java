@@ -0,0 +1,15 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DivisionResumenDto {
+    private Long id;
+    private String nombre;
+    private boolean activo;
+    private Long numeroProgramas;
+}
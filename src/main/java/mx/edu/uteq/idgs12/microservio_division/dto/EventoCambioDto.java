@@ -0,0 +1,21 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Evento del feed GET /cambios: qué entidad cambió; su estado actual se lee con GET /{coleccion}/{id}
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoCambioDto {
+    private long secuencia;
+    // divisiones o coordinadores
+    private String coleccion;
+    private Long id;
+    // CREACION, ACTUALIZACION, BAJA o CAMBIO_ESTADO
+    private String operacion;
+    private LocalDateTime registrado;
+}
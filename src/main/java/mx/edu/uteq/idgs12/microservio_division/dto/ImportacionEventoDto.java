@@ -0,0 +1,27 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Línea de la respuesta NDJSON de una importación: progreso, error de una fila o resumen final
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportacionEventoDto {
+
+    public static final String PROGRESO = "progreso";
+    public static final String ERROR = "error";
+    public static final String RESUMEN = "resumen";
+
+    private String tipo;
+    // Número de línea del archivo (solo en errores)
+    private Integer linea;
+    private String mensaje;
+    private long procesadas;
+    private long importadas;
+    private long fallidas;
+}
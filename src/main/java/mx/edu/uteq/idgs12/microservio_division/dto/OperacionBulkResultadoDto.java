@@ -0,0 +1,23 @@
+package mx.edu.uteq.idgs12.microservio_division.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resultado de una baja o cambio de estado en bloque; las cuentas en cascada solo aparecen en la baja de divisiones
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OperacionBulkResultadoDto {
+    // IDs distintos recibidos
+    private int solicitados;
+    private int actualizados;
+    private List<Long> noEncontrados;
+    private Integer programasDesactivados;
+    private Integer coordinadoresDesactivados;
+}
@@ -0,0 +1,21 @@
+package mx.edu.uteq.idgs12.microservio_division.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Fecha de la última modificación (columna actualizado_en) de divisiones, programas y
+ * coordinadores: es la marca de agua de GET /divisiones/delta y /coordinadores/delta.
+ * Se trunca a microsegundos, la precisión de datetime(6), así el valor que queda en la
+ * entidad es el mismo que después se lee de la base.
+ */
+public final class Auditoria {
+
+    private Auditoria() {
+    }
+
+    // Momento actual con la precisión de la columna
+    public static LocalDateTime ahora() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,25 @@
+package mx.edu.uteq.idgs12.microservio_division.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Número de escrituras por colección (divisiones, coordinadores); base de los ETags
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "contador_cambios")
+public class ContadorCambios {
+
+    @Id
+    @Column(length = 50)
+    private String coleccion;
+
+    @Column(nullable = false)
+    private long cambios;
+}
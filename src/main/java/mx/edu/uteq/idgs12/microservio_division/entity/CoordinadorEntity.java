@@ -1,26 +1,51 @@
 package mx.edu.uteq.idgs12.microservio_division.entity;
 
+import java.time.LocalDateTime;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 @Entity
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "coordinadores")
+@Table(name = "coordinadores", indexes = {
+        // findByDivisionId, findByDivisionIdAndActivoTrue y sus variantes paginadas / por cursor
+        @Index(name = "idx_coordinadores_division_activo", columnList = "division_id, activo"),
+        // findByActivoTrue y sus variantes paginadas (id al final: filtra y entrega ya ordenado)
+        @Index(name = "idx_coordinadores_activo", columnList = "activo, id"),
+        // Delta por marca de agua (actualizado_en, id)
+        @Index(name = "idx_coordinadores_actualizado_en", columnList = "actualizado_en, id")
+}, uniqueConstraints = {
+        // Correo sin distinguir mayúsculas ni espacios en los extremos
+        @UniqueConstraint(name = CoordinadorEntity.UK_CORREO_NORMALIZADO, columnNames = "correo_normalizado")
+})
 public class CoordinadorEntity {
 
+    public static final String UK_CORREO_NORMALIZADO = "uk_coordinadores_correo_normalizado";
+
+    // Secuencia con asignación por bloques (pooled): permite insertar en lotes JDBC.
+    // En MySQL se emula con la tabla coordinadores_seq
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "coordinadores_seq")
+    @SequenceGenerator(name = "coordinadores_seq", sequenceName = "coordinadores_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -29,8 +54,13 @@ public class CoordinadorEntity {
     @Column(nullable = false)
     private String apellido;
     
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String correo;
+
+    // Columna de búsqueda: se calcula del correo al guardar (ver Normalizacion)
+    @Column(name = "correo_normalizado", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private String correoNormalizado;
     
     private String telefono;
     
@@ -39,4 +69,21 @@ public class CoordinadorEntity {
     
     @Column(nullable = false)
     private boolean activo = true;
+
+    // Bloqueo optimista
+    @Version
+    private long version;
+
+    // Última modificación (ver Auditoria)
+    @Column(name = "actualizado_en", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime actualizadoEn;
+
+    // Mantener la columna de búsqueda y la fecha de modificación al insertar o actualizar
+    @PrePersist
+    @PreUpdate
+    void normalizar() {
+        correoNormalizado = Normalizacion.normalizar(correo);
+        actualizadoEn = Auditoria.ahora();
+    }
 }
\ No newline at end of file
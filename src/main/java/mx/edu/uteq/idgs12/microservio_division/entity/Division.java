@@ -1,30 +1,89 @@
 package mx.edu.uteq.idgs12.microservio_division.entity;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 
 @Data
 @Entity
-@Table(name = "division")
+@Table(name = "division", indexes = {
+        // findByActivoTrue y sus variantes paginadas (id al final: filtra y entrega ya ordenado)
+        @Index(name = "idx_division_activo", columnList = "activo, id"),
+        // Delta por marca de agua (actualizado_en, id)
+        @Index(name = "idx_division_actualizado_en", columnList = "actualizado_en, id")
+}, uniqueConstraints = {
+        // Nombre sin distinguir mayúsculas ni espacios en los extremos
+        @UniqueConstraint(name = Division.UK_NOMBRE_NORMALIZADO, columnNames = "nombre_normalizado")
+})
 
 public class Division {
 
+    public static final String UK_NOMBRE_NORMALIZADO = "uk_division_nombre_normalizado";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String nombre;
+    // Columna de búsqueda: se calcula del nombre al guardar (ver Normalizacion)
+    @Column(name = "nombre_normalizado", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private String nombreNormalizado;
     private boolean activo;
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "division_id")
+    // La llave la guarda ProgramaEducativa.division: agregar o quitar un programa es una sola sentencia
+    @OneToMany(mappedBy = "division", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ProgramaEducativa> programaEducativas;
-    
+    // Bloqueo optimista
+    @Version
+    private long version;
+    // Última modificación (ver Auditoria); cambiar los programas también la actualiza
+    @Column(name = "actualizado_en", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime actualizadoEn;
+
+    // Mantener la columna de búsqueda y la fecha de modificación al insertar o actualizar
+    @PrePersist
+    @PreUpdate
+    void normalizar() {
+        nombreNormalizado = Normalizacion.normalizar(nombre);
+        actualizadoEn = Auditoria.ahora();
+    }
+
+    // Reemplazar los programas, cada uno apuntando a esta división
+    public void setProgramaEducativas(List<ProgramaEducativa> programaEducativas) {
+        if (programaEducativas != null) {
+            programaEducativas.forEach(programa -> programa.setDivision(this));
+        }
+        this.programaEducativas = programaEducativas;
+    }
+
+    // Agregar un programa con los dos lados de la relación
+    public void agregarPrograma(ProgramaEducativa programa) {
+        if (programaEducativas == null) {
+            programaEducativas = new ArrayList<>();
+        }
+        programa.setDivision(this);
+        programaEducativas.add(programa);
+    }
+
+    // Forzar el UPDATE de la división cuando solo se editó alguno de sus programas
+    public void marcarModificada() {
+        actualizadoEn = Auditoria.ahora();
+    }
 }
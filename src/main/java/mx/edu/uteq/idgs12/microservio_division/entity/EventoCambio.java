@@ -0,0 +1,71 @@
+package mx.edu.uteq.idgs12.microservio_division.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cambio en una división o un coordinador (outbox). La escritura lo inserta en su misma
+ * transacción, así no hay evento sin cambio ni cambio sin evento. Nace sin secuencia:
+ * PublicadorCambios se la asigna al publicarlo, en orden de commit y sin huecos, y es el
+ * cursor del feed GET /cambios.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "evento_cambio", indexes = {
+        // Depuración de los eventos publicados que superan la retención
+        @Index(name = "idx_evento_cambio_registrado", columnList = "registrado")
+}, uniqueConstraints = {
+        // Feed por cursor (secuencia > desde) y pendientes de publicar (secuencia IS NULL)
+        @UniqueConstraint(name = EventoCambio.UK_SECUENCIA, columnNames = "secuencia")
+})
+public class EventoCambio {
+
+    public static final String UK_SECUENCIA = "uk_evento_cambio_secuencia";
+
+    // Operaciones
+    public static final String CREACION = "CREACION";
+    public static final String ACTUALIZACION = "ACTUALIZACION";
+    public static final String BAJA = "BAJA";
+    public static final String CAMBIO_ESTADO = "CAMBIO_ESTADO";
+
+    // Secuencia por bloques, como coordinadores: los eventos de una carga en bloque se insertan en lotes JDBC
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evento_cambio_seq")
+    @SequenceGenerator(name = "evento_cambio_seq", sequenceName = "evento_cambio_seq", allocationSize = 50)
+    private Long id;
+
+    // null hasta que se publica
+    private Long secuencia;
+
+    // ContadorCambiosService.DIVISIONES o COORDINADORES
+    @Column(nullable = false, length = 50)
+    private String coleccion;
+
+    @Column(name = "entidad_id", nullable = false)
+    private Long entidadId;
+
+    @Column(nullable = false, length = 20)
+    private String operacion;
+
+    @Column(nullable = false)
+    private LocalDateTime registrado;
+
+    public EventoCambio(String coleccion, Long entidadId, String operacion, LocalDateTime registrado) {
+        this.coleccion = coleccion;
+        this.entidadId = entidadId;
+        this.operacion = operacion;
+        this.registrado = registrado;
+    }
+}
@@ -0,0 +1,25 @@
+package mx.edu.uteq.idgs12.microservio_division.entity;
+
+import java.util.Locale;
+
+/**
+ * Forma de comparación de los campos únicos que no distinguen mayúsculas (nombre de la
+ * división, correo del coordinador). Se guarda en una columna propia con índice único,
+ * así la búsqueda compara la columna tal cual en lugar de aplicar LOWER/UPPER sobre ella.
+ */
+public final class Normalizacion {
+
+    private Normalizacion() {
+    }
+
+    // Quitar los espacios de los extremos y pasar a minúsculas
+    public static String normalizar(String texto) {
+        return texto == null ? null : texto.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Escapar los comodines de LIKE (% y _) y el carácter de escape (\) para buscar el texto tal cual;
+    // las consultas que lo reciben declaran ESCAPE '\'
+    public static String escaparLike(String texto) {
+        return texto == null ? null : texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,20 +1,64 @@
 package mx.edu.uteq.idgs12.microservio_division.entity;
 
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
 
 @Data
 @Entity
-@Table(name = "programa_educativa")
+@Table(name = "programa_educativa", indexes = {
+        // Programas activos de una o varias divisiones (llave de la relación con Division)
+        @Index(name = "idx_programa_educativa_division_activo", columnList = "division_id, activo"),
+        // Programas modificados después de una fecha (actualizado_en, id)
+        @Index(name = "idx_programa_educativa_actualizado_en", columnList = "actualizado_en, id")
+})
 
 public class ProgramaEducativa {
+    // Secuencia por bloques, como coordinadores: los programas de una división se insertan en un lote JDBC.
+    // En MySQL se emula con la tabla programa_educativa_seq
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "programa_educativa_seq")
+    @SequenceGenerator(name = "programa_educativa_seq", sequenceName = "programa_educativa_seq", allocationSize = 50)
     private Long id;
     private String programa;
     private boolean activo;
+    // Dueña de la relación: division_id va en el mismo insert y el programa no cambia de división.
+    // Se asigna con Division.agregarPrograma / setProgramaEducativas
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "division_id", nullable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Division division;
+    // Bloqueo optimista
+    @Version
+    private long version;
+    // Última modificación (ver Auditoria)
+    @Column(name = "actualizado_en", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime actualizadoEn;
+
+    // Mantener la fecha de modificación al insertar o actualizar
+    @PrePersist
+    @PreUpdate
+    void marcarModificacion() {
+        actualizadoEn = Auditoria.ahora();
+    }
 }
@@ -0,0 +1,13 @@
+package mx.edu.uteq.idgs12.microservio_division.exception;
+
+/**
+ * El cliente del feed GET /cambios pidió eventos que ya se depuraron (cambios.retencion):
+ * debe volver a leer los listados completos y seguir desde GET /cambios/ultima.
+ */
+public class CambiosDepuradosException extends RuntimeException {
+
+    public CambiosDepuradosException(long desde) {
+        super("Los eventos posteriores a " + desde + " ya se depuraron; vuelve a leer los listados"
+                + " completos y sigue el feed desde GET /cambios/ultima");
+    }
+}
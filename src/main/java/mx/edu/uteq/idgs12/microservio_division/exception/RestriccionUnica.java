@@ -0,0 +1,30 @@
+package mx.edu.uteq.idgs12.microservio_division.exception;
+
+import java.util.Locale;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.core.NestedExceptionUtils;
+
+/**
+ * Identifica qué restricción única provocó un DataIntegrityViolationException (o la excepción
+ * sin traducir que lanza el EntityManager al hacer flush fuera de un repositorio). Hibernate
+ * extrae el nombre del mensaje del driver y cada base lo decora distinto (H2 agrega el
+ * esquema y el índice, MySQL la tabla), así que se busca el nombre sin distinguir mayúsculas.
+ */
+public final class RestriccionUnica {
+
+    private RestriccionUnica() {
+    }
+
+    // ¿La violación es de la restricción indicada?
+    public static boolean violada(Exception e, String restriccion) {
+        String buscada = restriccion.toLowerCase(Locale.ROOT);
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion && violacion.getConstraintName() != null) {
+                return violacion.getConstraintName().toLowerCase(Locale.ROOT).contains(buscada);
+            }
+        }
+        String mensaje = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return mensaje != null && mensaje.toLowerCase(Locale.ROOT).contains(buscada);
+    }
+}
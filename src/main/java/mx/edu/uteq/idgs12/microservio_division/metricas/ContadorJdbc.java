@@ -0,0 +1,70 @@
+package mx.edu.uteq.idgs12.microservio_division.metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conteo de sentencias JDBC ejecutadas y filas leídas en el hilo actual.
+ *
+ * MetricasJdbcFilter abre un conteo al empezar cada petición HTTP y lo cierra al
+ * terminar; ContadorJdbcDataSource suma en él cada execute* y cada ResultSet.next()
+ * que devuelve una fila. Fuera de una petición (arranque, tareas en otros hilos)
+ * no hay conteo abierto y no se registra nada, salvo que la tarea continúe el conteo
+ * de la petición con usar(actual()).
+ */
+public final class ContadorJdbc {
+
+    private static final ThreadLocal<Conteo> ACTUAL = new ThreadLocal<>();
+
+    private ContadorJdbc() {
+    }
+
+    // Abrir un conteo nuevo para el hilo actual
+    public static Conteo iniciar() {
+        Conteo conteo = new Conteo();
+        ACTUAL.set(conteo);
+        return conteo;
+    }
+
+    public static void terminar() {
+        ACTUAL.remove();
+    }
+
+    // Conteo abierto en el hilo actual (null fuera de una petición)
+    public static Conteo actual() {
+        return ACTUAL.get();
+    }
+
+    // Sumar en el conteo de otro hilo (tareas en paralelo de una misma petición)
+    public static void usar(Conteo conteo) {
+        if (conteo != null) {
+            ACTUAL.set(conteo);
+        }
+    }
+
+    static void sentencia() {
+        Conteo conteo = ACTUAL.get();
+        if (conteo != null) {
+            conteo.sentencias.incrementAndGet();
+        }
+    }
+
+    static void fila() {
+        Conteo conteo = ACTUAL.get();
+        if (conteo != null) {
+            conteo.filas.incrementAndGet();
+        }
+    }
+
+    public static final class Conteo {
+        private final AtomicLong sentencias = new AtomicLong();
+        private final AtomicLong filas = new AtomicLong();
+
+        public long getSentencias() {
+            return sentencias.get();
+        }
+
+        public long getFilas() {
+            return filas.get();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package mx.edu.uteq.idgs12.microservio_division.metricas;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que envuelve conexiones, sentencias y ResultSet en proxies para contar
+ * en ContadorJdbc las sentencias ejecutadas y las filas leídas. Todo lo demás se
+ * delega sin cambios (unwrap incluido, así las métricas del pool siguen viendo Hikari).
+ */
+public class ContadorJdbcDataSource extends DelegatingDataSource {
+
+    public ContadorJdbcDataSource(DataSource destino) {
+        super(destino);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envolver(Connection.class, obtainTargetDataSource().getConnection(), ContadorJdbcDataSource::conexion);
+    }
+
+    @Override
+    public Connection getConnection(String usuario, String password) throws SQLException {
+        return envolver(Connection.class, obtainTargetDataSource().getConnection(usuario, password),
+                ContadorJdbcDataSource::conexion);
+    }
+
+    // createStatement / prepareStatement / prepareCall devuelven sentencias que cuentan
+    private static Object conexion(Object destino, Method metodo, Object resultado) {
+        if (resultado instanceof CallableStatement sentencia) {
+            return envolver(CallableStatement.class, sentencia, ContadorJdbcDataSource::sentencia);
+        }
+        if (resultado instanceof PreparedStatement sentencia) {
+            return envolver(PreparedStatement.class, sentencia, ContadorJdbcDataSource::sentencia);
+        }
+        if (resultado instanceof Statement sentencia) {
+            return envolver(Statement.class, sentencia, ContadorJdbcDataSource::sentencia);
+        }
+        return resultado;
+    }
+
+    // Cada execute* es un viaje a la base (executeBatch cuenta como uno)
+    private static Object sentencia(Object destino, Method metodo, Object resultado) {
+        if (metodo.getName().startsWith("execute")) {
+            ContadorJdbc.sentencia();
+        }
+        if (resultado instanceof ResultSet filas) {
+            return envolver(ResultSet.class, filas, ContadorJdbcDataSource::resultados);
+        }
+        return resultado;
+    }
+
+    private static Object resultados(Object destino, Method metodo, Object resultado) {
+        if (Boolean.TRUE.equals(resultado) && "next".equals(metodo.getName())) {
+            ContadorJdbc.fila();
+        }
+        return resultado;
+    }
+
+    // Post-proceso del resultado de cada llamada delegada
+    private interface Despues {
+        Object aplicar(Object destino, Method metodo, Object resultado);
+    }
+
+    private static <T> T envolver(Class<T> interfaz, T destino, Despues despues) {
+        InvocationHandler manejador = (proxy, metodo, args) -> {
+            // Identidad del proxy: Hibernate guarda sentencias y ResultSet en mapas
+            if ("equals".equals(metodo.getName()) && metodo.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(metodo.getName()) && metodo.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            try {
+                return despues.aplicar(destino, metodo, metodo.invoke(destino, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return interfaz.cast(Proxy.newProxyInstance(ContadorJdbcDataSource.class.getClassLoader(),
+                new Class<?>[] { interfaz }, manejador));
+    }
+}
@@ -0,0 +1,133 @@
+package mx.edu.uteq.idgs12.microservio_division.metricas;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Registra por petición HTTP cuántas sentencias JDBC se ejecutaron y cuántas filas se
+ * leyeron, en los resúmenes jdbc.peticion.sentencias y jdbc.peticion.filas (etiquetas
+ * method y uri, igual que http.server.requests). Un N+1 aparece como un salto en las
+ * sentencias de su uri.
+ *
+ * Con encabezados = true (perfil dev) también los devuelve en X-Sql-Sentencias y
+ * X-Sql-Filas. Las respuestas en flujo (import/export) trabajan en otro hilo: solo se
+ * cuenta lo ejecutado antes de empezar el flujo.
+ */
+public class MetricasJdbcFilter extends OncePerRequestFilter {
+
+    public static final String ENCABEZADO_SENTENCIAS = "X-Sql-Sentencias";
+    public static final String ENCABEZADO_FILAS = "X-Sql-Filas";
+
+    private final MeterRegistry registry;
+    private final boolean encabezados;
+
+    public MetricasJdbcFilter(MeterRegistry registry, boolean encabezados) {
+        this.registry = registry;
+        this.encabezados = encabezados;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContadorJdbc.Conteo conteo = ContadorJdbc.iniciar();
+        HttpServletResponse respuesta = encabezados ? new EncabezadosAntesDelCuerpo(response, conteo) : response;
+        try {
+            chain.doFilter(request, respuesta);
+        } finally {
+            ContadorJdbc.terminar();
+            if (encabezados && !response.isCommitted()) {
+                escribirEncabezados(response, conteo);
+            }
+            registrar(request, conteo);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, ContadorJdbc.Conteo conteo) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = patron != null ? patron.toString() : "UNKNOWN";
+        DistributionSummary.builder("jdbc.peticion.sentencias")
+                .description("Sentencias JDBC ejecutadas por petición HTTP")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(conteo.getSentencias());
+        DistributionSummary.builder("jdbc.peticion.filas")
+                .description("Filas leídas de la base por petición HTTP")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(conteo.getFilas());
+    }
+
+    private static void escribirEncabezados(HttpServletResponse response, ContadorJdbc.Conteo conteo) {
+        response.setHeader(ENCABEZADO_SENTENCIAS, Long.toString(conteo.getSentencias()));
+        response.setHeader(ENCABEZADO_FILAS, Long.toString(conteo.getFilas()));
+    }
+
+    // Escribe los encabezados justo antes de que empiece el cuerpo (después ya no se pueden agregar)
+    private static class EncabezadosAntesDelCuerpo extends HttpServletResponseWrapper {
+
+        private final ContadorJdbc.Conteo conteo;
+        private boolean escritos;
+
+        EncabezadosAntesDelCuerpo(HttpServletResponse response, ContadorJdbc.Conteo conteo) {
+            super(response);
+            this.conteo = conteo;
+        }
+
+        private void antesDelCuerpo() {
+            if (!escritos && !isCommitted()) {
+                escritos = true;
+                escribirEncabezados((HttpServletResponse) getResponse(), conteo);
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            antesDelCuerpo();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            antesDelCuerpo();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            antesDelCuerpo();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            antesDelCuerpo();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            antesDelCuerpo();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            antesDelCuerpo();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package mx.edu.uteq.idgs12.microservio_division.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+
+import mx.edu.uteq.idgs12.microservio_division.entity.ContadorCambios;
+
+@Repository
+public interface ContadorCambiosRepository extends JpaRepository<ContadorCambios, String> {
+
+    // Leer el contador bloqueando su fila hasta el fin de la transacción (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ContadorCambios c WHERE c.coleccion = :coleccion")
+    Optional<ContadorCambios> bloquear(@Param("coleccion") String coleccion);
+}
@@ -1,17 +1,53 @@
 package mx.edu.uteq.idgs12.microservio_division.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorCorreoDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorSugerenciaDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto;
 import mx.edu.uteq.idgs12.microservio_division.entity.CoordinadorEntity;
 
 @Repository
 public interface CoordinadorRepository extends JpaRepository<CoordinadorEntity, Long> {
 
+    // Campos de los listados con fields= (ver Proyeccion); el JOIN con la división solo si se pide su nombre
+    Proyeccion PROYECCION = new Proyeccion("CoordinadorEntity", "c")
+            .campo("id", "c.id")
+            .campo("nombre", "c.nombre")
+            .campo("apellido", "c.apellido")
+            .campo("correo", "c.correo")
+            .campo("telefono", "c.telefono")
+            .campo("divisionId", "c.divisionId")
+            .campo("divisionNombre", "d.nombre", "LEFT JOIN Division d ON d.id = c.divisionId")
+            .campo("activo", "c.activo")
+            .orden("id", "c.id")
+            .orden("nombre", "c.nombre")
+            .orden("apellido", "c.apellido")
+            .orden("correo", "c.correo")
+            .orden("telefono", "c.telefono")
+            .orden("divisionId", "c.divisionId")
+            .orden("activo", "c.activo");
+
     // Buscar coordinadores activos
     List<CoordinadorEntity> findByActivoTrue();
 
@@ -21,12 +57,6 @@ public interface CoordinadorRepository extends JpaRepository<CoordinadorEntity,
     // Buscar coordinadores activos por división
     List<CoordinadorEntity> findByDivisionIdAndActivoTrue(Long divisionId);
 
-    // Verificar si existe un correo
-    boolean existsByCorreoIgnoreCase(String correo);
-
-    // Verificar si existe un correo excluyendo un ID
-    boolean existsByCorreoIgnoreCaseAndIdNot(String correo, Long id);
-
     // Paginación: Todos los coordinadores
     Page<CoordinadorEntity> findAll(Pageable pageable);
 
@@ -35,4 +65,130 @@ public interface CoordinadorRepository extends JpaRepository<CoordinadorEntity,
 
     // Paginación: Coordinadores por división
     Page<CoordinadorEntity> findByDivisionId(Long divisionId, Pageable pageable);
+
+    // Paginación por cursor (keyset): todos los coordinadores
+    Window<CoordinadorEntity> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Paginación por cursor (keyset): coordinadores por división
+    Window<CoordinadorEntity> findByDivisionId(Long divisionId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Delta: coordinadores modificados después de la marca de agua (instante, id) y hasta la fecha dada,
+    // en orden (actualizadoEn, id). El primer término acota el rango del índice; el segundo desempata
+    @Query("SELECT c FROM CoordinadorEntity c WHERE c.actualizadoEn >= :instante AND c.actualizadoEn <= :hasta"
+            + " AND (c.actualizadoEn > :instante OR c.id > :id) ORDER BY c.actualizadoEn, c.id")
+    List<CoordinadorEntity> findModificadosDesde(@Param("instante") LocalDateTime instante, @Param("id") long id,
+            @Param("hasta") LocalDateTime hasta, Limit limit);
+
+    // Proyecciones de solo lectura con el nombre de la división resuelto por JOIN
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto("
+            + "c.id, c.nombre, c.apellido, c.correo, c.telefono, c.divisionId, d.nombre, c.activo) "
+            + "FROM CoordinadorEntity c LEFT JOIN Division d ON d.id = c.divisionId"
+            + " ORDER BY c.id")
+    List<CoordinadorViewDto> findAllViews();
+
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto("
+            + "c.id, c.nombre, c.apellido, c.correo, c.telefono, c.divisionId, d.nombre, c.activo) "
+            + "FROM CoordinadorEntity c LEFT JOIN Division d ON d.id = c.divisionId"
+            + " WHERE c.activo = true"
+            + " ORDER BY c.id")
+    List<CoordinadorViewDto> findViewsByActivoTrue();
+
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto("
+            + "c.id, c.nombre, c.apellido, c.correo, c.telefono, c.divisionId, d.nombre, c.activo) "
+            + "FROM CoordinadorEntity c LEFT JOIN Division d ON d.id = c.divisionId"
+            + " WHERE c.divisionId = :divisionId"
+            + " ORDER BY c.id")
+    List<CoordinadorViewDto> findViewsByDivisionId(@Param("divisionId") Long divisionId);
+
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto("
+            + "c.id, c.nombre, c.apellido, c.correo, c.telefono, c.divisionId, d.nombre, c.activo) "
+            + "FROM CoordinadorEntity c LEFT JOIN Division d ON d.id = c.divisionId"
+            + " WHERE c.id = :id")
+    Optional<CoordinadorViewDto> findViewById(@Param("id") Long id);
+
+    @Query(value = "SELECT new mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto("
+            + "c.id, c.nombre, c.apellido, c.correo, c.telefono, c.divisionId, d.nombre, c.activo) "
+            + "FROM CoordinadorEntity c LEFT JOIN Division d ON d.id = c.divisionId",
+            countQuery = "SELECT COUNT(c) FROM CoordinadorEntity c")
+    Page<CoordinadorViewDto> findAllViews(Pageable pageable);
+
+    @Query(value = "SELECT new mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto("
+            + "c.id, c.nombre, c.apellido, c.correo, c.telefono, c.divisionId, d.nombre, c.activo) "
+            + "FROM CoordinadorEntity c LEFT JOIN Division d ON d.id = c.divisionId"
+            + " WHERE c.activo = true",
+            countQuery = "SELECT COUNT(c) FROM CoordinadorEntity c WHERE c.activo = true")
+    Page<CoordinadorViewDto> findViewsByActivoTrue(Pageable pageable);
+
+    @Query(value = "SELECT new mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto("
+            + "c.id, c.nombre, c.apellido, c.correo, c.telefono, c.divisionId, d.nombre, c.activo) "
+            + "FROM CoordinadorEntity c LEFT JOIN Division d ON d.id = c.divisionId"
+            + " WHERE c.divisionId = :divisionId",
+            countQuery = "SELECT COUNT(c) FROM CoordinadorEntity c WHERE c.divisionId = :divisionId")
+    Page<CoordinadorViewDto> findViewsByDivisionId(@Param("divisionId") Long divisionId, Pageable pageable);
+
+    // Correos normalizados ya registrados, para validar cargas en bloque
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorCorreoDto(c.id, c.correoNormalizado) "
+            + "FROM CoordinadorEntity c WHERE c.correoNormalizado IN :correos")
+    List<CoordinadorCorreoDto> findCorreosRegistrados(@Param("correos") Collection<String> correos);
+
+    // IDs que existen de una lista dada
+    @Query("SELECT c.id FROM CoordinadorEntity c WHERE c.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Número de escrituras de la colección (altas más versiones, igual que DivisionRepository.contarCambios)
+    @Query("SELECT COUNT(c) + COALESCE(SUM(c.version), 0) FROM CoordinadorEntity c")
+    long contarCambios();
+
+    // Coordinadores de una división (índice division_id, activo), para invalidarlos cuando cambia su nombre
+    @Query("SELECT c.id FROM CoordinadorEntity c WHERE c.divisionId = :divisionId")
+    List<Long> findIdsByDivisionId(@Param("divisionId") Long divisionId);
+
+    // Coordinadores activos de varias divisiones (índice division_id, activo), para darlos de baja en cascada
+    @Query("SELECT c.id FROM CoordinadorEntity c WHERE c.divisionId IN :divisionIds AND c.activo = true")
+    List<Long> findIdsActivosByDivisionIdIn(@Param("divisionIds") Collection<Long> divisionIds);
+
+    // Baja en bloque en un solo UPDATE. No pasa por @PreUpdate: la versión y la fecha se escriben aquí
+    @Modifying
+    @Query("UPDATE CoordinadorEntity c SET c.activo = false, c.version = c.version + 1, c.actualizadoEn = :ahora "
+            + "WHERE c.id IN :ids")
+    int desactivar(@Param("ids") Collection<Long> ids, @Param("ahora") LocalDateTime ahora);
+
+    // Invertir el estado de varios coordinadores en un solo UPDATE
+    @Modifying
+    @Query("UPDATE CoordinadorEntity c SET c.activo = CASE WHEN c.activo = true THEN false ELSE true END, "
+            + "c.version = c.version + 1, c.actualizadoEn = :ahora WHERE c.id IN :ids")
+    int invertirEstado(@Param("ids") Collection<Long> ids, @Param("ahora") LocalDateTime ahora);
+
+    // Índice de sugerencias: carga por bloques en orden de ID (por llave primaria, sin OFFSET)
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorSugerenciaDto("
+            + "c.id, c.nombre, c.apellido, c.correo, c.divisionId, c.activo) "
+            + "FROM CoordinadorEntity c WHERE c.id > :desde ORDER BY c.id")
+    List<CoordinadorSugerenciaDto> findSugerenciasDesde(@Param("desde") Long desde, Limit limit);
+
+    // Índice de sugerencias: coordinadores invalidados
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorSugerenciaDto("
+            + "c.id, c.nombre, c.apellido, c.correo, c.divisionId, c.activo) "
+            + "FROM CoordinadorEntity c WHERE c.id IN :ids")
+    List<CoordinadorSugerenciaDto> findSugerenciasByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Sugerencias mientras el índice no está cargado: prefijo del nombre, apellido o correo (sin índice).
+    // :prefijo llega con los comodines escapados (Normalizacion.escaparLike) y el % final
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorSugerenciaDto("
+            + "c.id, c.nombre, c.apellido, c.correo, c.divisionId, c.activo) "
+            + "FROM CoordinadorEntity c "
+            + "WHERE (LOWER(c.nombre) LIKE :prefijo ESCAPE '\\' OR LOWER(c.apellido) LIKE :prefijo ESCAPE '\\'"
+            + " OR c.correoNormalizado LIKE :prefijo ESCAPE '\\')"
+            + " AND (:divisionId IS NULL OR c.divisionId = :divisionId)"
+            + " AND (:activo IS NULL OR c.activo = :activo)"
+            + " ORDER BY c.id")
+    List<CoordinadorSugerenciaDto> findSugerencias(@Param("prefijo") String prefijo,
+            @Param("divisionId") Long divisionId, @Param("activo") Boolean activo, Limit limit);
+
+    // Exportación: se lee con un cursor (fetch size) en lugar de cargar la lista; requiere una transacción abierta
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto("
+            + "c.id, c.nombre, c.apellido, c.correo, c.telefono, c.divisionId, d.nombre, c.activo) "
+            + "FROM CoordinadorEntity c LEFT JOIN Division d ON d.id = c.divisionId"
+            + " ORDER BY c.id")
+    Stream<CoordinadorViewDto> streamAllViews();
 }
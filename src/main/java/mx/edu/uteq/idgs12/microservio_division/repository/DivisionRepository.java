@@ -1,35 +1,152 @@
 package mx.edu.uteq.idgs12.microservio_division.repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionNombreDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionProgramaFilaDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionResumenDto;
 import mx.edu.uteq.idgs12.microservio_division.entity.Division;
 
 
 @Repository
 public interface DivisionRepository extends JpaRepository<Division, Long> {
-    
-    // Buscar todas las divisiones activas
-    List<Division> findByActivoTrue();
-    
-    // Buscar divisiones por nombre
-    List<Division> findByNombreContainingIgnoreCase(String nombre);
-    
-    // Verificar si existe una división con un nombre específico
-    boolean existsByNombreIgnoreCase(String nombre);
-
-    // Verificar si existe una división con un nombre específico excluyendo un ID
-    boolean existsByNombreIgnoreCaseAndIdNot(String nombre, Long id);
-
-    // Paginación: Todas las divisiones
-    Page<Division> findAll(Pageable pageable);
-
-    // Paginación: Divisiones activas
-    Page<Division> findByActivoTrue(Pageable pageable);
-
-    // Paginación: Búsqueda por nombre
-    Page<Division> findByNombreContainingIgnoreCase(String nombre, Pageable pageable);
+
+    // Campos de los listados con fields= (ver Proyeccion); los programas los completa el servicio
+    Proyeccion PROYECCION = new Proyeccion("Division", "d")
+            .campo("divisionId", "d.id")
+            .campo("nombre", "d.nombre")
+            .campo("activo", "d.activo")
+            // Subconsulta correlacionada por el índice (division_id, activo): cuenta sin leer los nombres
+            // y sin volver a unir division
+            .campo("numeroProgramas", "(SELECT COUNT(p) FROM ProgramaEducativa p"
+                    + " WHERE p.division = d AND p.activo = true)")
+            .calculado("programaEducativa")
+            .orden("id", "d.id")
+            .orden("nombre", "d.nombre")
+            .orden("activo", "d.activo");
+
+    // Búsqueda por nombre: el de la división o el de alguno de sus programas activos, igual que IndiceBusquedaDivisiones.
+    // :nombre llega con los comodines escapados (Normalizacion.escaparLike): % y _ se buscan tal cual
+    String COINCIDE_NOMBRE = "(UPPER(d.nombre) LIKE UPPER(CONCAT('%', :nombre, '%')) ESCAPE '\\'"
+            + " OR EXISTS (SELECT 1 FROM ProgramaEducativa pb WHERE pb.division = d AND pb.activo = true"
+            + " AND UPPER(pb.programa) LIKE UPPER(CONCAT('%', :nombre, '%')) ESCAPE '\\'))";
+
+    // Número de escrituras de la colección: cada alta agrega una fila y cada modificación sube su
+    // versión (no hay borrado físico), así que el valor crece con cada commit. Base del ETag
+    @Query("SELECT COUNT(d) + COALESCE(SUM(d.version), 0) FROM Division d")
+    long contarCambios();
+
+    // Paginación por cursor (keyset): todas las divisiones
+    Window<Division> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Delta: divisiones modificadas después de la marca de agua (instante, id) y hasta la fecha dada,
+    // en orden (actualizadoEn, id). El primer término acota el rango del índice; el segundo desempata
+    @Query("SELECT d FROM Division d WHERE d.actualizadoEn >= :instante AND d.actualizadoEn <= :hasta"
+            + " AND (d.actualizadoEn > :instante OR d.id > :id) ORDER BY d.actualizadoEn, d.id")
+    List<Division> findModificadasDesde(@Param("instante") LocalDateTime instante, @Param("id") long id,
+            @Param("hasta") LocalDateTime hasta, Limit limit);
+
+    // Proyecciones de solo lectura: columnas de la división y número de programas activos
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.DivisionResumenDto(d.id, d.nombre, d.activo, COUNT(p)) "
+            + "FROM Division d LEFT JOIN d.programaEducativas p ON p.activo = true "
+            + "GROUP BY d.id, d.nombre, d.activo ORDER BY d.id")
+    List<DivisionResumenDto> findResumenes();
+
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.DivisionResumenDto(d.id, d.nombre, d.activo, COUNT(p)) "
+            + "FROM Division d LEFT JOIN d.programaEducativas p ON p.activo = true "
+            + "WHERE d.activo = true "
+            + "GROUP BY d.id, d.nombre, d.activo ORDER BY d.id")
+    List<DivisionResumenDto> findResumenesByActivoTrue();
+
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.DivisionResumenDto(d.id, d.nombre, d.activo, COUNT(p)) "
+            + "FROM Division d LEFT JOIN d.programaEducativas p ON p.activo = true "
+            + "WHERE " + COINCIDE_NOMBRE + " "
+            + "GROUP BY d.id, d.nombre, d.activo ORDER BY d.id")
+    List<DivisionResumenDto> findResumenesByNombreContainingIgnoreCase(@Param("nombre") String nombre);
+
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.DivisionResumenDto(d.id, d.nombre, d.activo, COUNT(p)) "
+            + "FROM Division d LEFT JOIN d.programaEducativas p ON p.activo = true "
+            + "WHERE d.id IN :ids "
+            + "GROUP BY d.id, d.nombre, d.activo")
+    List<DivisionResumenDto> findResumenesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT new mx.edu.uteq.idgs12.microservio_division.dto.DivisionResumenDto(d.id, d.nombre, d.activo, COUNT(p)) "
+            + "FROM Division d LEFT JOIN d.programaEducativas p ON p.activo = true "
+            + "GROUP BY d.id, d.nombre, d.activo",
+            countQuery = "SELECT COUNT(d) FROM Division d")
+    Page<DivisionResumenDto> findResumenes(Pageable pageable);
+
+    @Query(value = "SELECT new mx.edu.uteq.idgs12.microservio_division.dto.DivisionResumenDto(d.id, d.nombre, d.activo, COUNT(p)) "
+            + "FROM Division d LEFT JOIN d.programaEducativas p ON p.activo = true "
+            + "WHERE d.activo = true "
+            + "GROUP BY d.id, d.nombre, d.activo",
+            countQuery = "SELECT COUNT(d) FROM Division d WHERE d.activo = true")
+    Page<DivisionResumenDto> findResumenesByActivoTrue(Pageable pageable);
+
+    @Query(value = "SELECT new mx.edu.uteq.idgs12.microservio_division.dto.DivisionResumenDto(d.id, d.nombre, d.activo, COUNT(p)) "
+            + "FROM Division d LEFT JOIN d.programaEducativas p ON p.activo = true "
+            + "WHERE " + COINCIDE_NOMBRE + " "
+            + "GROUP BY d.id, d.nombre, d.activo",
+            countQuery = "SELECT COUNT(d) FROM Division d WHERE " + COINCIDE_NOMBRE)
+    Page<DivisionResumenDto> findResumenesByNombreContainingIgnoreCase(@Param("nombre") String nombre, Pageable pageable);
+
+    // Obtener solo el nombre de una división, sin cargar la entidad
+    @Query("SELECT d.nombre FROM Division d WHERE d.id = :id")
+    Optional<String> findNombreById(@Param("id") Long id);
+
+    // Obtener id y nombre de varias divisiones en una sola consulta
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.DivisionNombreDto(d.id, d.nombre) "
+            + "FROM Division d WHERE d.id IN :ids")
+    List<DivisionNombreDto> findNombresByIdIn(@Param("ids") Collection<Long> ids);
+
+    // IDs que existen de una lista dada
+    @Query("SELECT d.id FROM Division d WHERE d.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Baja en bloque en un solo UPDATE. No pasa por @PreUpdate: la versión y la fecha se escriben aquí
+    @Modifying
+    @Query("UPDATE Division d SET d.activo = false, d.version = d.version + 1, d.actualizadoEn = :ahora "
+            + "WHERE d.id IN :ids")
+    int desactivar(@Param("ids") Collection<Long> ids, @Param("ahora") LocalDateTime ahora);
+
+    // Invertir el estado de varias divisiones en un solo UPDATE
+    @Modifying
+    @Query("UPDATE Division d SET d.activo = CASE WHEN d.activo = true THEN false ELSE true END, "
+            + "d.version = d.version + 1, d.actualizadoEn = :ahora WHERE d.id IN :ids")
+    int invertirEstado(@Param("ids") Collection<Long> ids, @Param("ahora") LocalDateTime ahora);
+
+    // IDs de todas las divisiones, sin cargar las entidades
+    @Query("SELECT d.id FROM Division d ORDER BY d.id")
+    List<Long> findAllIds();
+
+    // Nombres normalizados que ya están registrados, para descartar duplicados en una importación
+    @Query("SELECT d.nombreNormalizado FROM Division d WHERE d.nombreNormalizado IN :nombres")
+    List<String> findNombresRegistrados(@Param("nombres") Collection<String> nombres);
+
+    // Exportación: una fila por programa activo (o una sola fila sin programa), ordenadas por división.
+    // Se lee con un cursor (fetch size) en lugar de cargar la lista; requiere una transacción abierta
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.DivisionProgramaFilaDto(d.id, d.nombre, d.activo, p.programa) "
+            + "FROM Division d LEFT JOIN d.programaEducativas p ON p.activo = true "
+            + "ORDER BY d.id, p.id")
+    Stream<DivisionProgramaFilaDto> streamFilasExportacion();
 }
@@ -0,0 +1,33 @@
+package mx.edu.uteq.idgs12.microservio_division.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import mx.edu.uteq.idgs12.microservio_division.dto.EventoCambioDto;
+import mx.edu.uteq.idgs12.microservio_division.entity.EventoCambio;
+
+@Repository
+public interface EventoCambioRepository extends JpaRepository<EventoCambio, Long> {
+
+    // Eventos sin publicar, en orden de inserción
+    @Query("SELECT e FROM EventoCambio e WHERE e.secuencia IS NULL ORDER BY e.id")
+    List<EventoCambio> findPendientes(Limit limit);
+
+    // Feed: eventos publicados después de la secuencia dada
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.EventoCambioDto("
+            + "e.secuencia, e.coleccion, e.entidadId, e.operacion, e.registrado) "
+            + "FROM EventoCambio e WHERE e.secuencia > :desde ORDER BY e.secuencia")
+    List<EventoCambioDto> findPublicadosDesde(@Param("desde") long desde, Limit limit);
+
+    // Borrar los eventos publicados antes de la fecha dada
+    @Modifying
+    @Query("DELETE FROM EventoCambio e WHERE e.registrado < :antesDe AND e.secuencia IS NOT NULL")
+    int depurar(@Param("antesDe") LocalDateTime antesDe);
+}
@@ -0,0 +1,38 @@
+package mx.edu.uteq.idgs12.microservio_division.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import mx.edu.uteq.idgs12.microservio_division.dto.ProgramaNombreDto;
+import mx.edu.uteq.idgs12.microservio_division.entity.ProgramaEducativa;
+
+/**
+ * Lecturas de programas educativos sin cargar la división: p.division.id es la columna
+ * division_id, así que las consultas no unen la tabla division.
+ */
+@Repository
+public interface ProgramaEducativaRepository extends JpaRepository<ProgramaEducativa, Long> {
+
+    // Nombres de los programas activos de varias divisiones (índice division_id, activo)
+    @Query("SELECT new mx.edu.uteq.idgs12.microservio_division.dto.ProgramaNombreDto(p.division.id, p.programa) "
+            + "FROM ProgramaEducativa p "
+            + "WHERE p.activo = true AND p.division.id IN :ids ORDER BY p.id")
+    List<ProgramaNombreDto> findActivosByDivisionIdIn(@Param("ids") Collection<Long> ids);
+
+    // Programas activos de una división, en orden de alta
+    List<ProgramaEducativa> findByDivisionIdAndActivoTrueOrderById(Long divisionId);
+
+    // Desactivar los programas activos de varias divisiones en un solo UPDATE (versión y fecha a mano)
+    @Modifying
+    @Query("UPDATE ProgramaEducativa p SET p.activo = false, p.version = p.version + 1, p.actualizadoEn = :ahora "
+            + "WHERE p.division.id IN :divisionIds AND p.activo = true")
+    int desactivarPorDivisionIdIn(@Param("divisionIds") Collection<Long> divisionIds,
+            @Param("ahora") LocalDateTime ahora);
+}
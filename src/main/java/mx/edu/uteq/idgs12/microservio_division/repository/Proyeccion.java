@@ -0,0 +1,103 @@
+package mx.edu.uteq.idgs12.microservio_division.repository;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Campos que un cliente puede pedir con el parámetro fields de un listado. Cada campo de la
+ * respuesta se asocia a una expresión JPQL y, si la necesita, al JOIN que la resuelve; así la
+ * consulta lleva solo las columnas y relaciones pedidas. Un campo sin expresión lo calcula el
+ * servicio aparte (p. ej. la lista de programas, con su propia consulta en bloque).
+ *
+ * Las expresiones, los JOIN y las columnas de orden son fijos: del texto de la petición solo
+ * se aceptan nombres que estén en estas listas.
+ */
+public final class Proyeccion {
+
+    private final String entidad;
+    private final String alias;
+    private final Map<String, String> expresiones = new LinkedHashMap<>();
+    private final Map<String, String> joins = new LinkedHashMap<>();
+    private final Map<String, String> orden = new LinkedHashMap<>();
+
+    public Proyeccion(String entidad, String alias) {
+        this.entidad = entidad;
+        this.alias = alias;
+    }
+
+    // Campo leído con una expresión sobre la entidad raíz
+    public Proyeccion campo(String nombre, String expresion) {
+        expresiones.put(nombre, expresion);
+        return this;
+    }
+
+    // Campo que necesita un JOIN; el JOIN se agrega solo si se pide el campo
+    public Proyeccion campo(String nombre, String expresion, String join) {
+        expresiones.put(nombre, expresion);
+        joins.put(nombre, join);
+        return this;
+    }
+
+    // Campo que no sale de la consulta: lo completa el servicio
+    public Proyeccion calculado(String nombre) {
+        expresiones.put(nombre, null);
+        return this;
+    }
+
+    // Propiedad admitida en sortBy y su columna
+    public Proyeccion orden(String propiedad, String expresion) {
+        orden.put(propiedad, expresion);
+        return this;
+    }
+
+    // Campos pedidos ("id,nombre"), en el orden de la petición; falla si alguno no existe
+    public Set<String> campos(String fields) {
+        Set<String> campos = new LinkedHashSet<>();
+        for (String campo : fields.split(",")) {
+            String nombre = campo.trim();
+            if (nombre.isEmpty()) {
+                continue;
+            }
+            if (!expresiones.containsKey(nombre)) {
+                throw new IllegalArgumentException("Campo desconocido: " + nombre
+                        + ". Campos disponibles: " + String.join(", ", expresiones.keySet()));
+            }
+            campos.add(nombre);
+        }
+        if (campos.isEmpty()) {
+            throw new IllegalArgumentException("El parámetro fields no contiene campos");
+        }
+        return Collections.unmodifiableSet(campos);
+    }
+
+    String getEntidad() {
+        return entidad;
+    }
+
+    String getAlias() {
+        return alias;
+    }
+
+    // null si el campo lo calcula el servicio
+    String expresion(String campo) {
+        return expresiones.get(campo);
+    }
+
+    String join(String campo) {
+        return joins.get(campo);
+    }
+
+    String columnaOrden(Sort.Order order) {
+        String columna = orden.get(order.getProperty());
+        if (columna == null) {
+            throw new IllegalArgumentException("No se puede ordenar por: " + order.getProperty()
+                    + ". Opciones: " + String.join(", ", orden.keySet()));
+        }
+        return columna;
+    }
+}
@@ -0,0 +1,104 @@
+package mx.edu.uteq.idgs12.microservio_division.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Ejecuta listados con solo los campos pedidos (ver Proyeccion). Cada fila es un mapa
+ * campo -> valor en el orden de la petición; Jackson lo escribe tal cual, así que lo que
+ * no se pidió tampoco se serializa. Los campos calculados quedan en el mapa con null para
+ * que el servicio los complete sin alterar el orden.
+ */
+@Repository
+public class ProyeccionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Todas las filas que cumplen la condición (puede ser null)
+    public List<Map<String, Object>> listar(Proyeccion proyeccion, Set<String> campos, String condicion,
+            Map<String, Object> parametros, Sort sort) {
+        TypedQuery<Tuple> consulta = entityManager.createQuery(
+                select(proyeccion, campos, condicion, sort), Tuple.class);
+        parametros.forEach(consulta::setParameter);
+        return filas(consulta.getResultList(), campos, proyeccion);
+    }
+
+    // Una página de filas y el total (el conteo no lleva JOIN)
+    public Page<Map<String, Object>> paginar(Proyeccion proyeccion, Set<String> campos, String condicion,
+            Map<String, Object> parametros, Pageable pageable) {
+        TypedQuery<Tuple> consulta = entityManager.createQuery(
+                select(proyeccion, campos, condicion, pageable.getSort()), Tuple.class);
+        parametros.forEach(consulta::setParameter);
+        consulta.setFirstResult((int) pageable.getOffset());
+        consulta.setMaxResults(pageable.getPageSize());
+        List<Map<String, Object>> contenido = filas(consulta.getResultList(), campos, proyeccion);
+
+        TypedQuery<Long> conteo = entityManager.createQuery("SELECT COUNT(" + proyeccion.getAlias() + ") FROM "
+                + proyeccion.getEntidad() + " " + proyeccion.getAlias() + where(condicion), Long.class);
+        parametros.forEach(conteo::setParameter);
+        return new PageImpl<>(contenido, pageable, conteo.getSingleResult());
+    }
+
+    private String select(Proyeccion proyeccion, Set<String> campos, String condicion, Sort sort) {
+        List<String> columnas = new ArrayList<>();
+        Set<String> joins = new LinkedHashSet<>();
+        for (String campo : campos) {
+            if (proyeccion.expresion(campo) != null) {
+                columnas.add(proyeccion.expresion(campo));
+            }
+            if (proyeccion.join(campo) != null) {
+                joins.add(proyeccion.join(campo));
+            }
+        }
+        if (columnas.isEmpty()) {
+            // Solo campos calculados: basta con saber cuántas filas hay y en qué orden
+            columnas.add(proyeccion.getAlias() + ".id");
+        }
+
+        StringBuilder jpql = new StringBuilder("SELECT ").append(String.join(", ", columnas))
+                .append(" FROM ").append(proyeccion.getEntidad()).append(' ').append(proyeccion.getAlias());
+        joins.forEach(join -> jpql.append(' ').append(join));
+        jpql.append(where(condicion));
+        List<String> orden = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orden.add(proyeccion.columnaOrden(order) + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        if (!orden.isEmpty()) {
+            jpql.append(" ORDER BY ").append(String.join(", ", orden));
+        }
+        return jpql.toString();
+    }
+
+    private static String where(String condicion) {
+        return condicion == null ? "" : " WHERE " + condicion;
+    }
+
+    private static List<Map<String, Object>> filas(List<Tuple> tuplas, Set<String> campos, Proyeccion proyeccion) {
+        List<Map<String, Object>> filas = new ArrayList<>(tuplas.size());
+        for (Tuple tupla : tuplas) {
+            Map<String, Object> fila = new LinkedHashMap<>();
+            int columna = 0;
+            for (String campo : campos) {
+                fila.put(campo, proyeccion.expresion(campo) != null ? tupla.get(columna++) : null);
+            }
+            filas.add(fila);
+        }
+        return filas;
+    }
+}
@@ -0,0 +1,104 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionDistribuida;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.entity.ContadorCambios;
+import mx.edu.uteq.idgs12.microservio_division.repository.ContadorCambiosRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.CoordinadorRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+
+/**
+ * Versión de cada colección, la misma en todas las réplicas porque se calcula de los datos.
+ * Divisiones y coordinadores no tienen fila propia: su versión es el número de altas más la
+ * suma de las versiones (@Version) de sus filas, que las escrituras ya modifican, así que
+ * ninguna escritura bloquea una fila compartida. Los coordinadores muestran el nombre de su
+ * división y suman también la versión de las divisiones. La de "eventos" sí es una fila,
+ * que solo escribe PublicadorCambios.
+ *
+ * Las lecturas la toman del cache "contadores-cambios"; las escrituras la invalidan en todos
+ * los nodos después del commit. Con ella se arman los ETags de los GET, así un If-None-Match
+ * vigente se responde con 304 sin consultar la base.
+ */
+@Service
+public class ContadorCambiosService {
+
+    public static final String DIVISIONES = "divisiones";
+    public static final String COORDINADORES = "coordinadores";
+    // Última secuencia publicada del feed de cambios (ver PublicadorCambios)
+    public static final String EVENTOS = "eventos";
+
+    @Autowired
+    private ContadorCambiosRepository contadorCambiosRepository;
+
+    @Autowired
+    private DivisionRepository divisionRepository;
+
+    @Autowired
+    private CoordinadorRepository coordinadorRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private InvalidacionDistribuida invalidacionDistribuida;
+
+    // Crear la fila del contador de eventos si aún no existe
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        if (contadorCambiosRepository.existsById(EVENTOS)) {
+            return;
+        }
+        try {
+            contadorCambiosRepository.save(new ContadorCambios(EVENTOS, 0));
+        } catch (DataIntegrityViolationException e) {
+            // Otra réplica la creó al mismo tiempo
+        }
+    }
+
+    // Obtener la versión de una colección
+    @Cacheable(cacheNames = CacheConfig.CONTADORES_CAMBIOS, key = "#coleccion")
+    public Long obtener(String coleccion) {
+        return switch (coleccion) {
+            case DIVISIONES -> divisionRepository.contarCambios();
+            case COORDINADORES -> coordinadorRepository.contarCambios() + divisionRepository.contarCambios();
+            default -> contadorCambiosRepository.findById(coleccion)
+                    .map(ContadorCambios::getCambios)
+                    .orElse(0L);
+        };
+    }
+
+    // Registrar una escritura en la colección: su versión se vuelve a calcular después del commit
+    public void registrarCambio(String coleccion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cacheManager.getCache(CacheConfig.CONTADORES_CAMBIOS).evictIfPresent(coleccion);
+            return;
+        }
+
+        // La versión se invalida al final (afterCompletion), después de los caches de datos
+        // (afterCommit) y en el mismo mensaje: ningún nodo sirve el ETag nuevo con datos viejos
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    cacheManager.getCache(CacheConfig.CONTADORES_CAMBIOS).evictIfPresent(coleccion);
+                }
+                invalidacionDistribuida.enviarPendientes();
+            }
+        });
+    }
+
+    // ETag fuerte a partir de la versión
+    public static String formatearEtag(String coleccion, long cambios) {
+        return "\"" + coleccion + "-" + cambios + "\"";
+    }
+}
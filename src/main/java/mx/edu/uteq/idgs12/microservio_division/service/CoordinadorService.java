@@ -1,26 +1,65 @@
 package mx.edu.uteq.idgs12.microservio_division.service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorBulkItemDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorBulkResultadoDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorBulkUpdateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorCorreoDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorCreateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorSugerenciaDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorUpdateDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CursorPageDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DeltaDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionNombreDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.OperacionBulkResultadoDto;
+import mx.edu.uteq.idgs12.microservio_division.entity.Auditoria;
 import mx.edu.uteq.idgs12.microservio_division.entity.CoordinadorEntity;
 import mx.edu.uteq.idgs12.microservio_division.entity.Division;
+import mx.edu.uteq.idgs12.microservio_division.entity.EventoCambio;
+import mx.edu.uteq.idgs12.microservio_division.entity.Normalizacion;
+import mx.edu.uteq.idgs12.microservio_division.exception.RestriccionUnica;
 import mx.edu.uteq.idgs12.microservio_division.repository.CoordinadorRepository;
 import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.ProyeccionRepository;
 
 @Service
+@Timed("servicio.metodo")
 public class CoordinadorService {
 
     @Autowired
@@ -29,65 +68,204 @@ public class CoordinadorService {
     @Autowired
     private DivisionRepository divisionRepository;
 
+    @Autowired
+    private CursorCodec cursorCodec;
+
+    @Autowired
+    private DivisionNombreResolver divisionNombreResolver;
+
+    @Autowired
+    private ContadorCambiosService contadorCambiosService;
+
+    @Autowired
+    private EventoCambioService eventoCambioService;
+
+    @Autowired
+    private IndiceSugerenciasCoordinadores indiceSugerencias;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProyeccionRepository proyeccionRepository;
+
+    @Autowired
+    private LimitadorConcurrenciaBd limitador;
+
+    // Campos por los que se puede ordenar la paginación por cursor (no admiten nulos)
+    private static final Map<String, Class<?>> CAMPOS_CURSOR = Map.of(
+            "id", Long.class,
+            "nombre", String.class,
+            "apellido", String.class,
+            "correo", String.class,
+            "divisionId", Long.class);
+
+    // Máximo de sugerencias por consulta de autocompletado
+    private static final int MAX_SUGERENCIAS = 50;
+
+    // Máximo de elementos por carga en bloque (también acota las listas IN de la validación)
+    private static final int MAX_BULK = 1000;
+
+    // Máximo de coordinadores por lote del delta
+    public static final int MAX_DELTA = 1000;
+
+    // Margen de las escrituras aún sin commit (ver DivisionService)
+    @Value("${delta.margen:5s}")
+    private Duration margenDelta;
+
+    private static final Pattern FORMATO_CORREO = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    // ETag de las lecturas de coordinadores; cambia con cada escritura
+    public String etag() {
+        Long cambios = contadorCambiosService.obtener(ContadorCambiosService.COORDINADORES);
+        return ContadorCambiosService.formatearEtag(ContadorCambiosService.COORDINADORES, cambios);
+    }
+
     // Obtener todos los coordinadores
     public List<CoordinadorViewDto> findAll() {
-        List<CoordinadorEntity> coordinadores = coordinadorRepository.findAll();
-        return coordinadores.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return coordinadorRepository.findAllViews();
     }
 
     // Obtener coordinadores activos
     public List<CoordinadorViewDto> findAllActivos() {
-        List<CoordinadorEntity> coordinadores = coordinadorRepository.findByActivoTrue();
-        return coordinadores.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return coordinadorRepository.findViewsByActivoTrue();
     }
 
     // Obtener coordinadores por división
     public List<CoordinadorViewDto> findByDivision(Long divisionId) {
-        List<CoordinadorEntity> coordinadores = coordinadorRepository.findByDivisionId(divisionId);
-        return coordinadores.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return coordinadorRepository.findViewsByDivisionId(divisionId);
+    }
+
+    // Obtener todos los coordinadores con solo los campos pedidos
+    public List<Map<String, Object>> findAllCampos(String fields) {
+        return proyeccionRepository.listar(CoordinadorRepository.PROYECCION,
+                CoordinadorRepository.PROYECCION.campos(fields), null, Map.of(), Sort.by("id"));
+    }
+
+    // Obtener coordinadores activos con solo los campos pedidos
+    public List<Map<String, Object>> findAllActivosCampos(String fields) {
+        return proyeccionRepository.listar(CoordinadorRepository.PROYECCION,
+                CoordinadorRepository.PROYECCION.campos(fields), "c.activo = true", Map.of(), Sort.by("id"));
+    }
+
+    // Obtener coordinadores por división con solo los campos pedidos
+    public List<Map<String, Object>> findByDivisionCampos(Long divisionId, String fields) {
+        return proyeccionRepository.listar(CoordinadorRepository.PROYECCION,
+                CoordinadorRepository.PROYECCION.campos(fields), "c.divisionId = :divisionId",
+                Map.of("divisionId", divisionId), Sort.by("id"));
     }
 
     // Obtener coordinador por ID
+    @Cacheable(cacheNames = CacheConfig.COORDINADORES, key = "#id", unless = "#result == null")
     public Optional<CoordinadorViewDto> findById(Long id) {
-        Optional<CoordinadorEntity> coordinador = coordinadorRepository.findById(id);
-        return coordinador.map(this::convertToDto);
+        return coordinadorRepository.findViewById(id);
+    }
+
+    // Autocompletar por prefijo de nombre, apellido o correo, con filtros opcionales de división y estado;
+    // solo la consulta de respaldo (índice sin cargar) pide permiso al limitador
+    public List<CoordinadorSugerenciaDto> suggest(String texto, Long divisionId, Boolean activo, int limite) {
+        if (limite < 1 || limite > MAX_SUGERENCIAS) {
+            throw new IllegalArgumentException("El límite de sugerencias debe estar entre 1 y " + MAX_SUGERENCIAS);
+        }
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        Optional<List<CoordinadorSugerenciaDto>> sugerencias = indiceSugerencias.buscar(texto, divisionId, activo, limite);
+        if (sugerencias.isPresent()) {
+            return sugerencias.get();
+        }
+        return limitador.consultar(() -> coordinadorRepository.findSugerencias(
+                Normalizacion.escaparLike(Normalizacion.normalizar(texto)) + "%", divisionId, activo, Limit.of(limite)));
     }
 
     // Obtener coordinadores con paginación
     public Page<CoordinadorViewDto> findAllPaginated(int page, int size, String sortBy) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).ascending());
-        Page<CoordinadorEntity> coordinadoresPage = coordinadorRepository.findAll(pageable);
-        return coordinadoresPage.map(this::convertToDto);
+        return coordinadorRepository.findAllViews(pageable);
     }
 
     // Obtener coordinadores activos con paginación
     public Page<CoordinadorViewDto> findAllActivosPaginated(int page, int size, String sortBy) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).ascending());
-        Page<CoordinadorEntity> coordinadoresPage = coordinadorRepository.findByActivoTrue(pageable);
-        return coordinadoresPage.map(this::convertToDto);
+        return coordinadorRepository.findViewsByActivoTrue(pageable);
     }
 
     // Obtener coordinadores por división con paginación
     public Page<CoordinadorViewDto> findByDivisionPaginated(Long divisionId, int page, int size, String sortBy) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).ascending());
-        Page<CoordinadorEntity> coordinadoresPage = coordinadorRepository.findByDivisionId(divisionId, pageable);
-        return coordinadoresPage.map(this::convertToDto);
+        return coordinadorRepository.findViewsByDivisionId(divisionId, pageable);
     }
 
-    // Crear nuevo coordinador
-    @Transactional
-    public CoordinadorViewDto create(CoordinadorCreateDto coordinadorDto) {
-        // Validar que el correo no esté duplicado
-        if (coordinadorRepository.existsByCorreoIgnoreCase(coordinadorDto.getCorreo())) {
-            throw new IllegalArgumentException("Ya existe un coordinador con el correo: " + coordinadorDto.getCorreo());
+    // Obtener coordinadores con paginación y solo los campos pedidos
+    public Page<Map<String, Object>> findAllPaginatedCampos(int page, int size, String sortBy, String fields) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).ascending());
+        return proyeccionRepository.paginar(CoordinadorRepository.PROYECCION,
+                CoordinadorRepository.PROYECCION.campos(fields), null, Map.of(), pageable);
+    }
+
+    // Obtener coordinadores activos con paginación y solo los campos pedidos
+    public Page<Map<String, Object>> findAllActivosPaginatedCampos(int page, int size, String sortBy, String fields) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).ascending());
+        return proyeccionRepository.paginar(CoordinadorRepository.PROYECCION,
+                CoordinadorRepository.PROYECCION.campos(fields), "c.activo = true", Map.of(), pageable);
+    }
+
+    // Obtener coordinadores por división con paginación y solo los campos pedidos
+    public Page<Map<String, Object>> findByDivisionPaginatedCampos(Long divisionId, int page, int size, String sortBy,
+            String fields) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).ascending());
+        return proyeccionRepository.paginar(CoordinadorRepository.PROYECCION,
+                CoordinadorRepository.PROYECCION.campos(fields), "c.divisionId = :divisionId",
+                Map.of("divisionId", divisionId), pageable);
+    }
+
+    // Obtener coordinadores con paginación por cursor
+    public CursorPageDto<CoordinadorViewDto> findAllScroll(String cursor, int size, String sortBy) {
+        ScrollPosition posicion = cursorCodec.decode(cursor, sortBy, CAMPOS_CURSOR);
+        Window<CoordinadorEntity> ventana = coordinadorRepository.findAllBy(
+                posicion, Sort.by(sortBy).ascending(), Limit.of(size));
+        return convertToCursorPage(ventana, sortBy);
+    }
+
+    // Obtener coordinadores por división con paginación por cursor
+    public CursorPageDto<CoordinadorViewDto> findByDivisionScroll(Long divisionId, String cursor, int size, String sortBy) {
+        ScrollPosition posicion = cursorCodec.decode(cursor, sortBy, CAMPOS_CURSOR);
+        Window<CoordinadorEntity> ventana = coordinadorRepository.findByDivisionId(
+                divisionId, posicion, Sort.by(sortBy).ascending(), Limit.of(size));
+        return convertToCursorPage(ventana, sortBy);
+    }
+
+    // Coordinadores creados o modificados después de since, en lotes de hasta size; las bajas (delete)
+    // llegan con activo=false. Renombrar una división no los modifica: el nombre llega en el delta de divisiones
+    public DeltaDto<CoordinadorViewDto> findDelta(String since, int size) {
+        if (size < 1 || size > MAX_DELTA) {
+            throw new IllegalArgumentException("size debe estar entre 1 y " + MAX_DELTA);
+        }
+        MarcaAgua desde = MarcaAgua.parse(since);
+        // Una fila de más indica si queda otro lote
+        List<CoordinadorEntity> modificados = coordinadorRepository.findModificadosDesde(desde.instante(), desde.id(),
+                Auditoria.ahora().minus(margenDelta), Limit.of(size + 1));
+        boolean hayMas = modificados.size() > size;
+        List<CoordinadorEntity> lote = hayMas ? modificados.subList(0, size) : modificados;
+
+        MarcaAgua siguiente = lote.isEmpty() ? desde
+                : new MarcaAgua(lote.get(lote.size() - 1).getActualizadoEn(), lote.get(lote.size() - 1).getId());
+        return new DeltaDto<>(convertToDtoList(lote), siguiente.toString(), hayMas);
+    }
+
+    // Recorrer todos los coordinadores sin cargarlos en memoria; la transacción (y su conexión)
+    // sigue abierta mientras el destino escribe cada fila
+    @Transactional(readOnly = true)
+    public void exportar(Consumer<CoordinadorViewDto> destino) {
+        try (Stream<CoordinadorViewDto> coordinadores = coordinadorRepository.streamAllViews()) {
+            coordinadores.forEach(destino);
         }
+    }
 
+    // Crear nuevo coordinador (la invalidación del ID nuevo avisa al índice de sugerencias)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COORDINADORES, key = "#result.id")
+    public CoordinadorViewDto create(CoordinadorCreateDto coordinadorDto) {
         // Validar que la división existe
         Optional<Division> division = divisionRepository.findById(coordinadorDto.getDivisionId());
         if (division.isEmpty()) {
@@ -103,12 +281,15 @@ public class CoordinadorService {
                 .activo(true)
                 .build();
 
-        CoordinadorEntity savedCoordinador = coordinadorRepository.save(coordinador);
-        return convertToDto(savedCoordinador);
+        CoordinadorEntity savedCoordinador = guardar(coordinador);
+        contadorCambiosService.registrarCambio(ContadorCambiosService.COORDINADORES);
+        eventoCambioService.registrar(ContadorCambiosService.COORDINADORES, EventoCambio.CREACION, savedCoordinador.getId());
+        return convertToDto(savedCoordinador, division.get().getNombre());
     }
 
     // Actualizar coordinador
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COORDINADORES, key = "#id")
     public Optional<CoordinadorViewDto> update(Long id, CoordinadorUpdateDto coordinadorDto) {
         Optional<CoordinadorEntity> coordinadorOpt = coordinadorRepository.findById(id);
 
@@ -116,11 +297,6 @@ public class CoordinadorService {
             return Optional.empty();
         }
 
-        // Validar que el correo no esté duplicado (excluyendo el coordinador actual)
-        if (coordinadorRepository.existsByCorreoIgnoreCaseAndIdNot(coordinadorDto.getCorreo(), id)) {
-            throw new IllegalArgumentException("Ya existe un coordinador con el correo: " + coordinadorDto.getCorreo());
-        }
-
         // Validar que la división existe
         Optional<Division> division = divisionRepository.findById(coordinadorDto.getDivisionId());
         if (division.isEmpty()) {
@@ -135,12 +311,15 @@ public class CoordinadorService {
         coordinador.setDivisionId(coordinadorDto.getDivisionId());
         coordinador.setActivo(coordinadorDto.isActivo());
 
-        CoordinadorEntity updatedCoordinador = coordinadorRepository.save(coordinador);
-        return Optional.of(convertToDto(updatedCoordinador));
+        CoordinadorEntity updatedCoordinador = guardar(coordinador);
+        contadorCambiosService.registrarCambio(ContadorCambiosService.COORDINADORES);
+        eventoCambioService.registrar(ContadorCambiosService.COORDINADORES, EventoCambio.ACTUALIZACION, id);
+        return Optional.of(convertToDto(updatedCoordinador, division.get().getNombre()));
     }
 
     // Eliminar coordinador (soft delete)
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COORDINADORES, key = "#id")
     public boolean delete(Long id) {
         Optional<CoordinadorEntity> coordinadorOpt = coordinadorRepository.findById(id);
 
@@ -151,11 +330,14 @@ public class CoordinadorService {
         CoordinadorEntity coordinador = coordinadorOpt.get();
         coordinador.setActivo(false);
         coordinadorRepository.save(coordinador);
+        contadorCambiosService.registrarCambio(ContadorCambiosService.COORDINADORES);
+        eventoCambioService.registrar(ContadorCambiosService.COORDINADORES, EventoCambio.BAJA, id);
         return true;
     }
 
     // Activar/Desactivar coordinador
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COORDINADORES, key = "#id")
     public Optional<CoordinadorViewDto> toggleStatus(Long id) {
         Optional<CoordinadorEntity> coordinadorOpt = coordinadorRepository.findById(id);
 
@@ -166,11 +348,285 @@ public class CoordinadorService {
         CoordinadorEntity coordinador = coordinadorOpt.get();
         coordinador.setActivo(!coordinador.isActivo());
         CoordinadorEntity updatedCoordinador = coordinadorRepository.save(coordinador);
+        contadorCambiosService.registrarCambio(ContadorCambiosService.COORDINADORES);
+        eventoCambioService.registrar(ContadorCambiosService.COORDINADORES, EventoCambio.CAMBIO_ESTADO, id);
         return Optional.of(convertToDto(updatedCoordinador));
     }
 
+    // Dar de baja varios coordinadores: una consulta de IDs y un solo UPDATE
+    @Transactional
+    public OperacionBulkResultadoDto desactivarBulk(List<Long> ids) {
+        Set<Long> solicitados = OperacionesBulk.validarIds(ids, "coordinadores");
+        List<Long> existentes = coordinadorRepository.findIdsByIdIn(solicitados);
+        OperacionBulkResultadoDto resultado = OperacionesBulk.resultado(solicitados, existentes);
+        if (!existentes.isEmpty()) {
+            resultado.setActualizados(coordinadorRepository.desactivar(existentes, Auditoria.ahora()));
+            contadorCambiosService.registrarCambio(ContadorCambiosService.COORDINADORES);
+            eventoCambioService.registrar(ContadorCambiosService.COORDINADORES, EventoCambio.BAJA, existentes);
+            invalidar(existentes);
+        }
+        return resultado;
+    }
+
+    // Activar/Desactivar varios coordinadores en un solo UPDATE
+    @Transactional
+    public OperacionBulkResultadoDto toggleStatusBulk(List<Long> ids) {
+        Set<Long> solicitados = OperacionesBulk.validarIds(ids, "coordinadores");
+        List<Long> existentes = coordinadorRepository.findIdsByIdIn(solicitados);
+        OperacionBulkResultadoDto resultado = OperacionesBulk.resultado(solicitados, existentes);
+        if (!existentes.isEmpty()) {
+            resultado.setActualizados(coordinadorRepository.invertirEstado(existentes, Auditoria.ahora()));
+            contadorCambiosService.registrarCambio(ContadorCambiosService.COORDINADORES);
+            eventoCambioService.registrar(ContadorCambiosService.COORDINADORES, EventoCambio.CAMBIO_ESTADO, existentes);
+            invalidar(existentes);
+        }
+        return resultado;
+    }
+
+    // Crear varios coordinadores: validación con pocas consultas en bloque e inserción en lotes JDBC
+    @Transactional
+    public CoordinadorBulkResultadoDto createBulk(List<CoordinadorCreateDto> coordinadoresDto) {
+        validarTamanoBulk(coordinadoresDto);
+
+        Map<String, Long> correosRegistrados = correosRegistrados(coordinadoresDto, CoordinadorCreateDto::getCorreo);
+        Map<Long, String> divisiones = nombresDivision(coordinadoresDto, CoordinadorCreateDto::getDivisionId);
+
+        CoordinadorBulkItemDto[] resultados = new CoordinadorBulkItemDto[coordinadoresDto.size()];
+        Set<String> correosDelLote = new HashSet<>();
+        List<CoordinadorEntity> nuevos = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+
+        for (int i = 0; i < coordinadoresDto.size(); i++) {
+            CoordinadorCreateDto dto = coordinadoresDto.get(i);
+            String error = validarElemento(dto, dto.getNombre(), dto.getApellido(), dto.getCorreo(), dto.getDivisionId(),
+                    null, correosRegistrados, correosDelLote, divisiones);
+            if (error != null) {
+                resultados[i] = new CoordinadorBulkItemDto(i, false, null, error);
+                continue;
+            }
+
+            nuevos.add(CoordinadorEntity.builder()
+                    .nombre(dto.getNombre())
+                    .apellido(dto.getApellido())
+                    .correo(dto.getCorreo())
+                    .telefono(dto.getTelefono())
+                    .divisionId(dto.getDivisionId())
+                    .activo(true)
+                    .build());
+            indices.add(i);
+        }
+
+        // Los IDs salen de la secuencia (por bloques); los INSERT se envían en lotes al hacer flush
+        List<CoordinadorEntity> guardados = coordinadorRepository.saveAll(nuevos);
+        for (int j = 0; j < guardados.size(); j++) {
+            CoordinadorEntity guardado = guardados.get(j);
+            int indice = indices.get(j);
+            resultados[indice] = new CoordinadorBulkItemDto(indice, true,
+                    convertToDto(guardado, divisiones.get(guardado.getDivisionId())), null);
+        }
+
+        if (!guardados.isEmpty()) {
+            List<Long> ids = guardados.stream().map(CoordinadorEntity::getId).collect(Collectors.toList());
+            contadorCambiosService.registrarCambio(ContadorCambiosService.COORDINADORES);
+            eventoCambioService.registrar(ContadorCambiosService.COORDINADORES, EventoCambio.CREACION, ids);
+            invalidar(ids);
+        }
+        return resumenBulk(resultados);
+    }
+
+    // Actualizar varios coordinadores: carga en bloque por ID y UPDATE en lotes JDBC
+    @Transactional
+    public CoordinadorBulkResultadoDto updateBulk(List<CoordinadorBulkUpdateDto> coordinadoresDto) {
+        validarTamanoBulk(coordinadoresDto);
+
+        Set<Long> ids = new HashSet<>();
+        for (CoordinadorBulkUpdateDto dto : coordinadoresDto) {
+            if (dto != null && dto.getId() != null) {
+                ids.add(dto.getId());
+            }
+        }
+        Map<Long, CoordinadorEntity> existentes = new HashMap<>();
+        coordinadorRepository.findAllById(ids).forEach(c -> existentes.put(c.getId(), c));
+        Map<String, Long> correosRegistrados = correosRegistrados(coordinadoresDto, CoordinadorBulkUpdateDto::getCorreo);
+        Map<Long, String> divisiones = nombresDivision(coordinadoresDto, CoordinadorBulkUpdateDto::getDivisionId);
+
+        CoordinadorBulkItemDto[] resultados = new CoordinadorBulkItemDto[coordinadoresDto.size()];
+        Set<String> correosDelLote = new HashSet<>();
+        Set<Long> idsDelLote = new HashSet<>();
+        List<Long> actualizados = new ArrayList<>();
+
+        for (int i = 0; i < coordinadoresDto.size(); i++) {
+            CoordinadorBulkUpdateDto dto = coordinadoresDto.get(i);
+            String error = null;
+            if (dto == null || dto.getId() == null) {
+                error = "El ID del coordinador es obligatorio";
+            } else if (!existentes.containsKey(dto.getId())) {
+                error = "El coordinador con ID " + dto.getId() + " no existe";
+            } else if (!idsDelLote.add(dto.getId())) {
+                error = "El coordinador con ID " + dto.getId() + " está repetido en la carga";
+            }
+            if (error == null) {
+                error = validarElemento(dto, dto.getNombre(), dto.getApellido(), dto.getCorreo(), dto.getDivisionId(),
+                        dto.getId(), correosRegistrados, correosDelLote, divisiones);
+            }
+            if (error != null) {
+                resultados[i] = new CoordinadorBulkItemDto(i, false, null, error);
+                continue;
+            }
+
+            CoordinadorEntity coordinador = existentes.get(dto.getId());
+            coordinador.setNombre(dto.getNombre());
+            coordinador.setApellido(dto.getApellido());
+            coordinador.setCorreo(dto.getCorreo());
+            coordinador.setTelefono(dto.getTelefono());
+            coordinador.setDivisionId(dto.getDivisionId());
+            coordinador.setActivo(dto.isActivo());
+            actualizados.add(coordinador.getId());
+            resultados[i] = new CoordinadorBulkItemDto(i, true,
+                    convertToDto(coordinador, divisiones.get(dto.getDivisionId())), null);
+        }
+
+        // Las entidades están administradas: los UPDATE se envían en lotes al hacer flush
+        if (!actualizados.isEmpty()) {
+            contadorCambiosService.registrarCambio(ContadorCambiosService.COORDINADORES);
+            eventoCambioService.registrar(ContadorCambiosService.COORDINADORES, EventoCambio.ACTUALIZACION, actualizados);
+            invalidar(actualizados);
+        }
+        return resumenBulk(resultados);
+    }
+
+    // Insertar o actualizar enviando el SQL de inmediato: el índice único de correo_normalizado
+    // rechaza los correos repetidos, también los de dos peticiones simultáneas
+    private CoordinadorEntity guardar(CoordinadorEntity coordinador) {
+        try {
+            return coordinadorRepository.saveAndFlush(coordinador);
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionUnica.violada(e, CoordinadorEntity.UK_CORREO_NORMALIZADO)) {
+                throw new IllegalArgumentException("Ya existe un coordinador con el correo: " + coordinador.getCorreo());
+            }
+            throw e;
+        }
+    }
+
+    // Invalidar solo los coordinadores tocados por una operación en bloque (se aplica después del commit);
+    // vaciar el cache obligaría al índice de sugerencias a recargarse completo
+    private void invalidar(List<Long> ids) {
+        Cache coordinadores = cacheManager.getCache(CacheConfig.COORDINADORES);
+        ids.forEach(coordinadores::evict);
+    }
+
+    private void validarTamanoBulk(List<?> elementos) {
+        if (elementos == null || elementos.isEmpty()) {
+            throw new IllegalArgumentException("La carga en bloque no contiene coordinadores");
+        }
+        if (elementos.size() > MAX_BULK) {
+            throw new IllegalArgumentException("La carga en bloque admite como máximo " + MAX_BULK + " coordinadores");
+        }
+    }
+
+    // Correo normalizado -> ID del coordinador que ya lo tiene, en una sola consulta
+    private <T> Map<String, Long> correosRegistrados(List<T> elementos, Function<T, String> correo) {
+        Set<String> correos = new HashSet<>();
+        for (T elemento : elementos) {
+            if (elemento != null && correo.apply(elemento) != null) {
+                correos.add(Normalizacion.normalizar(correo.apply(elemento)));
+            }
+        }
+        Map<String, Long> registrados = new HashMap<>();
+        if (!correos.isEmpty()) {
+            for (CoordinadorCorreoDto registrado : coordinadorRepository.findCorreosRegistrados(correos)) {
+                registrados.put(registrado.getCorreo(), registrado.getId());
+            }
+        }
+        return registrados;
+    }
+
+    // ID -> nombre de las divisiones existentes, en una sola consulta
+    private <T> Map<Long, String> nombresDivision(List<T> elementos, Function<T, Long> divisionId) {
+        Set<Long> ids = new HashSet<>();
+        for (T elemento : elementos) {
+            if (elemento != null && divisionId.apply(elemento) != null) {
+                ids.add(divisionId.apply(elemento));
+            }
+        }
+        Map<Long, String> nombres = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (DivisionNombreDto division : divisionRepository.findNombresByIdIn(ids)) {
+                nombres.put(division.getId(), division.getNombre());
+            }
+        }
+        return nombres;
+    }
+
+    // Mismas reglas que las anotaciones de los DTO más las de unicidad y existencia; null si es válido
+    private String validarElemento(Object dto, String nombre, String apellido, String correo, Long divisionId,
+            Long idActual, Map<String, Long> correosRegistrados, Set<String> correosDelLote,
+            Map<Long, String> divisiones) {
+        if (dto == null) {
+            return "El coordinador es obligatorio";
+        }
+        if (nombre == null || nombre.isBlank()) {
+            return "El nombre es obligatorio";
+        }
+        if (apellido == null || apellido.isBlank()) {
+            return "El apellido es obligatorio";
+        }
+        if (correo == null || correo.isBlank()) {
+            return "El correo es obligatorio";
+        }
+        if (!FORMATO_CORREO.matcher(correo).matches()) {
+            return "El correo debe tener un formato válido";
+        }
+        if (divisionId == null) {
+            return "El ID de la división es obligatorio";
+        }
+
+        String correoNormalizado = Normalizacion.normalizar(correo);
+        Long dueno = correosRegistrados.get(correoNormalizado);
+        if (dueno != null && !Objects.equals(dueno, idActual)) {
+            return "Ya existe un coordinador con el correo: " + correo;
+        }
+        if (!correosDelLote.add(correoNormalizado)) {
+            return "El correo " + correo + " está repetido en la carga";
+        }
+        if (!divisiones.containsKey(divisionId)) {
+            return "La división con ID " + divisionId + " no existe";
+        }
+        return null;
+    }
+
+    private CoordinadorBulkResultadoDto resumenBulk(CoordinadorBulkItemDto[] resultados) {
+        int exitosos = (int) Arrays.stream(resultados).filter(CoordinadorBulkItemDto::isExito).count();
+        return new CoordinadorBulkResultadoDto(resultados.length, exitosos, resultados.length - exitosos,
+                Arrays.asList(resultados));
+    }
+
     // Método auxiliar para convertir Entity a DTO
     private CoordinadorViewDto convertToDto(CoordinadorEntity coordinador) {
+        // Obtener el nombre de la división (desde cache)
+        Optional<String> divisionNombre = divisionNombreResolver.resolver(coordinador.getDivisionId());
+        return convertToDto(coordinador, divisionNombre.orElse(null));
+    }
+
+    // Convertir una ventana de resultados
+    private CursorPageDto<CoordinadorViewDto> convertToCursorPage(Window<CoordinadorEntity> ventana, String sortBy) {
+        List<CoordinadorViewDto> contenido = convertToDtoList(ventana.getContent());
+        return new CursorPageDto<>(contenido, cursorCodec.encode(ventana, sortBy), ventana.hasNext());
+    }
+
+    // Convertir entidades resolviendo los nombres de división en una sola consulta
+    private List<CoordinadorViewDto> convertToDtoList(List<CoordinadorEntity> coordinadores) {
+        Set<Long> divisionIds = coordinadores.stream()
+                .map(CoordinadorEntity::getDivisionId)
+                .collect(Collectors.toSet());
+        Map<Long, String> nombresDivision = divisionNombreResolver.resolver(divisionIds);
+        return coordinadores.stream()
+                .map(c -> convertToDto(c, nombresDivision.get(c.getDivisionId())))
+                .collect(Collectors.toList());
+    }
+
+    // Visible en el paquete para los benchmarks JMH
+    CoordinadorViewDto convertToDto(CoordinadorEntity coordinador, String divisionNombre) {
         CoordinadorViewDto dto = new CoordinadorViewDto();
         dto.setId(coordinador.getId());
         dto.setNombre(coordinador.getNombre());
@@ -179,11 +635,7 @@ public class CoordinadorService {
         dto.setTelefono(coordinador.getTelefono());
         dto.setDivisionId(coordinador.getDivisionId());
         dto.setActivo(coordinador.isActivo());
-
-        // Obtener el nombre de la división
-        Optional<Division> division = divisionRepository.findById(coordinador.getDivisionId());
-        division.ifPresent(d -> dto.setDivisionNombre(d.getNombre()));
-
+        dto.setDivisionNombre(divisionNombre);
         return dto;
     }
 }
@@ -0,0 +1,103 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Codifica y decodifica la posición de una paginación por cursor (keyset).
+ * El token lleva el campo de orden y los valores de la última fila entregada
+ * (campo de orden + id), en JSON y Base64 URL-safe.
+ */
+@Component
+public class CursorCodec {
+
+    private static final String CAMPO_ORDEN = "sortBy";
+    private static final String CAMPO_LLAVES = "keys";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Construir la posición de inicio a partir del cursor recibido
+    public KeysetScrollPosition decode(String cursor, String sortBy, Map<String, Class<?>> camposPermitidos) {
+        validarOrden(sortBy, camposPermitidos);
+
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        Map<String, Object> contenido;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            contenido = objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+
+        if (!sortBy.equals(contenido.get(CAMPO_ORDEN)) || !(contenido.get(CAMPO_LLAVES) instanceof Map<?, ?> llaves)) {
+            throw new IllegalArgumentException("El cursor no corresponde al ordenamiento por: " + sortBy);
+        }
+
+        Map<String, Object> valores = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> llave : llaves.entrySet()) {
+            String campo = String.valueOf(llave.getKey());
+            Class<?> tipo = camposPermitidos.get(campo);
+            if (tipo == null || llave.getValue() == null) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            valores.put(campo, convertir(llave.getValue(), tipo));
+        }
+        return ScrollPosition.forward(valores);
+    }
+
+    // Generar el cursor de la siguiente página, o null si la ventana es la última
+    public String encode(Window<?> ventana, String sortBy) {
+        if (!ventana.hasNext() || ventana.isEmpty()) {
+            return null;
+        }
+
+        KeysetScrollPosition posicion = (KeysetScrollPosition) ventana.positionAt(ventana.size() - 1);
+        Map<String, Object> contenido = new LinkedHashMap<>();
+        contenido.put(CAMPO_ORDEN, sortBy);
+        contenido.put(CAMPO_LLAVES, posicion.getKeys());
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(contenido);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo generar el cursor", e);
+        }
+    }
+
+    private void validarOrden(String sortBy, Map<String, Class<?>> camposPermitidos) {
+        if (!camposPermitidos.containsKey(sortBy)) {
+            throw new IllegalArgumentException("Campo de ordenamiento no soportado para cursor: " + sortBy
+                    + ". Valores permitidos: " + camposPermitidos.keySet());
+        }
+    }
+
+    // JSON no conserva el tipo exacto (p. ej. Long llega como Integer)
+    private Object convertir(Object valor, Class<?> tipo) {
+        if (tipo == Long.class && valor instanceof Number numero) {
+            return numero.longValue();
+        }
+        if (tipo == Boolean.class && valor instanceof Boolean) {
+            return valor;
+        }
+        if (tipo == String.class && valor instanceof String) {
+            return valor;
+        }
+        throw new IllegalArgumentException("Cursor inválido");
+    }
+}
@@ -0,0 +1,87 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionDetalleDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionResumenDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.ProgramaNombreDto;
+import mx.edu.uteq.idgs12.microservio_division.repository.CoordinadorRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.ProgramaEducativaRepository;
+
+/**
+ * Detalle de una división (datos, programas activos y coordinadores) en una sola llamada.
+ *
+ * Las tres consultas corren en serie en una sola transacción de solo lectura, con un solo
+ * permiso de LimitadorConcurrenciaBd y una sola conexión: en MySQL (REPEATABLE READ) las
+ * tres leen la misma instantánea, así que el detalle nunca mezcla una división con los
+ * programas o coordinadores de otro momento. Si la división no existe no se consultan los
+ * programas ni los coordinadores. Son consultas por índice (llave primaria y
+ * (division_id, activo)); repartirlas en paralelo costaría tres conexiones por petición y
+ * solo conviene si una medición muestra que la suma de las tres pesa en la latencia.
+ */
+@Service
+@Timed("servicio.metodo")
+public class DivisionDetalleService {
+
+    @Autowired
+    private DivisionRepository divisionRepository;
+
+    @Autowired
+    private ProgramaEducativaRepository programaEducativaRepository;
+
+    @Autowired
+    private CoordinadorRepository coordinadorRepository;
+
+    @Autowired
+    private LimitadorConcurrenciaBd limitador;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate soloLectura;
+
+    @PostConstruct
+    void inicializar() {
+        soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+    }
+
+    // Obtener la división con sus programas activos y sus coordinadores
+    public Optional<DivisionDetalleDto> findDetalle(Long id) {
+        // El permiso se pide por fuera de la transacción, que es la que toma la conexión
+        return limitador.consultar(() -> soloLectura.execute(status -> leer(id)));
+    }
+
+    private Optional<DivisionDetalleDto> leer(Long id) {
+        List<Long> ids = List.of(id);
+        List<DivisionResumenDto> divisiones = divisionRepository.findResumenesByIdIn(ids);
+        if (divisiones.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(armar(divisiones.get(0),
+                programaEducativaRepository.findActivosByDivisionIdIn(ids),
+                coordinadorRepository.findViewsByDivisionId(id)));
+    }
+
+    private static DivisionDetalleDto armar(DivisionResumenDto division,
+            List<ProgramaNombreDto> programas, List<CoordinadorViewDto> coordinadores) {
+        DivisionDetalleDto dto = new DivisionDetalleDto();
+        dto.setDivisionId(division.getId());
+        dto.setNombre(division.getNombre());
+        dto.setActivo(division.isActivo());
+        dto.setProgramaEducativa(programas.stream().map(ProgramaNombreDto::getPrograma).toList());
+        dto.setCoordinadores(coordinadores);
+        return dto;
+    }
+}
@@ -0,0 +1,328 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionCreateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.ImportacionEventoDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.ProgramaEducativoDto;
+import mx.edu.uteq.idgs12.microservio_division.entity.Division;
+import mx.edu.uteq.idgs12.microservio_division.entity.EventoCambio;
+import mx.edu.uteq.idgs12.microservio_division.entity.Normalizacion;
+import mx.edu.uteq.idgs12.microservio_division.entity.ProgramaEducativa;
+import mx.edu.uteq.idgs12.microservio_division.exception.RestriccionUnica;
+import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+
+/**
+ * Importación de divisiones (con sus programas educativos) desde NDJSON o CSV.
+ *
+ * El archivo se lee línea por línea y se procesa en lotes de importacion.divisiones.lote
+ * filas: cada lote valida sus filas, descarta nombres repetidos dentro del lote o ya
+ * registrados (una consulta por lote) y se guarda en su propia transacción, con flush y
+ * clear al final para que la memoria no crezca con el tamaño del archivo. Un nombre repetido
+ * en un lote anterior ya está registrado cuando llega el siguiente, así que no hace falta
+ * recordar los nombres de todo el archivo. Si otra escritura registra uno de los nombres
+ * entre la consulta y el guardado, el índice único de nombre_normalizado rechaza el lote y
+ * este se reintenta fila por fila para reportar solo las filas repetidas.
+ *
+ * La consulta y la transacción de cada lote piden permiso a LimitadorConcurrenciaBd, como
+ * PublicadorCambios: una importación grande no acapara conexiones que esperan las peticiones.
+ *
+ * CSV: encabezado "nombre,programas"; los programas van separados por '|' en la segunda
+ * columna. Los campos pueden ir entre comillas dobles (sin saltos de línea dentro).
+ */
+@Service
+@Timed("servicio.metodo")
+public class DivisionImportService {
+
+    public enum Formato { NDJSON, CSV }
+
+    @Autowired
+    private DivisionRepository divisionRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ContadorCambiosService contadorCambiosService;
+
+    @Autowired
+    private EventoCambioService eventoCambioService;
+
+    @Autowired
+    private LimitadorConcurrenciaBd limitador;
+
+    @Value("${importacion.divisiones.lote:500}")
+    private int tamanoLote;
+
+    // Importar el archivo; cada error de fila y el avance por lote se envían a reporte
+    public ImportacionEventoDto importar(InputStream entrada, Formato formato,
+            Consumer<ImportacionEventoDto> reporte) throws IOException {
+        Estado estado = new Estado();
+        List<Fila> lote = new ArrayList<>(tamanoLote);
+
+        BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        int numeroLinea = 0;
+        if (formato == Formato.CSV) {
+            String encabezado = lector.readLine();
+            numeroLinea++;
+            if (encabezado == null || !encabezado.trim().toLowerCase(Locale.ROOT).startsWith("nombre")) {
+                // La respuesta ya es un flujo: el error se informa como evento y no se procesa el archivo
+                estado.fallidas++;
+                reporte.accept(new ImportacionEventoDto(ImportacionEventoDto.ERROR, 1,
+                        "El CSV debe iniciar con el encabezado: nombre,programas", 0, 0, estado.fallidas));
+                return estado.evento(ImportacionEventoDto.RESUMEN);
+            }
+        }
+
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            numeroLinea++;
+            if (linea.isBlank()) {
+                continue;
+            }
+            lote.add(formato == Formato.CSV ? leerCsv(linea, numeroLinea) : leerNdjson(linea, numeroLinea));
+            if (lote.size() >= tamanoLote) {
+                procesarLote(lote, estado, reporte);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            procesarLote(lote, estado, reporte);
+        }
+
+        return estado.evento(ImportacionEventoDto.RESUMEN);
+    }
+
+    private void procesarLote(List<Fila> lote, Estado estado, Consumer<ImportacionEventoDto> reporte) {
+        // Validar campos y nombres repetidos dentro del lote
+        Set<String> nombresDelLote = new HashSet<>();
+        List<Fila> validas = new ArrayList<>();
+        for (Fila fila : lote) {
+            String error = fila.error != null ? fila.error : validar(fila.division);
+            if (error == null && !nombresDelLote.add(Normalizacion.normalizar(fila.division.getNombre()))) {
+                error = "El nombre " + fila.division.getNombre() + " está repetido en el archivo";
+            }
+            if (error != null) {
+                reportarError(fila, error, estado, reporte);
+            } else {
+                validas.add(fila);
+            }
+        }
+
+        // Nombres ya registrados: una sola consulta por lote
+        if (!validas.isEmpty()) {
+            Set<String> nombres = validas.stream()
+                    .map(f -> Normalizacion.normalizar(f.division.getNombre()))
+                    .collect(Collectors.toSet());
+            Set<String> registrados = new HashSet<>(
+                    limitador.consultar(() -> divisionRepository.findNombresRegistrados(nombres)));
+            List<Fila> nuevas = new ArrayList<>();
+            for (Fila fila : validas) {
+                if (registrados.contains(Normalizacion.normalizar(fila.division.getNombre()))) {
+                    reportarError(fila, "Ya existe una división con el nombre: " + fila.division.getNombre(), estado, reporte);
+                } else {
+                    nuevas.add(fila);
+                }
+            }
+            guardar(nuevas, estado, reporte);
+        }
+
+        estado.procesadas += lote.size();
+        reporte.accept(estado.evento(ImportacionEventoDto.PROGRESO));
+    }
+
+    // Guardar el lote en una transacción y liberar el contexto de persistencia
+    private void guardar(List<Fila> filas, Estado estado, Consumer<ImportacionEventoDto> reporte) {
+        if (filas.isEmpty()) {
+            return;
+        }
+        try {
+            limitador.ejecutar(() -> transactionTemplate.execute(status -> {
+                List<Long> ids = new ArrayList<>();
+                for (Fila fila : filas) {
+                    Division division = convertToEntity(fila.division);
+                    entityManager.persist(division);
+                    ids.add(division.getId());
+                }
+                entityManager.flush();
+                entityManager.clear();
+                contadorCambiosService.registrarCambio(ContadorCambiosService.DIVISIONES);
+                eventoCambioService.registrar(ContadorCambiosService.DIVISIONES, EventoCambio.CREACION, ids);
+                cacheManager.getCache(CacheConfig.DIVISIONES_LISTAS).clear();
+                // Avisar al índice de búsqueda de las divisiones nuevas (se difunde en un solo mensaje)
+                Cache divisiones = cacheManager.getCache(CacheConfig.DIVISIONES);
+                ids.forEach(divisiones::evict);
+                return null;
+            }));
+            estado.importadas += filas.size();
+        } catch (Exception e) {
+            boolean nombreRepetido = RestriccionUnica.violada(e, Division.UK_NOMBRE_NORMALIZADO);
+            if (nombreRepetido && filas.size() > 1) {
+                // Otra escritura registró alguno de los nombres después de la consulta: reintentar fila por fila
+                for (Fila fila : filas) {
+                    guardar(List.of(fila), estado, reporte);
+                }
+                return;
+            }
+            for (Fila fila : filas) {
+                reportarError(fila, nombreRepetido
+                        ? "Ya existe una división con el nombre: " + fila.division.getNombre()
+                        : "No se pudo guardar el lote: " + e.getMessage(), estado, reporte);
+            }
+        }
+    }
+
+    private void reportarError(Fila fila, String mensaje, Estado estado, Consumer<ImportacionEventoDto> reporte) {
+        estado.fallidas++;
+        reporte.accept(new ImportacionEventoDto(ImportacionEventoDto.ERROR, fila.linea, mensaje,
+                estado.procesadas, estado.importadas, estado.fallidas));
+    }
+
+    // Mismas reglas que las anotaciones de DivisionCreateDto; null si es válida
+    private String validar(DivisionCreateDto division) {
+        if (division.getNombre() == null || division.getNombre().isBlank()) {
+            return "El nombre de la división es obligatorio";
+        }
+        if (division.getProgramasEducativos() != null) {
+            for (ProgramaEducativoDto programa : division.getProgramasEducativos()) {
+                if (programa == null || programa.getNombre() == null || programa.getNombre().isBlank()) {
+                    return "El nombre del programa educativo es obligatorio";
+                }
+            }
+        }
+        return null;
+    }
+
+    private Fila leerNdjson(String linea, int numeroLinea) {
+        try {
+            return new Fila(numeroLinea, objectMapper.readValue(linea, DivisionCreateDto.class), null);
+        } catch (JsonProcessingException e) {
+            return new Fila(numeroLinea, null, "JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private Fila leerCsv(String linea, int numeroLinea) {
+        List<String> campos;
+        try {
+            campos = parsearCsv(linea);
+        } catch (IllegalArgumentException e) {
+            return new Fila(numeroLinea, null, e.getMessage());
+        }
+        if (campos.size() > 2) {
+            return new Fila(numeroLinea, null, "Se esperaban las columnas nombre,programas");
+        }
+
+        DivisionCreateDto division = new DivisionCreateDto();
+        division.setNombre(campos.get(0));
+        List<ProgramaEducativoDto> programas = new ArrayList<>();
+        if (campos.size() == 2 && !campos.get(1).isBlank()) {
+            for (String nombre : campos.get(1).split("\\|")) {
+                ProgramaEducativoDto programa = new ProgramaEducativoDto();
+                programa.setNombre(nombre.trim());
+                programa.setActivo(true);
+                programas.add(programa);
+            }
+        }
+        division.setProgramasEducativos(programas);
+        return new Fila(numeroLinea, division, null);
+    }
+
+    // Separar una línea CSV respetando comillas dobles ("" dentro de comillas = comilla literal)
+    private static List<String> parsearCsv(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+
+    private Division convertToEntity(DivisionCreateDto divisionDto) {
+        Division division = new Division();
+        division.setNombre(divisionDto.getNombre().trim());
+        division.setActivo(true);
+
+        List<ProgramaEducativa> programas = new ArrayList<>();
+        if (divisionDto.getProgramasEducativos() != null) {
+            for (ProgramaEducativoDto dto : divisionDto.getProgramasEducativos()) {
+                ProgramaEducativa programa = new ProgramaEducativa();
+                programa.setPrograma(dto.getNombre().trim());
+                programa.setActivo(true);
+                programas.add(programa);
+            }
+        }
+        division.setProgramaEducativas(programas);
+        return division;
+    }
+
+    // Fila leída del archivo; error != null si no se pudo interpretar
+    private record Fila(int linea, DivisionCreateDto division, String error) {
+    }
+
+    private static class Estado {
+        private long procesadas;
+        private long importadas;
+        private long fallidas;
+
+        private ImportacionEventoDto evento(String tipo) {
+            return new ImportacionEventoDto(tipo, null, null, procesadas, importadas, fallidas);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionNombreDto;
+import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+
+/**
+ * Resuelve nombres de división pasando por el cache "division-nombres".
+ * Los IDs que no están en cache se consultan juntos en una sola consulta, que lee solo el
+ * nombre (sin cargar la entidad).
+ */
+@Component
+public class DivisionNombreResolver {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private DivisionRepository divisionRepository;
+
+    // Obtener el nombre de una división
+    public Optional<String> resolver(Long divisionId) {
+        Cache cache = cache();
+        String nombre = cache.get(divisionId, String.class);
+        if (nombre != null) {
+            return Optional.of(nombre);
+        }
+
+        Optional<String> encontrado = divisionRepository.findNombreById(divisionId);
+        encontrado.ifPresent(n -> cache.put(divisionId, n));
+        return encontrado;
+    }
+
+    // Obtener los nombres de varias divisiones; los IDs inexistentes no aparecen en el resultado
+    public Map<Long, String> resolver(Collection<Long> divisionIds) {
+        Cache cache = cache();
+        Map<Long, String> nombres = new HashMap<>();
+        Set<Long> faltantes = new HashSet<>();
+
+        for (Long id : divisionIds) {
+            String nombre = cache.get(id, String.class);
+            if (nombre != null) {
+                nombres.put(id, nombre);
+            } else {
+                faltantes.add(id);
+            }
+        }
+
+        if (!faltantes.isEmpty()) {
+            for (DivisionNombreDto division : divisionRepository.findNombresByIdIn(faltantes)) {
+                nombres.put(division.getId(), division.getNombre());
+                if (division.getNombre() != null) {
+                    cache.put(division.getId(), division.getNombre());
+                }
+            }
+        }
+        return nombres;
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CacheConfig.DIVISION_NOMBRES);
+    }
+}
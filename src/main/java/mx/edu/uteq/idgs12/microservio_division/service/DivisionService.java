@@ -1,89 +1,278 @@
 package mx.edu.uteq.idgs12.microservio_division.service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.dto.CursorPageDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DeltaDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.DivisionCreateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionProgramaFilaDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionResumenDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.DivisionToViewListDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.DivisionUpdateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.OperacionBulkResultadoDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.ProgramaEducativoDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.ProgramaNombreDto;
+import mx.edu.uteq.idgs12.microservio_division.entity.Auditoria;
 import mx.edu.uteq.idgs12.microservio_division.entity.Division;
+import mx.edu.uteq.idgs12.microservio_division.entity.EventoCambio;
+import mx.edu.uteq.idgs12.microservio_division.entity.Normalizacion;
 import mx.edu.uteq.idgs12.microservio_division.entity.ProgramaEducativa;
+import mx.edu.uteq.idgs12.microservio_division.exception.RestriccionUnica;
+import mx.edu.uteq.idgs12.microservio_division.repository.CoordinadorRepository;
 import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.ProgramaEducativaRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.ProyeccionRepository;
 
 @Service
+@Timed("servicio.metodo")
 public class DivisionService {
 
     @Autowired
     private DivisionRepository divisionRepository;
 
+    @Autowired
+    private ProgramaEducativaRepository programaEducativaRepository;
+
+    @Autowired
+    private CoordinadorRepository coordinadorRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CursorCodec cursorCodec;
+
+    @Autowired
+    private ContadorCambiosService contadorCambiosService;
+
+    @Autowired
+    private EventoCambioService eventoCambioService;
+
+    @Autowired
+    private IndiceBusquedaDivisiones indiceBusqueda;
+
+    @Autowired
+    private ProyeccionRepository proyeccionRepository;
+
+    @Autowired
+    private LimitadorConcurrenciaBd limitador;
+
+    // Los cambios más recientes que esto se entregan en la siguiente petición: una escritura que
+    // tomó su fecha antes pero aún no hace commit no queda detrás de la marca de agua del cliente
+    @Value("${delta.margen:5s}")
+    private Duration margenDelta;
+
+    // Campos por los que se puede ordenar la paginación por cursor
+    private static final Map<String, Class<?>> CAMPOS_CURSOR = Map.of(
+            "id", Long.class,
+            "nombre", String.class);
+
+    // Máximo de divisiones por lote del delta
+    public static final int MAX_DELTA = 1000;
+
+    // ETag de las lecturas de divisiones; cambia con cada escritura
+    public String etag() {
+        Long cambios = contadorCambiosService.obtener(ContadorCambiosService.DIVISIONES);
+        return ContadorCambiosService.formatearEtag(ContadorCambiosService.DIVISIONES, cambios);
+    }
+
     // Obtener todas las divisiones
+    @Cacheable(cacheNames = CacheConfig.DIVISIONES_LISTAS, key = "'todas'")
     public List<DivisionToViewListDto> findAll() {
-        List<Division> divisiones = divisionRepository.findAll();
-        return divisiones.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        List<DivisionResumenDto> divisiones = divisionRepository.findResumenes();
+        return convertToDtoList(divisiones);
     }
 
     // Obtener solo divisiones activas
+    @Cacheable(cacheNames = CacheConfig.DIVISIONES_LISTAS, key = "'activas'")
     public List<DivisionToViewListDto> findAllActivas() {
-        List<Division> divisiones = divisionRepository.findByActivoTrue();
-        return divisiones.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        List<DivisionResumenDto> divisiones = divisionRepository.findResumenesByActivoTrue();
+        return convertToDtoList(divisiones);
+    }
+
+    // Obtener todas las divisiones con solo los campos pedidos
+    public List<Map<String, Object>> findAllCampos(String fields) {
+        Set<String> campos = DivisionRepository.PROYECCION.campos(fields);
+        return completarProgramas(proyeccionRepository.listar(DivisionRepository.PROYECCION, camposConsulta(campos),
+                null, Map.of(), Sort.by("id")), campos);
+    }
+
+    // Obtener las divisiones activas con solo los campos pedidos
+    public List<Map<String, Object>> findAllActivasCampos(String fields) {
+        Set<String> campos = DivisionRepository.PROYECCION.campos(fields);
+        return completarProgramas(proyeccionRepository.listar(DivisionRepository.PROYECCION, camposConsulta(campos),
+                "d.activo = true", Map.of(), Sort.by("id")), campos);
     }
 
-    // Buscar divisiones por nombre
+    // Buscar divisiones por nombre de la división o de sus programas, ordenadas por relevancia
+    // (IndiceBusquedaDivisiones); mientras el índice no termina de cargar se busca en la base,
+    // y solo entonces se pide permiso al limitador
     public List<DivisionToViewListDto> findByNombre(String nombre) {
-        List<Division> divisiones = divisionRepository.findByNombreContainingIgnoreCase(nombre);
-        return divisiones.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Optional<List<DivisionToViewListDto>> encontradas = indiceBusqueda.buscar(nombre);
+        if (encontradas.isPresent()) {
+            return encontradas.get();
+        }
+        return limitador.consultar(() -> convertToDtoList(
+                divisionRepository.findResumenesByNombreContainingIgnoreCase(Normalizacion.escaparLike(nombre))));
     }
 
     // Obtener todas las divisiones con paginación
     public Page<DivisionToViewListDto> findAllPaginated(int page, int size, String sortBy) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).ascending());
-        Page<Division> divisionesPage = divisionRepository.findAll(pageable);
-        return divisionesPage.map(this::convertToDto);
+        Page<DivisionResumenDto> divisionesPage = divisionRepository.findResumenes(pageable);
+        return convertToDtoPage(divisionesPage);
     }
 
     // Obtener divisiones activas con paginación
     public Page<DivisionToViewListDto> findAllActivasPaginated(int page, int size, String sortBy) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).ascending());
-        Page<Division> divisionesPage = divisionRepository.findByActivoTrue(pageable);
-        return divisionesPage.map(this::convertToDto);
+        Page<DivisionResumenDto> divisionesPage = divisionRepository.findResumenesByActivoTrue(pageable);
+        return convertToDtoPage(divisionesPage);
     }
 
-    // Buscar divisiones por nombre con paginación
-    public Page<DivisionToViewListDto> findByNombrePaginated(String nombre, int page, int size, String sortBy) {
+    // Obtener divisiones con paginación y solo los campos pedidos
+    public Page<Map<String, Object>> findAllPaginatedCampos(int page, int size, String sortBy, String fields) {
+        Set<String> campos = DivisionRepository.PROYECCION.campos(fields);
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).ascending());
-        Page<Division> divisionesPage = divisionRepository.findByNombreContainingIgnoreCase(nombre, pageable);
-        return divisionesPage.map(this::convertToDto);
+        Page<Map<String, Object>> pagina = proyeccionRepository.paginar(DivisionRepository.PROYECCION,
+                camposConsulta(campos), null, Map.of(), pageable);
+        completarProgramas(pagina.getContent(), campos);
+        return pagina;
+    }
+
+    // Obtener divisiones activas con paginación y solo los campos pedidos
+    public Page<Map<String, Object>> findAllActivasPaginatedCampos(int page, int size, String sortBy, String fields) {
+        Set<String> campos = DivisionRepository.PROYECCION.campos(fields);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).ascending());
+        Page<Map<String, Object>> pagina = proyeccionRepository.paginar(DivisionRepository.PROYECCION,
+                camposConsulta(campos), "d.activo = true", Map.of(), pageable);
+        completarProgramas(pagina.getContent(), campos);
+        return pagina;
+    }
+
+    // Buscar divisiones por nombre con paginación, ordenadas por sortBy y después por ID (con o sin índice)
+    public Page<DivisionToViewListDto> findByNombrePaginated(String nombre, int page, int size, String sortBy) {
+        // El índice y la consulta de la base ordenan por las mismas columnas; otra es un 400 en ambos casos
+        if (!IndiceBusquedaDivisiones.ORDENES.contains(sortBy)) {
+            throw new IllegalArgumentException("No se puede ordenar por: " + sortBy
+                    + ". Opciones: " + String.join(", ", IndiceBusquedaDivisiones.ORDENES));
+        }
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).ascending().and(Sort.by("id")));
+        Optional<List<DivisionToViewListDto>> encontradas = indiceBusqueda.buscar(nombre, sortBy);
+        if (encontradas.isPresent()) {
+            List<DivisionToViewListDto> todas = encontradas.get();
+            int desde = (int) Math.min(pageable.getOffset(), todas.size());
+            int hasta = Math.min(desde + size, todas.size());
+            return new PageImpl<>(todas.subList(desde, hasta), pageable, todas.size());
+        }
+        return limitador.consultar(() -> convertToDtoPage(
+                divisionRepository.findResumenesByNombreContainingIgnoreCase(Normalizacion.escaparLike(nombre), pageable)));
+    }
+
+    // Obtener divisiones con paginación por cursor
+    public CursorPageDto<DivisionToViewListDto> findAllScroll(String cursor, int size, String sortBy) {
+        ScrollPosition posicion = cursorCodec.decode(cursor, sortBy, CAMPOS_CURSOR);
+        Window<Division> ventana = divisionRepository.findAllBy(posicion, Sort.by(sortBy).ascending(), Limit.of(size));
+        List<DivisionToViewListDto> contenido = convertirConProgramas(ventana.getContent());
+        return new CursorPageDto<>(contenido, cursorCodec.encode(ventana, sortBy), ventana.hasNext());
+    }
+
+    // Divisiones creadas o modificadas después de since, en lotes de hasta size; las bajas (delete)
+    // llegan como divisiones con activo=false
+    public DeltaDto<DivisionToViewListDto> findDelta(String since, int size) {
+        if (size < 1 || size > MAX_DELTA) {
+            throw new IllegalArgumentException("size debe estar entre 1 y " + MAX_DELTA);
+        }
+        MarcaAgua desde = MarcaAgua.parse(since);
+        // Una fila de más indica si queda otro lote
+        List<Division> modificadas = divisionRepository.findModificadasDesde(desde.instante(), desde.id(),
+                Auditoria.ahora().minus(margenDelta), Limit.of(size + 1));
+        boolean hayMas = modificadas.size() > size;
+        List<Division> lote = hayMas ? modificadas.subList(0, size) : modificadas;
+
+        MarcaAgua siguiente = lote.isEmpty() ? desde
+                : new MarcaAgua(lote.get(lote.size() - 1).getActualizadoEn(), lote.get(lote.size() - 1).getId());
+        return new DeltaDto<>(convertirConProgramas(lote), siguiente.toString(), hayMas);
+    }
+
+    // Recorrer todas las divisiones sin cargarlas en memoria: las filas llegan ordenadas por división
+    // y se agrupan al vuelo, así solo se conserva la división en curso
+    @Transactional(readOnly = true)
+    public void exportar(Consumer<DivisionToViewListDto> destino) {
+        try (Stream<DivisionProgramaFilaDto> filas = divisionRepository.streamFilasExportacion()) {
+            DivisionToViewListDto actual = null;
+            Iterator<DivisionProgramaFilaDto> iterador = filas.iterator();
+            while (iterador.hasNext()) {
+                DivisionProgramaFilaDto fila = iterador.next();
+                if (actual == null || actual.getDivisionId() != fila.getDivisionId()) {
+                    if (actual != null) {
+                        destino.accept(actual);
+                    }
+                    actual = convertToDto(new DivisionResumenDto(
+                            fila.getDivisionId(), fila.getNombre(), fila.isActivo(), 0L), new ArrayList<>());
+                }
+                if (fila.getPrograma() != null) {
+                    actual.getProgramaEducativa().add(fila.getPrograma());
+                    actual.setNumeroProgramas(actual.getNumeroProgramas() + 1);
+                }
+            }
+            if (actual != null) {
+                destino.accept(actual);
+            }
+        }
     }
 
     // Obtener división por ID
+    @Cacheable(cacheNames = CacheConfig.DIVISIONES, key = "#id", unless = "#result == null")
     public Optional<DivisionToViewListDto> findById(Long id) {
-        Optional<Division> division = divisionRepository.findById(id);
-        return division.map(this::convertToDto);
+        List<DivisionResumenDto> divisiones = divisionRepository.findResumenesByIdIn(List.of(id));
+        return convertToDtoList(divisiones).stream().findFirst();
     }
 
     // Crear nueva división
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DIVISIONES_LISTAS, allEntries = true),
+            // No hay nada en cache con el ID nuevo: la invalidación avisa al índice de búsqueda
+            @CacheEvict(cacheNames = CacheConfig.DIVISIONES, key = "#result.divisionId")
+    })
     public DivisionToViewListDto create(DivisionCreateDto divisionDto) {
-        // Validar que el nombre no esté duplicado
-        if (divisionRepository.existsByNombreIgnoreCase(divisionDto.getNombre())) {
-            throw new IllegalArgumentException("Ya existe una división con el nombre: " + divisionDto.getNombre());
-        }
-
         Division division = new Division();
         division.setNombre(divisionDto.getNombre());
         division.setActivo(true);
@@ -101,12 +290,19 @@ public class DivisionService {
             division.setProgramaEducativas(programas);
         }
 
-        Division savedDivision = divisionRepository.save(division);
+        Division savedDivision = guardar(division);
+        contadorCambiosService.registrarCambio(ContadorCambiosService.DIVISIONES);
+        eventoCambioService.registrar(ContadorCambiosService.DIVISIONES, EventoCambio.CREACION, savedDivision.getId());
         return convertToDto(savedDivision);
     }
 
     // Actualizar división existente
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DIVISIONES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.DIVISIONES_LISTAS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.DIVISION_NOMBRES, key = "#id")
+    })
     public Optional<DivisionToViewListDto> update(Long id, DivisionUpdateDto divisionDto) {
         Optional<Division> divisionOpt = divisionRepository.findById(id);
 
@@ -114,40 +310,65 @@ public class DivisionService {
             return Optional.empty();
         }
 
-        // Validar que el nombre no esté duplicado (excluyendo la división actual)
-        if (divisionRepository.existsByNombreIgnoreCaseAndIdNot(divisionDto.getNombre(), id)) {
-            throw new IllegalArgumentException("Ya existe una división con el nombre: " + divisionDto.getNombre());
-        }
-
         Division division = divisionOpt.get();
+        boolean renombrada = !Objects.equals(division.getNombre(), divisionDto.getNombre());
         division.setNombre(divisionDto.getNombre());
 
-        // Actualizar programas educativos
-        if (divisionDto.getProgramasEducativos() != null) {
-            // Limpiar programas existentes
-            division.getProgramaEducativas().clear();
-
-            // Agregar nuevos programas
-            List<ProgramaEducativa> programas = divisionDto.getProgramasEducativos().stream()
-                    .map(dto -> {
-                        ProgramaEducativa programa = new ProgramaEducativa();
-                        if (dto.getId() != null) {
-                            programa.setId(dto.getId());
-                        }
-                        programa.setPrograma(dto.getNombre());
-                        programa.setActivo(dto.isActivo());
-                        return programa;
-                    })
-                    .collect(Collectors.toList());
-            division.getProgramaEducativas().addAll(programas);
+        // Actualizar programas educativos: solo las filas que cambian
+        if (divisionDto.getProgramasEducativos() != null
+                && actualizarProgramas(division, divisionDto.getProgramasEducativos())) {
+            // La división sube de versión y sale en el delta aunque solo cambien sus programas
+            division.marcarModificada();
         }
 
-        Division updatedDivision = divisionRepository.save(division);
+        Division updatedDivision = guardar(division);
+        contadorCambiosService.registrarCambio(ContadorCambiosService.DIVISIONES);
+        eventoCambioService.registrar(ContadorCambiosService.DIVISIONES, EventoCambio.ACTUALIZACION, id);
+        if (renombrada) {
+            // Los coordinadores de la división muestran su nombre: solo esas entradas salen del cache
+            contadorCambiosService.registrarCambio(ContadorCambiosService.COORDINADORES);
+            invalidar(CacheConfig.COORDINADORES, coordinadorRepository.findIdsByDivisionId(id));
+        }
         return Optional.of(convertToDto(updatedDivision));
     }
 
+    // Comparar los programas pedidos con los existentes por id: edita en su lugar, inserta los nuevos
+    // y quita solo los que faltan (orphanRemoval los borra); regresa si algo cambió
+    private boolean actualizarProgramas(Division division, List<ProgramaEducativoDto> pedidos) {
+        List<ProgramaEducativa> programas = division.getProgramaEducativas();
+        Set<Long> idsPedidos = pedidos.stream()
+                .map(ProgramaEducativoDto::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        boolean cambio = programas.removeIf(programa -> !idsPedidos.contains(programa.getId()));
+
+        Map<Long, ProgramaEducativa> existentes = programas.stream()
+                .collect(Collectors.toMap(ProgramaEducativa::getId, p -> p));
+        for (ProgramaEducativoDto dto : pedidos) {
+            // Un id repetido o ajeno a la división cuenta como programa nuevo, igual que antes
+            ProgramaEducativa programa = dto.getId() != null ? existentes.remove(dto.getId()) : null;
+            if (programa == null) {
+                programa = new ProgramaEducativa();
+                programa.setPrograma(dto.getNombre());
+                programa.setActivo(dto.isActivo());
+                division.agregarPrograma(programa);
+                cambio = true;
+            } else if (!Objects.equals(programa.getPrograma(), dto.getNombre())
+                    || programa.isActivo() != dto.isActivo()) {
+                programa.setPrograma(dto.getNombre());
+                programa.setActivo(dto.isActivo());
+                cambio = true;
+            }
+        }
+        return cambio;
+    }
+
     // Eliminar división (soft delete)
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DIVISIONES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.DIVISIONES_LISTAS, allEntries = true)
+    })
     public boolean delete(Long id) {
         Optional<Division> divisionOpt = divisionRepository.findById(id);
         
@@ -164,11 +385,17 @@ public class DivisionService {
         }
         
         divisionRepository.save(division);
+        contadorCambiosService.registrarCambio(ContadorCambiosService.DIVISIONES);
+        eventoCambioService.registrar(ContadorCambiosService.DIVISIONES, EventoCambio.BAJA, id);
         return true;
     }
 
     // Activar/Desactivar división
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DIVISIONES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.DIVISIONES_LISTAS, allEntries = true)
+    })
     public Optional<DivisionToViewListDto> toggleStatus(Long id) {
         Optional<Division> divisionOpt = divisionRepository.findById(id);
         
@@ -179,11 +406,172 @@ public class DivisionService {
         Division division = divisionOpt.get();
         division.setActivo(!division.isActivo());
         Division updatedDivision = divisionRepository.save(division);
+        contadorCambiosService.registrarCambio(ContadorCambiosService.DIVISIONES);
+        eventoCambioService.registrar(ContadorCambiosService.DIVISIONES, EventoCambio.CAMBIO_ESTADO, id);
         return Optional.of(convertToDto(updatedDivision));
     }
 
-    // Método auxiliar para convertir Entity a DTO
-    private DivisionToViewListDto convertToDto(Division division) {
+    // Dar de baja varias divisiones con sus programas y, si se pide, sus coordinadores:
+    // una consulta de IDs y un UPDATE por tabla, sin cargar las entidades
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DIVISIONES_LISTAS, allEntries = true)
+    public OperacionBulkResultadoDto desactivarBulk(List<Long> ids, boolean incluirCoordinadores) {
+        Set<Long> solicitados = OperacionesBulk.validarIds(ids, "divisiones");
+        List<Long> existentes = divisionRepository.findIdsByIdIn(solicitados);
+        OperacionBulkResultadoDto resultado = OperacionesBulk.resultado(solicitados, existentes);
+        if (existentes.isEmpty()) {
+            return resultado;
+        }
+
+        LocalDateTime ahora = Auditoria.ahora();
+        resultado.setActualizados(divisionRepository.desactivar(existentes, ahora));
+        resultado.setProgramasDesactivados(programaEducativaRepository.desactivarPorDivisionIdIn(existentes, ahora));
+        contadorCambiosService.registrarCambio(ContadorCambiosService.DIVISIONES);
+        eventoCambioService.registrar(ContadorCambiosService.DIVISIONES, EventoCambio.BAJA, existentes);
+        invalidar(CacheConfig.DIVISIONES, existentes);
+
+        if (incluirCoordinadores) {
+            List<Long> coordinadores = coordinadorRepository.findIdsActivosByDivisionIdIn(existentes);
+            resultado.setCoordinadoresDesactivados(0);
+            if (!coordinadores.isEmpty()) {
+                resultado.setCoordinadoresDesactivados(coordinadorRepository.desactivar(coordinadores, ahora));
+                contadorCambiosService.registrarCambio(ContadorCambiosService.COORDINADORES);
+                eventoCambioService.registrar(ContadorCambiosService.COORDINADORES, EventoCambio.BAJA, coordinadores);
+                invalidar(CacheConfig.COORDINADORES, coordinadores);
+            }
+        }
+        return resultado;
+    }
+
+    // Activar/Desactivar varias divisiones en un solo UPDATE (sus programas no cambian, igual que toggleStatus)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DIVISIONES_LISTAS, allEntries = true)
+    public OperacionBulkResultadoDto toggleStatusBulk(List<Long> ids) {
+        Set<Long> solicitados = OperacionesBulk.validarIds(ids, "divisiones");
+        List<Long> existentes = divisionRepository.findIdsByIdIn(solicitados);
+        OperacionBulkResultadoDto resultado = OperacionesBulk.resultado(solicitados, existentes);
+        if (existentes.isEmpty()) {
+            return resultado;
+        }
+
+        resultado.setActualizados(divisionRepository.invertirEstado(existentes, Auditoria.ahora()));
+        contadorCambiosService.registrarCambio(ContadorCambiosService.DIVISIONES);
+        eventoCambioService.registrar(ContadorCambiosService.DIVISIONES, EventoCambio.CAMBIO_ESTADO, existentes);
+        invalidar(CacheConfig.DIVISIONES, existentes);
+        return resultado;
+    }
+
+    // Invalidar por ID lo que tocó una operación (se aplica después del commit); cada
+    // invalidación llega a los índices de búsqueda y sugerencias, que solo recargan esos IDs
+    private void invalidar(String cache, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Cache entradas = cacheManager.getCache(cache);
+        ids.forEach(entradas::evict);
+    }
+
+    // Insertar o actualizar enviando el SQL de inmediato: el índice único de nombre_normalizado
+    // rechaza los nombres repetidos, también los de dos peticiones simultáneas
+    private Division guardar(Division division) {
+        try {
+            return divisionRepository.saveAndFlush(division);
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionUnica.violada(e, Division.UK_NOMBRE_NORMALIZADO)) {
+                throw new IllegalArgumentException("Ya existe una división con el nombre: " + division.getNombre());
+            }
+            throw e;
+        }
+    }
+
+    // Convertir proyecciones a DTO cargando los programas activos en una sola consulta
+    private List<DivisionToViewListDto> convertToDtoList(List<DivisionResumenDto> divisiones) {
+        Map<Long, List<String>> programas = cargarProgramasActivos(divisiones);
+        return divisiones.stream()
+                .map(d -> convertToDto(d, programas.getOrDefault(d.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    // Convertir entidades (sin su colección) cargando los programas activos en una sola consulta
+    private List<DivisionToViewListDto> convertirConProgramas(List<Division> divisiones) {
+        List<Long> ids = divisiones.stream()
+                .map(Division::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<String>> programas = cargarProgramasActivos(ids);
+
+        return divisiones.stream()
+                .map(d -> {
+                    List<String> nombres = programas.getOrDefault(d.getId(), new ArrayList<>());
+                    DivisionResumenDto resumen = new DivisionResumenDto(
+                            d.getId(), d.getNombre(), d.isActivo(), (long) nombres.size());
+                    return convertToDto(resumen, nombres);
+                })
+                .collect(Collectors.toList());
+    }
+
+    private Page<DivisionToViewListDto> convertToDtoPage(Page<DivisionResumenDto> divisionesPage) {
+        Map<Long, List<String>> programas = cargarProgramasActivos(divisionesPage.getContent());
+        return divisionesPage.map(d -> convertToDto(d, programas.getOrDefault(d.getId(), new ArrayList<>())));
+    }
+
+    // Los programas se completan por ID de división: si no se pidió, se consulta igual y se quita al final
+    private static Set<String> camposConsulta(Set<String> campos) {
+        if (!campos.contains("programaEducativa") || campos.contains("divisionId")) {
+            return campos;
+        }
+        Set<String> conId = new LinkedHashSet<>(campos);
+        conId.add("divisionId");
+        return conId;
+    }
+
+    // Agregar los programas activos a las filas, con una sola consulta, si se pidieron
+    private List<Map<String, Object>> completarProgramas(List<Map<String, Object>> filas, Set<String> campos) {
+        if (!campos.contains("programaEducativa")) {
+            return filas;
+        }
+        List<Long> ids = filas.stream().map(f -> (Long) f.get("divisionId")).collect(Collectors.toList());
+        Map<Long, List<String>> programas = cargarProgramasActivos(ids);
+        for (Map<String, Object> fila : filas) {
+            Long id = (Long) fila.get("divisionId");
+            fila.put("programaEducativa", programas.getOrDefault(id, new ArrayList<>()));
+            if (!campos.contains("divisionId")) {
+                fila.remove("divisionId");
+            }
+        }
+        return filas;
+    }
+
+    // Obtener los nombres de programas activos agrupados por división
+    private Map<Long, List<String>> cargarProgramasActivos(List<DivisionResumenDto> divisiones) {
+        List<Long> ids = divisiones.stream()
+                .filter(d -> d.getNumeroProgramas() > 0)
+                .map(DivisionResumenDto::getId)
+                .collect(Collectors.toList());
+        return cargarProgramasActivos(ids);
+    }
+
+    private Map<Long, List<String>> cargarProgramasActivos(Collection<Long> divisionIds) {
+        if (divisionIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return programaEducativaRepository.findActivosByDivisionIdIn(divisionIds).stream()
+                .collect(Collectors.groupingBy(ProgramaNombreDto::getDivisionId,
+                        Collectors.mapping(ProgramaNombreDto::getPrograma, Collectors.toList())));
+    }
+
+    private DivisionToViewListDto convertToDto(DivisionResumenDto division, List<String> programas) {
+        DivisionToViewListDto dto = new DivisionToViewListDto();
+        dto.setDivisionId(division.getId());
+        dto.setNombre(division.getNombre());
+        dto.setActivo(division.isActivo());
+        dto.setProgramaEducativa(programas);
+        dto.setNumeroProgramas(division.getNumeroProgramas().intValue());
+        return dto;
+    }
+
+    // Método auxiliar para convertir Entity a DTO (visible en el paquete para los benchmarks JMH)
+    DivisionToViewListDto convertToDto(Division division) {
         DivisionToViewListDto dto = new DivisionToViewListDto();
         dto.setDivisionId(division.getId());
         dto.setNombre(division.getNombre());
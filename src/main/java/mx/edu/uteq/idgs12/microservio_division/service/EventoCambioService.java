@@ -0,0 +1,182 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionDistribuida;
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionListener;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.dto.EventoCambioDto;
+import mx.edu.uteq.idgs12.microservio_division.entity.EventoCambio;
+import mx.edu.uteq.idgs12.microservio_division.exception.CambiosDepuradosException;
+import mx.edu.uteq.idgs12.microservio_division.repository.EventoCambioRepository;
+
+/**
+ * Eventos de cambio de divisiones y coordinadores (GET /cambios).
+ *
+ * Las escrituras de los servicios llaman a registrar() dentro de su transacción: el evento
+ * queda en el outbox (EventoCambio) solo si la escritura hace commit, y después del commit
+ * se pide a PublicadorCambios que le asigne secuencia.
+ *
+ * Los clientes leen por secuencia con leer() o esperar(). La última secuencia publicada es
+ * el contador "eventos" de ContadorCambiosService, en cache: mientras no hay nada nuevo ni
+ * una espera larga consulta la base. Al publicar, la invalidación de ese contador llega a
+ * todas las réplicas y despierta a los clientes que esperan en cualquiera de ellas.
+ */
+@Service
+public class EventoCambioService implements InvalidacionListener {
+
+    public static final int MAX_LOTE = 500;
+    public static final Duration MAX_ESPERA = Duration.ofSeconds(60);
+
+    @Autowired
+    private EventoCambioRepository eventoCambioRepository;
+
+    @Autowired
+    private ContadorCambiosService contadorCambiosService;
+
+    @Autowired
+    private PublicadorCambios publicadorCambios;
+
+    @Autowired
+    private InvalidacionDistribuida invalidacionDistribuida;
+
+    @Autowired
+    private LimitadorConcurrenciaBd limitador;
+
+    // Avanza con cada publicación; quien espera compara contra el valor que vio antes de leer
+    private final AtomicLong publicaciones = new AtomicLong();
+    // ReentrantLock y no synchronized: la espera no fija el hilo virtual
+    private final ReentrantLock candado = new ReentrantLock();
+    private final Condition publicado = candado.newCondition();
+
+    @PostConstruct
+    void suscribir() {
+        invalidacionDistribuida.agregarListener(this);
+    }
+
+    // Registrar el cambio de una entidad en la transacción de la escritura
+    public void registrar(String coleccion, String operacion, Long id) {
+        registrar(coleccion, operacion, List.of(id));
+    }
+
+    // Registrar el mismo cambio en varias entidades (cargas en bloque)
+    public void registrar(String coleccion, String operacion, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        eventoCambioRepository.saveAll(ids.stream()
+                .map(id -> new EventoCambio(coleccion, id, operacion, ahora))
+                .toList());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publicadorCambios.solicitar();
+                }
+            });
+        } else {
+            publicadorCambios.solicitar();
+        }
+    }
+
+    // Última secuencia publicada: desde dónde seguir el feed después de leer los listados completos
+    public long ultimaSecuencia() {
+        return contadorCambiosService.obtener(ContadorCambiosService.EVENTOS);
+    }
+
+    // Eventos publicados después de desde, hasta limite
+    public List<EventoCambioDto> leer(long desde, int limite) {
+        if (desde < 0) {
+            throw new IllegalArgumentException("desde no puede ser negativo");
+        }
+        if (limite < 1 || limite > MAX_LOTE) {
+            throw new IllegalArgumentException("limite debe estar entre 1 y " + MAX_LOTE);
+        }
+        long ultima = ultimaSecuencia();
+        if (ultima <= desde) {
+            return List.of();
+        }
+
+        List<EventoCambioDto> eventos;
+        try {
+            eventos = limitador.ejecutar(() -> eventoCambioRepository.findPublicadosDesde(desde, Limit.of(limite)));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        // La secuencia no tiene huecos: si el primero no es desde + 1, los anteriores ya se depuraron
+        long primera = eventos.isEmpty() ? ultima : eventos.get(0).getSecuencia();
+        if (primera > desde + 1) {
+            throw new CambiosDepuradosException(desde);
+        }
+        return eventos;
+    }
+
+    // Igual que leer(), pero si no hay eventos espera a que se publiquen hasta el tiempo dado
+    public List<EventoCambioDto> esperar(long desde, int limite, Duration espera) throws InterruptedException {
+        long restante = espera.toNanos();
+        long fin = System.nanoTime() + restante;
+        while (true) {
+            long vista = publicaciones.get();
+            List<EventoCambioDto> eventos = leer(desde, limite);
+            restante = fin - System.nanoTime();
+            if (!eventos.isEmpty() || restante <= 0) {
+                return eventos;
+            }
+            esperarPublicacion(vista, restante);
+        }
+    }
+
+    // Tiempo de espera pedido por el cliente, en segundos
+    public static Duration espera(int segundos) {
+        if (segundos < 0 || segundos > MAX_ESPERA.toSeconds()) {
+            throw new IllegalArgumentException("espera debe estar entre 0 y " + MAX_ESPERA.toSeconds() + " segundos");
+        }
+        return Duration.ofSeconds(segundos);
+    }
+
+    // Bloquear hasta que haya una publicación posterior a la vista o se acabe el tiempo
+    private void esperarPublicacion(long vista, long nanos) throws InterruptedException {
+        candado.lock();
+        try {
+            while (publicaciones.get() == vista && nanos > 0) {
+                nanos = publicado.awaitNanos(nanos);
+            }
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    // Invalidación del contador "eventos" (local o de otra réplica): hay eventos nuevos
+    @Override
+    public void invalidado(String cache, Object llave) {
+        if (!CacheConfig.CONTADORES_CAMBIOS.equals(cache)
+                || (llave != null && !ContadorCambiosService.EVENTOS.equals(llave))) {
+            return;
+        }
+        candado.lock();
+        try {
+            publicaciones.incrementAndGet();
+            publicado.signalAll();
+        } finally {
+            candado.unlock();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.entity.CoordinadorEntity;
+import mx.edu.uteq.idgs12.microservio_division.entity.Division;
+import mx.edu.uteq.idgs12.microservio_division.entity.ProgramaEducativa;
+import mx.edu.uteq.idgs12.microservio_division.repository.CoordinadorRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+
+/**
+ * Datos sintéticos para pruebas de carga (perfil "loadtest", junto con dev o prod).
+ *
+ * Al arrancar completa la base hasta generador.divisiones divisiones, cada una con
+ * generador.programas-por-division programas, y generador.coordinadores coordinadores
+ * repartidos entre ellas. Usa una semilla fija, así dos corridas generan los mismos datos;
+ * si la base ya tiene los volúmenes pedidos no inserta nada. Se guarda por lotes, cada
+ * uno en su transacción con flush + clear, como la importación.
+ */
+@Service
+@Profile("loadtest")
+public class GeneradorDatosService {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneradorDatosService.class);
+
+    @Autowired
+    private DivisionRepository divisionRepository;
+
+    @Autowired
+    private CoordinadorRepository coordinadorRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ContadorCambiosService contadorCambiosService;
+
+    @Value("${generador.divisiones:2000}")
+    private int divisiones;
+
+    @Value("${generador.programas-por-division:20}")
+    private int programasPorDivision;
+
+    @Value("${generador.coordinadores:200000}")
+    private int coordinadores;
+
+    @Value("${generador.lote:1000}")
+    private int tamanoLote;
+
+    @Value("${generador.semilla:42}")
+    private long semilla;
+
+    // Generar los datos faltantes al terminar el arranque
+    @EventListener(ApplicationReadyEvent.class)
+    public void generar() {
+        long inicio = System.currentTimeMillis();
+        Random aleatorio = new Random(semilla);
+
+        long divisionesExistentes = divisionRepository.count();
+        for (long i = divisionesExistentes; i < divisiones; i += tamanoLote) {
+            guardarDivisiones(i, Math.min(i + tamanoLote, divisiones), aleatorio);
+        }
+
+        List<Long> divisionIds = divisionRepository.findAllIds();
+        long coordinadoresExistentes = coordinadorRepository.count();
+        if (!divisionIds.isEmpty()) {
+            for (long i = coordinadoresExistentes; i < coordinadores; i += tamanoLote) {
+                guardarCoordinadores(i, Math.min(i + tamanoLote, coordinadores), divisionIds, aleatorio);
+            }
+        }
+
+        log.info("Datos de carga listos: {} divisiones y {} coordinadores ({} ms)",
+                divisionRepository.count(), coordinadorRepository.count(), System.currentTimeMillis() - inicio);
+    }
+
+    private void guardarDivisiones(long desde, long hasta, Random aleatorio) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long n = desde; n < hasta; n++) {
+                Division division = new Division();
+                division.setNombre(String.format("División sintética %06d", n));
+                // Una de cada diez inactiva
+                division.setActivo(aleatorio.nextInt(10) != 0);
+                List<ProgramaEducativa> programas = new ArrayList<>(programasPorDivision);
+                for (int p = 0; p < programasPorDivision; p++) {
+                    ProgramaEducativa programa = new ProgramaEducativa();
+                    programa.setPrograma(String.format("Programa %06d-%02d", n, p));
+                    programa.setActivo(aleatorio.nextInt(5) != 0);
+                    programas.add(programa);
+                }
+                division.setProgramaEducativas(programas);
+                entityManager.persist(division);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            contadorCambiosService.registrarCambio(ContadorCambiosService.DIVISIONES);
+            cacheManager.getCache(CacheConfig.DIVISIONES_LISTAS).clear();
+        });
+    }
+
+    private void guardarCoordinadores(long desde, long hasta, List<Long> divisionIds, Random aleatorio) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long n = desde; n < hasta; n++) {
+                entityManager.persist(CoordinadorEntity.builder()
+                        .nombre("Nombre" + n)
+                        .apellido("Apellido" + (n % 997))
+                        .correo("coordinador" + n + "@carga.uteq.edu.mx")
+                        .telefono(String.format("442%07d", n % 10_000_000))
+                        .divisionId(divisionIds.get(aleatorio.nextInt(divisionIds.size())))
+                        // Uno de cada veinte inactivo
+                        .activo(aleatorio.nextInt(20) != 0)
+                        .build());
+            }
+            entityManager.flush();
+            entityManager.clear();
+            contadorCambiosService.registrarCambio(ContadorCambiosService.COORDINADORES);
+        });
+    }
+}
@@ -0,0 +1,395 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionDistribuida;
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionListener;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionResumenDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionToViewListDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.ProgramaNombreDto;
+import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.ProgramaEducativaRepository;
+
+/**
+ * Índice en memoria para buscar divisiones por su nombre o por el de sus programas activos
+ * (GET /divisiones/search). LIKE '%texto%' no puede usar un índice de la base; aquí cada
+ * nombre se "dobla" (sin acentos, en minúsculas y con espacios simples, así "TECNOLOGÍAS"
+ * y "tecnologias" son iguales) y se indexa por trigramas. Los candidatos de una consulta son
+ * la intersección de las listas de sus trigramas y se confirman con contains() sobre el
+ * texto doblado; las consultas de menos de tres letras revisan todas las divisiones.
+ *
+ * Orden por relevancia (GET /divisiones/search): nombre igual, nombre que empieza con la
+ * consulta, palabra del nombre que empieza con ella, nombre que la contiene y, al final,
+ * coincidencias solo en un programa. La búsqueda paginada ordena como siempre lo ha hecho,
+ * por la columna sortBy y después por ID, igual que la consulta de la base.
+ *
+ * Se mantiene al día con las invalidaciones del cache "divisiones", locales y de las demás
+ * réplicas (ver InvalidacionDistribuida): cada ID invalidado queda pendiente y se vuelve a
+ * leer de la base, junto con los demás pendientes, en la siguiente búsqueda. La carga completa
+ * corre en segundo plano al arrancar y cuando se invalida el cache completo; mientras no
+ * termina, buscar() regresa Optional.empty() y el servicio consulta la base. La carga arma
+ * mapas nuevos y los publica de una vez: una búsqueda en curso sigue con los anteriores.
+ */
+@Component
+public class IndiceBusquedaDivisiones implements InvalidacionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceBusquedaDivisiones.class);
+
+    private static final int N = 3;
+    private static final int LOTE_PROGRAMAS = 1000;
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    // Columnas por las que se puede ordenar la búsqueda paginada (las de Division que ordena la consulta de la base)
+    public static final List<String> ORDENES = List.of("id", "nombre", "activo");
+
+    @Autowired
+    private DivisionRepository divisionRepository;
+
+    @Autowired
+    private ProgramaEducativaRepository programaEducativaRepository;
+
+    @Autowired
+    private InvalidacionDistribuida invalidacionDistribuida;
+
+    @Autowired
+    private LimitadorConcurrenciaBd limitador;
+
+    // Documentos y trigramas vigentes; una carga completa reemplaza la referencia
+    private volatile Contenido contenido = new Contenido();
+    // IDs invalidados que aún no se vuelven a leer
+    private final Set<Long> pendientes = ConcurrentHashMap.newKeySet();
+    // Serializa las escrituras (ReentrantLock y no synchronized: no fija el hilo virtual durante la consulta)
+    private final ReentrantLock escritura = new ReentrantLock();
+    private final AtomicBoolean cargando = new AtomicBoolean();
+    private final AtomicBoolean recargaSolicitada = new AtomicBoolean();
+    private volatile boolean listo;
+
+    // Trigrama -> IDs de las divisiones que lo contienen en su nombre o en un programa
+    private record Contenido(Map<Long, Documento> documentos, Map<String, Set<Long>> trigramas) {
+        Contenido() {
+            this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    private record Documento(long id, String nombre, boolean activo, List<String> programas,
+            String nombreDoblado, List<String> programasDoblados) {
+    }
+
+    private record Resultado(Documento documento, int relevancia) {
+    }
+
+    @PostConstruct
+    void registrar() {
+        invalidacionDistribuida.agregarListener(this);
+    }
+
+    // Cargar el índice sin retrasar el arranque
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        cargarEnSegundoPlano();
+    }
+
+    @Override
+    public void invalidado(String cache, Object llave) {
+        if (!CacheConfig.DIVISIONES.equals(cache)) {
+            return;
+        }
+        if (llave instanceof Long id) {
+            pendientes.add(id);
+        } else {
+            listo = false;
+            cargarEnSegundoPlano();
+        }
+    }
+
+    public boolean isListo() {
+        return listo;
+    }
+
+    // Divisiones cuyo nombre o algún programa activo contiene el texto, por relevancia y después por ID;
+    // Optional.empty() si el índice no está cargado
+    public Optional<List<DivisionToViewListDto>> buscar(String texto) {
+        return buscarOrdenadas(texto, Comparator.comparingInt(Resultado::relevancia));
+    }
+
+    // Las mismas divisiones ordenadas por ordenarPor (id, nombre o activo) y después por ID, sin relevancia
+    public Optional<List<DivisionToViewListDto>> buscar(String texto, String ordenarPor) {
+        Comparator<Resultado> orden = switch (ordenarPor) {
+            case "id" -> Comparator.comparingLong(r -> r.documento().id());
+            case "nombre" -> Comparator.comparing(r -> r.documento().nombreDoblado());
+            case "activo" -> Comparator.comparing(r -> r.documento().activo());
+            default -> throw new IllegalArgumentException("No se puede ordenar por: " + ordenarPor
+                    + ". Opciones: " + String.join(", ", ORDENES));
+        };
+        return buscarOrdenadas(texto, orden);
+    }
+
+    private Optional<List<DivisionToViewListDto>> buscarOrdenadas(String texto, Comparator<Resultado> orden) {
+        orden = orden.thenComparingLong(r -> r.documento().id());
+
+        if (!listo) {
+            if (!cargando.get()) {
+                // La carga inicial falló (p. ej. la base no respondía): reintentar
+                cargarEnSegundoPlano();
+            }
+            return Optional.empty();
+        }
+        aplicarPendientes();
+
+        // Una sola lectura de la referencia: la búsqueda no mezcla dos cargas
+        Contenido actual = contenido;
+        String consulta = doblar(texto);
+        List<Resultado> resultados = new ArrayList<>();
+        for (Long id : candidatos(actual, consulta)) {
+            Documento documento = actual.documentos().get(id);
+            if (documento != null) {
+                int relevancia = relevancia(documento, consulta);
+                if (relevancia >= 0) {
+                    resultados.add(new Resultado(documento, relevancia));
+                }
+            }
+        }
+
+        return Optional.of(resultados.stream()
+                .sorted(orden)
+                .map(r -> toDto(r.documento()))
+                .collect(Collectors.toList()));
+    }
+
+    // Texto de comparación: sin acentos ni diéresis, en minúsculas y con espacios simples
+    static String doblar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        // Sin caracteres fuera de ASCII no hay acentos que quitar (la mayoría de correos y muchos nombres)
+        String sinMarcas = texto.chars().allMatch(c -> c < 0x80) ? texto
+                : MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACIOS.matcher(sinMarcas.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // Leer todas las divisiones y reemplazar el índice; quien llama ya tiene la marca de carga
+    void cargar() {
+        try {
+            Contenido nuevo = limitador.ejecutar(() -> {
+                escritura.lock();
+                try {
+                    // Lo que se invalide a partir de aquí queda pendiente y se relee después de la carga
+                    pendientes.clear();
+                    Contenido armado = new Contenido();
+                    leer(divisionRepository.findResumenes()).values().forEach(documento -> indexar(armado, documento));
+                    contenido = armado;
+                    listo = true;
+                    return armado;
+                } finally {
+                    escritura.unlock();
+                }
+            });
+            log.info("Índice de búsqueda de divisiones cargado: {} divisiones, {} trigramas",
+                    nuevo.documentos().size(), nuevo.trigramas().size());
+        } catch (Exception e) {
+            log.warn("No se pudo cargar el índice de búsqueda de divisiones; se usa la base: {}", e.getMessage());
+        }
+    }
+
+    private void cargarEnSegundoPlano() {
+        recargaSolicitada.set(true);
+        if (!cargando.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("indice-busqueda-divisiones").start(() -> {
+            do {
+                while (recargaSolicitada.getAndSet(false)) {
+                    cargar();
+                }
+                cargando.set(false);
+            } while (recargaSolicitada.get() && cargando.compareAndSet(false, true));
+        });
+    }
+
+    // Volver a leer de la base las divisiones invalidadas desde la última búsqueda. Quien busca no
+    // trae permiso del limitador: se pide aquí, antes del candado, en el mismo orden que cargar()
+    private void aplicarPendientes() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        limitador.consultar(() -> {
+            releerPendientes();
+            return null;
+        });
+    }
+
+    private void releerPendientes() {
+        escritura.lock();
+        try {
+            List<Long> ids = new ArrayList<>(pendientes);
+            if (ids.isEmpty()) {
+                return;
+            }
+            pendientes.removeAll(ids);
+            try {
+                Map<Long, Documento> leidos = leer(divisionRepository.findResumenesByIdIn(ids));
+                Contenido actual = contenido;
+                for (Long id : ids) {
+                    Documento documento = leidos.get(id);
+                    if (documento != null) {
+                        indexar(actual, documento);
+                    } else {
+                        quitar(actual, id);
+                    }
+                }
+            } catch (RuntimeException e) {
+                pendientes.addAll(ids);
+                throw e;
+            }
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    private Map<Long, Documento> leer(List<DivisionResumenDto> divisiones) {
+        Map<Long, List<String>> programas = new HashMap<>();
+        List<Long> ids = divisiones.stream().map(DivisionResumenDto::getId).collect(Collectors.toList());
+        for (int desde = 0; desde < ids.size(); desde += LOTE_PROGRAMAS) {
+            List<Long> lote = ids.subList(desde, Math.min(desde + LOTE_PROGRAMAS, ids.size()));
+            for (ProgramaNombreDto programa : programaEducativaRepository.findActivosByDivisionIdIn(lote)) {
+                programas.computeIfAbsent(programa.getDivisionId(), k -> new ArrayList<>()).add(programa.getPrograma());
+            }
+        }
+
+        Map<Long, Documento> leidos = new HashMap<>();
+        for (DivisionResumenDto division : divisiones) {
+            List<String> nombres = List.copyOf(programas.getOrDefault(division.getId(), List.of()));
+            leidos.put(division.getId(), new Documento(division.getId(), division.getNombre(), division.isActivo(),
+                    nombres, doblar(division.getNombre()),
+                    nombres.stream().map(IndiceBusquedaDivisiones::doblar).collect(Collectors.toList())));
+        }
+        return leidos;
+    }
+
+    // Agregar o reemplazar una división; los lectores pueden ver el cambio a medias, pero nunca un
+    // resultado que no coincida, porque cada candidato se confirma contra su documento actual
+    private static void indexar(Contenido contenido, Documento nuevo) {
+        Documento anterior = contenido.documentos().put(nuevo.id(), nuevo);
+        Set<String> gramas = trigramasDe(nuevo);
+        if (anterior != null) {
+            for (String grama : trigramasDe(anterior)) {
+                if (!gramas.contains(grama)) {
+                    quitarDeTrigrama(contenido, grama, anterior.id());
+                }
+            }
+        }
+        for (String grama : gramas) {
+            contenido.trigramas().computeIfAbsent(grama, k -> ConcurrentHashMap.newKeySet()).add(nuevo.id());
+        }
+    }
+
+    private static void quitar(Contenido contenido, Long id) {
+        Documento anterior = contenido.documentos().remove(id);
+        if (anterior != null) {
+            trigramasDe(anterior).forEach(grama -> quitarDeTrigrama(contenido, grama, id));
+        }
+    }
+
+    private static void quitarDeTrigrama(Contenido contenido, String grama, long id) {
+        contenido.trigramas().computeIfPresent(grama, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static Set<Long> candidatos(Contenido contenido, String consulta) {
+        if (consulta.length() < N) {
+            return contenido.documentos().keySet();
+        }
+        List<Set<Long>> listas = new ArrayList<>();
+        for (String grama : trigramasDe(consulta)) {
+            Set<Long> ids = contenido.trigramas().get(grama);
+            if (ids == null) {
+                return Set.of();
+            }
+            listas.add(ids);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+        Set<Long> resultado = new HashSet<>(listas.get(0));
+        for (int i = 1; i < listas.size() && !resultado.isEmpty(); i++) {
+            resultado.retainAll(listas.get(i));
+        }
+        return resultado;
+    }
+
+    // 0 = nombre igual ... 5 = solo contenido en un programa; -1 si no coincide
+    private static int relevancia(Documento documento, String consulta) {
+        String nombre = documento.nombreDoblado();
+        if (nombre.equals(consulta)) {
+            return 0;
+        }
+        if (nombre.startsWith(consulta)) {
+            return 1;
+        }
+        if (nombre.contains(" " + consulta)) {
+            return 2;
+        }
+        if (nombre.contains(consulta)) {
+            return 3;
+        }
+        int relevancia = -1;
+        for (String programa : documento.programasDoblados()) {
+            if (programa.startsWith(consulta) || programa.contains(" " + consulta)) {
+                return 4;
+            }
+            if (programa.contains(consulta)) {
+                relevancia = 5;
+            }
+        }
+        return relevancia;
+    }
+
+    private static Set<String> trigramasDe(Documento documento) {
+        Set<String> gramas = trigramasDe(documento.nombreDoblado());
+        documento.programasDoblados().forEach(programa -> gramas.addAll(trigramasDe(programa)));
+        return gramas;
+    }
+
+    private static Set<String> trigramasDe(String texto) {
+        Set<String> gramas = new HashSet<>();
+        for (int i = 0; i + N <= texto.length(); i++) {
+            gramas.add(texto.substring(i, i + N));
+        }
+        return gramas;
+    }
+
+    private static DivisionToViewListDto toDto(Documento documento) {
+        DivisionToViewListDto dto = new DivisionToViewListDto();
+        dto.setDivisionId(documento.id());
+        dto.setNombre(documento.nombre());
+        dto.setActivo(documento.activo());
+        dto.setProgramaEducativa(new ArrayList<>(documento.programas()));
+        dto.setNumeroProgramas(documento.programas().size());
+        return dto;
+    }
+}
@@ -0,0 +1,397 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionDistribuida;
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionListener;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorSugerenciaDto;
+import mx.edu.uteq.idgs12.microservio_division.repository.CoordinadorRepository;
+
+/**
+ * Índice de prefijos en memoria para autocompletar coordinadores (GET /coordinadores/suggest).
+ * Cada coordinador aporta sus términos: las palabras del nombre y del apellido, el correo
+ * completo y las partes de su usuario ("juan.perez@..." aporta "juan" y "perez"), doblados
+ * igual que en IndiceBusquedaDivisiones. Los pares (término, ID) viven en un skip list
+ * ordenado, así los que empiezan con un prefijo son un rango contiguo que se recorre en orden
+ * y se deja de leer en cuanto hay suficientes sugerencias.
+ *
+ * Una consulta de varias palabras recorre el rango de la más larga (la más selectiva) y cada
+ * candidato debe tener un término que empiece con cada una de las demás. Las sugerencias salen
+ * en orden alfabético del término que coincide: "ana" antes que "anabel".
+ *
+ * Igual que el índice de divisiones, se mantiene con las invalidaciones del cache
+ * "coordinadores" (locales y de las demás réplicas): los IDs invalidados se releen en la
+ * siguiente consulta y una invalidación completa lo recarga en segundo plano, sin dejar de
+ * responder con el anterior. Hasta la primera carga, buscar() regresa Optional.empty() y el
+ * servicio consulta la base.
+ */
+@Component
+public class IndiceSugerenciasCoordinadores implements InvalidacionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceSugerenciasCoordinadores.class);
+
+    private static final int LOTE_CARGA = 5000;
+    // Con más coordinadores en la división se recorre el rango del prefijo en lugar de la división
+    private static final int MAX_RECORRIDO_DIVISION = 5000;
+    private static final Pattern SEPARADORES_USUARIO = Pattern.compile("[._+-]+");
+    private static final Comparator<Entrada> ORDEN = Comparator.comparing(Entrada::termino)
+            .thenComparingLong(Entrada::id);
+
+    @Autowired
+    private CoordinadorRepository coordinadorRepository;
+
+    @Autowired
+    private InvalidacionDistribuida invalidacionDistribuida;
+
+    @Autowired
+    private LimitadorConcurrenciaBd limitador;
+
+    // Se reemplaza completo al terminar una carga
+    private volatile Estado estado = new Estado();
+    // IDs invalidados que aún no se vuelven a leer
+    private final Set<Long> pendientes = ConcurrentHashMap.newKeySet();
+    // Serializa las escrituras (ReentrantLock y no synchronized: no fija el hilo virtual durante la consulta)
+    private final ReentrantLock escritura = new ReentrantLock();
+    private final AtomicBoolean cargando = new AtomicBoolean();
+    private final AtomicBoolean recargaSolicitada = new AtomicBoolean();
+    private volatile boolean listo;
+
+    // terminos: doblados y sin repetir; las entradas del skip list apuntan a estas mismas cadenas
+    private record Documento(long id, String nombre, String apellido, String correo, Long divisionId,
+            boolean activo, String[] terminos) {
+    }
+
+    private record Entrada(String termino, long id) {
+    }
+
+    private record Candidato(String termino, Documento documento) {
+    }
+
+    // Estructuras del índice; solo se modifican con el candado de escritura
+    private static final class Estado {
+        private final Map<Long, Documento> documentos = new ConcurrentHashMap<>();
+        private final NavigableSet<Entrada> entradas = new ConcurrentSkipListSet<>(ORDEN);
+        // División -> IDs de sus coordinadores, para el filtro por división
+        private final Map<Long, Set<Long>> porDivision = new ConcurrentHashMap<>();
+        // Una sola instancia por palabra de nombre o apellido: se repiten entre miles de coordinadores
+        private final Map<String, String> palabras = new ConcurrentHashMap<>();
+
+        // Agregar o reemplazar un coordinador; primero se agregan las entradas nuevas y después se
+        // quitan las que ya no aplican, así un lector nunca deja de encontrarlo a medio cambio
+        private void indexar(CoordinadorSugerenciaDto coordinador) {
+            Documento nuevo = documento(coordinador);
+            Documento anterior = documentos.put(nuevo.id(), nuevo);
+            for (String termino : nuevo.terminos()) {
+                entradas.add(new Entrada(termino, nuevo.id()));
+            }
+            porDivision.computeIfAbsent(nuevo.divisionId(), k -> ConcurrentHashMap.newKeySet()).add(nuevo.id());
+            if (anterior != null) {
+                List<String> terminos = List.of(nuevo.terminos());
+                for (String termino : anterior.terminos()) {
+                    if (!terminos.contains(termino)) {
+                        entradas.remove(new Entrada(termino, anterior.id()));
+                    }
+                }
+                if (!anterior.divisionId().equals(nuevo.divisionId())) {
+                    quitarDeDivision(anterior);
+                }
+            }
+        }
+
+        private void quitar(Long id) {
+            Documento anterior = documentos.remove(id);
+            if (anterior != null) {
+                for (String termino : anterior.terminos()) {
+                    entradas.remove(new Entrada(termino, id));
+                }
+                quitarDeDivision(anterior);
+            }
+        }
+
+        private void quitarDeDivision(Documento documento) {
+            porDivision.computeIfPresent(documento.divisionId(), (k, ids) -> {
+                ids.remove(documento.id());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+
+        private Documento documento(CoordinadorSugerenciaDto coordinador) {
+            Set<String> terminos = new LinkedHashSet<>();
+            agregarPalabras(terminos, coordinador.getNombre());
+            agregarPalabras(terminos, coordinador.getApellido());
+            String correo = IndiceBusquedaDivisiones.doblar(coordinador.getCorreo()).replace(' ', '_');
+            if (!correo.isEmpty()) {
+                // Casi siempre el correo ya viene doblado: se reutiliza la misma cadena
+                terminos.add(correo.equals(coordinador.getCorreo()) ? coordinador.getCorreo() : correo);
+                // Las partes del usuario después de la primera; la primera ya es prefijo del correo
+                int arroba = correo.indexOf('@');
+                String[] partes = SEPARADORES_USUARIO.split(arroba < 0 ? correo : correo.substring(0, arroba));
+                for (int i = 1; i < partes.length; i++) {
+                    if (!partes[i].isEmpty()) {
+                        terminos.add(partes[i]);
+                    }
+                }
+            }
+            return new Documento(coordinador.getId(), coordinador.getNombre(), coordinador.getApellido(),
+                    coordinador.getCorreo(), coordinador.getDivisionId(), coordinador.isActivo(),
+                    terminos.toArray(String[]::new));
+        }
+
+        private void agregarPalabras(Set<String> terminos, String texto) {
+            String doblado = IndiceBusquedaDivisiones.doblar(texto);
+            if (!doblado.isEmpty()) {
+                for (String palabra : doblado.split(" ")) {
+                    terminos.add(palabras.computeIfAbsent(palabra, k -> k));
+                }
+            }
+        }
+    }
+
+    @PostConstruct
+    void registrar() {
+        invalidacionDistribuida.agregarListener(this);
+    }
+
+    // Cargar el índice sin retrasar el arranque
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        cargarEnSegundoPlano();
+    }
+
+    @Override
+    public void invalidado(String cache, Object llave) {
+        if (!CacheConfig.COORDINADORES.equals(cache)) {
+            return;
+        }
+        if (llave instanceof Long id) {
+            pendientes.add(id);
+        } else {
+            // Cache completo (p. ej. al renombrar una división): se recarga sin dejar de responder
+            cargarEnSegundoPlano();
+        }
+    }
+
+    public boolean isListo() {
+        return listo;
+    }
+
+    // Hasta "limite" coordinadores con un término que empiece con cada palabra del texto, filtrados
+    // por división y estado si se indican; Optional.empty() si el índice no está cargado
+    public Optional<List<CoordinadorSugerenciaDto>> buscar(String texto, Long divisionId, Boolean activo, int limite) {
+        if (!listo) {
+            if (!cargando.get()) {
+                // La carga inicial falló (p. ej. la base no respondía): reintentar
+                cargarEnSegundoPlano();
+            }
+            return Optional.empty();
+        }
+        aplicarPendientes();
+
+        String consulta = IndiceBusquedaDivisiones.doblar(texto);
+        if (consulta.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        List<String> palabras = new ArrayList<>(new LinkedHashSet<>(List.of(consulta.split(" "))));
+        String guia = palabras.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+
+        Estado actual = estado;
+        if (divisionId != null) {
+            Set<Long> miembros = actual.porDivision.getOrDefault(divisionId, Set.of());
+            if (miembros.size() <= MAX_RECORRIDO_DIVISION) {
+                return Optional.of(buscarEnDivision(actual, miembros, palabras, guia, divisionId, activo, limite));
+            }
+        }
+
+        Set<Long> vistos = new HashSet<>();
+        List<CoordinadorSugerenciaDto> sugerencias = new ArrayList<>();
+        for (Entrada entrada : actual.entradas.subSet(new Entrada(guia, Long.MIN_VALUE), true,
+                new Entrada(guia + Character.MAX_VALUE, Long.MIN_VALUE), false)) {
+            if (!vistos.add(entrada.id())) {
+                continue;
+            }
+            Documento documento = actual.documentos.get(entrada.id());
+            // El documento se confirma completo: la entrada pudo quedar de una versión anterior
+            if (documento != null && coincide(documento, palabras, divisionId, activo)) {
+                sugerencias.add(toDto(documento));
+                if (sugerencias.size() == limite) {
+                    break;
+                }
+            }
+        }
+        return Optional.of(sugerencias);
+    }
+
+    // Filtro por una división con pocos coordinadores: revisarlos todos es más barato que recorrer el
+    // rango del prefijo buscando los de esa división. Mismo orden que el recorrido del rango: el primer
+    // término que empieza con la palabra guía y después el ID
+    private static List<CoordinadorSugerenciaDto> buscarEnDivision(Estado actual, Set<Long> miembros,
+            List<String> palabras, String guia, Long divisionId, Boolean activo, int limite) {
+        List<Candidato> candidatos = new ArrayList<>();
+        for (Long id : miembros) {
+            Documento documento = actual.documentos.get(id);
+            if (documento != null && coincide(documento, palabras, divisionId, activo)) {
+                String termino = null;
+                for (String candidato : documento.terminos()) {
+                    if (candidato.startsWith(guia) && (termino == null || candidato.compareTo(termino) < 0)) {
+                        termino = candidato;
+                    }
+                }
+                candidatos.add(new Candidato(termino, documento));
+            }
+        }
+        return candidatos.stream()
+                .sorted(Comparator.comparing(Candidato::termino).thenComparingLong(c -> c.documento().id()))
+                .limit(limite)
+                .map(c -> toDto(c.documento()))
+                .collect(Collectors.toList());
+    }
+
+    // Leer todos los coordinadores por bloques y reemplazar el índice; quien llama ya tiene la marca de carga.
+    // Mientras tanto se sigue respondiendo con el índice anterior, si lo hay
+    void cargar() {
+        escritura.lock();
+        try {
+            // Lo que se invalide a partir de aquí queda pendiente y se relee después de la carga
+            pendientes.clear();
+            Estado nuevo = new Estado();
+            long desde = 0;
+            List<CoordinadorSugerenciaDto> lote;
+            do {
+                long ultimo = desde;
+                // Un permiso por bloque: la carga no acapara el limitador
+                lote = limitador.ejecutar(
+                        () -> coordinadorRepository.findSugerenciasDesde(ultimo, Limit.of(LOTE_CARGA)));
+                for (CoordinadorSugerenciaDto coordinador : lote) {
+                    nuevo.indexar(coordinador);
+                    desde = Math.max(desde, coordinador.getId());
+                }
+            } while (lote.size() == LOTE_CARGA);
+            estado = nuevo;
+            listo = true;
+            log.info("Índice de sugerencias de coordinadores cargado: {} coordinadores, {} términos",
+                    nuevo.documentos.size(), nuevo.entradas.size());
+        } catch (Exception e) {
+            log.warn("No se pudo cargar el índice de sugerencias de coordinadores; se usa la base: {}",
+                    e.getMessage());
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    // Reemplazar el índice con los coordinadores dados (benchmarks)
+    void cargar(List<CoordinadorSugerenciaDto> coordinadores) {
+        escritura.lock();
+        try {
+            Estado nuevo = new Estado();
+            coordinadores.forEach(nuevo::indexar);
+            estado = nuevo;
+            listo = true;
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    private void cargarEnSegundoPlano() {
+        recargaSolicitada.set(true);
+        if (!cargando.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("indice-sugerencias-coordinadores").start(() -> {
+            do {
+                while (recargaSolicitada.getAndSet(false)) {
+                    cargar();
+                }
+                cargando.set(false);
+            } while (recargaSolicitada.get() && cargando.compareAndSet(false, true));
+        });
+    }
+
+    // Volver a leer de la base los coordinadores invalidados desde la última consulta. Si hay una
+    // carga en curso no se espera, los pendientes se aplican en la siguiente consulta; la lectura
+    // pide su permiso del limitador con el candado tomado, igual que cada bloque de la carga
+    private void aplicarPendientes() {
+        if (pendientes.isEmpty() || !escritura.tryLock()) {
+            return;
+        }
+        try {
+            List<Long> ids = new ArrayList<>(pendientes);
+            if (ids.isEmpty()) {
+                return;
+            }
+            pendientes.removeAll(ids);
+            try {
+                Map<Long, CoordinadorSugerenciaDto> leidos = new HashMap<>();
+                limitador.consultar(() -> coordinadorRepository.findSugerenciasByIdIn(ids))
+                        .forEach(c -> leidos.put(c.getId(), c));
+                for (Long id : ids) {
+                    CoordinadorSugerenciaDto coordinador = leidos.get(id);
+                    if (coordinador != null) {
+                        estado.indexar(coordinador);
+                    } else {
+                        estado.quitar(id);
+                    }
+                }
+            } catch (RuntimeException e) {
+                pendientes.addAll(ids);
+                throw e;
+            }
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    private static boolean coincide(Documento documento, List<String> palabras, Long divisionId, Boolean activo) {
+        if (divisionId != null && !divisionId.equals(documento.divisionId())) {
+            return false;
+        }
+        if (activo != null && activo != documento.activo()) {
+            return false;
+        }
+        for (String palabra : palabras) {
+            if (!tieneTerminoConPrefijo(documento, palabra)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean tieneTerminoConPrefijo(Documento documento, String prefijo) {
+        for (String termino : documento.terminos()) {
+            if (termino.startsWith(prefijo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static CoordinadorSugerenciaDto toDto(Documento documento) {
+        return new CoordinadorSugerenciaDto(documento.id(), documento.nombre(), documento.apellido(),
+                documento.correo(), documento.divisionId(), documento.activo());
+    }
+}
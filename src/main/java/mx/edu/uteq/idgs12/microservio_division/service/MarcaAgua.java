@@ -0,0 +1,41 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Posición de una sincronización por delta: la fecha de modificación (actualizado_en) y el
+ * id de la última fila entregada; el id desempata las filas con la misma fecha. Viaja como
+ * texto legible, "2025-12-04T10:30:00.123456_42". El cliente también puede mandar solo una
+ * fecha ISO-8601 para empezar desde ella.
+ */
+public record MarcaAgua(LocalDateTime instante, long id) {
+
+    // Sin marca de agua: desde la primera fila
+    public static final MarcaAgua INICIO = new MarcaAgua(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private static final char SEPARADOR = '_';
+
+    // Leer la marca de agua recibida en since (null o vacío: desde el inicio)
+    public static MarcaAgua parse(String since) {
+        if (since == null || since.isBlank()) {
+            return INICIO;
+        }
+        int separador = since.lastIndexOf(SEPARADOR);
+        try {
+            if (separador < 0) {
+                return new MarcaAgua(LocalDateTime.parse(since), 0L);
+            }
+            return new MarcaAgua(LocalDateTime.parse(since.substring(0, separador)),
+                    Long.parseLong(since.substring(separador + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("since inválido: se espera una fecha ISO-8601 "
+                    + "(2025-12-04T10:30:00) o la marcaAgua de la respuesta anterior");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return instante.toString() + SEPARADOR + id;
+    }
+}
@@ -0,0 +1,49 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import mx.edu.uteq.idgs12.microservio_division.dto.OperacionBulkResultadoDto;
+
+/**
+ * Validación y resultado comunes de las bajas y cambios de estado en bloque por lista de IDs
+ * (DivisionService y CoordinadorService). Cada operación resuelve qué IDs existen con una
+ * consulta y modifica todas las filas con un solo UPDATE ... WHERE id IN (...).
+ */
+final class OperacionesBulk {
+
+    // Máximo de IDs por operación (acota la lista IN)
+    static final int MAX_IDS = 1000;
+
+    private OperacionesBulk() {
+    }
+
+    // IDs distintos, en el orden recibido
+    static Set<Long> validarIds(List<Long> ids, String coleccion) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("La operación en bloque no contiene " + coleccion);
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("La operación en bloque contiene IDs vacíos");
+        }
+        Set<Long> distintos = new LinkedHashSet<>(ids);
+        if (distintos.size() > MAX_IDS) {
+            throw new IllegalArgumentException("La operación en bloque admite como máximo " + MAX_IDS + " " + coleccion);
+        }
+        return distintos;
+    }
+
+    // Resultado sin filas actualizadas todavía: lo solicitado y lo que no existe
+    static OperacionBulkResultadoDto resultado(Set<Long> solicitados, List<Long> existentes) {
+        Set<Long> encontrados = Set.copyOf(existentes);
+        List<Long> noEncontrados = solicitados.stream()
+                .filter(id -> !encontrados.contains(id))
+                .toList();
+        OperacionBulkResultadoDto resultado = new OperacionBulkResultadoDto();
+        resultado.setSolicitados(solicitados.size());
+        resultado.setNoEncontrados(noEncontrados);
+        return resultado;
+    }
+}
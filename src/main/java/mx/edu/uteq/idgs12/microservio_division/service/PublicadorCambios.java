@@ -0,0 +1,141 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.entity.ContadorCambios;
+import mx.edu.uteq.idgs12.microservio_division.entity.EventoCambio;
+import mx.edu.uteq.idgs12.microservio_division.repository.ContadorCambiosRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.EventoCambioRepository;
+
+/**
+ * Publica el outbox de eventos de cambio: asigna secuencia a los eventos pendientes, por
+ * lotes de cambios.publicador.lote, cada lote en su transacción y con permiso del limitador.
+ * El contador "eventos" guarda la última secuencia; se lee con la fila bloqueada, así una
+ * sola réplica publica a la vez y la secuencia sigue el orden de commit de las escrituras,
+ * sin huecos: quien lee el feed desde N nunca se salta un evento que se confirmó tarde.
+ *
+ * Corre en un hilo virtual después del commit de cada escritura (EventoCambioService) y,
+ * por si ese aviso se pierde (p. ej. la réplica se detuvo antes de publicar), en un barrido
+ * cada cambios.publicador.intervalo. Al publicar invalida el contador "eventos" en todos
+ * los nodos, que es lo que despierta a los clientes del feed.
+ */
+@Component
+public class PublicadorCambios {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicadorCambios.class);
+
+    @Autowired
+    private EventoCambioRepository eventoCambioRepository;
+
+    @Autowired
+    private ContadorCambiosRepository contadorCambiosRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LimitadorConcurrenciaBd limitador;
+
+    @Value("${cambios.publicador.lote:500}")
+    private int tamanoLote;
+
+    @Value("${cambios.retencion:7d}")
+    private Duration retencion;
+
+    private final AtomicBoolean publicando = new AtomicBoolean();
+    private final AtomicBoolean publicacionSolicitada = new AtomicBoolean();
+
+    // Publicar en segundo plano; las solicitudes que llegan mientras publica se atienden en una vuelta más
+    public void solicitar() {
+        publicacionSolicitada.set(true);
+        if (!publicando.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("publicador-cambios").start(() -> {
+            do {
+                while (publicacionSolicitada.getAndSet(false)) {
+                    publicar();
+                }
+                publicando.set(false);
+            } while (publicacionSolicitada.get() && publicando.compareAndSet(false, true));
+        });
+    }
+
+    // Barrido periódico de los eventos que nadie publicó
+    @Scheduled(fixedDelayString = "${cambios.publicador.intervalo:5s}")
+    public void barrer() {
+        solicitar();
+    }
+
+    // Borrar los eventos publicados que superan la retención; un cliente con un cursor anterior recibe 410
+    @Scheduled(fixedDelayString = "${cambios.depuracion.intervalo:1h}")
+    public void depurar() {
+        try {
+            Integer borrados = limitador.ejecutar(() -> transactionTemplate.execute(
+                    status -> eventoCambioRepository.depurar(LocalDateTime.now().minus(retencion))));
+            if (borrados != null && borrados > 0) {
+                log.info("Depurados {} eventos de cambio anteriores a {}", borrados, retencion);
+            }
+        } catch (Exception e) {
+            log.warn("No se pudieron depurar los eventos de cambio: {}", e.getMessage());
+        }
+    }
+
+    // Publicar todos los pendientes; regresa cuántos publicó
+    int publicar() {
+        int total = 0;
+        try {
+            int publicados;
+            do {
+                publicados = limitador.ejecutar(() -> transactionTemplate.execute(status -> publicarLote()));
+                total += publicados;
+            } while (publicados == tamanoLote);
+        } catch (Exception e) {
+            // Los eventos siguen pendientes: los toma el siguiente barrido
+            log.warn("No se pudieron publicar los eventos de cambio: {}", e.getMessage());
+        }
+        return total;
+    }
+
+    private int publicarLote() {
+        // Sin pendientes no se bloquea el contador: el barrido de cada réplica no compite por la fila
+        if (eventoCambioRepository.findPendientes(Limit.of(1)).isEmpty()) {
+            return 0;
+        }
+        Optional<ContadorCambios> contador = contadorCambiosRepository.bloquear(ContadorCambiosService.EVENTOS);
+        if (contador.isEmpty()) {
+            // ContadorCambiosService.inicializar aún no crea la fila
+            return 0;
+        }
+        // Con la fila bloqueada: lo que otra réplica publicó antes ya no aparece como pendiente
+        List<EventoCambio> pendientes = eventoCambioRepository.findPendientes(Limit.of(tamanoLote));
+        long secuencia = contador.get().getCambios();
+        for (EventoCambio evento : pendientes) {
+            evento.setSecuencia(++secuencia);
+        }
+        contador.get().setCambios(secuencia);
+
+        // Después del commit, en todos los nodos: el feed ve la nueva secuencia y despierta a sus clientes
+        cacheManager.getCache(CacheConfig.CONTADORES_CAMBIOS).evict(ContadorCambiosService.EVENTOS);
+        return pendientes.size();
+    }
+}
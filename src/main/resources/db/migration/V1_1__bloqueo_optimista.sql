@@ -0,0 +1,11 @@
+-- Columnas @Version de Division, ProgramaEducativa y CoordinadorEntity (las filas existentes empiezan en 0)
+alter table division add column version bigint not null default 0;
+alter table programa_educativa add column version bigint not null default 0;
+alter table coordinadores add column version bigint not null default 0;
+
+-- Número de escrituras por colección; base de los ETags (ContadorCambiosService crea las filas al primer uso)
+create table contador_cambios (
+    cambios bigint not null,
+    coleccion varchar(50) not null,
+    primary key (coleccion)
+) engine=InnoDB;
@@ -0,0 +1,11 @@
+-- Los IDs de coordinadores salen de una secuencia por bloques (ver CoordinadorEntity) en lugar de
+-- auto_increment: Hibernate no espera el ID de cada insert y agrupa los coordinadores en un lote JDBC.
+alter table coordinadores modify column id bigint not null;
+
+-- Emulación de la secuencia coordinadores_seq (bloques de 50). El optimizador "pooled" toma el valor guardado
+-- como el final del primer bloque, así que max(id) + 50 hace que el primer ID nuevo sea max(id) + 1.
+create table coordinadores_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into coordinadores_seq select coalesce(max(id), 0) + 50 from coordinadores;
@@ -0,0 +1,36 @@
+-- Esquema inicial (MySQL), igual al que generaba Hibernate con ddl-auto=update antes de usar Flyway.
+-- En una base que ya lo tiene, Flyway la marca como versión 1 (baseline-on-migrate) y no ejecuta este script.
+
+create table coordinadores (
+    activo bit not null,
+    division_id bigint not null,
+    id bigint not null auto_increment,
+    apellido varchar(255) not null,
+    correo varchar(255) not null,
+    nombre varchar(255) not null,
+    telefono varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table division (
+    activo bit not null,
+    id bigint not null auto_increment,
+    nombre varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table programa_educativa (
+    activo bit not null,
+    division_id bigint,
+    id bigint not null auto_increment,
+    programa varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+alter table coordinadores
+    add constraint UKol235syioml91bfwlot3tcfr unique (correo);
+
+alter table programa_educativa
+    add constraint FKrct31uewrhn97wr1g95666u5o
+    foreign key (division_id)
+    references division (id);
@@ -0,0 +1,13 @@
+-- Índices de las columnas de búsqueda frecuente (ver @Table(indexes) en las entidades)
+
+-- findByDivisionId, findByDivisionIdAndActivoTrue y sus variantes paginadas / por cursor
+create index idx_coordinadores_division_activo on coordinadores (division_id, activo);
+
+-- findByActivoTrue y sus variantes paginadas (id al final: filtra y entrega ya ordenado)
+create index idx_coordinadores_activo on coordinadores (activo, id);
+
+-- findByActivoTrue y sus variantes paginadas (id al final: filtra y entrega ya ordenado)
+create index idx_division_activo on division (activo, id);
+
+-- Programas activos de una o varias divisiones
+create index idx_programa_educativa_division_activo on programa_educativa (division_id, activo);
@@ -0,0 +1,17 @@
+-- Columnas de búsqueda sin distinguir mayúsculas (ver Normalizacion): la unicidad y las búsquedas
+-- comparan la columna tal cual y usan su índice único en lugar de recorrer la tabla con LOWER/UPPER.
+-- Si ya hay nombres o correos que solo difieren en mayúsculas o espacios, esta migración falla al
+-- crear la restricción: hay que depurarlos antes.
+
+alter table division add column nombre_normalizado varchar(255);
+update division set nombre_normalizado = lower(trim(nombre));
+alter table division modify column nombre_normalizado varchar(255) not null;
+alter table division add constraint uk_division_nombre_normalizado unique (nombre_normalizado);
+
+alter table coordinadores add column correo_normalizado varchar(255);
+update coordinadores set correo_normalizado = lower(trim(correo));
+alter table coordinadores modify column correo_normalizado varchar(255) not null;
+alter table coordinadores add constraint uk_coordinadores_correo_normalizado unique (correo_normalizado);
+
+-- La unicidad del correo ahora la da correo_normalizado
+alter table coordinadores drop constraint UKol235syioml91bfwlot3tcfr;
@@ -0,0 +1,28 @@
+-- Outbox de eventos de cambio (ver EventoCambio): cada escritura inserta sus eventos en su misma
+-- transacción y PublicadorCambios les asigna la secuencia del feed GET /cambios al publicarlos.
+
+create table evento_cambio (
+    id bigint not null,
+    secuencia bigint,
+    entidad_id bigint not null,
+    registrado datetime(6) not null,
+    operacion varchar(20) not null,
+    coleccion varchar(50) not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- Emulación de la secuencia evento_cambio_seq (bloques de 50)
+create table evento_cambio_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into evento_cambio_seq values (1);
+
+-- Feed por cursor y pendientes de publicar (secuencia IS NULL)
+alter table evento_cambio add constraint uk_evento_cambio_secuencia unique (secuencia);
+
+-- Depuración de los eventos que superan la retención
+create index idx_evento_cambio_registrado on evento_cambio (registrado);
+
+-- Última secuencia publicada (la fila la usa PublicadorCambios para serializar a las réplicas)
+insert into contador_cambios (coleccion, cambios) values ('eventos', 0);
@@ -0,0 +1,12 @@
+-- Fecha de la última modificación (ver Auditoria), marca de agua de GET /divisiones/delta y
+-- /coordinadores/delta. Las filas existentes toman la fecha de la migración: la primera
+-- sincronización por delta las entrega todas.
+
+alter table division add column actualizado_en datetime(6) not null default current_timestamp(6);
+alter table programa_educativa add column actualizado_en datetime(6) not null default current_timestamp(6);
+alter table coordinadores add column actualizado_en datetime(6) not null default current_timestamp(6);
+
+-- Recorrido por marca de agua: actualizado_en y el id para desempatar
+create index idx_division_actualizado_en on division (actualizado_en, id);
+create index idx_programa_educativa_actualizado_en on programa_educativa (actualizado_en, id);
+create index idx_coordinadores_actualizado_en on coordinadores (actualizado_en, id);
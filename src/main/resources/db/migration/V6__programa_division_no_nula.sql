@@ -0,0 +1,5 @@
+-- Todo programa pertenece a una división: Hibernate escribe division_id en el mismo insert
+-- del programa y ya no la anula antes de borrarlo (ver Division.programaEducativas).
+-- Con orphanRemoval la anulación siempre iba seguida del borrado, así que no quedan filas sin división.
+
+alter table programa_educativa modify column division_id bigint not null;
@@ -0,0 +1,9 @@
+-- Los IDs de programa_educativa salen de una secuencia por bloques (ver ProgramaEducativa) en lugar de
+-- auto_increment: Hibernate no espera el ID de cada insert y agrupa los programas en un lote JDBC.
+
+-- Emulación de la secuencia programa_educativa_seq (bloques de 50), por encima de los IDs ya usados
+create table programa_educativa_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into programa_educativa_seq select coalesce(max(id), 0) + 50 from programa_educativa;
@@ -0,0 +1,4 @@
+-- La versión de divisiones y coordinadores para los ETags se calcula de sus filas (altas más @Version,
+-- ver ContadorCambiosService): las escrituras ya no actualizan una fila compartida de contador_cambios.
+-- Solo queda la fila "eventos", que escribe PublicadorCambios.
+delete from contador_cambios where coleccion in ('divisiones', 'coordinadores');
@@ -0,0 +1,163 @@
+package mx.edu.uteq.idgs12.microservio_division.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+
+// Dos nodos conectados por el transporte loopback dentro de la misma JVM
+class InvalidacionDistribuidaTest {
+
+    private InvalidacionDistribuida nodoA;
+    private InvalidacionDistribuida nodoB;
+    private Cache cacheA;
+    private Cache cacheB;
+
+    @BeforeEach
+    void setUp() {
+        LoopbackTransporteInvalidacion.Red red = new LoopbackTransporteInvalidacion.Red();
+        nodoA = new InvalidacionDistribuida("microservicio-division", new LoopbackTransporteInvalidacion(red));
+        nodoB = new InvalidacionDistribuida("microservicio-division", new LoopbackTransporteInvalidacion(red));
+        cacheA = crearCacheManager(nodoA).getCache(CacheConfig.DIVISIONES);
+        cacheB = crearCacheManager(nodoB).getCache(CacheConfig.DIVISIONES);
+    }
+
+    private CacheManagerVersionado crearCacheManager(InvalidacionDistribuida nodo) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager(CacheConfig.DIVISIONES, CacheConfig.DIVISIONES_LISTAS);
+        return new CacheManagerVersionado(caffeine, nodo, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void testEvict_SeDifundeAlOtroNodo() {
+        // Arrange
+        cacheA.put(1L, "Tecnologías");
+        cacheB.put(1L, "Tecnologías");
+
+        // Act
+        cacheA.evict(1L);
+
+        // Assert
+        assertNull(cacheA.get(1L));
+        assertNull(cacheB.get(1L));
+    }
+
+    @Test
+    void testClear_SeDifundeAlOtroNodo() {
+        // Arrange
+        cacheB.put(1L, "Tecnologías");
+        cacheB.put(2L, "Económico");
+
+        // Act
+        cacheA.clear();
+
+        // Assert
+        assertNull(cacheB.get(1L));
+        assertNull(cacheB.get(2L));
+    }
+
+    @Test
+    void testPut_CargaIniciadaAntesDeLaInvalidacionSeDescarta() {
+        // Arrange: el nodo B tiene un miss y empieza a leer de la base
+        assertNull(cacheB.get(1L));
+
+        // Act: mientras tanto el nodo A actualiza la división e invalida
+        cacheA.evict(1L);
+        cacheB.put(1L, "Nombre anterior");
+
+        // Assert: el valor leído antes del commit no entra al cache
+        assertNull(cacheB.get(1L));
+    }
+
+    @Test
+    void testPut_CargaIniciadaDespuesDeLaInvalidacionSeGuarda() {
+        // Arrange
+        cacheA.evict(1L);
+
+        // Act
+        assertNull(cacheB.get(1L));
+        cacheB.put(1L, "Nombre nuevo");
+
+        // Assert
+        assertEquals("Nombre nuevo", cacheB.get(1L).get());
+    }
+
+    @Test
+    void testGetConLoader_DescartaValorSiHuboInvalidacionDuranteLaCarga() {
+        // Act
+        String valor = cacheB.get(1L, () -> {
+            cacheA.evict(1L);
+            return "Nombre anterior";
+        });
+
+        // Assert
+        assertEquals("Nombre anterior", valor);
+        assertNull(cacheB.get(1L));
+    }
+
+    @Test
+    void testEvict_EnTransaccionSeEnviaUnSoloMensajeAlTerminar() {
+        // Arrange
+        cacheB.put(1L, "Tecnologías");
+        cacheB.put(2L, "Económico");
+        List<Object> recibidos = new ArrayList<>();
+        nodoB.agregarListener((cache, llave) -> recibidos.add(llave));
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // Act
+            cacheA.evict(1L);
+            cacheA.evict(2L);
+            assertNotNull(cacheB.get(1L));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertEquals(List.of(1L, 2L), recibidos);
+        assertNull(cacheB.get(1L));
+        assertNull(cacheB.get(2L));
+    }
+
+    @Test
+    void testRecibir_IgnoraMensajesPropiosYAvanzaReloj() {
+        // Arrange
+        cacheA.put("todas", "lista");
+        List<Object> invalidados = new ArrayList<>();
+        nodoA.agregarListener((cache, llave) -> invalidados.add(llave));
+
+        // Act
+        nodoA.recibir(new InvalidacionMensaje(nodoA.getNodoId(), 1L, List.of(
+                new InvalidacionMensaje.Entrada(CacheConfig.DIVISIONES, "todas", InvalidacionMensaje.TIPO_STRING))));
+        nodoA.recibir(new InvalidacionMensaje(nodoB.getNodoId(), 40L, List.of(
+                new InvalidacionMensaje.Entrada(CacheConfig.DIVISIONES, "7", InvalidacionMensaje.TIPO_LONG))));
+
+        // Assert
+        assertNotNull(cacheA.get("todas"));
+        assertEquals(List.of(7L), invalidados);
+        assertTrue(nodoA.versionActual() > 40L);
+    }
+
+    @Test
+    void testTransporteEureka_SinSecreto_NoArranca() {
+        // Act & Assert: fallar al iniciar, no rechazar en silencio las invalidaciones de las demás réplicas
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> new CacheConfig().eurekaTransporteInvalidacion(mock(DiscoveryClient.class),
+                        mock(ObjectProvider.class), "microservicio-division", "", Duration.ofSeconds(2)));
+        assertTrue(error.getMessage().contains("cache.invalidacion.secreto"));
+    }
+}
@@ -0,0 +1,137 @@
+package mx.edu.uteq.idgs12.microservio_division.concurrencia;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class LimitadorConcurrenciaBdTest {
+
+    @Mock
+    private ProceedingJoinPoint punto;
+
+    private SimpleMeterRegistry registry;
+    private LimitadorConcurrenciaBd limitador;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        limitador = new LimitadorConcurrenciaBd(1, 1, Duration.ofMillis(50), registry);
+    }
+
+    private double enUso() {
+        return registry.get("bd.limitador.en.uso").gauge().value();
+    }
+
+    @Test
+    void testLimitar_ReutilizaPermisoEnLlamadaAnidada() throws Throwable {
+        // Arrange: la llamada externa vuelve a pasar por el limitador con el único permiso tomado
+        ProceedingJoinPoint anidado = mock(ProceedingJoinPoint.class);
+        when(anidado.proceed()).thenAnswer(invocation -> enUso());
+        when(punto.proceed()).thenAnswer(invocation -> limitador.limitar(anidado));
+
+        // Act
+        Object resultado = limitador.limitar(punto);
+
+        // Assert
+        assertEquals(1.0, resultado);
+        assertEquals(0.0, enUso());
+    }
+
+    @Test
+    void testLimitar_LiberaPermisoSiFalla() throws Throwable {
+        // Arrange
+        when(punto.proceed()).thenThrow(new IllegalArgumentException("inválido"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> limitador.limitar(punto));
+        assertEquals(0.0, enUso());
+    }
+
+    @Test
+    void testLimitar_RechazaTrasEsperaMaxima() throws Throwable {
+        // Arrange: otro hilo ocupa el único permiso
+        CountDownLatch ocupado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ProceedingJoinPoint lento = mock(ProceedingJoinPoint.class);
+        when(lento.proceed()).thenAnswer(invocation -> {
+            ocupado.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        ExecutorService hilo = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> primero = hilo.submit(() -> {
+                try {
+                    return limitador.limitar(lento);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+
+            // Act & Assert
+            assertThrows(ConcurrenciaBdExcedidaException.class, () -> limitador.limitar(punto));
+            verify(punto, never()).proceed();
+            assertEquals(1.0, registry.get("bd.limitador.rechazadas").counter().count());
+
+            liberar.countDown();
+            primero.get(5, TimeUnit.SECONDS);
+            assertEquals(0.0, enUso());
+        } finally {
+            hilo.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLimitarExportacion_NoOcupaLosPermisosGenerales() throws Throwable {
+        // Arrange: una descarga lenta ocupa el único permiso de exportación
+        CountDownLatch exportando = new CountDownLatch(1);
+        CountDownLatch terminar = new CountDownLatch(1);
+        ProceedingJoinPoint exportacion = mock(ProceedingJoinPoint.class);
+        when(exportacion.proceed()).thenAnswer(invocation -> {
+            exportando.countDown();
+            terminar.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        when(punto.proceed()).thenReturn("consulta");
+        ExecutorService hilo = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> descarga = hilo.submit(() -> {
+                try {
+                    return limitador.limitarExportacion(exportacion);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertTrue(exportando.await(5, TimeUnit.SECONDS));
+
+            // Act & Assert: las demás llamadas siguen teniendo permiso; otra exportación espera
+            assertEquals("consulta", limitador.limitar(punto));
+            assertEquals("consulta", limitador.consultar(() -> "consulta"));
+            assertThrows(ConcurrenciaBdExcedidaException.class, () -> limitador.limitarExportacion(punto));
+            assertEquals(1.0, registry.get("bd.limitador.exportaciones.en.uso").gauge().value());
+
+            terminar.countDown();
+            descarga.get(5, TimeUnit.SECONDS);
+            assertEquals(0.0, registry.get("bd.limitador.exportaciones.en.uso").gauge().value());
+        } finally {
+            hilo.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package mx.edu.uteq.idgs12.microservio_division.controller;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import mx.edu.uteq.idgs12.microservio_division.dto.EventoCambioDto;
+import mx.edu.uteq.idgs12.microservio_division.entity.EventoCambio;
+import mx.edu.uteq.idgs12.microservio_division.exception.CambiosDepuradosException;
+import mx.edu.uteq.idgs12.microservio_division.service.ContadorCambiosService;
+import mx.edu.uteq.idgs12.microservio_division.service.EventoCambioService;
+
+@WebMvcTest(CambiosController.class)
+class CambiosControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private EventoCambioService eventoCambioService;
+
+    private static EventoCambioDto evento(long secuencia) {
+        return new EventoCambioDto(secuencia, ContadorCambiosService.DIVISIONES, 7L, EventoCambio.ACTUALIZACION,
+                LocalDateTime.of(2025, 1, 1, 10, 0));
+    }
+
+    @Test
+    void testGetCambios_EventosPendientes_RespondeSinEsperar() throws Exception {
+        // Arrange
+        when(eventoCambioService.leer(10L, 100)).thenReturn(List.of(evento(11L), evento(12L)));
+
+        // Act
+        MvcResult resultado = mockMvc.perform(get("/cambios").param("desde", "10")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventos", hasSize(2)))
+                .andExpect(jsonPath("$.eventos[0].secuencia").value(11))
+                .andExpect(jsonPath("$.eventos[0].coleccion").value("divisiones"))
+                .andExpect(jsonPath("$.eventos[0].id").value(7))
+                .andExpect(jsonPath("$.siguiente").value(12));
+        verify(eventoCambioService, never()).esperar(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void testGetCambios_SinEventos_EsperaLaPublicacion() throws Exception {
+        // Arrange: nada pendiente al llegar; la espera (sin Accept explícito) devuelve el siguiente
+        when(eventoCambioService.leer(10L, 100)).thenReturn(List.of());
+        when(eventoCambioService.esperar(10L, 100, Duration.ofSeconds(5))).thenReturn(List.of(evento(11L)));
+
+        // Act
+        MvcResult resultado = mockMvc.perform(get("/cambios").param("desde", "10").param("espera", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.siguiente").value(11));
+    }
+
+    @Test
+    void testGetCambios_SinEspera_RespondeVacio() throws Exception {
+        // Arrange
+        when(eventoCambioService.leer(10L, 100)).thenReturn(List.of());
+
+        // Act
+        MvcResult resultado = mockMvc.perform(get("/cambios").param("desde", "10").param("espera", "0"))
+                .andReturn();
+
+        // Assert: el cursor no avanza
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventos", hasSize(0)))
+                .andExpect(jsonPath("$.siguiente").value(10));
+    }
+
+    @Test
+    void testGetCambios_EsperaFueraDeRango() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/cambios").param("espera", "120"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetCambios_EventosDepurados() throws Exception {
+        // Arrange
+        when(eventoCambioService.leer(3L, 100)).thenThrow(new CambiosDepuradosException(3L));
+
+        // Act & Assert
+        mockMvc.perform(get("/cambios").param("desde", "3"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.status").value(410));
+    }
+
+    @Test
+    void testGetUltima() throws Exception {
+        // Arrange
+        when(eventoCambioService.ultimaSecuencia()).thenReturn(42L);
+
+        // Act & Assert
+        mockMvc.perform(get("/cambios/ultima"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventos", hasSize(0)))
+                .andExpect(jsonPath("$.siguiente").value(42));
+    }
+
+    @Test
+    void testStreamCambios_ReanudaDesdeLastEventId() throws Exception {
+        // Arrange: el encabezado del navegador manda sobre el parámetro
+        when(eventoCambioService.leer(11L, EventoCambioService.MAX_LOTE)).thenReturn(List.of(evento(12L)));
+        when(eventoCambioService.esperar(12L, EventoCambioService.MAX_LOTE, Duration.ofSeconds(15)))
+                .thenThrow(new InterruptedException());
+
+        // Act
+        MvcResult resultado = mockMvc.perform(get("/cambios").param("desde", "0")
+                .header("Last-Event-ID", "11")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString("id:12\nevent:cambio\ndata:{\"secuencia\":12")));
+    }
+}
@@ -1,12 +1,17 @@
 package mx.edu.uteq.idgs12.microservio_division.controller;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,12 +22,19 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorBulkItemDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorBulkResultadoDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorCreateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorSugerenciaDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorUpdateDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CursorPageDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DeltaDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.OperacionBulkResultadoDto;
 import mx.edu.uteq.idgs12.microservio_division.service.CoordinadorService;
 
 @WebMvcTest(CoordinadorController.class)
@@ -110,6 +122,31 @@ class CoordinadorControllerTest {
         verify(coordinadorService, times(1)).findByDivision(1L);
     }
 
+    @Test
+    void testGetCoordinadoresByDivisionPaginated_Fields() throws Exception {
+        // Arrange
+        Page<Map<String, Object>> pagina = new PageImpl<>(List.of(Map.of("id", 1L, "correo", "juan.perez@uteq.edu.mx")));
+        doReturn(pagina).when(coordinadorService).findByDivisionPaginatedCampos(1L, 0, 10, "id", "id,correo");
+
+        // Act & Assert
+        mockMvc.perform(get("/coordinadores/division/1/paginated").param("fields", "id,correo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].correo").value("juan.perez@uteq.edu.mx"))
+                .andExpect(jsonPath("$.content[0].nombre").doesNotExist());
+    }
+
+    @Test
+    void testGetCoordinadoresByDivision_NotModified() throws Exception {
+        // Arrange
+        when(coordinadorService.etag()).thenReturn("\"coordinadores-7\"");
+
+        // Act & Assert
+        mockMvc.perform(get("/coordinadores/division/1").header("If-None-Match", "\"coordinadores-7\""))
+                .andExpect(status().isNotModified());
+
+        verify(coordinadorService, never()).findByDivision(anyLong());
+    }
+
     @Test
     void testGetCoordinadorById_Found() throws Exception {
         // Arrange
@@ -136,6 +173,53 @@ class CoordinadorControllerTest {
         verify(coordinadorService, times(1)).findById(1L);
     }
 
+    @Test
+    void testGetCoordinadorById_EtagDelCoordinador() throws Exception {
+        // Arrange
+        when(coordinadorService.findById(1L)).thenReturn(Optional.of(coordinadorDto));
+        String etag = mockMvc.perform(get("/coordinadores/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert: cambia con el nombre de su división aunque el coordinador no cambie
+        mockMvc.perform(get("/coordinadores/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        coordinadorDto.setDivisionNombre("División Industrial");
+        mockMvc.perform(get("/coordinadores/1").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        verify(coordinadorService, never()).etag();
+    }
+
+    @Test
+    void testGetCoordinadorById_NotFound_ConEtag() throws Exception {
+        // Arrange: el cliente envía el ETag de la lista con un ID que no existe
+        when(coordinadorService.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/coordinadores/99").header("If-None-Match", "\"coordinadores-7\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testSuggestCoordinadores() throws Exception {
+        // Arrange
+        when(coordinadorService.suggest("jua", 1L, true, 5)).thenReturn(Arrays.asList(
+                new CoordinadorSugerenciaDto(1L, "Juan", "Pérez", "juan.perez@uteq.edu.mx", 1L, true)));
+
+        // Act & Assert
+        mockMvc.perform(get("/coordinadores/suggest")
+                .param("q", "jua")
+                .param("divisionId", "1")
+                .param("activo", "true")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nombre").value("Juan"))
+                .andExpect(jsonPath("$[0].correo").value("juan.perez@uteq.edu.mx"));
+
+        verify(coordinadorService, times(1)).suggest("jua", 1L, true, 5);
+    }
+
     @Test
     void testGetAllCoordinadoresPaginated() throws Exception {
         // Arrange
@@ -153,6 +237,39 @@ class CoordinadorControllerTest {
         verify(coordinadorService, times(1)).findAllPaginated(0, 10, "id");
     }
 
+    @Test
+    void testGetCoordinadoresByDivisionScroll() throws Exception {
+        // Arrange
+        CursorPageDto<CoordinadorViewDto> pagina = new CursorPageDto<>(Arrays.asList(coordinadorDto), "abc", true);
+        when(coordinadorService.findByDivisionScroll(1L, "xyz", 5, "nombre")).thenReturn(pagina);
+
+        // Act & Assert
+        mockMvc.perform(get("/coordinadores/division/1/scroll")
+                .param("cursor", "xyz")
+                .param("size", "5")
+                .param("sortBy", "nombre"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].nombre").value("Juan"))
+                .andExpect(jsonPath("$.siguienteCursor").value("abc"))
+                .andExpect(jsonPath("$.hayMas").value(true));
+
+        verify(coordinadorService, times(1)).findByDivisionScroll(1L, "xyz", 5, "nombre");
+    }
+
+    @Test
+    void testGetCoordinadoresDelta() throws Exception {
+        // Arrange: sin since se sincroniza desde el principio
+        DeltaDto<CoordinadorViewDto> delta = new DeltaDto<>(Arrays.asList(coordinadorDto), "2025-12-04T10:30_1", false);
+        when(coordinadorService.findDelta(null, 200)).thenReturn(delta);
+
+        // Act & Assert
+        mockMvc.perform(get("/coordinadores/delta").param("size", "200"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].nombre").value("Juan"))
+                .andExpect(jsonPath("$.marcaAgua").value("2025-12-04T10:30_1"))
+                .andExpect(jsonPath("$.hayMas").value(false));
+    }
+
     @Test
     void testCreateCoordinador() throws Exception {
         // Arrange
@@ -169,6 +286,57 @@ class CoordinadorControllerTest {
         verify(coordinadorService, times(1)).create(any(CoordinadorCreateDto.class));
     }
 
+    @Test
+    void testCreateCoordinadoresBulk() throws Exception {
+        // Arrange
+        CoordinadorBulkResultadoDto resultado = new CoordinadorBulkResultadoDto(1, 1, 0,
+                Arrays.asList(new CoordinadorBulkItemDto(0, true, coordinadorDto, null)));
+        when(coordinadorService.createBulk(anyList())).thenReturn(resultado);
+
+        // Act & Assert
+        mockMvc.perform(post("/coordinadores/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(coordinadorCreateDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.exitosos").value(1))
+                .andExpect(jsonPath("$.resultados[0].coordinador.nombre").value("Juan"));
+
+        verify(coordinadorService, times(1)).createBulk(anyList());
+    }
+
+    @Test
+    void testDesactivarCoordinadoresBulk() throws Exception {
+        // Arrange
+        when(coordinadorService.desactivarBulk(List.of(1L, 2L)))
+                .thenReturn(new OperacionBulkResultadoDto(2, 2, List.of(), null, null));
+
+        // Act & Assert
+        mockMvc.perform(post("/coordinadores/bulk/desactivar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actualizados").value(2))
+                .andExpect(jsonPath("$.coordinadoresDesactivados").doesNotExist());
+
+        verify(coordinadorService, times(1)).desactivarBulk(List.of(1L, 2L));
+    }
+
+    @Test
+    void testToggleCoordinadoresStatusBulk() throws Exception {
+        // Arrange
+        when(coordinadorService.toggleStatusBulk(List.of(3L)))
+                .thenReturn(new OperacionBulkResultadoDto(1, 0, List.of(3L), null, null));
+
+        // Act & Assert
+        mockMvc.perform(patch("/coordinadores/bulk/toggle-status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[3]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.noEncontrados[0]").value(3));
+
+        verify(coordinadorService, never()).toggleStatus(anyLong());
+    }
+
     @Test
     void testCreateCoordinador_InvalidData() throws Exception {
         // Arrange
@@ -263,4 +431,37 @@ class CoordinadorControllerTest {
 
         verify(coordinadorService, times(1)).toggleStatus(1L);
     }
+
+    @Test
+    void testExportCoordinadores_Csv() throws Exception {
+        // Arrange
+        coordinadorDto.setApellido("Perez, Lopez");
+        doAnswer(invocation -> {
+            Consumer<CoordinadorViewDto> destino = invocation.getArgument(0);
+            destino.accept(coordinadorDto);
+            return null;
+        }).when(coordinadorService).exportar(any());
+
+        // Act
+        MvcResult resultado = mockMvc.perform(get("/coordinadores/export").param("formato", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"coordinadores.csv\""));
+        String[] lineas = resultado.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("id,nombre,apellido,correo,telefono,divisionId,divisionNombre,activo", lineas[0]);
+        assertEquals("1,Juan,\"Perez, Lopez\",juan.perez@uteq.edu.mx,4421234567,1,División de Tecnologías,true", lineas[1]);
+    }
+
+    @Test
+    void testExportCoordinadores_FormatoNoSoportado() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/coordinadores/export").param("formato", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verify(coordinadorService, never()).exportar(any());
+    }
 }
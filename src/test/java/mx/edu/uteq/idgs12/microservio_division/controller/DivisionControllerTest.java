@@ -1,12 +1,17 @@
 package mx.edu.uteq.idgs12.microservio_division.controller;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,12 +22,21 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CursorPageDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DeltaDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.DivisionCreateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionDetalleDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.DivisionToViewListDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.DivisionUpdateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.ImportacionEventoDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.OperacionBulkResultadoDto;
+import mx.edu.uteq.idgs12.microservio_division.service.DivisionDetalleService;
+import mx.edu.uteq.idgs12.microservio_division.service.DivisionImportService;
 import mx.edu.uteq.idgs12.microservio_division.service.DivisionService;
 
 @WebMvcTest(DivisionController.class)
@@ -34,6 +48,12 @@ class DivisionControllerTest {
     @MockitoBean
     private DivisionService divisionService;
 
+    @MockitoBean
+    private DivisionImportService divisionImportService;
+
+    @MockitoBean
+    private DivisionDetalleService divisionDetalleService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -83,6 +103,55 @@ class DivisionControllerTest {
         verify(divisionService, times(1)).findAllActivas();
     }
 
+    @Test
+    void testGetDivisionesActivas_Fields() throws Exception {
+        // Arrange
+        when(divisionService.findAllActivasCampos("nombre")).thenReturn(List.of(Map.of("nombre", "División de Tecnologías")));
+
+        // Act & Assert: solo el campo pedido
+        mockMvc.perform(get("/divisiones/activas").param("fields", "nombre"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nombre").value("División de Tecnologías"))
+                .andExpect(jsonPath("$[0].activo").doesNotExist());
+
+        verify(divisionService, never()).findAllActivas();
+    }
+
+    @Test
+    void testGetDivisiones_FieldsDesconocido() throws Exception {
+        // Arrange
+        when(divisionService.findAllCampos("clave")).thenThrow(new IllegalArgumentException("Campo desconocido: clave"));
+
+        // Act & Assert
+        mockMvc.perform(get("/divisiones").param("fields", "clave"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetDivisionesActivas_NotModified() throws Exception {
+        // Arrange
+        when(divisionService.etag()).thenReturn("\"divisiones-3\"");
+
+        // Act & Assert
+        mockMvc.perform(get("/divisiones/activas").header("If-None-Match", "\"divisiones-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"divisiones-3\""));
+
+        verify(divisionService, never()).findAllActivas();
+    }
+
+    @Test
+    void testGetDivisionesActivas_EtagDistinto() throws Exception {
+        // Arrange
+        when(divisionService.etag()).thenReturn("\"divisiones-4\"");
+        when(divisionService.findAllActivas()).thenReturn(Arrays.asList(divisionDto));
+
+        // Act & Assert
+        mockMvc.perform(get("/divisiones/activas").header("If-None-Match", "\"divisiones-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"divisiones-4\""));
+    }
+
     @Test
     void testGetDivisionById_Found() throws Exception {
         // Arrange
@@ -108,6 +177,65 @@ class DivisionControllerTest {
         verify(divisionService, times(1)).findById(1L);
     }
 
+    @Test
+    void testGetDivisionById_EtagDeLaDivision() throws Exception {
+        // Arrange
+        when(divisionService.findById(1L)).thenReturn(Optional.of(divisionDto));
+        String etag = mockMvc.perform(get("/divisiones/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert: no depende del ETag de la colección
+        mockMvc.perform(get("/divisiones/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        divisionDto.setNombre("División de Tecnologías de la Información");
+        mockMvc.perform(get("/divisiones/1").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        verify(divisionService, never()).etag();
+    }
+
+    @Test
+    void testGetDivisionById_NotFound_ConEtag() throws Exception {
+        // Arrange: el cliente envía el ETag de la lista con un ID que no existe
+        when(divisionService.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/divisiones/99").header("If-None-Match", "\"divisiones-3\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetDivisionDetalle_Found() throws Exception {
+        // Arrange
+        DivisionDetalleDto detalle = new DivisionDetalleDto();
+        detalle.setDivisionId(1L);
+        detalle.setNombre("División de Tecnologías");
+        detalle.setActivo(true);
+        detalle.setProgramaEducativa(Arrays.asList("TI", "Mecatrónica"));
+        detalle.setCoordinadores(Arrays.asList(new CoordinadorViewDto(
+                5L, "Ana", "López", "ana@uteq.edu.mx", "4421234567", 1L, "División de Tecnologías", true)));
+        when(divisionDetalleService.findDetalle(1L)).thenReturn(Optional.of(detalle));
+
+        // Act & Assert
+        mockMvc.perform(get("/divisiones/1/detalle"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.programaEducativa.length()").value(2))
+                .andExpect(jsonPath("$.coordinadores[0].correo").value("ana@uteq.edu.mx"));
+
+        verify(divisionDetalleService, times(1)).findDetalle(1L);
+    }
+
+    @Test
+    void testGetDivisionDetalle_NotFound() throws Exception {
+        // Arrange
+        when(divisionDetalleService.findDetalle(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/divisiones/1/detalle"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testSearchDivisionesByNombre() throws Exception {
         // Arrange
@@ -139,6 +267,45 @@ class DivisionControllerTest {
         verify(divisionService, times(1)).findAllPaginated(0, 10, "id");
     }
 
+    @Test
+    void testGetAllDivisionesScroll() throws Exception {
+        // Arrange
+        CursorPageDto<DivisionToViewListDto> pagina = new CursorPageDto<>(Arrays.asList(divisionDto), null, false);
+        when(divisionService.findAllScroll(null, 10, "id")).thenReturn(pagina);
+
+        // Act & Assert
+        mockMvc.perform(get("/divisiones/scroll"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].nombre").value("División de Tecnologías"))
+                .andExpect(jsonPath("$.hayMas").value(false));
+
+        verify(divisionService, times(1)).findAllScroll(null, 10, "id");
+    }
+
+    @Test
+    void testGetDivisionesDelta() throws Exception {
+        // Arrange
+        DeltaDto<DivisionToViewListDto> delta = new DeltaDto<>(Arrays.asList(divisionDto), "2025-12-04T10:30_1", true);
+        when(divisionService.findDelta("2025-12-01T00:00", 500)).thenReturn(delta);
+
+        // Act & Assert
+        mockMvc.perform(get("/divisiones/delta").param("since", "2025-12-01T00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].nombre").value("División de Tecnologías"))
+                .andExpect(jsonPath("$.marcaAgua").value("2025-12-04T10:30_1"))
+                .andExpect(jsonPath("$.hayMas").value(true));
+    }
+
+    @Test
+    void testGetDivisionesDelta_SinceInvalido() throws Exception {
+        // Arrange
+        when(divisionService.findDelta("ayer", 500)).thenThrow(new IllegalArgumentException("since inválido"));
+
+        // Act & Assert
+        mockMvc.perform(get("/divisiones/delta").param("since", "ayer"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testCreateDivision() throws Exception {
         // Arrange
@@ -246,4 +413,102 @@ class DivisionControllerTest {
 
         verify(divisionService, times(1)).toggleStatus(1L);
     }
+
+    @Test
+    void testDesactivarDivisionesBulk_ConCoordinadores() throws Exception {
+        // Arrange
+        when(divisionService.desactivarBulk(List.of(1L, 2L), true))
+                .thenReturn(new OperacionBulkResultadoDto(2, 1, List.of(2L), 3, 4));
+
+        // Act & Assert
+        mockMvc.perform(post("/divisiones/bulk/desactivar").param("coordinadores", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actualizados").value(1))
+                .andExpect(jsonPath("$.noEncontrados[0]").value(2))
+                .andExpect(jsonPath("$.programasDesactivados").value(3))
+                .andExpect(jsonPath("$.coordinadoresDesactivados").value(4));
+
+        verify(divisionService, times(1)).desactivarBulk(List.of(1L, 2L), true);
+    }
+
+    @Test
+    void testToggleDivisionesStatusBulk() throws Exception {
+        // Arrange
+        when(divisionService.toggleStatusBulk(List.of(1L)))
+                .thenReturn(new OperacionBulkResultadoDto(1, 1, List.of(), null, null));
+
+        // Act & Assert
+        mockMvc.perform(patch("/divisiones/bulk/toggle-status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actualizados").value(1))
+                .andExpect(jsonPath("$.programasDesactivados").doesNotExist());
+
+        verify(divisionService, never()).toggleStatus(anyLong());
+    }
+
+    @Test
+    void testDesactivarDivisionesBulk_ListaVacia() throws Exception {
+        // Arrange
+        when(divisionService.desactivarBulk(List.of(), false))
+                .thenThrow(new IllegalArgumentException("La operación en bloque no contiene divisiones"));
+
+        // Act & Assert
+        mockMvc.perform(post("/divisiones/bulk/desactivar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testImportDivisiones_RespondeEventosNdjson() throws Exception {
+        // Arrange
+        when(divisionImportService.importar(any(), eq(DivisionImportService.Formato.CSV), any())).thenAnswer(invocation -> {
+            Consumer<ImportacionEventoDto> reporte = invocation.getArgument(2);
+            reporte.accept(new ImportacionEventoDto(ImportacionEventoDto.ERROR, 3, "Fila sin nombre", 0, 1, 1));
+            return new ImportacionEventoDto(ImportacionEventoDto.RESUMEN, null, null, 2, 1, 1);
+        });
+
+        // Act
+        MvcResult resultado = mockMvc.perform(post("/divisiones/import")
+                .contentType("text/csv")
+                .content("nombre,programas\nTecnologías,TI\n,\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"tipo\":\"error\",\"linea\":3,\"mensaje\":\"Fila sin nombre\",\"procesadas\":0,\"importadas\":1,\"fallidas\":1}\n"
+                        + "{\"tipo\":\"resumen\",\"procesadas\":2,\"importadas\":1,\"fallidas\":1}\n"));
+    }
+
+    @Test
+    void testExportDivisiones_Ndjson() throws Exception {
+        // Arrange
+        divisionDto.setProgramaEducativa(Arrays.asList("TI"));
+        doAnswer(invocation -> {
+            Consumer<DivisionToViewListDto> destino = invocation.getArgument(0);
+            destino.accept(divisionDto);
+            return null;
+        }).when(divisionService).exportar(any());
+
+        // Act
+        MvcResult resultado = mockMvc.perform(get("/divisiones/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"));
+        DivisionToViewListDto exportada = objectMapper.readValue(
+                resultado.getResponse().getContentAsString(StandardCharsets.UTF_8).trim(), DivisionToViewListDto.class);
+        assertEquals(divisionDto, exportada);
+    }
 }
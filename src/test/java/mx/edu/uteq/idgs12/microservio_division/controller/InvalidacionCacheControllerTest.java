@@ -0,0 +1,67 @@
+package mx.edu.uteq.idgs12.microservio_division.controller;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import mx.edu.uteq.idgs12.microservio_division.cache.EurekaTransporteInvalidacion;
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionDistribuida;
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionMensaje;
+
+@WebMvcTest(controllers = InvalidacionCacheController.class, properties = "cache.invalidacion.secreto=secreto-replicas")
+class InvalidacionCacheControllerTest {
+
+    // Invalidación total del cache de divisiones (la más costosa: recarga el índice de búsqueda)
+    private static final String MENSAJE = """
+            {"origen":"nodo-2","version":5,"entradas":[{"cache":"divisiones","llave":null,"tipoLlave":null}]}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private InvalidacionDistribuida invalidacionDistribuida;
+
+    @Test
+    void testRecibirInvalidacion_SecretoCorrecto() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post(EurekaTransporteInvalidacion.RUTA)
+                .header(EurekaTransporteInvalidacion.ENCABEZADO_SECRETO, "secreto-replicas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(MENSAJE))
+                .andExpect(status().isNoContent());
+
+        verify(invalidacionDistribuida, times(1)).recibir(any(InvalidacionMensaje.class));
+    }
+
+    @Test
+    void testRecibirInvalidacion_SinSecreto_Rechazada() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post(EurekaTransporteInvalidacion.RUTA)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(MENSAJE))
+                .andExpect(status().isForbidden());
+
+        verify(invalidacionDistribuida, never()).recibir(any());
+    }
+
+    @Test
+    void testRecibirInvalidacion_SecretoIncorrecto_Rechazada() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post(EurekaTransporteInvalidacion.RUTA)
+                .header(EurekaTransporteInvalidacion.ENCABEZADO_SECRETO, "otro")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(MENSAJE))
+                .andExpect(status().isForbidden());
+
+        verify(invalidacionDistribuida, never()).recibir(any());
+    }
+}
@@ -0,0 +1,135 @@
+package mx.edu.uteq.idgs12.microservio_division.metricas;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import mx.edu.uteq.idgs12.microservio_division.config.MetricasConfig;
+
+class MetricasJdbcFilterTest {
+
+    private ContadorJdbcDataSource dataSource;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:metricas;DB_CLOSE_DELAY=-1");
+        dataSource = new ContadorJdbcDataSource(h2);
+        registry = new SimpleMeterRegistry();
+        try (Connection conexion = h2.getConnection(); Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("CREATE TABLE IF NOT EXISTS prueba (id INT PRIMARY KEY)");
+            sentencia.execute("MERGE INTO prueba KEY (id) VALUES (1), (2), (3)");
+        }
+    }
+
+    // Dos consultas: 3 filas y 1 fila
+    private FilterChain consultas() {
+        return (request, response) -> {
+            try (Connection conexion = dataSource.getConnection();
+                    Statement sentencia = conexion.createStatement();
+                    ResultSet filas = sentencia.executeQuery("SELECT id FROM prueba")) {
+                while (filas.next()) {
+                    // Leer todas
+                }
+                try (PreparedStatement porId = conexion.prepareStatement("SELECT id FROM prueba WHERE id = ?")) {
+                    porId.setInt(1, 2);
+                    try (ResultSet fila = porId.executeQuery()) {
+                        fila.next();
+                    }
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            response.getWriter().write("ok");
+        };
+    }
+
+    private MockHttpServletRequest peticion() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/divisiones/2");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/divisiones/{id}");
+        return request;
+    }
+
+    @Test
+    void testCuentaSentenciasYFilasPorPeticion() throws Exception {
+        // Arrange
+        MetricasJdbcFilter filter = new MetricasJdbcFilter(registry, false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(peticion(), response, consultas());
+
+        // Assert
+        DistributionSummary sentencias = registry.get("jdbc.peticion.sentencias")
+                .tag("uri", "/divisiones/{id}").tag("method", "GET").summary();
+        DistributionSummary filas = registry.get("jdbc.peticion.filas").tag("uri", "/divisiones/{id}").summary();
+        assertEquals(1, sentencias.count());
+        assertEquals(2.0, sentencias.totalAmount());
+        assertEquals(4.0, filas.totalAmount());
+        assertNull(response.getHeader(MetricasJdbcFilter.ENCABEZADO_SENTENCIAS));
+    }
+
+    @Test
+    void testEncabezadosAntesDelCuerpo() throws Exception {
+        // Arrange
+        MetricasJdbcFilter filter = new MetricasJdbcFilter(registry, true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(peticion(), response, consultas());
+
+        // Assert
+        assertEquals("2", response.getHeader(MetricasJdbcFilter.ENCABEZADO_SENTENCIAS));
+        assertEquals("4", response.getHeader(MetricasJdbcFilter.ENCABEZADO_FILAS));
+        assertEquals("ok", response.getContentAsString());
+    }
+
+    @Test
+    void testFueraDePeticionNoCuenta() throws Exception {
+        // Arrange
+        MetricasJdbcFilter filter = new MetricasJdbcFilter(registry, true);
+        consultas().doFilter(peticion(), new MockHttpServletResponse());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act: petición sin consultas
+        filter.doFilter(peticion(), response, (request, respuesta) -> { });
+
+        // Assert
+        assertEquals("0", response.getHeader(MetricasJdbcFilter.ENCABEZADO_SENTENCIAS));
+        assertEquals("0", response.getHeader(MetricasJdbcFilter.ENCABEZADO_FILAS));
+    }
+
+    @Test
+    void testSoloEnvuelveElDataSourceConLasPropiedades() {
+        // Arrange
+        ApplicationContextRunner contexto = new ApplicationContextRunner()
+                .withUserConfiguration(MetricasConfig.class)
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withBean(DataSource.class, JdbcDataSource::new);
+
+        // Act & Assert: por defecto (prod) el DataSource queda sin proxies
+        contexto.run(sinConteo -> assertFalse(sinConteo.getBean(DataSource.class) instanceof ContadorJdbcDataSource));
+        contexto.withPropertyValues("metricas.jdbc.habilitado=true")
+                .run(conteo -> assertTrue(conteo.getBean(DataSource.class) instanceof ContadorJdbcDataSource));
+        contexto.withPropertyValues("metricas.jdbc.encabezados=true")
+                .run(dev -> assertTrue(dev.getBean(DataSource.class) instanceof ContadorJdbcDataSource));
+    }
+}
@@ -0,0 +1,297 @@
+package mx.edu.uteq.idgs12.microservio_division.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import mx.edu.uteq.idgs12.microservio_division.entity.ContadorCambios;
+import mx.edu.uteq.idgs12.microservio_division.entity.CoordinadorEntity;
+import mx.edu.uteq.idgs12.microservio_division.entity.Division;
+import mx.edu.uteq.idgs12.microservio_division.entity.EventoCambio;
+import mx.edu.uteq.idgs12.microservio_division.entity.ProgramaEducativa;
+
+/**
+ * Planes de ejecución de las consultas que ejecutan los servicios sobre el esquema de las
+ * migraciones de Flyway (H2 en modo MySQL). Cada prueba ejecuta un método del repositorio,
+ * toma el SQL que generó Hibernate y le aplica EXPLAIN: falla si la tabla filtrada se recorre
+ * completa en lugar de usar su índice. En la búsqueda por nombre solo se revisa el conteo de
+ * programas: una búsqueda por subcadena no puede usar un índice B-tree.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.defer-datasource-initialization=false",
+        "spring.datasource.url=jdbc:h2:mem:planes;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "mx.edu.uteq.idgs12.microservio_division.repository.PlanesConsultaTest$CapturaSql"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ProyeccionRepository.class)
+class PlanesConsultaTest {
+
+    // SQL que Hibernate envía a la base
+    public static class CapturaSql implements StatementInspector {
+        static final List<String> SENTENCIAS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private DivisionRepository divisionRepository;
+
+    @Autowired
+    private CoordinadorRepository coordinadorRepository;
+
+    @Autowired
+    private ProgramaEducativaRepository programaEducativaRepository;
+
+    @Autowired
+    private ProyeccionRepository proyeccionRepository;
+
+    @Autowired
+    private EventoCambioRepository eventoCambioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final Pageable pagina = PageRequest.of(0, 10, Sort.by("id"));
+
+    // 300 divisiones (10% activas), 10 programas y 10 coordinadores por división, y 3000
+    // eventos de cambio (los últimos 100 sin publicar). ANALYZE
+    // confirma la transacción en H2, así que los datos se cargan una vez para toda la clase
+    @BeforeEach
+    void setUp() {
+        entityManager.clear();
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM division", Long.class) > 0) {
+            return;
+        }
+        for (int i = 0; i < 300; i++) {
+            jdbcTemplate.update("INSERT INTO division (id, nombre, nombre_normalizado, activo, version) VALUES (?, ?, ?, ?, 0)",
+                    i + 1, "División " + i, "división " + i, i % 10 == 0);
+        }
+        for (int i = 0; i < 3000; i++) {
+            jdbcTemplate.update("INSERT INTO programa_educativa (programa, activo, version, division_id) VALUES (?, ?, 0, ?)",
+                    "Programa " + i, i % 3 == 0, 1 + i % 300);
+            jdbcTemplate.update("INSERT INTO coordinadores (id, nombre, apellido, correo, correo_normalizado, telefono, division_id, activo, version) "
+                    + "VALUES (?, 'Nombre', 'Apellido', ?, ?, '4421234567', ?, ?, 0)",
+                    i + 1, "Coordinador" + i + "@uteq.edu.mx", "coordinador" + i + "@uteq.edu.mx", 1 + i % 300, i % 10 == 0);
+            jdbcTemplate.update("INSERT INTO evento_cambio (id, secuencia, coleccion, entidad_id, operacion, registrado) "
+                    + "VALUES (?, ?, 'coordinadores', ?, 'CREACION', ?)",
+                    i + 1, i < 2900 ? i + 1 : null, i + 1, LocalDateTime.now().minusMinutes(3000 - i));
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // Ejecutar la consulta y devolver el plan de cada sentencia; los parámetros se enlazan con un
+    // valor de ejemplo del tipo de la columna (el plan de H2 depende de los índices, no del valor)
+    private List<String> planes(Object valor, Runnable consulta) {
+        CapturaSql.SENTENCIAS.clear();
+        consulta.run();
+        List<String> planes = new ArrayList<>();
+        for (String sql : new ArrayList<>(CapturaSql.SENTENCIAS)) {
+            Object[] parametros = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+            Arrays.fill(parametros, valor);
+            planes.add(jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parametros).toLowerCase(Locale.ROOT));
+        }
+        assertFalse(planes.isEmpty(), "La consulta no ejecutó SQL");
+        return planes;
+    }
+
+    // Todas las sentencias usan el índice y ninguna recorre la tabla completa
+    private void assertUsaIndice(String tabla, String indice, Runnable consulta) {
+        assertUsaIndice(tabla, indice, 5L, consulta);
+    }
+
+    private void assertUsaIndice(String tabla, String indice, Object valor, Runnable consulta) {
+        for (String plan : planes(valor, consulta)) {
+            assertPlanUsaIndice(tabla, indice, plan);
+        }
+    }
+
+    // Solo la primera sentencia (el contenido de una página, no su conteo)
+    private void assertContenidoUsaIndice(String tabla, String indice, Runnable consulta) {
+        assertPlanUsaIndice(tabla, indice, planes(5L, consulta).get(0));
+    }
+
+    private void assertPlanUsaIndice(String tabla, String indice, String plan) {
+        assertFalse(plan.contains("public." + tabla + ".tablescan"), "Recorrido completo de " + tabla + ":\n" + plan);
+        assertTrue(plan.contains("public." + indice), "No usa " + indice + ":\n" + plan);
+    }
+
+    @Test
+    void testCoordinadoresPorDivision_UsanIndiceDivisionActivo() {
+        String indice = "idx_coordinadores_division_activo";
+        assertUsaIndice("coordinadores", indice, () -> coordinadorRepository.findByDivisionId(
+                5L, ScrollPosition.keyset(), Sort.by("id"), Limit.of(10)));
+        assertUsaIndice("coordinadores", indice, () -> coordinadorRepository.findViewsByDivisionId(5L));
+        assertUsaIndice("coordinadores", indice, () -> coordinadorRepository.findViewsByDivisionId(5L, pagina));
+        assertUsaIndice("coordinadores", indice, () -> coordinadorRepository.findIdsByDivisionId(5L));
+        assertUsaIndice("coordinadores", indice, () -> coordinadorRepository.findIdsActivosByDivisionIdIn(List.of(5L)));
+    }
+
+    @Test
+    void testCoordinadoresActivos_UsanIndiceActivo() {
+        String indice = "idx_coordinadores_activo";
+        assertUsaIndice("coordinadores", indice, () -> coordinadorRepository.findViewsByActivoTrue());
+        assertUsaIndice("coordinadores", indice, () -> coordinadorRepository.findViewsByActivoTrue(pagina));
+    }
+
+    @Test
+    void testDivisionesActivas_UsanIndiceActivo() {
+        String indice = "idx_division_activo";
+        assertUsaIndice("division", indice, () -> divisionRepository.findResumenesByActivoTrue());
+        assertUsaIndice("division", indice, () -> divisionRepository.findResumenesByActivoTrue(pagina));
+    }
+
+    @Test
+    void testVistasDeCoordinadores_LeenLaDivisionPorLlavePrimaria() {
+        assertUsaIndice("division", "primary_key", () -> coordinadorRepository.findAllViews());
+        assertUsaIndice("division", "primary_key", () -> coordinadorRepository.findViewsByActivoTrue());
+        assertUsaIndice("division", "primary_key", () -> coordinadorRepository.findViewsByDivisionId(5L));
+        assertUsaIndice("division", "primary_key", () -> coordinadorRepository.findViewById(5L));
+        assertContenidoUsaIndice("division", "primary_key", () -> coordinadorRepository.findAllViews(pagina));
+        assertContenidoUsaIndice("division", "primary_key", () -> coordinadorRepository.findViewsByActivoTrue(pagina));
+        assertContenidoUsaIndice("division", "primary_key", () -> coordinadorRepository.findViewsByDivisionId(5L, pagina));
+    }
+
+    @Test
+    void testNombreDeDivision_SoloLeeElNombrePorLlavePrimaria() {
+        assertUsaIndice("division", "primary_key", () -> divisionRepository.findNombreById(5L));
+        assertTrue(CapturaSql.SENTENCIAS.get(0).startsWith("select d1_0.nombre from"), CapturaSql.SENTENCIAS.get(0));
+    }
+
+    @Test
+    void testResumenesDeDivisiones_CuentanProgramasConIndiceDivisionActivo() {
+        String indice = "idx_programa_educativa_division_activo";
+        assertUsaIndice("programa_educativa", indice, () -> divisionRepository.findResumenes());
+        assertUsaIndice("programa_educativa", indice, () -> divisionRepository.findResumenesByActivoTrue());
+        assertUsaIndice("programa_educativa", indice, () -> divisionRepository.findResumenesByNombreContainingIgnoreCase("5"));
+        assertContenidoUsaIndice("programa_educativa", indice, () -> divisionRepository.findResumenes(pagina));
+        assertContenidoUsaIndice("programa_educativa", indice, () -> divisionRepository.findResumenesByActivoTrue(pagina));
+        assertContenidoUsaIndice("programa_educativa", indice,
+                () -> divisionRepository.findResumenesByNombreContainingIgnoreCase("5", pagina));
+    }
+
+    @Test
+    void testProgramasActivos_UsanIndiceDivisionActivo() {
+        String indice = "idx_programa_educativa_division_activo";
+        assertUsaIndice("programa_educativa", indice,
+                () -> programaEducativaRepository.findActivosByDivisionIdIn(List.of(1L, 2L)));
+        assertUsaIndice("programa_educativa", indice,
+                () -> programaEducativaRepository.findByDivisionIdAndActivoTrueOrderById(1L));
+        assertUsaIndice("programa_educativa", indice, () -> divisionRepository.findResumenesByIdIn(List.of(3L)));
+    }
+
+    @Test
+    void testSugerencias_CarganPorLlavePrimaria() {
+        // Índice de autocompletado: bloques por rango de ID (sin OFFSET) e IDs invalidados
+        assertUsaIndice("coordinadores", "primary_key",
+                () -> coordinadorRepository.findSugerenciasDesde(5L, Limit.of(100)));
+        assertUsaIndice("coordinadores", "primary_key",
+                () -> coordinadorRepository.findSugerenciasByIdIn(List.of(5L, 7L)));
+    }
+
+    @Test
+    void testProyecciones_SoloLeenLoPedidoYUsanLosMismosIndices() {
+        // Sin divisionNombre no hay JOIN; con él, la división se lee por llave primaria
+        Map<String, Object> division = Map.of("divisionId", 5L);
+        assertUsaIndice("coordinadores", "idx_coordinadores_division_activo", () -> proyeccionRepository.paginar(
+                CoordinadorRepository.PROYECCION, CoordinadorRepository.PROYECCION.campos("id,nombre"),
+                "c.divisionId = :divisionId", division, pagina));
+        assertTrue(CapturaSql.SENTENCIAS.stream().noneMatch(sql -> sql.contains(" join ")), CapturaSql.SENTENCIAS.toString());
+        assertUsaIndice("division", "primary_key", () -> proyeccionRepository.listar(
+                CoordinadorRepository.PROYECCION, CoordinadorRepository.PROYECCION.campos("id,divisionNombre"),
+                "c.divisionId = :divisionId", division, Sort.by("id")));
+        assertTrue(CapturaSql.SENTENCIAS.get(0).contains(" join division "), CapturaSql.SENTENCIAS.get(0));
+
+        // numeroProgramas cuenta con el índice de programas por división
+        assertUsaIndice("programa_educativa", "idx_programa_educativa_division_activo", () -> proyeccionRepository.listar(
+                DivisionRepository.PROYECCION, DivisionRepository.PROYECCION.campos("nombre,numeroProgramas"),
+                "d.activo = true", Map.of(), Sort.by("id")));
+        // La subconsulta no vuelve a leer division: solo la consulta externa la nombra
+        assertEquals(1, CapturaSql.SENTENCIAS.get(0).split(" division ", -1).length - 1, CapturaSql.SENTENCIAS.get(0));
+        assertUsaIndice("division", "idx_division_activo", () -> proyeccionRepository.listar(
+                DivisionRepository.PROYECCION, DivisionRepository.PROYECCION.campos("nombre"),
+                "d.activo = true", Map.of(), Sort.by("id")));
+    }
+
+    @Test
+    void testDuplicados_UsanRestriccionUnicaNormalizada() {
+        assertUsaIndice("division", Division.UK_NOMBRE_NORMALIZADO, "división 5",
+                () -> divisionRepository.findNombresRegistrados(List.of("división 5", "división 7")));
+        assertUsaIndice("coordinadores", CoordinadorEntity.UK_CORREO_NORMALIZADO, "coordinador5@uteq.edu.mx",
+                () -> coordinadorRepository.findCorreosRegistrados(List.of("coordinador5@uteq.edu.mx")));
+    }
+
+    @Test
+    void testFeedDeCambios_UsaLaSecuenciaYLaFechaDeRegistro() {
+        assertUsaIndice("evento_cambio", EventoCambio.UK_SECUENCIA,
+                () -> eventoCambioRepository.findPublicadosDesde(2800L, Limit.of(100)));
+        assertUsaIndice("evento_cambio", EventoCambio.UK_SECUENCIA,
+                () -> eventoCambioRepository.findPendientes(Limit.of(100)));
+        assertUsaIndice("evento_cambio", "idx_evento_cambio_registrado", LocalDateTime.now().minusDays(7),
+                () -> eventoCambioRepository.depurar(LocalDateTime.now().minusDays(7)));
+    }
+
+    @Test
+    void testDelta_UsaIndiceActualizadoEn() {
+        LocalDateTime desde = LocalDateTime.now().minusDays(1);
+        assertUsaIndice("division", "idx_division_actualizado_en", desde, () -> divisionRepository.findModificadasDesde(
+                desde, 5L, LocalDateTime.now(), Limit.of(100)));
+        assertUsaIndice("coordinadores", "idx_coordinadores_actualizado_en", desde,
+                () -> coordinadorRepository.findModificadosDesde(desde, 5L, LocalDateTime.now(), Limit.of(100)));
+    }
+
+    @Test
+    void testIndicesDeLasEntidades_ExistenEnLasMigraciones() {
+        List<String> indices = jdbcTemplate.queryForList(
+                "SELECT LOWER(index_name) FROM information_schema.indexes WHERE table_schema = 'public'", String.class);
+        List<String> restricciones = jdbcTemplate.queryForList(
+                "SELECT LOWER(constraint_name) FROM information_schema.table_constraints WHERE table_schema = 'public'",
+                String.class);
+
+        for (Class<?> entidad : List.of(Division.class, ProgramaEducativa.class, CoordinadorEntity.class,
+                ContadorCambios.class, EventoCambio.class)) {
+            Table tabla = entidad.getAnnotation(Table.class);
+            for (Index indice : tabla.indexes()) {
+                assertTrue(indices.contains(indice.name().toLowerCase(Locale.ROOT)),
+                        "Falta una migración para el índice " + indice.name() + " de " + entidad.getSimpleName());
+            }
+            for (UniqueConstraint restriccion : tabla.uniqueConstraints()) {
+                assertTrue(restricciones.contains(restriccion.name().toLowerCase(Locale.ROOT)),
+                        "Falta una migración para la restricción " + restriccion.name() + " de " + entidad.getSimpleName());
+            }
+        }
+    }
+}
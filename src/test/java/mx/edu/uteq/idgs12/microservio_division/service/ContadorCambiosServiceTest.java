@@ -0,0 +1,132 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionDistribuida;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.repository.ContadorCambiosRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.CoordinadorRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ContadorCambiosServiceTest {
+
+    @Mock
+    private ContadorCambiosRepository contadorCambiosRepository;
+
+    @Mock
+    private DivisionRepository divisionRepository;
+
+    @Mock
+    private CoordinadorRepository coordinadorRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private InvalidacionDistribuida invalidacionDistribuida;
+
+    @InjectMocks
+    private ContadorCambiosService contadorCambiosService;
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void testObtener_EventosSinFilaDevuelveCero() {
+        // Arrange
+        when(contadorCambiosRepository.findById(ContadorCambiosService.EVENTOS)).thenReturn(Optional.empty());
+
+        // Act
+        Long cambios = contadorCambiosService.obtener(ContadorCambiosService.EVENTOS);
+
+        // Assert
+        assertEquals(0L, cambios);
+    }
+
+    @Test
+    void testObtener_DivisionesSeCalculaDeSusFilas() {
+        // Arrange
+        when(divisionRepository.contarCambios()).thenReturn(42L);
+
+        // Act
+        Long cambios = contadorCambiosService.obtener(ContadorCambiosService.DIVISIONES);
+
+        // Assert
+        assertEquals(42L, cambios);
+        verifyNoInteractions(contadorCambiosRepository);
+    }
+
+    @Test
+    void testObtener_CoordinadoresSumaLasDivisiones() {
+        // Arrange: los coordinadores muestran el nombre de su división
+        when(coordinadorRepository.contarCambios()).thenReturn(10L);
+        when(divisionRepository.contarCambios()).thenReturn(42L);
+
+        // Act
+        Long cambios = contadorCambiosService.obtener(ContadorCambiosService.COORDINADORES);
+
+        // Assert
+        assertEquals(52L, cambios);
+    }
+
+    @Test
+    void testRegistrarCambio_InvalidaLaVersionDespuesDelCommit() {
+        // Arrange
+        when(cacheManager.getCache(CacheConfig.CONTADORES_CAMBIOS)).thenReturn(cache);
+
+        // Act
+        contadorCambiosService.registrarCambio(ContadorCambiosService.DIVISIONES);
+        verify(cache, never()).evictIfPresent(any());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Assert: la escritura no toca contador_cambios
+        verify(cache, times(1)).evictIfPresent(ContadorCambiosService.DIVISIONES);
+        verify(invalidacionDistribuida, times(1)).enviarPendientes();
+        verifyNoInteractions(contadorCambiosRepository);
+    }
+
+    @Test
+    void testRegistrarCambio_RollbackConservaLaVersion() {
+        // Act
+        contadorCambiosService.registrarCambio(ContadorCambiosService.COORDINADORES);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Assert
+        verify(cacheManager, never()).getCache(any());
+        verify(invalidacionDistribuida, times(1)).enviarPendientes();
+    }
+
+    @Test
+    void testFormatearEtag() {
+        assertEquals("\"divisiones-12\"", ContadorCambiosService.formatearEtag(ContadorCambiosService.DIVISIONES, 12));
+    }
+}
@@ -4,27 +4,56 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorBulkResultadoDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorBulkUpdateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorCorreoDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorCreateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorSugerenciaDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorUpdateDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.CursorPageDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DeltaDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionNombreDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.OperacionBulkResultadoDto;
 import mx.edu.uteq.idgs12.microservio_division.entity.CoordinadorEntity;
 import mx.edu.uteq.idgs12.microservio_division.entity.Division;
+import mx.edu.uteq.idgs12.microservio_division.entity.EventoCambio;
 import mx.edu.uteq.idgs12.microservio_division.repository.CoordinadorRepository;
 import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.ProyeccionRepository;
 
 @ExtendWith(MockitoExtension.class)
 class CoordinadorServiceTest {
@@ -35,16 +64,44 @@ class CoordinadorServiceTest {
     @Mock
     private DivisionRepository divisionRepository;
 
+    @Mock
+    private CursorCodec cursorCodec;
+
+    @Mock
+    private DivisionNombreResolver divisionNombreResolver;
+
+    @Mock
+    private ContadorCambiosService contadorCambiosService;
+
+    @Mock
+    private EventoCambioService eventoCambioService;
+
+    @Mock
+    private IndiceSugerenciasCoordinadores indiceSugerencias;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private ProyeccionRepository proyeccionRepository;
+
     @InjectMocks
     private CoordinadorService coordinadorService;
 
     private CoordinadorEntity coordinador;
+    private CoordinadorViewDto coordinadorView;
     private Division division;
     private CoordinadorCreateDto coordinadorCreateDto;
     private CoordinadorUpdateDto coordinadorUpdateDto;
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(coordinadorService, "limitador",
+                new LimitadorConcurrenciaBd(2, 1, Duration.ofSeconds(5), new SimpleMeterRegistry()));
+
         division = new Division();
         division.setId(1L);
         division.setNombre("División de Tecnologías");
@@ -60,6 +117,9 @@ class CoordinadorServiceTest {
                 .activo(true)
                 .build();
 
+        coordinadorView = new CoordinadorViewDto(1L, "Juan", "Pérez", "juan.perez@uteq.edu.mx",
+                "4421234567", 1L, "División de Tecnologías", true);
+
         coordinadorCreateDto = new CoordinadorCreateDto();
         coordinadorCreateDto.setNombre("Juan");
         coordinadorCreateDto.setApellido("Pérez");
@@ -79,8 +139,7 @@ class CoordinadorServiceTest {
     @Test
     void testFindAll() {
         // Arrange
-        when(coordinadorRepository.findAll()).thenReturn(Arrays.asList(coordinador));
-        when(divisionRepository.findById(1L)).thenReturn(Optional.of(division));
+        when(coordinadorRepository.findAllViews()).thenReturn(Arrays.asList(coordinadorView));
 
         // Act
         List<CoordinadorViewDto> result = coordinadorService.findAll();
@@ -89,14 +148,16 @@ class CoordinadorServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Juan", result.get(0).getNombre());
-        verify(coordinadorRepository, times(1)).findAll();
+        assertEquals("División de Tecnologías", result.get(0).getDivisionNombre());
+        verify(coordinadorRepository, times(1)).findAllViews();
+        verify(coordinadorRepository, never()).findAll();
+        verifyNoInteractions(divisionRepository);
     }
 
     @Test
     void testFindAllActivos() {
         // Arrange
-        when(coordinadorRepository.findByActivoTrue()).thenReturn(Arrays.asList(coordinador));
-        when(divisionRepository.findById(1L)).thenReturn(Optional.of(division));
+        when(coordinadorRepository.findViewsByActivoTrue()).thenReturn(Arrays.asList(coordinadorView));
 
         // Act
         List<CoordinadorViewDto> result = coordinadorService.findAllActivos();
@@ -105,14 +166,13 @@ class CoordinadorServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertTrue(result.get(0).isActivo());
-        verify(coordinadorRepository, times(1)).findByActivoTrue();
+        verify(coordinadorRepository, times(1)).findViewsByActivoTrue();
     }
 
     @Test
     void testFindByDivision() {
         // Arrange
-        when(coordinadorRepository.findByDivisionId(1L)).thenReturn(Arrays.asList(coordinador));
-        when(divisionRepository.findById(1L)).thenReturn(Optional.of(division));
+        when(coordinadorRepository.findViewsByDivisionId(1L)).thenReturn(Arrays.asList(coordinadorView));
 
         // Act
         List<CoordinadorViewDto> result = coordinadorService.findByDivision(1L);
@@ -121,14 +181,50 @@ class CoordinadorServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(1L, result.get(0).getDivisionId());
-        verify(coordinadorRepository, times(1)).findByDivisionId(1L);
+        verify(coordinadorRepository, times(1)).findViewsByDivisionId(1L);
+    }
+
+    @Test
+    void testFindByDivisionPaginatedCampos() {
+        // Arrange
+        Page<Map<String, Object>> pagina = new PageImpl<>(List.of(Map.of("id", 1L, "correo", "juan.perez@uteq.edu.mx")));
+        when(proyeccionRepository.paginar(eq(CoordinadorRepository.PROYECCION), eq(Set.of("id", "correo")),
+                eq("c.divisionId = :divisionId"), eq(Map.of("divisionId", 1L)), any(Pageable.class)))
+                .thenReturn(pagina);
+
+        // Act
+        Page<Map<String, Object>> result = coordinadorService.findByDivisionPaginatedCampos(1L, 0, 10, "id", "id, correo");
+
+        // Assert
+        assertSame(pagina, result);
+        verify(coordinadorRepository, never()).findViewsByDivisionId(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void testFindAllCampos_SinCampos() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> coordinadorService.findAllCampos(" , "));
+        verifyNoInteractions(proyeccionRepository);
+    }
+
+    @Test
+    void testExportar() {
+        // Arrange
+        when(coordinadorRepository.streamAllViews()).thenReturn(Stream.of(coordinadorView));
+        List<CoordinadorViewDto> exportados = new ArrayList<>();
+
+        // Act
+        coordinadorService.exportar(exportados::add);
+
+        // Assert
+        assertEquals(List.of(coordinadorView), exportados);
+        verify(coordinadorRepository, never()).findAllViews();
     }
 
     @Test
     void testFindById() {
         // Arrange
-        when(coordinadorRepository.findById(1L)).thenReturn(Optional.of(coordinador));
-        when(divisionRepository.findById(1L)).thenReturn(Optional.of(division));
+        when(coordinadorRepository.findViewById(1L)).thenReturn(Optional.of(coordinadorView));
 
         // Act
         Optional<CoordinadorViewDto> result = coordinadorService.findById(1L);
@@ -136,15 +232,14 @@ class CoordinadorServiceTest {
         // Assert
         assertTrue(result.isPresent());
         assertEquals("Juan", result.get().getNombre());
-        verify(coordinadorRepository, times(1)).findById(1L);
+        verify(coordinadorRepository, times(1)).findViewById(1L);
     }
 
     @Test
     void testCreate_Success() {
         // Arrange
-        when(coordinadorRepository.existsByCorreoIgnoreCase(anyString())).thenReturn(false);
         when(divisionRepository.findById(1L)).thenReturn(Optional.of(division));
-        when(coordinadorRepository.save(any(CoordinadorEntity.class))).thenReturn(coordinador);
+        when(coordinadorRepository.saveAndFlush(any(CoordinadorEntity.class))).thenReturn(coordinador);
 
         // Act
         CoordinadorViewDto result = coordinadorService.create(coordinadorCreateDto);
@@ -152,29 +247,195 @@ class CoordinadorServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("Juan", result.getNombre());
-        verify(coordinadorRepository, times(1)).existsByCorreoIgnoreCase(anyString());
-        verify(divisionRepository, times(2)).findById(1L); // Una para validar, otra para DTO
-        verify(coordinadorRepository, times(1)).save(any(CoordinadorEntity.class));
+        assertEquals("División de Tecnologías", result.getDivisionNombre());
+        verify(divisionRepository, times(1)).findById(1L); // Solo para validar; el DTO reutiliza el nombre
+        verify(coordinadorRepository, times(1)).saveAndFlush(any(CoordinadorEntity.class));
+        verify(contadorCambiosService, times(1)).registrarCambio(ContadorCambiosService.COORDINADORES);
+        verify(eventoCambioService, times(1)).registrar(ContadorCambiosService.COORDINADORES, EventoCambio.CREACION,
+                coordinador.getId());
     }
 
     @Test
-    void testCreate_DuplicateEmail() {
+    void testEtag() {
         // Arrange
-        when(coordinadorRepository.existsByCorreoIgnoreCase(anyString())).thenReturn(true);
+        when(contadorCambiosService.obtener(ContadorCambiosService.COORDINADORES)).thenReturn(4L);
+
+        // Act
+        String etag = coordinadorService.etag();
+
+        // Assert
+        assertEquals("\"coordinadores-4\"", etag);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateBulk_ValidaEnBloqueYGuardaLosValidos() {
+        // Arrange
+        CoordinadorCreateDto registrado = crearDto("Ana", "ana@uteq.edu.mx", 1L);
+        CoordinadorCreateDto nuevo = crearDto("Luis", "luis@uteq.edu.mx", 1L);
+        CoordinadorCreateDto repetido = crearDto("Luis", "LUIS@uteq.edu.mx", 1L);
+        CoordinadorCreateDto sinDivision = crearDto("Eva", "eva@uteq.edu.mx", 9L);
+        CoordinadorCreateDto correoInvalido = crearDto("Leo", "leo-uteq", 1L);
+        when(coordinadorRepository.findCorreosRegistrados(anyCollection()))
+                .thenReturn(List.of(new CoordinadorCorreoDto(5L, "ana@uteq.edu.mx")));
+        when(divisionRepository.findNombresByIdIn(anyCollection()))
+                .thenReturn(List.of(new DivisionNombreDto(1L, "División de Tecnologías")));
+        when(coordinadorRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<CoordinadorEntity> nuevos = invocation.getArgument(0);
+            nuevos.forEach(c -> c.setId(10L));
+            return nuevos;
+        });
+        when(cacheManager.getCache(CacheConfig.COORDINADORES)).thenReturn(cache);
+
+        // Act
+        CoordinadorBulkResultadoDto result = coordinadorService.createBulk(
+                List.of(registrado, nuevo, repetido, sinDivision, correoInvalido));
+
+        // Assert
+        assertEquals(5, result.getTotal());
+        assertEquals(1, result.getExitosos());
+        assertEquals(4, result.getFallidos());
+        assertTrue(result.getResultados().get(1).isExito());
+        assertEquals(10L, result.getResultados().get(1).getCoordinador().getId());
+        assertEquals("División de Tecnologías", result.getResultados().get(1).getCoordinador().getDivisionNombre());
+        assertTrue(result.getResultados().get(0).getError().contains("Ya existe"));
+        assertTrue(result.getResultados().get(2).getError().contains("repetido"));
+        assertTrue(result.getResultados().get(3).getError().contains("no existe"));
+        assertTrue(result.getResultados().get(4).getError().contains("formato"));
+        verify(coordinadorRepository, times(1)).findCorreosRegistrados(anyCollection());
+        verify(divisionRepository, times(1)).findNombresByIdIn(anyCollection());
+        verify(coordinadorRepository, times(1)).saveAll(argThat(l -> ((List<CoordinadorEntity>) l).size() == 1));
+        verify(coordinadorRepository, never()).saveAndFlush(any(CoordinadorEntity.class));
+        verify(contadorCambiosService, times(1)).registrarCambio(ContadorCambiosService.COORDINADORES);
+        verify(eventoCambioService, times(1)).registrar(ContadorCambiosService.COORDINADORES, EventoCambio.CREACION,
+                List.of(10L));
+        verify(cache, times(1)).evict(10L);
+    }
 
+    @Test
+    void testCreateBulk_ListaVacia() {
         // Act & Assert
-        assertThrows(IllegalArgumentException.class, () -> {
+        assertThrows(IllegalArgumentException.class, () -> coordinadorService.createBulk(List.of()));
+        verify(coordinadorRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testUpdateBulk() {
+        // Arrange
+        CoordinadorBulkUpdateDto cambio = new CoordinadorBulkUpdateDto();
+        cambio.setId(1L);
+        cambio.setNombre("Juan Carlos");
+        cambio.setApellido("Pérez");
+        cambio.setCorreo("juan.perez@uteq.edu.mx");
+        cambio.setDivisionId(1L);
+        cambio.setActivo(true);
+        CoordinadorBulkUpdateDto inexistente = new CoordinadorBulkUpdateDto();
+        inexistente.setId(99L);
+        when(coordinadorRepository.findAllById(anyCollection())).thenReturn(List.of(coordinador));
+        when(coordinadorRepository.findCorreosRegistrados(anyCollection()))
+                .thenReturn(List.of(new CoordinadorCorreoDto(1L, "juan.perez@uteq.edu.mx")));
+        when(divisionRepository.findNombresByIdIn(anyCollection()))
+                .thenReturn(List.of(new DivisionNombreDto(1L, "División de Tecnologías")));
+        when(cacheManager.getCache(CacheConfig.COORDINADORES)).thenReturn(cache);
+
+        // Act
+        CoordinadorBulkResultadoDto result = coordinadorService.updateBulk(List.of(cambio, inexistente));
+
+        // Assert
+        assertEquals(1, result.getExitosos());
+        assertEquals("Juan Carlos", coordinador.getNombre());
+        assertTrue(result.getResultados().get(1).getError().contains("no existe"));
+        verify(coordinadorRepository, never()).findById(anyLong());
+        verify(contadorCambiosService, times(1)).registrarCambio(ContadorCambiosService.COORDINADORES);
+        verify(eventoCambioService, times(1)).registrar(ContadorCambiosService.COORDINADORES, EventoCambio.ACTUALIZACION,
+                List.of(1L));
+        // Solo el coordinador actualizado, no todo el cache
+        verify(cache, times(1)).evict(1L);
+        verify(cache, never()).clear();
+    }
+
+    @Test
+    void testSuggest_UsaElIndice() {
+        // Arrange
+        List<CoordinadorSugerenciaDto> sugerencias = List.of(
+                new CoordinadorSugerenciaDto(1L, "Juan", "Pérez", "juan.perez@uteq.edu.mx", 1L, true));
+        when(indiceSugerencias.buscar("jua", 1L, true, 5)).thenReturn(Optional.of(sugerencias));
+
+        // Act
+        List<CoordinadorSugerenciaDto> result = coordinadorService.suggest("jua", 1L, true, 5);
+
+        // Assert
+        assertEquals(sugerencias, result);
+        verify(coordinadorRepository, never()).findSugerencias(anyString(), any(), any(), any(Limit.class));
+    }
+
+    @Test
+    void testSuggest_IndiceSinCargar_ConsultaLaBase() {
+        // Arrange
+        when(indiceSugerencias.buscar(" JUA", null, null, 10)).thenReturn(Optional.empty());
+        when(coordinadorRepository.findSugerencias("jua%", null, null, Limit.of(10)))
+                .thenReturn(List.of(new CoordinadorSugerenciaDto(1L, "Juan", "Pérez", "juan.perez@uteq.edu.mx", 1L, true)));
+
+        // Act
+        List<CoordinadorSugerenciaDto> result = coordinadorService.suggest(" JUA", null, null, 10);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("Juan", result.get(0).getNombre());
+    }
+
+    @Test
+    void testSuggest_IndiceSinCargar_EscapaComodines() {
+        // Arrange: el índice busca "%" y "_" tal cual; la base debe hacer lo mismo
+        when(indiceSugerencias.buscar(any(), isNull(), isNull(), eq(10))).thenReturn(Optional.empty());
+
+        // Act
+        coordinadorService.suggest("%", null, null, 10);
+        coordinadorService.suggest("ana_l", null, null, 10);
+
+        // Assert
+        verify(coordinadorRepository).findSugerencias("\\%%", null, null, Limit.of(10));
+        verify(coordinadorRepository).findSugerencias("ana\\_l%", null, null, Limit.of(10));
+    }
+
+    @Test
+    void testSuggest_LimiteInvalido() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> coordinadorService.suggest("jua", null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> coordinadorService.suggest("jua", null, null, 51));
+        assertTrue(coordinadorService.suggest("  ", null, null, 10).isEmpty());
+        verifyNoInteractions(indiceSugerencias);
+    }
+
+    private CoordinadorCreateDto crearDto(String nombre, String correo, Long divisionId) {
+        CoordinadorCreateDto dto = new CoordinadorCreateDto();
+        dto.setNombre(nombre);
+        dto.setApellido("Pérez");
+        dto.setCorreo(correo);
+        dto.setDivisionId(divisionId);
+        return dto;
+    }
+
+    @Test
+    void testCreate_DuplicateEmail() {
+        // Arrange: el índice único de correo_normalizado rechaza el INSERT
+        when(divisionRepository.findById(1L)).thenReturn(Optional.of(division));
+        when(coordinadorRepository.saveAndFlush(any(CoordinadorEntity.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new ConstraintViolationException("duplicado", new SQLException("duplicado"),
+                        "PUBLIC.UK_COORDINADORES_CORREO_NORMALIZADO_INDEX_A")));
+
+        // Act & Assert
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> {
             coordinadorService.create(coordinadorCreateDto);
         });
 
-        verify(coordinadorRepository, times(1)).existsByCorreoIgnoreCase(anyString());
-        verify(coordinadorRepository, never()).save(any(CoordinadorEntity.class));
+        assertTrue(error.getMessage().startsWith("Ya existe un coordinador con el correo"));
+        verify(contadorCambiosService, never()).registrarCambio(anyString());
     }
 
     @Test
     void testCreate_DivisionNotFound() {
         // Arrange
-        when(coordinadorRepository.existsByCorreoIgnoreCase(anyString())).thenReturn(false);
         when(divisionRepository.findById(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -183,16 +444,15 @@ class CoordinadorServiceTest {
         });
 
         verify(divisionRepository, times(1)).findById(1L);
-        verify(coordinadorRepository, never()).save(any(CoordinadorEntity.class));
+        verify(coordinadorRepository, never()).saveAndFlush(any(CoordinadorEntity.class));
     }
 
     @Test
     void testUpdate_Success() {
         // Arrange
         when(coordinadorRepository.findById(1L)).thenReturn(Optional.of(coordinador));
-        when(coordinadorRepository.existsByCorreoIgnoreCaseAndIdNot(anyString(), anyLong())).thenReturn(false);
         when(divisionRepository.findById(1L)).thenReturn(Optional.of(division));
-        when(coordinadorRepository.save(any(CoordinadorEntity.class))).thenReturn(coordinador);
+        when(coordinadorRepository.saveAndFlush(any(CoordinadorEntity.class))).thenReturn(coordinador);
 
         // Act
         Optional<CoordinadorViewDto> result = coordinadorService.update(1L, coordinadorUpdateDto);
@@ -200,7 +460,7 @@ class CoordinadorServiceTest {
         // Assert
         assertTrue(result.isPresent());
         verify(coordinadorRepository, times(1)).findById(1L);
-        verify(coordinadorRepository, times(1)).save(any(CoordinadorEntity.class));
+        verify(coordinadorRepository, times(1)).saveAndFlush(any(CoordinadorEntity.class));
     }
 
     @Test
@@ -251,7 +511,7 @@ class CoordinadorServiceTest {
         // Arrange
         when(coordinadorRepository.findById(1L)).thenReturn(Optional.of(coordinador));
         when(coordinadorRepository.save(any(CoordinadorEntity.class))).thenReturn(coordinador);
-        when(divisionRepository.findById(1L)).thenReturn(Optional.of(division));
+        when(divisionNombreResolver.resolver(1L)).thenReturn(Optional.of("División de Tecnologías"));
 
         // Act
         Optional<CoordinadorViewDto> result = coordinadorService.toggleStatus(1L);
@@ -262,12 +522,79 @@ class CoordinadorServiceTest {
         verify(coordinadorRepository, times(1)).save(any(CoordinadorEntity.class));
     }
 
+    @Test
+    void testDesactivarBulk_UnUpdateConLosExistentes() {
+        // Arrange
+        when(coordinadorRepository.findIdsByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(1L, 2L));
+        when(coordinadorRepository.desactivar(eq(List.of(1L, 2L)), any(LocalDateTime.class))).thenReturn(2);
+        when(cacheManager.getCache(CacheConfig.COORDINADORES)).thenReturn(cache);
+
+        // Act
+        OperacionBulkResultadoDto resultado = coordinadorService.desactivarBulk(List.of(1L, 2L, 2L, 3L));
+
+        // Assert
+        assertEquals(3, resultado.getSolicitados());
+        assertEquals(2, resultado.getActualizados());
+        assertEquals(List.of(3L), resultado.getNoEncontrados());
+        verify(contadorCambiosService).registrarCambio(ContadorCambiosService.COORDINADORES);
+        verify(eventoCambioService).registrar(ContadorCambiosService.COORDINADORES, EventoCambio.BAJA, List.of(1L, 2L));
+        verify(cache).evict(1L);
+        verify(cache).evict(2L);
+        verify(coordinadorRepository, never()).findById(anyLong());
+        verify(coordinadorRepository, never()).save(any(CoordinadorEntity.class));
+    }
+
+    @Test
+    void testDesactivarBulk_NingunoExiste_NoActualiza() {
+        // Arrange
+        when(coordinadorRepository.findIdsByIdIn(Set.of(7L))).thenReturn(List.of());
+
+        // Act
+        OperacionBulkResultadoDto resultado = coordinadorService.desactivarBulk(List.of(7L));
+
+        // Assert
+        assertEquals(0, resultado.getActualizados());
+        assertEquals(List.of(7L), resultado.getNoEncontrados());
+        verify(coordinadorRepository, never()).desactivar(anyCollection(), any(LocalDateTime.class));
+        verifyNoInteractions(contadorCambiosService, eventoCambioService);
+    }
+
+    @Test
+    void testDesactivarBulk_IdsInvalidos() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> coordinadorService.desactivarBulk(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> coordinadorService.desactivarBulk(Arrays.asList(1L, null)));
+        List<Long> demasiados = new ArrayList<>();
+        for (long id = 1; id <= 1001; id++) {
+            demasiados.add(id);
+        }
+        assertThrows(IllegalArgumentException.class, () -> coordinadorService.desactivarBulk(demasiados));
+        verifyNoInteractions(coordinadorRepository);
+    }
+
+    @Test
+    void testToggleStatusBulk_UnUpdate() {
+        // Arrange
+        when(coordinadorRepository.findIdsByIdIn(Set.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(coordinadorRepository.invertirEstado(eq(List.of(1L, 2L)), any(LocalDateTime.class))).thenReturn(2);
+        when(cacheManager.getCache(CacheConfig.COORDINADORES)).thenReturn(cache);
+
+        // Act
+        OperacionBulkResultadoDto resultado = coordinadorService.toggleStatusBulk(List.of(1L, 2L));
+
+        // Assert
+        assertEquals(2, resultado.getActualizados());
+        assertTrue(resultado.getNoEncontrados().isEmpty());
+        verify(eventoCambioService).registrar(ContadorCambiosService.COORDINADORES, EventoCambio.CAMBIO_ESTADO, List.of(1L, 2L));
+        verify(cache).evict(1L);
+        verify(cache).evict(2L);
+    }
+
     @Test
     void testFindAllPaginated() {
         // Arrange
-        Page<CoordinadorEntity> page = new PageImpl<>(Arrays.asList(coordinador));
-        when(coordinadorRepository.findAll(any(Pageable.class))).thenReturn(page);
-        when(divisionRepository.findById(1L)).thenReturn(Optional.of(division));
+        Page<CoordinadorViewDto> page = new PageImpl<>(Arrays.asList(coordinadorView));
+        when(coordinadorRepository.findAllViews(any(Pageable.class))).thenReturn(page);
 
         // Act
         Page<CoordinadorViewDto> result = coordinadorService.findAllPaginated(0, 10, "id");
@@ -275,6 +602,58 @@ class CoordinadorServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(coordinadorRepository, times(1)).findAll(any(Pageable.class));
+        verify(coordinadorRepository, times(1)).findAllViews(any(Pageable.class));
+    }
+
+    @Test
+    void testFindAllScroll() {
+        // Arrange
+        Window<CoordinadorEntity> ventana = Window.from(Arrays.asList(coordinador),
+                i -> ScrollPosition.forward(Map.of("id", 1L)), true);
+        when(cursorCodec.decode(isNull(), eq("id"), anyMap())).thenReturn(ScrollPosition.keyset());
+        when(coordinadorRepository.findAllBy(any(ScrollPosition.class), any(Sort.class), eq(Limit.of(10))))
+                .thenReturn(ventana);
+        when(cursorCodec.encode(ventana, "id")).thenReturn("siguiente");
+        when(divisionNombreResolver.resolver(Set.of(1L))).thenReturn(Map.of(1L, "División de Tecnologías"));
+
+        // Act
+        CursorPageDto<CoordinadorViewDto> result = coordinadorService.findAllScroll(null, 10, "id");
+
+        // Assert
+        assertEquals(1, result.getContenido().size());
+        assertEquals("División de Tecnologías", result.getContenido().get(0).getDivisionNombre());
+        assertEquals("siguiente", result.getSiguienteCursor());
+        assertTrue(result.isHayMas());
+        verify(coordinadorRepository, never()).findAll(any(Pageable.class));
+        verify(divisionRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testFindDelta_IncluyeBajasYResuelveNombresDeDivision() {
+        // Arrange: un coordinador dado de baja también es un cambio
+        ReflectionTestUtils.setField(coordinadorService, "margenDelta", Duration.ofSeconds(5));
+        coordinador.setActivo(false);
+        ReflectionTestUtils.setField(coordinador, "actualizadoEn", LocalDateTime.of(2025, 12, 4, 10, 30, 0, 500000));
+        when(coordinadorRepository.findModificadosDesde(eq(MarcaAgua.INICIO.instante()), eq(0L),
+                any(LocalDateTime.class), eq(Limit.of(101))))
+                .thenReturn(List.of(coordinador));
+        when(divisionNombreResolver.resolver(Set.of(1L))).thenReturn(Map.of(1L, "División de Tecnologías"));
+
+        // Act
+        DeltaDto<CoordinadorViewDto> result = coordinadorService.findDelta(null, 100);
+
+        // Assert
+        assertEquals(1, result.getContenido().size());
+        assertFalse(result.getContenido().get(0).isActivo());
+        assertEquals("División de Tecnologías", result.getContenido().get(0).getDivisionNombre());
+        assertEquals("2025-12-04T10:30:00.000500_" + coordinador.getId(), result.getMarcaAgua());
+        assertFalse(result.isHayMas());
+    }
+
+    @Test
+    void testFindDelta_SinceInvalido() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> coordinadorService.findDelta("ayer", 100));
+        verifyNoInteractions(coordinadorRepository);
     }
 }
@@ -0,0 +1,87 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class CursorCodecTest {
+
+    private static final Map<String, Class<?>> CAMPOS = Map.of(
+            "id", Long.class,
+            "nombre", String.class);
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private CursorCodec cursorCodec;
+
+    @Test
+    void testDecode_SinCursorIniciaDesdeElPrincipio() {
+        // Act
+        KeysetScrollPosition posicion = cursorCodec.decode(null, "nombre", CAMPOS);
+
+        // Assert
+        assertTrue(posicion.isInitial());
+    }
+
+    @Test
+    void testEncodeDecode_ConservaLlavesYTipos() {
+        // Arrange
+        Window<String> ventana = Window.from(Arrays.asList("a", "b"),
+                i -> ScrollPosition.forward(Map.of("nombre", "DIVISIÓN " + i, "id", 7L)), true);
+
+        // Act
+        String cursor = cursorCodec.encode(ventana, "nombre");
+        KeysetScrollPosition posicion = cursorCodec.decode(cursor, "nombre", CAMPOS);
+
+        // Assert
+        assertNotNull(cursor);
+        assertEquals("DIVISIÓN 1", posicion.getKeys().get("nombre"));
+        assertEquals(7L, posicion.getKeys().get("id"));
+    }
+
+    @Test
+    void testEncode_UltimaVentanaNoGeneraCursor() {
+        // Arrange
+        Window<String> ventana = Window.from(Arrays.asList("a"),
+                i -> ScrollPosition.forward(Map.of("id", 1L)), false);
+
+        // Act & Assert
+        assertNull(cursorCodec.encode(ventana, "id"));
+    }
+
+    @Test
+    void testDecode_CursorDeOtroOrdenamiento() {
+        // Arrange
+        Window<String> ventana = Window.from(Arrays.asList("a"),
+                i -> ScrollPosition.forward(Map.of("id", 1L)), true);
+        String cursor = cursorCodec.encode(ventana, "id");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> cursorCodec.decode(cursor, "nombre", CAMPOS));
+    }
+
+    @Test
+    void testDecode_CampoNoPermitido() {
+        assertThrows(IllegalArgumentException.class, () -> cursorCodec.decode(null, "telefono", CAMPOS));
+    }
+
+    @Test
+    void testDecode_CursorCorrupto() {
+        assertThrows(IllegalArgumentException.class, () -> cursorCodec.decode("no-es-un-cursor", "id", CAMPOS));
+    }
+}
@@ -0,0 +1,118 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorViewDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionDetalleDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionResumenDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.ProgramaNombreDto;
+import mx.edu.uteq.idgs12.microservio_division.repository.CoordinadorRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.ProgramaEducativaRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DivisionDetalleServiceTest {
+
+    @Mock
+    private DivisionRepository divisionRepository;
+
+    @Mock
+    private ProgramaEducativaRepository programaEducativaRepository;
+
+    @Mock
+    private CoordinadorRepository coordinadorRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private DivisionDetalleService divisionDetalleService;
+
+    private final CoordinadorViewDto coordinador = new CoordinadorViewDto(
+            5L, "Ana", "López", "ana@uteq.edu.mx", "4421234567", 1L, "División de Tecnologías", true);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(divisionDetalleService, "limitador",
+                new LimitadorConcurrenciaBd(3, 1, Duration.ofSeconds(5), new SimpleMeterRegistry()));
+        ReflectionTestUtils.invokeMethod(divisionDetalleService, "inicializar");
+    }
+
+    @Test
+    void testFindDetalle_UnaTransaccionDeSoloLectura() {
+        // Arrange
+        when(divisionRepository.findResumenesByIdIn(List.of(1L)))
+                .thenReturn(List.of(new DivisionResumenDto(1L, "División de Tecnologías", true, 2L)));
+        when(programaEducativaRepository.findActivosByDivisionIdIn(List.of(1L)))
+                .thenReturn(List.of(new ProgramaNombreDto(1L, "TI"), new ProgramaNombreDto(1L, "Mecatrónica")));
+        when(coordinadorRepository.findViewsByDivisionId(1L)).thenReturn(List.of(coordinador));
+
+        // Act
+        Optional<DivisionDetalleDto> resultado = divisionDetalleService.findDetalle(1L);
+
+        // Assert
+        assertTrue(resultado.isPresent());
+        assertEquals("División de Tecnologías", resultado.get().getNombre());
+        assertEquals(List.of("TI", "Mecatrónica"), resultado.get().getProgramaEducativa());
+        assertEquals(List.of(coordinador), resultado.get().getCoordinadores());
+
+        // Las tres lecturas quedan dentro de la misma transacción de solo lectura
+        InOrder orden = inOrder(transactionManager, divisionRepository, programaEducativaRepository, coordinadorRepository);
+        orden.verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        orden.verify(divisionRepository).findResumenesByIdIn(List.of(1L));
+        orden.verify(programaEducativaRepository).findActivosByDivisionIdIn(List.of(1L));
+        orden.verify(coordinadorRepository).findViewsByDivisionId(1L);
+        orden.verify(transactionManager).commit(any());
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    void testFindDetalle_NotFound_NoConsultaLoDemas() {
+        // Arrange
+        when(divisionRepository.findResumenesByIdIn(anyCollection())).thenReturn(List.of());
+
+        // Act
+        Optional<DivisionDetalleDto> resultado = divisionDetalleService.findDetalle(99L);
+
+        // Assert
+        assertFalse(resultado.isPresent());
+        verifyNoInteractions(programaEducativaRepository, coordinadorRepository);
+    }
+
+    @Test
+    void testFindDetalle_ErrorHaceRollback() {
+        // Arrange
+        when(divisionRepository.findResumenesByIdIn(anyCollection()))
+                .thenReturn(List.of(new DivisionResumenDto(1L, "División de Tecnologías", true, 0L)));
+        when(programaEducativaRepository.findActivosByDivisionIdIn(anyCollection())).thenReturn(List.of());
+        when(coordinadorRepository.findViewsByDivisionId(1L)).thenThrow(new IllegalStateException("sin conexión"));
+
+        // Act
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> divisionDetalleService.findDetalle(1L));
+
+        // Assert
+        assertEquals("sin conexión", error.getMessage());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+}
@@ -0,0 +1,249 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.dto.ImportacionEventoDto;
+import mx.edu.uteq.idgs12.microservio_division.entity.Division;
+import mx.edu.uteq.idgs12.microservio_division.entity.EventoCambio;
+import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DivisionImportServiceTest {
+
+    @Mock
+    private DivisionRepository divisionRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private ContadorCambiosService contadorCambiosService;
+
+    @Mock
+    private EventoCambioService eventoCambioService;
+
+    @InjectMocks
+    private DivisionImportService divisionImportService;
+
+    private LimitadorConcurrenciaBd limitador;
+
+    private List<ImportacionEventoDto> eventos;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(divisionImportService, "tamanoLote", 2);
+        limitador = spy(new LimitadorConcurrenciaBd(2, 1, Duration.ofSeconds(5), new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(divisionImportService, "limitador", limitador);
+        eventos = new ArrayList<>();
+    }
+
+    // Ejecutar el callback de la transacción en el mismo hilo
+    private void ejecutarTransacciones() {
+        doAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0))
+                .doInTransaction(mock(TransactionStatus.class)))
+                .when(transactionTemplate).execute(any());
+        when(cacheManager.getCache(CacheConfig.DIVISIONES_LISTAS)).thenReturn(cache);
+        when(cacheManager.getCache(CacheConfig.DIVISIONES)).thenReturn(cache);
+    }
+
+    private InputStream archivo(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testImportarNdjson_GuardaPorLotesYReportaErrores() throws Exception {
+        // Arrange
+        ejecutarTransacciones();
+        // El tercer lote ve "tecnologías" registrada por el primero
+        when(divisionRepository.findNombresRegistrados(anyCollection()))
+                .thenReturn(List.of("económico"), List.of("tecnologías"));
+        String contenido = """
+                {"nombre":"Tecnologías","programasEducativos":[{"nombre":"TI","activo":true}]}
+                {"nombre":"Económico"}
+                {"nombre":""}
+                no es json
+                {"nombre":"tecnologías"}
+                {"nombre":"Industrial"}
+                """;
+
+        // Act
+        ImportacionEventoDto resumen = divisionImportService.importar(archivo(contenido),
+                DivisionImportService.Formato.NDJSON, eventos::add);
+
+        // Assert
+        assertEquals(ImportacionEventoDto.RESUMEN, resumen.getTipo());
+        assertEquals(6, resumen.getProcesadas());
+        assertEquals(2, resumen.getImportadas());
+        assertEquals(4, resumen.getFallidas());
+        assertEquals(List.of(2, 3, 4, 5), eventos.stream()
+                .filter(e -> ImportacionEventoDto.ERROR.equals(e.getTipo()))
+                .map(ImportacionEventoDto::getLinea)
+                .toList());
+        assertEquals(3, eventos.stream().filter(e -> ImportacionEventoDto.PROGRESO.equals(e.getTipo())).count());
+
+        ArgumentCaptor<Division> guardadas = ArgumentCaptor.forClass(Division.class);
+        verify(entityManager, times(2)).persist(guardadas.capture());
+        assertEquals("Tecnologías", guardadas.getAllValues().get(0).getNombre());
+        assertEquals("TI", guardadas.getAllValues().get(0).getProgramaEducativas().get(0).getPrograma());
+        verify(entityManager, times(2)).clear();
+        verify(contadorCambiosService, times(2)).registrarCambio(ContadorCambiosService.DIVISIONES);
+        verify(eventoCambioService, times(2)).registrar(eq(ContadorCambiosService.DIVISIONES), eq(EventoCambio.CREACION),
+                anyCollection());
+        verify(divisionRepository, times(2)).findNombresRegistrados(anyCollection());
+        // Cada consulta y cada transacción de lote pasan por el limitador
+        verify(limitador, times(2)).consultar(any());
+        verify(limitador, times(2)).ejecutar(any());
+    }
+
+    @Test
+    void testImportarCsv_ProgramasSeparadosPorBarra() throws Exception {
+        // Arrange
+        ejecutarTransacciones();
+        when(divisionRepository.findNombresRegistrados(anyCollection())).thenReturn(List.of());
+        String contenido = """
+                nombre,programas
+                "Tecnologías, Sede Norte",TI|Mecatrónica
+                Económico,
+                """;
+
+        // Act
+        ImportacionEventoDto resumen = divisionImportService.importar(archivo(contenido),
+                DivisionImportService.Formato.CSV, eventos::add);
+
+        // Assert
+        assertEquals(2, resumen.getImportadas());
+        assertEquals(0, resumen.getFallidas());
+        ArgumentCaptor<Division> guardadas = ArgumentCaptor.forClass(Division.class);
+        verify(entityManager, times(2)).persist(guardadas.capture());
+        Division primera = guardadas.getAllValues().get(0);
+        assertEquals("Tecnologías, Sede Norte", primera.getNombre());
+        assertEquals(2, primera.getProgramaEducativas().size());
+        assertEquals("Mecatrónica", primera.getProgramaEducativas().get(1).getPrograma());
+        assertTrue(guardadas.getAllValues().get(1).getProgramaEducativas().isEmpty());
+    }
+
+    @Test
+    void testImportarCsv_SinEncabezado() throws Exception {
+        // Act
+        ImportacionEventoDto resumen = divisionImportService.importar(archivo("Tecnologías,TI\n"),
+                DivisionImportService.Formato.CSV, eventos::add);
+
+        // Assert
+        assertEquals(1, resumen.getFallidas());
+        assertEquals(0, resumen.getProcesadas());
+        assertEquals(ImportacionEventoDto.ERROR, eventos.get(0).getTipo());
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    void testImportar_ErrorAlGuardarMarcaElLoteComoFallido() throws Exception {
+        // Arrange
+        doThrow(new IllegalStateException("conexión cerrada")).when(transactionTemplate).execute(any());
+        when(divisionRepository.findNombresRegistrados(anyCollection())).thenReturn(List.of());
+
+        // Act
+        ImportacionEventoDto resumen = divisionImportService.importar(
+                archivo("{\"nombre\":\"Tecnologías\"}\n{\"nombre\":\"Económico\"}\n"),
+                DivisionImportService.Formato.NDJSON, eventos::add);
+
+        // Assert
+        assertEquals(0, resumen.getImportadas());
+        assertEquals(2, resumen.getFallidas());
+        assertTrue(eventos.get(0).getMensaje().contains("conexión cerrada"));
+    }
+
+    @Test
+    void testImportar_NombreRepetidoEnElLote() throws Exception {
+        // Arrange
+        ejecutarTransacciones();
+        when(divisionRepository.findNombresRegistrados(anyCollection())).thenReturn(List.of());
+
+        // Act
+        ImportacionEventoDto resumen = divisionImportService.importar(
+                archivo("{\"nombre\":\"Tecnologías\"}\n{\"nombre\":\" TECNOLOGÍAS \"}\n"),
+                DivisionImportService.Formato.NDJSON, eventos::add);
+
+        // Assert
+        assertEquals(1, resumen.getImportadas());
+        assertEquals(1, resumen.getFallidas());
+        assertEquals(2, eventos.get(0).getLinea());
+        assertTrue(eventos.get(0).getMensaje().contains("repetido"));
+    }
+
+    @Test
+    void testImportar_ViolacionDeNombreReintentaFilaPorFila() throws Exception {
+        // Arrange: otra escritura registró "Económico" entre la consulta y el guardado
+        when(divisionRepository.findNombresRegistrados(anyCollection())).thenReturn(List.of());
+        when(cacheManager.getCache(anyString())).thenReturn(cache);
+        RuntimeException violacion = new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicado", new SQLException("duplicado"),
+                        "PUBLIC." + Division.UK_NOMBRE_NORMALIZADO.toUpperCase()));
+        List<Integer> intentos = new ArrayList<>();
+        doAnswer(invocation -> {
+            intentos.add(intentos.size());
+            if (intentos.size() == 1 || intentos.size() == 3) {
+                throw violacion;
+            }
+            return ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(mock(TransactionStatus.class));
+        }).when(transactionTemplate).execute(any());
+
+        // Act
+        ImportacionEventoDto resumen = divisionImportService.importar(
+                archivo("{\"nombre\":\"Tecnologías\"}\n{\"nombre\":\"Económico\"}\n"),
+                DivisionImportService.Formato.NDJSON, eventos::add);
+
+        // Assert: el lote y después una transacción por fila; solo la fila repetida falla
+        assertEquals(3, intentos.size());
+        assertEquals(1, resumen.getImportadas());
+        assertEquals(1, resumen.getFallidas());
+        ImportacionEventoDto error = eventos.get(0);
+        assertEquals(ImportacionEventoDto.ERROR, error.getTipo());
+        assertEquals(2, error.getLinea());
+        assertEquals("Ya existe una división con el nombre: Económico", error.getMensaje());
+    }
+}
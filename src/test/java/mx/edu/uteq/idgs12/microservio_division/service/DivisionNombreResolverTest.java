@@ -0,0 +1,82 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionNombreDto;
+import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DivisionNombreResolverTest {
+
+    @Mock
+    private DivisionRepository divisionRepository;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.DIVISION_NOMBRES);
+
+    @InjectMocks
+    private DivisionNombreResolver divisionNombreResolver;
+
+    @Test
+    void testResolver_SegundaLlamadaNoConsultaRepositorio() {
+        // Arrange
+        when(divisionRepository.findNombreById(1L)).thenReturn(Optional.of("División de Tecnologías"));
+
+        // Act
+        Optional<String> primera = divisionNombreResolver.resolver(1L);
+        Optional<String> segunda = divisionNombreResolver.resolver(1L);
+
+        // Assert
+        assertEquals(Optional.of("División de Tecnologías"), primera);
+        assertEquals(primera, segunda);
+        verify(divisionRepository, times(1)).findNombreById(1L);
+    }
+
+    @Test
+    void testResolver_DivisionInexistenteNoSeGuarda() {
+        // Arrange
+        when(divisionRepository.findNombreById(99L)).thenReturn(Optional.empty());
+
+        // Act
+        divisionNombreResolver.resolver(99L);
+        Optional<String> result = divisionNombreResolver.resolver(99L);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(divisionRepository, times(2)).findNombreById(99L);
+    }
+
+    @Test
+    void testResolverVarios_SoloConsultaLosFaltantes() {
+        // Arrange
+        when(divisionRepository.findNombreById(1L)).thenReturn(Optional.of("División de Tecnologías"));
+        when(divisionRepository.findNombresByIdIn(Set.of(2L)))
+                .thenReturn(Arrays.asList(new DivisionNombreDto(2L, "División Administrativa")));
+        divisionNombreResolver.resolver(1L);
+
+        // Act
+        Map<Long, String> result = divisionNombreResolver.resolver(Set.of(1L, 2L));
+
+        // Assert
+        assertEquals(Map.of(1L, "División de Tecnologías", 2L, "División Administrativa"), result);
+        verify(divisionRepository, times(1)).findNombresByIdIn(Set.of(2L));
+        verify(divisionRepository, never()).findNombresByIdIn(argThat(ids -> ids.contains(1L)));
+    }
+}
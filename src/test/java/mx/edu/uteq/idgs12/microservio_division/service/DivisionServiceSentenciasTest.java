@@ -0,0 +1,363 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionCreateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionToViewListDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionUpdateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.OperacionBulkResultadoDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.ProgramaEducativoDto;
+import mx.edu.uteq.idgs12.microservio_division.entity.CoordinadorEntity;
+import mx.edu.uteq.idgs12.microservio_division.entity.Division;
+import mx.edu.uteq.idgs12.microservio_division.entity.ProgramaEducativa;
+import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.ProgramaEducativaRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.ProyeccionRepository;
+
+/**
+ * SQL que envía DivisionService contra la base (H2): editar un programa no debe reescribir
+ * la lista completa, los programas se insertan con su división, en un lote, y las
+ * operaciones en bloque son un UPDATE por tabla. Los contadores y el outbox son mocks; aquí solo cuentan las
+ * sentencias de la división y sus programas.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "mx.edu.uteq.idgs12.microservio_division.service.DivisionServiceSentenciasTest$CapturaSql")
+@Import({DivisionService.class, DivisionServiceSentenciasTest.Limitador.class})
+class DivisionServiceSentenciasTest {
+
+    // Limitador real: las búsquedas de respaldo pasan por él
+    @TestConfiguration
+    static class Limitador {
+
+        @Bean
+        LimitadorConcurrenciaBd limitadorConcurrenciaBd() {
+            return new LimitadorConcurrenciaBd(2, 1, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        }
+    }
+
+    // SQL que Hibernate envía a la base
+    public static class CapturaSql implements StatementInspector {
+        static final List<String> SENTENCIAS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+    }
+
+    @Autowired
+    private DivisionService divisionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProgramaEducativaRepository programaEducativaRepository;
+
+    @Autowired
+    private DivisionRepository divisionRepository;
+
+    @MockitoBean
+    private CursorCodec cursorCodec;
+
+    @MockitoBean
+    private ContadorCambiosService contadorCambiosService;
+
+    @MockitoBean
+    private EventoCambioService eventoCambioService;
+
+    @MockitoBean
+    private IndiceBusquedaDivisiones indiceBusqueda;
+
+    @MockitoBean
+    private ProyeccionRepository proyeccionRepository;
+
+    @MockitoBean
+    private CacheManager cacheManager;
+
+    private Division division;
+
+    // División con tres programas, fuera del contexto de persistencia como al llegar una petición
+    @BeforeEach
+    void setUp() {
+        division = new Division();
+        division.setNombre("División de Tecnologías");
+        division.setActivo(true);
+        division.setProgramaEducativas(new ArrayList<>(List.of(
+                programa("Software"), programa("Redes"), programa("Mecatrónica"))));
+        entityManager.persist(division);
+        entityManager.persist(CoordinadorEntity.builder()
+                .nombre("Ana").apellido("López").correo("ana.lopez@uteq.edu.mx")
+                .divisionId(division.getId()).activo(true).build());
+        entityManager.flush();
+        entityManager.clear();
+        CapturaSql.SENTENCIAS.clear();
+        when(cacheManager.getCache(anyString())).thenReturn(mock(Cache.class));
+    }
+
+    private static ProgramaEducativa programa(String nombre) {
+        ProgramaEducativa programa = new ProgramaEducativa();
+        programa.setPrograma(nombre);
+        programa.setActivo(true);
+        return programa;
+    }
+
+    // Los programas de la división como los manda el cliente (con su id)
+    private DivisionUpdateDto actualizacion() {
+        DivisionUpdateDto dto = new DivisionUpdateDto();
+        dto.setNombre(division.getNombre());
+        List<ProgramaEducativoDto> programas = new ArrayList<>();
+        for (ProgramaEducativa existente : division.getProgramaEducativas()) {
+            ProgramaEducativoDto programa = new ProgramaEducativoDto();
+            programa.setId(existente.getId());
+            programa.setNombre(existente.getPrograma());
+            programa.setActivo(existente.isActivo());
+            programas.add(programa);
+        }
+        dto.setProgramasEducativos(programas);
+        return dto;
+    }
+
+    // Cada sentencia como "verbo tabla", p. ej. "update programa_educativa"
+    private static List<String> sentencias() {
+        return CapturaSql.SENTENCIAS.stream()
+                // Los IDs se piden por bloques de 50: si se pide uno depende de las pruebas anteriores
+                .filter(sql -> !sql.contains("_seq"))
+                .map(sql -> {
+                    String[] palabras = sql.trim().split("\\s+");
+                    String tabla = switch (palabras[0]) {
+                        case "update" -> palabras[1];
+                        case "insert" -> palabras[2];
+                        default -> sql.substring(sql.indexOf(" from ") + 6).split("\\s+")[0];
+                    };
+                    return palabras[0] + " " + tabla;
+                })
+                .toList();
+    }
+
+    private List<Long> idsProgramas() {
+        entityManager.clear();
+        return entityManager.find(Division.class, division.getId()).getProgramaEducativas().stream()
+                .map(ProgramaEducativa::getId)
+                .sorted()
+                .toList();
+    }
+
+    @Test
+    void testUpdate_UnProgramaRenombrado_SoloEscribeEseProgramaYLaDivision() {
+        // Arrange
+        DivisionUpdateDto dto = actualizacion();
+        dto.getProgramasEducativos().get(1).setNombre("Redes y Ciberseguridad");
+        List<Long> idsAntes = division.getProgramaEducativas().stream().map(ProgramaEducativa::getId).sorted().toList();
+
+        // Act
+        divisionService.update(division.getId(), dto);
+
+        // Assert
+        assertEquals(List.of(
+                "select division",
+                "select programa_educativa",
+                "update division",
+                "update programa_educativa"), sentencias());
+        assertEquals(idsAntes, idsProgramas());
+        assertEquals("Redes y Ciberseguridad",
+                entityManager.find(ProgramaEducativa.class, idsAntes.get(1)).getPrograma());
+    }
+
+    @Test
+    void testFindByNombre_SinIndice_BuscaLosComodinesTalCual() {
+        // Arrange: el índice aún no carga, responde la base
+        Division porcentaje = new Division();
+        porcentaje.setNombre("Educación 100% en línea");
+        porcentaje.setActivo(true);
+        porcentaje.setProgramaEducativas(new ArrayList<>());
+        entityManager.persist(porcentaje);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<DivisionToViewListDto> conPorcentaje = divisionService.findByNombre("%");
+        List<DivisionToViewListDto> conGuionBajo = divisionService.findByNombre("_");
+        Page<DivisionToViewListDto> pagina = divisionService.findByNombrePaginated("0%", 0, 10, "id");
+
+        // Assert: como el índice de trigramas, % y _ no son comodines
+        assertEquals(List.of("Educación 100% en línea"), conPorcentaje.stream().map(DivisionToViewListDto::getNombre).toList());
+        assertTrue(conGuionBajo.isEmpty());
+        assertEquals(1, pagina.getTotalElements());
+    }
+
+    @Test
+    void testUpdate_SinCambios_SoloLee() {
+        // Arrange
+        DivisionUpdateDto dto = actualizacion();
+
+        // Act
+        divisionService.update(division.getId(), dto);
+
+        // Assert
+        assertEquals(List.of("select division", "select programa_educativa"), sentencias());
+    }
+
+    @Test
+    void testContarCambios_CreceConCadaEscrituraYNoConLasLecturas() {
+        // Arrange
+        long antes = divisionRepository.contarCambios();
+        DivisionUpdateDto sinCambios = actualizacion();
+        DivisionUpdateDto renombrado = actualizacion();
+        renombrado.getProgramasEducativos().get(0).setNombre("Desarrollo de Software");
+
+        // Act
+        divisionService.update(division.getId(), sinCambios);
+        entityManager.flush();
+        long trasLectura = divisionRepository.contarCambios();
+        divisionService.update(division.getId(), renombrado);
+        entityManager.flush();
+        long trasEscritura = divisionRepository.contarCambios();
+
+        // Assert: la versión de la división sube aunque solo cambie un programa
+        assertEquals(antes, trasLectura);
+        assertEquals(antes + 1, trasEscritura);
+    }
+
+    @Test
+    void testUpdate_ProgramaQuitado_SoloBorraEseProgramaSinAnularLaLlave() {
+        // Arrange
+        DivisionUpdateDto dto = actualizacion();
+        Long quitado = dto.getProgramasEducativos().remove(1).getId();
+
+        // Act
+        divisionService.update(division.getId(), dto);
+
+        // Assert
+        assertEquals(List.of(
+                "select division",
+                "select programa_educativa",
+                "update division",
+                "delete programa_educativa"), sentencias());
+        assertFalse(idsProgramas().contains(quitado));
+        assertEquals(2, idsProgramas().size());
+    }
+
+    @Test
+    void testUpdate_ProgramaNuevo_UnSoloInsertConLaLlave() {
+        // Arrange
+        DivisionUpdateDto dto = actualizacion();
+        ProgramaEducativoDto nuevo = new ProgramaEducativoDto();
+        nuevo.setNombre("Inteligencia Artificial");
+        nuevo.setActivo(true);
+        dto.getProgramasEducativos().add(nuevo);
+        List<Long> idsAntes = division.getProgramaEducativas().stream().map(ProgramaEducativa::getId).toList();
+
+        // Act
+        divisionService.update(division.getId(), dto);
+
+        // Assert
+        assertEquals(List.of(
+                "select division",
+                "select programa_educativa",
+                "insert programa_educativa",
+                "update division"), sentencias());
+        List<Long> idsDespues = idsProgramas();
+        assertEquals(4, idsDespues.size());
+        assertTrue(idsDespues.containsAll(idsAntes));
+    }
+
+    @Test
+    void testCreate_ProgramasEnUnLoteConSuLlave() {
+        // Arrange
+        DivisionCreateDto dto = new DivisionCreateDto();
+        dto.setNombre("División Industrial");
+        List<ProgramaEducativoDto> programas = new ArrayList<>();
+        for (String nombre : List.of("Procesos", "Mantenimiento", "Energías Renovables")) {
+            ProgramaEducativoDto programa = new ProgramaEducativoDto();
+            programa.setNombre(nombre);
+            programas.add(programa);
+        }
+        dto.setProgramasEducativos(programas);
+
+        // Act
+        Long id = divisionService.create(dto).getDivisionId();
+
+        // Assert: el lote JDBC prepara el insert de programas una sola vez
+        assertEquals(List.of("insert division", "insert programa_educativa"), sentencias());
+        assertEquals(3, programaEducativaRepository.findByDivisionIdAndActivoTrueOrderById(id).size());
+    }
+
+    @Test
+    void testDesactivarBulk_UnUpdatePorTabla() {
+        // Arrange
+        Division otra = new Division();
+        otra.setNombre("División Económico-Administrativa");
+        otra.setActivo(true);
+        otra.setProgramaEducativas(new ArrayList<>(List.of(programa("Contaduría"), programa("Negocios"))));
+        entityManager.persist(otra);
+        entityManager.flush();
+        entityManager.clear();
+        CapturaSql.SENTENCIAS.clear();
+
+        // Act
+        OperacionBulkResultadoDto resultado = divisionService.desactivarBulk(
+                List.of(division.getId(), otra.getId(), 999_999L), true);
+
+        // Assert
+        assertEquals(List.of(
+                "select division",
+                "update division",
+                "update programa_educativa",
+                "select coordinadores",
+                "update coordinadores"), sentencias());
+        assertEquals(2, resultado.getActualizados());
+        assertEquals(5, resultado.getProgramasDesactivados());
+        assertEquals(1, resultado.getCoordinadoresDesactivados());
+        assertEquals(List.of(999_999L), resultado.getNoEncontrados());
+
+        entityManager.clear();
+        Division desactivada = entityManager.find(Division.class, division.getId());
+        assertFalse(desactivada.isActivo());
+        assertEquals(division.getVersion() + 1, desactivada.getVersion());
+        assertTrue(desactivada.getProgramaEducativas().stream().noneMatch(ProgramaEducativa::isActivo));
+        assertTrue(entityManager.createQuery("SELECT c FROM CoordinadorEntity c", CoordinadorEntity.class)
+                .getResultList().stream().noneMatch(CoordinadorEntity::isActivo));
+    }
+
+    @Test
+    void testToggleStatusBulk_UnSoloUpdate() {
+        // Act
+        OperacionBulkResultadoDto resultado = divisionService.toggleStatusBulk(List.of(division.getId()));
+
+        // Assert
+        assertEquals(List.of("select division", "update division"), sentencias());
+        assertEquals(1, resultado.getActualizados());
+        entityManager.clear();
+        Division cambiada = entityManager.find(Division.class, division.getId());
+        assertFalse(cambiada.isActivo());
+        assertTrue(cambiada.getActualizadoEn().isAfter(division.getActualizadoEn()));
+        assertTrue(cambiada.getProgramaEducativas().stream().allMatch(ProgramaEducativa::isActivo));
+    }
+}
@@ -4,26 +4,53 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.dto.DeltaDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.DivisionCreateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionProgramaFilaDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionResumenDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.DivisionToViewListDto;
 import mx.edu.uteq.idgs12.microservio_division.dto.DivisionUpdateDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.OperacionBulkResultadoDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.ProgramaEducativoDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.ProgramaNombreDto;
 import mx.edu.uteq.idgs12.microservio_division.entity.Division;
+import mx.edu.uteq.idgs12.microservio_division.entity.EventoCambio;
 import mx.edu.uteq.idgs12.microservio_division.entity.ProgramaEducativa;
+import mx.edu.uteq.idgs12.microservio_division.repository.CoordinadorRepository;
 import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.ProgramaEducativaRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.ProyeccionRepository;
 
 @ExtendWith(MockitoExtension.class)
 class DivisionServiceTest {
@@ -31,16 +58,45 @@ class DivisionServiceTest {
     @Mock
     private DivisionRepository divisionRepository;
 
+    @Mock
+    private ProgramaEducativaRepository programaEducativaRepository;
+
+    @Mock
+    private ContadorCambiosService contadorCambiosService;
+
+    @Mock
+    private EventoCambioService eventoCambioService;
+
+    // Sin cargar (Optional.empty() por omisión): las búsquedas van a la base
+    @Mock
+    private IndiceBusquedaDivisiones indiceBusqueda;
+
+    @Mock
+    private ProyeccionRepository proyeccionRepository;
+
+    @Mock
+    private CoordinadorRepository coordinadorRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
     @InjectMocks
     private DivisionService divisionService;
 
     private Division division;
+    private DivisionResumenDto resumen;
     private DivisionCreateDto divisionCreateDto;
     private DivisionUpdateDto divisionUpdateDto;
 
     @BeforeEach
     void setUp() {
         // Configurar datos de prueba
+        ReflectionTestUtils.setField(divisionService, "limitador",
+                new LimitadorConcurrenciaBd(2, 1, Duration.ofSeconds(5), new SimpleMeterRegistry()));
+
         division = new Division();
         division.setId(1L);
         division.setNombre("División de Tecnologías");
@@ -52,6 +108,8 @@ class DivisionServiceTest {
         programa.setActivo(true);
         division.setProgramaEducativas(Arrays.asList(programa));
 
+        resumen = new DivisionResumenDto(1L, "División de Tecnologías", true, 1L);
+
         divisionCreateDto = new DivisionCreateDto();
         divisionCreateDto.setNombre("División de Tecnologías");
 
@@ -62,7 +120,9 @@ class DivisionServiceTest {
     @Test
     void testFindAll() {
         // Arrange
-        when(divisionRepository.findAll()).thenReturn(Arrays.asList(division));
+        when(divisionRepository.findResumenes()).thenReturn(Arrays.asList(resumen));
+        when(programaEducativaRepository.findActivosByDivisionIdIn(Arrays.asList(1L)))
+                .thenReturn(Arrays.asList(new ProgramaNombreDto(1L, "Ingeniería en Software")));
 
         // Act
         List<DivisionToViewListDto> result = divisionService.findAll();
@@ -71,13 +131,18 @@ class DivisionServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("División de Tecnologías", result.get(0).getNombre());
-        verify(divisionRepository, times(1)).findAll();
+        assertEquals(Arrays.asList("Ingeniería en Software"), result.get(0).getProgramaEducativa());
+        assertEquals(1, result.get(0).getNumeroProgramas());
+        verify(divisionRepository, times(1)).findResumenes();
+        verify(divisionRepository, never()).findAll();
     }
 
     @Test
     void testFindAllActivas() {
         // Arrange
-        when(divisionRepository.findByActivoTrue()).thenReturn(Arrays.asList(division));
+        when(divisionRepository.findResumenesByActivoTrue()).thenReturn(Arrays.asList(resumen));
+        when(programaEducativaRepository.findActivosByDivisionIdIn(Arrays.asList(1L)))
+                .thenReturn(Arrays.asList(new ProgramaNombreDto(1L, "Ingeniería en Software")));
 
         // Act
         List<DivisionToViewListDto> result = divisionService.findAllActivas();
@@ -86,13 +151,61 @@ class DivisionServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertTrue(result.get(0).isActivo());
-        verify(divisionRepository, times(1)).findByActivoTrue();
+        verify(divisionRepository, times(1)).findResumenesByActivoTrue();
+    }
+
+    @Test
+    void testFindAllCampos_CompletaProgramasSinDevolverElId() {
+        // Arrange: programaEducativa necesita el ID de la división aunque no se haya pedido
+        Map<String, Object> fila = new LinkedHashMap<>();
+        fila.put("nombre", "División de Tecnologías");
+        fila.put("programaEducativa", null);
+        fila.put("divisionId", 1L);
+        when(proyeccionRepository.listar(eq(DivisionRepository.PROYECCION),
+                eq(Set.of("nombre", "programaEducativa", "divisionId")), isNull(), anyMap(), any(Sort.class)))
+                .thenReturn(new ArrayList<>(List.of(fila)));
+        when(programaEducativaRepository.findActivosByDivisionIdIn(Arrays.asList(1L)))
+                .thenReturn(Arrays.asList(new ProgramaNombreDto(1L, "Ingeniería en Software")));
+
+        // Act
+        List<Map<String, Object>> result = divisionService.findAllCampos("nombre,programaEducativa");
+
+        // Assert
+        assertEquals(List.of("nombre", "programaEducativa"), new ArrayList<>(result.get(0).keySet()));
+        assertEquals(Arrays.asList("Ingeniería en Software"), result.get(0).get("programaEducativa"));
+        verify(divisionRepository, never()).findResumenes();
+    }
+
+    @Test
+    void testFindAllActivasCampos_SinProgramas_NoLosConsulta() {
+        // Arrange
+        Map<String, Object> fila = new LinkedHashMap<>(Map.of("nombre", "División de Tecnologías"));
+        when(proyeccionRepository.listar(eq(DivisionRepository.PROYECCION), eq(Set.of("nombre")),
+                eq("d.activo = true"), anyMap(), any(Sort.class))).thenReturn(List.of(fila));
+
+        // Act
+        List<Map<String, Object>> result = divisionService.findAllActivasCampos("nombre");
+
+        // Assert
+        assertEquals(List.of(Map.of("nombre", "División de Tecnologías")), result);
+        verify(programaEducativaRepository, never()).findActivosByDivisionIdIn(anyCollection());
+    }
+
+    @Test
+    void testFindAllCampos_CampoDesconocido() {
+        // Act & Assert
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> divisionService.findAllCampos("nombre,clave"));
+        assertTrue(error.getMessage().contains("clave"));
+        verifyNoInteractions(proyeccionRepository);
     }
 
     @Test
     void testFindById() {
         // Arrange
-        when(divisionRepository.findById(1L)).thenReturn(Optional.of(division));
+        when(divisionRepository.findResumenesByIdIn(Arrays.asList(1L))).thenReturn(Arrays.asList(resumen));
+        when(programaEducativaRepository.findActivosByDivisionIdIn(Arrays.asList(1L)))
+                .thenReturn(Arrays.asList(new ProgramaNombreDto(1L, "Ingeniería en Software")));
 
         // Act
         Optional<DivisionToViewListDto> result = divisionService.findById(1L);
@@ -100,14 +213,16 @@ class DivisionServiceTest {
         // Assert
         assertTrue(result.isPresent());
         assertEquals("División de Tecnologías", result.get().getNombre());
-        verify(divisionRepository, times(1)).findById(1L);
+        verify(divisionRepository, times(1)).findResumenesByIdIn(Arrays.asList(1L));
     }
 
     @Test
     void testFindByNombre() {
         // Arrange
-        when(divisionRepository.findByNombreContainingIgnoreCase("Tecnologías"))
-                .thenReturn(Arrays.asList(division));
+        when(divisionRepository.findResumenesByNombreContainingIgnoreCase("Tecnologías"))
+                .thenReturn(Arrays.asList(resumen));
+        when(programaEducativaRepository.findActivosByDivisionIdIn(Arrays.asList(1L)))
+                .thenReturn(Arrays.asList(new ProgramaNombreDto(1L, "Ingeniería en Software")));
 
         // Act
         List<DivisionToViewListDto> result = divisionService.findByNombre("Tecnologías");
@@ -115,14 +230,77 @@ class DivisionServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(divisionRepository, times(1)).findByNombreContainingIgnoreCase("Tecnologías");
+        verify(divisionRepository, times(1)).findResumenesByNombreContainingIgnoreCase("Tecnologías");
+    }
+
+    @Test
+    void testFindByNombre_ConIndice_NoConsultaLaBase() {
+        // Arrange
+        DivisionToViewListDto encontrada = new DivisionToViewListDto();
+        encontrada.setNombre("División de Tecnologías");
+        when(indiceBusqueda.buscar("tecno")).thenReturn(Optional.of(List.of(encontrada)));
+
+        // Act
+        List<DivisionToViewListDto> result = divisionService.findByNombre("tecno");
+
+        // Assert
+        assertEquals(List.of(encontrada), result);
+        verifyNoInteractions(divisionRepository);
+    }
+
+    @Test
+    void testFindByNombrePaginated_ConIndice_PaginaLosResultados() {
+        // Arrange
+        List<DivisionToViewListDto> encontradas = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            DivisionToViewListDto dto = new DivisionToViewListDto();
+            dto.setDivisionId(i);
+            encontradas.add(dto);
+        }
+        when(indiceBusqueda.buscar("tecno", "nombre")).thenReturn(Optional.of(encontradas));
+
+        // Act
+        Page<DivisionToViewListDto> result = divisionService.findByNombrePaginated("tecno", 1, 2, "nombre");
+
+        // Assert
+        assertEquals(5, result.getTotalElements());
+        assertEquals(List.of(encontradas.get(2), encontradas.get(3)), result.getContent());
+        verifyNoInteractions(divisionRepository);
+    }
+
+    @Test
+    void testFindByNombrePaginated_OrdenDesconocido_Rechazado() {
+        // Act & Assert: ni el índice ni la base reciben una columna que no pueden ordenar
+        assertThrows(IllegalArgumentException.class,
+                () -> divisionService.findByNombrePaginated("tecno", 0, 10, "programas"));
+        verifyNoInteractions(indiceBusqueda, divisionRepository);
+    }
+
+    @Test
+    void testExportar_AgrupaProgramasPorDivision() {
+        // Arrange
+        when(divisionRepository.streamFilasExportacion()).thenReturn(Stream.of(
+                new DivisionProgramaFilaDto(1L, "División de Tecnologías", true, "Ingeniería en Software"),
+                new DivisionProgramaFilaDto(1L, "División de Tecnologías", true, "Mecatrónica"),
+                new DivisionProgramaFilaDto(2L, "División Económico-Administrativa", false, null)));
+        List<DivisionToViewListDto> exportadas = new ArrayList<>();
+
+        // Act
+        divisionService.exportar(exportadas::add);
+
+        // Assert
+        assertEquals(2, exportadas.size());
+        assertEquals(List.of("Ingeniería en Software", "Mecatrónica"), exportadas.get(0).getProgramaEducativa());
+        assertEquals(2, exportadas.get(0).getNumeroProgramas());
+        assertTrue(exportadas.get(1).getProgramaEducativa().isEmpty());
+        assertFalse(exportadas.get(1).isActivo());
+        verify(divisionRepository, never()).findAll();
     }
 
     @Test
     void testCreate_Success() {
         // Arrange
-        when(divisionRepository.existsByNombreIgnoreCase(anyString())).thenReturn(false);
-        when(divisionRepository.save(any(Division.class))).thenReturn(division);
+        when(divisionRepository.saveAndFlush(any(Division.class))).thenReturn(division);
 
         // Act
         DivisionToViewListDto result = divisionService.create(divisionCreateDto);
@@ -130,30 +308,46 @@ class DivisionServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("División de Tecnologías", result.getNombre());
-        verify(divisionRepository, times(1)).existsByNombreIgnoreCase(anyString());
-        verify(divisionRepository, times(1)).save(any(Division.class));
+        verify(divisionRepository, times(1)).saveAndFlush(any(Division.class));
     }
 
     @Test
     void testCreate_DuplicateName() {
-        // Arrange
-        when(divisionRepository.existsByNombreIgnoreCase(anyString())).thenReturn(true);
+        // Arrange: el índice único de nombre_normalizado rechaza el INSERT
+        when(divisionRepository.saveAndFlush(any(Division.class))).thenThrow(violacion(Division.UK_NOMBRE_NORMALIZADO));
 
         // Act & Assert
-        assertThrows(IllegalArgumentException.class, () -> {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> {
             divisionService.create(divisionCreateDto);
         });
 
-        verify(divisionRepository, times(1)).existsByNombreIgnoreCase(anyString());
-        verify(divisionRepository, never()).save(any(Division.class));
+        assertTrue(error.getMessage().startsWith("Ya existe una división con el nombre"));
+        verify(contadorCambiosService, never()).registrarCambio(anyString());
+    }
+
+    @Test
+    void testCreate_OtraRestriccion_NoEsDuplicado() {
+        // Arrange
+        DataIntegrityViolationException otra = violacion("fk_otra_tabla");
+        when(divisionRepository.saveAndFlush(any(Division.class))).thenThrow(otra);
+
+        // Act & Assert
+        assertSame(otra, assertThrows(DataIntegrityViolationException.class, () -> divisionService.create(divisionCreateDto)));
+    }
+
+    // Error que traduce Spring cuando la base rechaza la sentencia por una restricción
+    private static DataIntegrityViolationException violacion(String restriccion) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicado", new SQLException("duplicado"), "PUBLIC." + restriccion.toUpperCase()));
     }
 
     @Test
     void testUpdate_Success() {
         // Arrange
         when(divisionRepository.findById(1L)).thenReturn(Optional.of(division));
-        when(divisionRepository.existsByNombreIgnoreCaseAndIdNot(anyString(), anyLong())).thenReturn(false);
-        when(divisionRepository.save(any(Division.class))).thenReturn(division);
+        when(divisionRepository.saveAndFlush(any(Division.class))).thenReturn(division);
+        when(coordinadorRepository.findIdsByDivisionId(1L)).thenReturn(List.of(10L, 11L));
+        when(cacheManager.getCache(CacheConfig.COORDINADORES)).thenReturn(cache);
 
         // Act
         Optional<DivisionToViewListDto> result = divisionService.update(1L, divisionUpdateDto);
@@ -161,7 +355,56 @@ class DivisionServiceTest {
         // Assert
         assertTrue(result.isPresent());
         verify(divisionRepository, times(1)).findById(1L);
-        verify(divisionRepository, times(1)).save(any(Division.class));
+        verify(divisionRepository, times(1)).saveAndFlush(any(Division.class));
+        verify(contadorCambiosService, times(1)).registrarCambio(ContadorCambiosService.DIVISIONES);
+        verify(contadorCambiosService, times(1)).registrarCambio(ContadorCambiosService.COORDINADORES);
+        // Un solo evento: el nombre de la división en los coordinadores se relee con ella
+        verify(eventoCambioService, times(1)).registrar(ContadorCambiosService.DIVISIONES, EventoCambio.ACTUALIZACION, 1L);
+        verifyNoMoreInteractions(eventoCambioService);
+        // Solo salen del cache los coordinadores de la división renombrada
+        verify(cache).evict(10L);
+        verify(cache).evict(11L);
+        verifyNoMoreInteractions(cache);
+    }
+
+    @Test
+    void testUpdate_MismoNombre_NoInvalidaCoordinadores() {
+        // Arrange
+        divisionUpdateDto.setNombre(division.getNombre());
+        when(divisionRepository.findById(1L)).thenReturn(Optional.of(division));
+        when(divisionRepository.saveAndFlush(any(Division.class))).thenReturn(division);
+
+        // Act
+        divisionService.update(1L, divisionUpdateDto);
+
+        // Assert
+        verify(contadorCambiosService, times(1)).registrarCambio(ContadorCambiosService.DIVISIONES);
+        verify(contadorCambiosService, never()).registrarCambio(ContadorCambiosService.COORDINADORES);
+        verify(coordinadorRepository, never()).findIdsByDivisionId(anyLong());
+        verify(cacheManager, never()).getCache(CacheConfig.COORDINADORES);
+    }
+
+    @Test
+    void testUpdate_ConservaProgramasExistentes() {
+        // Arrange
+        ProgramaEducativa existente = division.getProgramaEducativas().get(0);
+        existente.setVersion(3);
+        division.setProgramaEducativas(new ArrayList<>(List.of(existente)));
+        ProgramaEducativoDto programaDto = new ProgramaEducativoDto();
+        programaDto.setId(1L);
+        programaDto.setNombre("Ingeniería en Software Renombrada");
+        programaDto.setActivo(true);
+        divisionUpdateDto.setProgramasEducativos(List.of(programaDto));
+        when(divisionRepository.findById(1L)).thenReturn(Optional.of(division));
+        when(divisionRepository.saveAndFlush(any(Division.class))).thenReturn(division);
+
+        // Act
+        divisionService.update(1L, divisionUpdateDto);
+
+        // Assert: se edita la misma instancia, con su versión, en lugar de crear una nueva con el mismo ID
+        assertSame(existente, division.getProgramaEducativas().get(0));
+        assertEquals(3, existente.getVersion());
+        assertEquals("Ingeniería en Software Renombrada", existente.getPrograma());
     }
 
     @Test
@@ -222,11 +465,87 @@ class DivisionServiceTest {
         verify(divisionRepository, times(1)).save(any(Division.class));
     }
 
+    @Test
+    void testDesactivarBulk_CascadaAProgramasYCoordinadores() {
+        // Arrange
+        when(divisionRepository.findIdsByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(1L, 2L));
+        when(divisionRepository.desactivar(eq(List.of(1L, 2L)), any(LocalDateTime.class))).thenReturn(2);
+        when(programaEducativaRepository.desactivarPorDivisionIdIn(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(5);
+        when(coordinadorRepository.findIdsActivosByDivisionIdIn(List.of(1L, 2L))).thenReturn(List.of(10L, 11L));
+        when(coordinadorRepository.desactivar(eq(List.of(10L, 11L)), any(LocalDateTime.class))).thenReturn(2);
+        when(cacheManager.getCache(CacheConfig.DIVISIONES)).thenReturn(cache);
+        when(cacheManager.getCache(CacheConfig.COORDINADORES)).thenReturn(cache);
+
+        // Act
+        OperacionBulkResultadoDto resultado = divisionService.desactivarBulk(List.of(1L, 2L, 3L), true);
+
+        // Assert
+        assertEquals(3, resultado.getSolicitados());
+        assertEquals(2, resultado.getActualizados());
+        assertEquals(5, resultado.getProgramasDesactivados());
+        assertEquals(2, resultado.getCoordinadoresDesactivados());
+        assertEquals(List.of(3L), resultado.getNoEncontrados());
+        verify(contadorCambiosService).registrarCambio(ContadorCambiosService.DIVISIONES);
+        verify(contadorCambiosService).registrarCambio(ContadorCambiosService.COORDINADORES);
+        verify(eventoCambioService).registrar(ContadorCambiosService.DIVISIONES, EventoCambio.BAJA, List.of(1L, 2L));
+        verify(eventoCambioService).registrar(ContadorCambiosService.COORDINADORES, EventoCambio.BAJA, List.of(10L, 11L));
+        verify(cache).evict(1L);
+        verify(cache).evict(2L);
+        verify(cache).evict(10L);
+        verify(cache).evict(11L);
+        verify(divisionRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testDesactivarBulk_SinCoordinadores() {
+        // Arrange
+        when(divisionRepository.findIdsByIdIn(Set.of(1L))).thenReturn(List.of(1L));
+        when(divisionRepository.desactivar(eq(List.of(1L)), any(LocalDateTime.class))).thenReturn(1);
+        when(cacheManager.getCache(CacheConfig.DIVISIONES)).thenReturn(cache);
+
+        // Act
+        OperacionBulkResultadoDto resultado = divisionService.desactivarBulk(List.of(1L), false);
+
+        // Assert
+        assertEquals(1, resultado.getActualizados());
+        assertNull(resultado.getCoordinadoresDesactivados());
+        verifyNoInteractions(coordinadorRepository);
+        verify(contadorCambiosService, never()).registrarCambio(ContadorCambiosService.COORDINADORES);
+    }
+
+    @Test
+    void testDesactivarBulk_ListaVacia() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> divisionService.desactivarBulk(List.of(), false));
+        verifyNoInteractions(divisionRepository);
+    }
+
+    @Test
+    void testToggleStatusBulk_UnUpdateSinTocarProgramas() {
+        // Arrange
+        when(divisionRepository.findIdsByIdIn(Set.of(1L, 2L))).thenReturn(List.of(1L));
+        when(divisionRepository.invertirEstado(eq(List.of(1L)), any(LocalDateTime.class))).thenReturn(1);
+        when(cacheManager.getCache(CacheConfig.DIVISIONES)).thenReturn(cache);
+
+        // Act
+        OperacionBulkResultadoDto resultado = divisionService.toggleStatusBulk(List.of(1L, 2L));
+
+        // Assert
+        assertEquals(1, resultado.getActualizados());
+        assertEquals(List.of(2L), resultado.getNoEncontrados());
+        verify(eventoCambioService).registrar(ContadorCambiosService.DIVISIONES, EventoCambio.CAMBIO_ESTADO, List.of(1L));
+        verify(cache).evict(1L);
+        verifyNoInteractions(programaEducativaRepository);
+    }
+
     @Test
     void testFindAllPaginated() {
         // Arrange
-        Page<Division> page = new PageImpl<>(Arrays.asList(division));
-        when(divisionRepository.findAll(any(Pageable.class))).thenReturn(page);
+        Page<DivisionResumenDto> page = new PageImpl<>(Arrays.asList(resumen));
+        when(divisionRepository.findResumenes(any(Pageable.class))).thenReturn(page);
+        when(programaEducativaRepository.findActivosByDivisionIdIn(Arrays.asList(1L)))
+                .thenReturn(Arrays.asList(new ProgramaNombreDto(1L, "Ingeniería en Software")));
 
         // Act
         Page<DivisionToViewListDto> result = divisionService.findAllPaginated(0, 10, "id");
@@ -234,14 +553,18 @@ class DivisionServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(divisionRepository, times(1)).findAll(any(Pageable.class));
+        assertEquals(1, result.getContent().get(0).getNumeroProgramas());
+        verify(divisionRepository, times(1)).findResumenes(any(Pageable.class));
+        verify(programaEducativaRepository, times(1)).findActivosByDivisionIdIn(Arrays.asList(1L));
     }
 
     @Test
     void testFindAllActivasPaginated() {
         // Arrange
-        Page<Division> page = new PageImpl<>(Arrays.asList(division));
-        when(divisionRepository.findByActivoTrue(any(Pageable.class))).thenReturn(page);
+        Page<DivisionResumenDto> page = new PageImpl<>(Arrays.asList(resumen));
+        when(divisionRepository.findResumenesByActivoTrue(any(Pageable.class))).thenReturn(page);
+        when(programaEducativaRepository.findActivosByDivisionIdIn(Arrays.asList(1L)))
+                .thenReturn(Arrays.asList(new ProgramaNombreDto(1L, "Ingeniería en Software")));
 
         // Act
         Page<DivisionToViewListDto> result = divisionService.findAllActivasPaginated(0, 10, "id");
@@ -249,6 +572,70 @@ class DivisionServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(divisionRepository, times(1)).findByActivoTrue(any(Pageable.class));
+        verify(divisionRepository, times(1)).findResumenesByActivoTrue(any(Pageable.class));
+    }
+
+    @Test
+    void testFindAll_SinProgramasNoConsultaProgramas() {
+        // Arrange
+        DivisionResumenDto vacia = new DivisionResumenDto(2L, "División Administrativa", true, 0L);
+        when(divisionRepository.findResumenes()).thenReturn(Arrays.asList(vacia));
+
+        // Act
+        List<DivisionToViewListDto> result = divisionService.findAll();
+
+        // Assert
+        assertEquals(1, result.size());
+        assertTrue(result.get(0).getProgramaEducativa().isEmpty());
+        assertEquals(0, result.get(0).getNumeroProgramas());
+        verify(programaEducativaRepository, never()).findActivosByDivisionIdIn(anyCollection());
+    }
+
+    @Test
+    void testFindDelta_LoteConMarcaAguaDeLaUltimaFila() {
+        // Arrange: se piden 1 y hay 2 modificadas; la segunda solo indica que hay más
+        ReflectionTestUtils.setField(divisionService, "margenDelta", Duration.ofSeconds(5));
+        LocalDateTime modificada = LocalDateTime.of(2025, 12, 4, 10, 30);
+        ReflectionTestUtils.setField(division, "actualizadoEn", modificada);
+        Division siguiente = new Division();
+        siguiente.setId(2L);
+        when(divisionRepository.findModificadasDesde(eq(LocalDateTime.of(2025, 12, 1, 0, 0)), eq(0L),
+                any(LocalDateTime.class), argThat(l -> l.max() == 2)))
+                .thenReturn(Arrays.asList(division, siguiente));
+        when(programaEducativaRepository.findActivosByDivisionIdIn(List.of(1L)))
+                .thenReturn(Arrays.asList(new ProgramaNombreDto(1L, "Ingeniería en Software")));
+
+        // Act
+        DeltaDto<DivisionToViewListDto> result = divisionService.findDelta("2025-12-01T00:00", 1);
+
+        // Assert
+        assertEquals(1, result.getContenido().size());
+        assertEquals(Arrays.asList("Ingeniería en Software"), result.getContenido().get(0).getProgramaEducativa());
+        assertEquals("2025-12-04T10:30_1", result.getMarcaAgua());
+        assertTrue(result.isHayMas());
+    }
+
+    @Test
+    void testFindDelta_SinCambios_ConservaLaMarcaAgua() {
+        // Arrange
+        ReflectionTestUtils.setField(divisionService, "margenDelta", Duration.ofSeconds(5));
+        when(divisionRepository.findModificadasDesde(any(), eq(7L), any(), any())).thenReturn(List.of());
+
+        // Act
+        DeltaDto<DivisionToViewListDto> result = divisionService.findDelta("2025-12-04T10:30_7", 100);
+
+        // Assert
+        assertTrue(result.getContenido().isEmpty());
+        assertEquals("2025-12-04T10:30_7", result.getMarcaAgua());
+        assertFalse(result.isHayMas());
+        verify(programaEducativaRepository, never()).findActivosByDivisionIdIn(anyCollection());
+    }
+
+    @Test
+    void testFindDelta_TamanoFueraDeRango() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> divisionService.findDelta(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> divisionService.findDelta(null, DivisionService.MAX_DELTA + 1));
+        verifyNoInteractions(divisionRepository);
     }
 }
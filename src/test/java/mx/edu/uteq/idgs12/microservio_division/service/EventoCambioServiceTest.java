@@ -0,0 +1,168 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionDistribuida;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.dto.EventoCambioDto;
+import mx.edu.uteq.idgs12.microservio_division.entity.EventoCambio;
+import mx.edu.uteq.idgs12.microservio_division.exception.CambiosDepuradosException;
+import mx.edu.uteq.idgs12.microservio_division.repository.EventoCambioRepository;
+
+@ExtendWith(MockitoExtension.class)
+class EventoCambioServiceTest {
+
+    @Mock
+    private EventoCambioRepository eventoCambioRepository;
+
+    @Mock
+    private ContadorCambiosService contadorCambiosService;
+
+    @Mock
+    private PublicadorCambios publicadorCambios;
+
+    @Mock
+    private InvalidacionDistribuida invalidacionDistribuida;
+
+    @InjectMocks
+    private EventoCambioService eventoCambioService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(eventoCambioService, "limitador",
+                new LimitadorConcurrenciaBd(2, 1, Duration.ofSeconds(5), new SimpleMeterRegistry()));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static EventoCambioDto evento(long secuencia) {
+        return new EventoCambioDto(secuencia, ContadorCambiosService.DIVISIONES, 7L, EventoCambio.ACTUALIZACION,
+                LocalDateTime.now());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRegistrar_GuardaEnLaTransaccionYPublicaDespuesDelCommit() {
+        // Act
+        eventoCambioService.registrar(ContadorCambiosService.COORDINADORES, EventoCambio.CREACION, List.of(3L, 4L));
+
+        // Assert: los eventos se insertan sin secuencia y la publicación espera al commit
+        ArgumentCaptor<List<EventoCambio>> guardados = ArgumentCaptor.forClass(List.class);
+        verify(eventoCambioRepository).saveAll(guardados.capture());
+        assertEquals(List.of(3L, 4L), guardados.getValue().stream().map(EventoCambio::getEntidadId).toList());
+        assertTrue(guardados.getValue().stream().allMatch(e -> e.getSecuencia() == null
+                && e.getOperacion().equals(EventoCambio.CREACION)));
+        verify(publicadorCambios, never()).solicitar();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(publicadorCambios).solicitar();
+    }
+
+    @Test
+    void testLeer_SinEventosNuevos_NoConsultaLaBase() {
+        // Arrange: la última secuencia viene del contador en cache
+        when(contadorCambiosService.obtener(ContadorCambiosService.EVENTOS)).thenReturn(10L);
+
+        // Act
+        List<EventoCambioDto> eventos = eventoCambioService.leer(10L, 100);
+
+        // Assert
+        assertTrue(eventos.isEmpty());
+        verifyNoInteractions(eventoCambioRepository);
+    }
+
+    @Test
+    void testLeer_DesdeLaSecuencia() {
+        // Arrange
+        when(contadorCambiosService.obtener(ContadorCambiosService.EVENTOS)).thenReturn(12L);
+        when(eventoCambioRepository.findPublicadosDesde(eq(10L), any(Limit.class)))
+                .thenReturn(List.of(evento(11L), evento(12L)));
+
+        // Act
+        List<EventoCambioDto> eventos = eventoCambioService.leer(10L, 100);
+
+        // Assert
+        assertEquals(List.of(11L, 12L), eventos.stream().map(EventoCambioDto::getSecuencia).toList());
+    }
+
+    @Test
+    void testLeer_EventosDepurados() {
+        // Arrange: la secuencia no tiene huecos; si falta desde + 1 es que ya se borró
+        when(contadorCambiosService.obtener(ContadorCambiosService.EVENTOS)).thenReturn(500L);
+        when(eventoCambioRepository.findPublicadosDesde(eq(3L), any(Limit.class))).thenReturn(List.of(evento(400L)));
+
+        // Act & Assert
+        assertThrows(CambiosDepuradosException.class, () -> eventoCambioService.leer(3L, 100));
+    }
+
+    @Test
+    void testLeer_ParametrosInvalidos() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> eventoCambioService.leer(-1L, 100));
+        assertThrows(IllegalArgumentException.class, () -> eventoCambioService.leer(0L, EventoCambioService.MAX_LOTE + 1));
+        assertThrows(IllegalArgumentException.class, () -> EventoCambioService.espera(61));
+    }
+
+    @Test
+    void testEsperar_DespiertaConLaInvalidacionDelContador() throws Exception {
+        // Arrange: nada nuevo hasta que se publica la secuencia 1
+        when(contadorCambiosService.obtener(ContadorCambiosService.EVENTOS)).thenReturn(0L, 1L);
+        when(eventoCambioRepository.findPublicadosDesde(eq(0L), any(Limit.class))).thenReturn(List.of(evento(1L)));
+
+        // Act
+        CompletableFuture<List<EventoCambioDto>> espera = CompletableFuture.supplyAsync(() -> {
+            try {
+                return eventoCambioService.esperar(0L, 100, Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // Otro cache no despierta a nadie
+        eventoCambioService.invalidado(CacheConfig.DIVISIONES, 1L);
+        Thread.sleep(100);
+        assertFalse(espera.isDone());
+        eventoCambioService.invalidado(CacheConfig.CONTADORES_CAMBIOS, ContadorCambiosService.EVENTOS);
+
+        // Assert: regresa mucho antes de los 30 segundos
+        assertEquals(1L, espera.get(5, TimeUnit.SECONDS).get(0).getSecuencia());
+    }
+
+    @Test
+    void testEsperar_SinPublicaciones_RegresaVacioAlTerminarElTiempo() throws Exception {
+        // Arrange
+        when(contadorCambiosService.obtener(ContadorCambiosService.EVENTOS)).thenReturn(5L);
+
+        // Act
+        List<EventoCambioDto> eventos = eventoCambioService.esperar(5L, 100, Duration.ofMillis(50));
+
+        // Assert
+        assertTrue(eventos.isEmpty());
+    }
+}
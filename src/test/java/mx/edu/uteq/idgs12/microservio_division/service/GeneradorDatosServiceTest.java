@@ -0,0 +1,114 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.entity.CoordinadorEntity;
+import mx.edu.uteq.idgs12.microservio_division.entity.Division;
+import mx.edu.uteq.idgs12.microservio_division.repository.CoordinadorRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class GeneradorDatosServiceTest {
+
+    @Mock
+    private DivisionRepository divisionRepository;
+
+    @Mock
+    private CoordinadorRepository coordinadorRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private ContadorCambiosService contadorCambiosService;
+
+    @InjectMocks
+    private GeneradorDatosService generadorDatosService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(generadorDatosService, "divisiones", 5);
+        ReflectionTestUtils.setField(generadorDatosService, "programasPorDivision", 3);
+        ReflectionTestUtils.setField(generadorDatosService, "coordinadores", 7);
+        ReflectionTestUtils.setField(generadorDatosService, "tamanoLote", 4);
+        ReflectionTestUtils.setField(generadorDatosService, "semilla", 42L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void ejecutarTransacciones() {
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void testGenerar_CompletaLosVolumenesPorLotes() {
+        // Arrange
+        ejecutarTransacciones();
+        when(cacheManager.getCache(CacheConfig.DIVISIONES_LISTAS)).thenReturn(cache);
+        when(divisionRepository.count()).thenReturn(1L);
+        when(divisionRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L, 4L, 5L));
+        when(coordinadorRepository.count()).thenReturn(0L);
+
+        // Act
+        generadorDatosService.generar();
+
+        // Assert: 4 divisiones nuevas (un lote) y 7 coordinadores (dos lotes)
+        ArgumentCaptor<Object> persistidos = ArgumentCaptor.forClass(Object.class);
+        verify(entityManager, times(11)).persist(persistidos.capture());
+        List<Division> divisiones = persistidos.getAllValues().stream()
+                .filter(Division.class::isInstance).map(Division.class::cast).toList();
+        assertEquals(4, divisiones.size());
+        assertEquals(3, divisiones.get(0).getProgramaEducativas().size());
+        assertTrue(persistidos.getAllValues().stream()
+                .filter(CoordinadorEntity.class::isInstance).map(CoordinadorEntity.class::cast)
+                .allMatch(c -> c.getDivisionId() >= 1 && c.getDivisionId() <= 5));
+        verify(transactionTemplate, times(3)).executeWithoutResult(any());
+        verify(contadorCambiosService, times(1)).registrarCambio(ContadorCambiosService.DIVISIONES);
+        verify(contadorCambiosService, times(2)).registrarCambio(ContadorCambiosService.COORDINADORES);
+    }
+
+    @Test
+    void testGenerar_NoInsertaSiYaHayDatos() {
+        // Arrange
+        when(divisionRepository.count()).thenReturn(5L);
+        when(divisionRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L, 4L, 5L));
+        when(coordinadorRepository.count()).thenReturn(7L);
+
+        // Act
+        generadorDatosService.generar();
+
+        // Assert
+        verifyNoInteractions(transactionTemplate, entityManager, contadorCambiosService);
+    }
+}
@@ -0,0 +1,203 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionDistribuida;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionResumenDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.DivisionToViewListDto;
+import mx.edu.uteq.idgs12.microservio_division.dto.ProgramaNombreDto;
+import mx.edu.uteq.idgs12.microservio_division.repository.DivisionRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.ProgramaEducativaRepository;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceBusquedaDivisionesTest {
+
+    @Mock
+    private DivisionRepository divisionRepository;
+
+    @Mock
+    private ProgramaEducativaRepository programaEducativaRepository;
+
+    @Mock
+    private InvalidacionDistribuida invalidacionDistribuida;
+
+    @InjectMocks
+    private IndiceBusquedaDivisiones indice;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(indice, "limitador",
+                new LimitadorConcurrenciaBd(2, 1, Duration.ofSeconds(5), new SimpleMeterRegistry()));
+    }
+
+    // Cargar el índice en el hilo de la prueba
+    private void cargar(List<DivisionResumenDto> divisiones, List<ProgramaNombreDto> programas) {
+        when(divisionRepository.findResumenes()).thenReturn(divisiones);
+        when(programaEducativaRepository.findActivosByDivisionIdIn(anyCollection())).thenReturn(programas);
+        indice.cargar();
+    }
+
+    private List<String> nombres(Optional<List<DivisionToViewListDto>> resultado) {
+        return resultado.orElseThrow().stream().map(DivisionToViewListDto::getNombre).toList();
+    }
+
+    @Test
+    void testBuscar_SinCargar_UsaLaBaseYCargaEnSegundoPlano() {
+        // Arrange
+        when(divisionRepository.findResumenes())
+                .thenReturn(List.of(new DivisionResumenDto(1L, "Tecnologías", true, 0L)));
+
+        // Act: Optional.empty() indica al servicio que consulte la base
+        Optional<List<DivisionToViewListDto>> enFrio = indice.buscar("tecnologías");
+
+        // Assert
+        assertTrue(enFrio.isEmpty());
+        verify(divisionRepository, timeout(5000)).findResumenes();
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!indice.isListo() && System.nanoTime() < limite) {
+            Thread.onSpinWait();
+        }
+        assertEquals(List.of("Tecnologías"), nombres(indice.buscar("tecnologías")));
+    }
+
+    @Test
+    void testBuscar_IgnoraAcentosMayusculasYEspacios() {
+        // Arrange
+        cargar(List.of(new DivisionResumenDto(1L, "DIVISIÓN DE TECNOLOGÍAS", true, 1L)),
+                List.of(new ProgramaNombreDto(1L, "Ingeniería en Software")));
+
+        // Act & Assert
+        assertEquals(List.of("DIVISIÓN DE TECNOLOGÍAS"), nombres(indice.buscar("tecnologias")));
+        assertEquals(List.of("DIVISIÓN DE TECNOLOGÍAS"), nombres(indice.buscar("  División   de TECNO")));
+        assertEquals(List.of("DIVISIÓN DE TECNOLOGÍAS"), nombres(indice.buscar("ingenieria")));
+        assertTrue(indice.buscar("mecatrónica").orElseThrow().isEmpty());
+    }
+
+    @Test
+    void testBuscar_OrdenaPorRelevancia() {
+        // Arrange
+        cargar(List.of(
+                new DivisionResumenDto(1L, "Industrial", true, 1L),
+                new DivisionResumenDto(2L, "Biotecnologías", true, 0L),
+                new DivisionResumenDto(3L, "División de Tecnologías", true, 0L),
+                new DivisionResumenDto(4L, "Tecnologías de la Información", false, 0L),
+                new DivisionResumenDto(5L, "Tecnologías", true, 0L),
+                new DivisionResumenDto(6L, "Económico Administrativa", true, 0L)),
+                List.of(new ProgramaNombreDto(1L, "Tecnologías Ambientales")));
+
+        // Act
+        Optional<List<DivisionToViewListDto>> resultado = indice.buscar("Tecnologías");
+
+        // Assert: igual, prefijo, palabra, subcadena y al final el programa
+        assertEquals(List.of("Tecnologías", "Tecnologías de la Información", "División de Tecnologías",
+                "Biotecnologías", "Industrial"), nombres(resultado));
+        assertEquals(List.of("Tecnologías Ambientales"), resultado.get().get(4).getProgramaEducativa());
+    }
+
+    @Test
+    void testBuscar_ConsultaCorta_RevisaTodas() {
+        // Arrange
+        cargar(List.of(
+                new DivisionResumenDto(1L, "Tecnologías", true, 0L),
+                new DivisionResumenDto(2L, "Industrial", true, 0L),
+                new DivisionResumenDto(3L, "Económico", true, 0L)),
+                List.of());
+
+        // Act & Assert: "in" no forma un trigrama
+        assertEquals(List.of("Industrial"), nombres(indice.buscar("in")));
+        assertEquals(3, indice.buscar("").orElseThrow().size());
+    }
+
+    @Test
+    void testBuscar_PaginadaOrdenaPorLaColumnaPedida() {
+        // Arrange: relevancias distintas (igual, prefijo, subcadena); la columna pedida manda sobre ellas
+        cargar(List.of(
+                new DivisionResumenDto(1L, "Zona Tecnológica", true, 0L),
+                new DivisionResumenDto(2L, "Tecnológica", false, 0L),
+                new DivisionResumenDto(3L, "Tecnológica del Norte", true, 0L)),
+                List.of());
+
+        // Act & Assert
+        assertEquals(List.of("Tecnológica", "Tecnológica del Norte", "Zona Tecnológica"),
+                nombres(indice.buscar("tecnologica")));
+        assertEquals(List.of("Zona Tecnológica", "Tecnológica", "Tecnológica del Norte"),
+                nombres(indice.buscar("tecnologica", "id")));
+        assertEquals(List.of("Tecnológica", "Tecnológica del Norte", "Zona Tecnológica"),
+                nombres(indice.buscar("tecnologica", "nombre")));
+        assertEquals(List.of("Tecnológica", "Zona Tecnológica", "Tecnológica del Norte"),
+                nombres(indice.buscar("tecnologica", "activo")));
+        assertThrows(IllegalArgumentException.class, () -> indice.buscar("tecnologica", "programas"));
+    }
+
+    @Test
+    void testCargar_LasBusquedasDuranteLaRecargaVenElIndiceAnterior() {
+        // Arrange
+        cargar(List.of(new DivisionResumenDto(1L, "Tecnologías", true, 0L)), List.of());
+        List<List<String>> duranteLaCarga = new ArrayList<>();
+        when(divisionRepository.findResumenes()).thenAnswer(invocacion -> {
+            duranteLaCarga.add(nombres(indice.buscar("tecnologias")));
+            return List.of(new DivisionResumenDto(1L, "Tecnologías Renovadas", true, 0L));
+        });
+
+        // Act
+        indice.cargar();
+
+        // Assert: el índice anterior completo mientras se lee el nuevo, y después el nuevo
+        assertEquals(List.of(List.of("Tecnologías")), duranteLaCarga);
+        assertEquals(List.of("Tecnologías Renovadas"), nombres(indice.buscar("tecnologias")));
+    }
+
+    @Test
+    void testInvalidado_RecargaSoloLaDivisionAfectada() {
+        // Arrange
+        cargar(List.of(
+                new DivisionResumenDto(1L, "Tecnologías", true, 0L),
+                new DivisionResumenDto(2L, "Industrial", true, 0L)),
+                List.of());
+        when(divisionRepository.findResumenesByIdIn(List.of(2L)))
+                .thenReturn(List.of(new DivisionResumenDto(2L, "Mecatrónica", false, 0L)));
+
+        // Act: invalidación del cache de divisiones (local o de otra réplica) y de otro cache
+        indice.invalidado(CacheConfig.DIVISIONES, 2L);
+        indice.invalidado(CacheConfig.COORDINADORES, 1L);
+        List<String> mecatronica = nombres(indice.buscar("mecatronica"));
+        List<String> industrial = nombres(indice.buscar("industrial"));
+
+        // Assert: una sola consulta para el ID pendiente
+        assertEquals(List.of("Mecatrónica"), mecatronica);
+        assertTrue(industrial.isEmpty());
+        verify(divisionRepository, times(1)).findResumenesByIdIn(anyCollection());
+        verify(divisionRepository, times(1)).findResumenes();
+    }
+
+    @Test
+    void testInvalidado_DivisionInexistente_SeQuita() {
+        // Arrange
+        cargar(List.of(new DivisionResumenDto(1L, "Tecnologías", true, 0L)), List.of());
+        when(divisionRepository.findResumenesByIdIn(List.of(1L))).thenReturn(List.of());
+
+        // Act
+        indice.invalidado(CacheConfig.DIVISIONES, 1L);
+
+        // Assert
+        assertTrue(indice.buscar("tecnologias").orElseThrow().isEmpty());
+    }
+}
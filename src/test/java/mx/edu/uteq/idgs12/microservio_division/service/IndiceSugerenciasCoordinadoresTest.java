@@ -0,0 +1,177 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mx.edu.uteq.idgs12.microservio_division.cache.InvalidacionDistribuida;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.dto.CoordinadorSugerenciaDto;
+import mx.edu.uteq.idgs12.microservio_division.repository.CoordinadorRepository;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceSugerenciasCoordinadoresTest {
+
+    @Mock
+    private CoordinadorRepository coordinadorRepository;
+
+    @Mock
+    private InvalidacionDistribuida invalidacionDistribuida;
+
+    @InjectMocks
+    private IndiceSugerenciasCoordinadores indice;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(indice, "limitador",
+                new LimitadorConcurrenciaBd(2, 1, Duration.ofSeconds(5), new SimpleMeterRegistry()));
+    }
+
+    private static CoordinadorSugerenciaDto coordinador(long id, String nombre, String apellido, String correo,
+            long divisionId, boolean activo) {
+        return new CoordinadorSugerenciaDto(id, nombre, apellido, correo, divisionId, activo);
+    }
+
+    // Cargar el índice en el hilo de la prueba
+    private void cargar(CoordinadorSugerenciaDto... coordinadores) {
+        when(coordinadorRepository.findSugerenciasDesde(eq(0L), any(Limit.class))).thenReturn(List.of(coordinadores));
+        indice.cargar();
+    }
+
+    private List<Long> ids(Optional<List<CoordinadorSugerenciaDto>> sugerencias) {
+        return sugerencias.orElseThrow().stream().map(CoordinadorSugerenciaDto::getId).toList();
+    }
+
+    @Test
+    void testBuscar_SinCargar_UsaLaBaseYCargaEnSegundoPlano() {
+        // Arrange
+        when(coordinadorRepository.findSugerenciasDesde(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(coordinador(1L, "Juan", "Pérez", "juan.perez@uteq.edu.mx", 1L, true)));
+
+        // Act: Optional.empty() indica al servicio que consulte la base
+        Optional<List<CoordinadorSugerenciaDto>> enFrio = indice.buscar("jua", null, null, 10);
+
+        // Assert
+        assertTrue(enFrio.isEmpty());
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!indice.isListo() && System.nanoTime() < limite) {
+            Thread.onSpinWait();
+        }
+        assertEquals(List.of(1L), ids(indice.buscar("jua", null, null, 10)));
+    }
+
+    @Test
+    void testCargar_LeePorBloquesDeLlave() {
+        // Arrange: un bloque lleno obliga a pedir el siguiente a partir del último ID
+        List<CoordinadorSugerenciaDto> bloque = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            bloque.add(coordinador(id, "Nombre" + id, "Apellido", "c" + id + "@uteq.edu.mx", 1L, true));
+        }
+        when(coordinadorRepository.findSugerenciasDesde(eq(0L), any(Limit.class))).thenReturn(bloque);
+        when(coordinadorRepository.findSugerenciasDesde(eq(5000L), any(Limit.class)))
+                .thenReturn(List.of(coordinador(7000L, "Zoe", "Apellido", "zoe@uteq.edu.mx", 1L, true)));
+
+        // Act
+        indice.cargar();
+
+        // Assert
+        assertEquals(List.of(7000L), ids(indice.buscar("zoe", null, null, 10)));
+        verify(coordinadorRepository, times(2)).findSugerenciasDesde(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void testBuscar_PrefijoDeNombreApellidoYCorreo_SinAcentos() {
+        // Arrange
+        cargar(coordinador(1L, "Juan", "Pérez López", "juan.perez@uteq.edu.mx", 1L, true),
+                coordinador(2L, "María José", "Ángeles", "mjangeles@uteq.edu.mx", 2L, true));
+
+        // Act & Assert
+        assertEquals(List.of(1L), ids(indice.buscar("LOP", null, null, 10)));
+        assertEquals(List.of(2L), ids(indice.buscar("angel", null, null, 10)));
+        assertEquals(List.of(2L), ids(indice.buscar("jose", null, null, 10)));
+        assertEquals(List.of(1L), ids(indice.buscar("juan.perez@ut", null, null, 10)));
+        // Partes del usuario del correo, pero no el dominio
+        assertEquals(List.of(1L), ids(indice.buscar("perez", null, null, 10)));
+        assertTrue(indice.buscar("uteq", null, null, 10).orElseThrow().isEmpty());
+        // Una palabra en medio no es prefijo
+        assertTrue(indice.buscar("uan", null, null, 10).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void testBuscar_VariasPalabras_TodasDebenCoincidir() {
+        // Arrange
+        cargar(coordinador(1L, "Ana", "Pérez", "ana.perez@uteq.edu.mx", 1L, true),
+                coordinador(2L, "Ana", "Ruiz", "ana.ruiz@uteq.edu.mx", 1L, true),
+                coordinador(3L, "Luis", "Pérez", "luis@uteq.edu.mx", 1L, true));
+
+        // Act & Assert
+        assertEquals(List.of(1L), ids(indice.buscar("ana pe", null, null, 10)));
+        assertEquals(List.of(1L), ids(indice.buscar("pe  ANA", null, null, 10)));
+    }
+
+    @Test
+    void testBuscar_OrdenAlfabeticoFiltrosYLimite() {
+        // Arrange
+        cargar(coordinador(1L, "Anabel", "Ruiz", "anabel@uteq.edu.mx", 1L, true),
+                coordinador(2L, "Ana", "Díaz", "adiaz@uteq.edu.mx", 1L, true),
+                coordinador(3L, "Andrés", "Soto", "asoto@uteq.edu.mx", 2L, true),
+                coordinador(4L, "Ana", "Mora", "amora@uteq.edu.mx", 1L, false));
+
+        // Act & Assert: "ana" antes que "anabel" y "andres"
+        assertEquals(List.of(2L, 4L, 1L, 3L), ids(indice.buscar("an", null, null, 10)));
+        assertEquals(List.of(2L, 4L), ids(indice.buscar("an", null, null, 2)));
+        assertEquals(List.of(3L), ids(indice.buscar("an", 2L, null, 10)));
+        assertEquals(List.of(4L), ids(indice.buscar("an", null, false, 10)));
+        assertEquals(List.of(2L, 1L), ids(indice.buscar("an", 1L, true, 10)));
+    }
+
+    @Test
+    void testInvalidado_RecargaSoloElCoordinadorAfectado() {
+        // Arrange
+        cargar(coordinador(1L, "Juan", "Pérez", "juan@uteq.edu.mx", 1L, true),
+                coordinador(2L, "Luis", "Soto", "luis@uteq.edu.mx", 1L, true));
+        when(coordinadorRepository.findSugerenciasByIdIn(List.of(2L)))
+                .thenReturn(List.of(coordinador(2L, "Luisa", "Soto", "luisa@uteq.edu.mx", 2L, false)));
+
+        // Act: invalidación del cache de coordinadores (local o de otra réplica) y de otro cache
+        indice.invalidado(CacheConfig.COORDINADORES, 2L);
+        indice.invalidado(CacheConfig.DIVISIONES, 1L);
+        List<CoordinadorSugerenciaDto> luisa = indice.buscar("luisa", 2L, false, 10).orElseThrow();
+        List<Long> soto = ids(indice.buscar("soto", 1L, null, 10));
+
+        // Assert: una sola consulta para el ID pendiente y el correo anterior ya no aparece
+        assertEquals("luisa@uteq.edu.mx", luisa.get(0).getCorreo());
+        assertTrue(soto.isEmpty());
+        assertTrue(indice.buscar("luis@", null, null, 10).orElseThrow().isEmpty());
+        verify(coordinadorRepository, times(1)).findSugerenciasByIdIn(anyCollection());
+    }
+
+    @Test
+    void testInvalidado_CoordinadorInexistente_SeQuita() {
+        // Arrange
+        cargar(coordinador(1L, "Juan", "Pérez", "juan@uteq.edu.mx", 1L, true));
+        when(coordinadorRepository.findSugerenciasByIdIn(List.of(1L))).thenReturn(List.of());
+
+        // Act
+        indice.invalidado(CacheConfig.COORDINADORES, 1L);
+
+        // Assert
+        assertTrue(indice.buscar("juan", null, null, 10).orElseThrow().isEmpty());
+    }
+}
@@ -0,0 +1,47 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+class MarcaAguaTest {
+
+    @Test
+    void testParse_SinSinceIniciaDesdeElPrincipio() {
+        // Act & Assert
+        assertEquals(MarcaAgua.INICIO, MarcaAgua.parse(null));
+        assertEquals(MarcaAgua.INICIO, MarcaAgua.parse(" "));
+    }
+
+    @Test
+    void testParse_SoloFecha() {
+        // Act
+        MarcaAgua marca = MarcaAgua.parse("2025-12-04T10:30:00");
+
+        // Assert: todas las filas de esa fecha en adelante
+        assertEquals(LocalDateTime.of(2025, 12, 4, 10, 30), marca.instante());
+        assertEquals(0L, marca.id());
+    }
+
+    @Test
+    void testToString_IdaYVuelta() {
+        // Arrange
+        MarcaAgua marca = new MarcaAgua(LocalDateTime.of(2025, 12, 4, 10, 30, 0, 123456000), 42L);
+
+        // Act
+        String texto = marca.toString();
+
+        // Assert
+        assertEquals("2025-12-04T10:30:00.123456_42", texto);
+        assertEquals(marca, MarcaAgua.parse(texto));
+    }
+
+    @Test
+    void testParse_Invalida() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> MarcaAgua.parse("ayer"));
+        assertThrows(IllegalArgumentException.class, () -> MarcaAgua.parse("2025-12-04T10:30:00_x"));
+    }
+}
@@ -0,0 +1,120 @@
+package mx.edu.uteq.idgs12.microservio_division.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mx.edu.uteq.idgs12.microservio_division.concurrencia.LimitadorConcurrenciaBd;
+import mx.edu.uteq.idgs12.microservio_division.config.CacheConfig;
+import mx.edu.uteq.idgs12.microservio_division.entity.ContadorCambios;
+import mx.edu.uteq.idgs12.microservio_division.entity.EventoCambio;
+import mx.edu.uteq.idgs12.microservio_division.repository.ContadorCambiosRepository;
+import mx.edu.uteq.idgs12.microservio_division.repository.EventoCambioRepository;
+
+@ExtendWith(MockitoExtension.class)
+class PublicadorCambiosTest {
+
+    @Mock
+    private EventoCambioRepository eventoCambioRepository;
+
+    @Mock
+    private ContadorCambiosRepository contadorCambiosRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private PublicadorCambios publicadorCambios;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(publicadorCambios, "limitador",
+                new LimitadorConcurrenciaBd(2, 1, Duration.ofSeconds(5), new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(publicadorCambios, "tamanoLote", 2);
+        // Ejecutar el callback de la transacción en el mismo hilo
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(mock(TransactionStatus.class)));
+    }
+
+    private static EventoCambio pendiente(long id) {
+        EventoCambio evento = new EventoCambio(ContadorCambiosService.DIVISIONES, id, EventoCambio.CREACION,
+                LocalDateTime.now());
+        evento.setId(id);
+        return evento;
+    }
+
+    @Test
+    void testPublicar_AsignaSecuenciasConsecutivasPorLotes() {
+        // Arrange: 3 pendientes en lotes de 2; la última secuencia publicada es 40
+        List<EventoCambio> eventos = List.of(pendiente(1L), pendiente(2L), pendiente(3L));
+        List<EventoCambio> sinPublicar = new ArrayList<>(eventos);
+        when(eventoCambioRepository.findPendientes(any(Limit.class))).thenAnswer(invocation -> {
+            int limite = invocation.<Limit>getArgument(0).max();
+            return List.copyOf(sinPublicar.stream().filter(e -> e.getSecuencia() == null).limit(limite).toList());
+        });
+        ContadorCambios contador = new ContadorCambios(ContadorCambiosService.EVENTOS, 40L);
+        when(contadorCambiosRepository.bloquear(ContadorCambiosService.EVENTOS)).thenReturn(Optional.of(contador));
+        when(cacheManager.getCache(CacheConfig.CONTADORES_CAMBIOS)).thenReturn(cache);
+
+        // Act
+        int publicados = publicadorCambios.publicar();
+
+        // Assert: sin huecos y en orden de inserción; cada lote invalida el contador del feed
+        assertEquals(3, publicados);
+        assertEquals(List.of(41L, 42L, 43L), eventos.stream().map(EventoCambio::getSecuencia).toList());
+        assertEquals(43L, contador.getCambios());
+        verify(contadorCambiosRepository, times(2)).bloquear(ContadorCambiosService.EVENTOS);
+        verify(cache, times(2)).evict(ContadorCambiosService.EVENTOS);
+    }
+
+    @Test
+    void testPublicar_SinPendientes_NoBloqueaElContador() {
+        // Arrange
+        when(eventoCambioRepository.findPendientes(any(Limit.class))).thenReturn(List.of());
+
+        // Act
+        int publicados = publicadorCambios.publicar();
+
+        // Assert
+        assertEquals(0, publicados);
+        verify(contadorCambiosRepository, never()).bloquear(anyString());
+        verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    void testPublicar_ErrorDeLaBase_QuedanPendientes() {
+        // Arrange
+        when(eventoCambioRepository.findPendientes(any(Limit.class))).thenThrow(new IllegalStateException("sin conexión"));
+
+        // Act & Assert: el error no sale del hilo del publicador; el siguiente barrido reintenta
+        assertEquals(0, publicadorCambios.publicar());
+    }
+}